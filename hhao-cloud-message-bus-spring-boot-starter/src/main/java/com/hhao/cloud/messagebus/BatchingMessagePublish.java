@@ -0,0 +1,289 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus;
+
+import com.hhao.cloud.messagebus.config.Constants;
+import com.hhao.cloud.messagebus.config.MessageBusProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 批量发布
+ * 按binding累积消息，达到batchSize或等待超过linger时由后台线程批量发送，每条消息返回一个CompletableFuture：
+ * 启用confirm时逐条带CorrelationData发送，在broker确认后完成，nack或被退回时异常完成；
+ * 未启用时在交给binder后完成，Rabbit binder按同样的batchSize、linger把消息合并为一条AMQP消息(见Provider.brokerBatching)；
+ * 每个binding最多缓存maxPending条未发送的消息，满时调用方最多等待sendTimeout，超时Future以RejectedExecutionException完成；
+ * 发送线程可有多个，binding按名称固定分配到其中一个，同一binding的消息按加入顺序发送
+ *
+ * @author Wang
+ * @since 2026/10/18 19:40
+ */
+public class BatchingMessagePublish implements DisposableBean {
+    protected final Logger logger = LoggerFactory.getLogger(BatchingMessagePublish.class);
+    private static final MessageBusProperties.TopicProperty.Provider DEFAULT_PROVIDER = new MessageBusProperties.TopicProperty.Provider();
+    private final StreamBridge streamBridge;
+    private final Map<String, MessageBusProperties.TopicProperty.Provider> providers = new HashMap<>();
+    private final Set<String> loopbackBindings = new HashSet<>();
+    private final ConcurrentMap<String, Batch> batches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService[] executors;
+
+    /**
+     * Instantiates a new Batching message publish.
+     *
+     * @param streamBridge         the stream bridge
+     * @param messageBusProperties the message bus properties
+     */
+    public BatchingMessagePublish(StreamBridge streamBridge, MessageBusProperties messageBusProperties) {
+        this(streamBridge, messageBusProperties, 1);
+    }
+
+    /**
+     * Instantiates a new Batching message publish.
+     *
+     * @param streamBridge         the stream bridge
+     * @param messageBusProperties the message bus properties
+     * @param threads              发送线程数
+     */
+    public BatchingMessagePublish(StreamBridge streamBridge, MessageBusProperties messageBusProperties, int threads) {
+        this.streamBridge = streamBridge;
+        if (messageBusProperties.getTopics() != null) {
+            for (MessageBusProperties.TopicProperty topic : messageBusProperties.getTopics()) {
+                if (topic.getProvider() != null) {
+                    providers.put(topic.getProvider().getBindingName(), topic.getProvider());
+                    if (topic.getInitDefaultProvider()) {
+                        providers.put(topic.getDefaultBindingName(), topic.getProvider());
+                    }
+                    //loopback不经过broker，没有发布确认
+                    if (topic.getLoopback()) {
+                        loopbackBindings.add(topic.getProvider().getBindingName());
+                        loopbackBindings.add(topic.getDefaultBindingName());
+                    }
+                }
+            }
+        }
+        this.executors = new ScheduledExecutorService[Math.max(1, threads)];
+        for (int i = 0; i < executors.length; i++) {
+            String name = "message-bus-batching-" + i;
+            executors[i] = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * 按topic的默认binding发送
+     *
+     * @param topic the topic
+     * @param data  the data
+     * @return the completable future
+     */
+    public CompletableFuture<Void> sendByTopic(String topic, Object data) {
+        return send(topic + Constants.OUT_TAG + "0", data);
+    }
+
+    /**
+     * 按分区键发送，同一binding的消息按加入顺序发送，同一key的消息保持有序
+     *
+     * @param topic the topic
+     * @param key   the key
+     * @param data  the data
+     * @return the completable future
+     */
+    public CompletableFuture<Void> sendByTopic(String topic, Object key, Object data) {
+        return send(topic + Constants.OUT_TAG + "0", MessagePublish.withPartitionKey(key, data));
+    }
+
+    /**
+     * 加入binding的当前批次，缓存已满时最多等待sendTimeout
+     *
+     * @param bindingName the binding name
+     * @param data        the data
+     * @return the completable future
+     */
+    public CompletableFuture<Void> send(String bindingName, Object data) {
+        Batch batch = batches.computeIfAbsent(bindingName, key -> new Batch(key, providers.getOrDefault(key, DEFAULT_PROVIDER)));
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (batch.acquire(future)) {
+            batch.add(new Pending(data, future));
+        }
+        return future;
+    }
+
+    /**
+     * 立即发送所有未发送的消息
+     */
+    public void flush() {
+        for (Batch batch : batches.values()) {
+            batch.flush();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (ScheduledExecutorService executor : executors) {
+            executor.shutdown();
+        }
+        try {
+            for (ScheduledExecutorService executor : executors) {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void publish(String bindingName, boolean confirm, List<Pending> messages) {
+        for (Pending pending : messages) {
+            try {
+                if (confirm) {
+                    CorrelationData correlationData = new CorrelationData();
+                    correlationData.getFuture().addCallback(result -> {
+                        if (result != null && result.isAck() && correlationData.getReturned() == null) {
+                            pending.future.complete(null);
+                        } else {
+                            String reason = correlationData.getReturned() != null ? "returned: " + correlationData.getReturned().getReplyText()
+                                    : "nack: " + (result == null ? null : result.getReason());
+                            pending.future.completeExceptionally(new IllegalStateException("Message to " + bindingName + " not confirmed, " + reason));
+                        }
+                    }, pending.future::completeExceptionally);
+                    if (!streamBridge.send(bindingName, toMessage(pending.data, correlationData))) {
+                        pending.future.completeExceptionally(new IllegalStateException("Failed to send message to " + bindingName));
+                    }
+                } else if (streamBridge.send(bindingName, pending.data)) {
+                    pending.future.complete(null);
+                } else {
+                    pending.future.completeExceptionally(new IllegalStateException("Failed to send message to " + bindingName));
+                }
+            } catch (Exception e) {
+                pending.future.completeExceptionally(e);
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("published batch of {} messages to {}", messages.size(), bindingName);
+        }
+    }
+
+    private Message<?> toMessage(Object data, CorrelationData correlationData) {
+        MessageBuilder<?> builder = data instanceof Message ? MessageBuilder.fromMessage((Message<?>) data) : MessageBuilder.withPayload(data);
+        return builder.setHeader(AmqpHeaders.PUBLISH_CONFIRM_CORRELATION, correlationData).build();
+    }
+
+    private class Batch {
+        private final String bindingName;
+        private final MessageBusProperties.TopicProperty.Provider provider;
+        private final boolean confirm;
+        private final ScheduledExecutorService executor;
+        private final Semaphore permits;
+        private final Object publishLock = new Object();
+        private final AtomicInteger scheduled = new AtomicInteger();
+        private List<Pending> messages;
+
+        Batch(String bindingName, MessageBusProperties.TopicProperty.Provider provider) {
+            this.bindingName = bindingName;
+            this.provider = provider;
+            this.confirm = provider.getConfirm() && !loopbackBindings.contains(bindingName);
+            this.executor = executors[Math.floorMod(bindingName.hashCode(), executors.length)];
+            this.permits = new Semaphore(Math.max(1, provider.getMaxPending()));
+            this.messages = new ArrayList<>(provider.getBatchSize());
+        }
+
+        //缓存满时等待，超时则以失败完成Future
+        boolean acquire(CompletableFuture<Void> future) {
+            Duration timeout = provider.getSendTimeout();
+            try {
+                if (permits.tryAcquire() || (timeout != null && !timeout.isZero() && permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS))) {
+                    return true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            future.completeExceptionally(new RejectedExecutionException("Too many pending messages for " + bindingName));
+            return false;
+        }
+
+        void add(Pending pending) {
+            int size;
+            synchronized (this) {
+                messages.add(pending);
+                size = messages.size();
+            }
+            if (size >= provider.getBatchSize()) {
+                executor.execute(this::flush);
+            } else if (size == 1 && scheduled.compareAndSet(0, 1)) {
+                Duration linger = provider.getLinger();
+                executor.schedule(() -> {
+                    scheduled.set(0);
+                    flush();
+                }, linger.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        //发送线程与调用flush的线程可能并发，串行发送以保持顺序
+        void flush() {
+            synchronized (publishLock) {
+                List<Pending> drained;
+                synchronized (this) {
+                    if (messages.isEmpty()) {
+                        return;
+                    }
+                    drained = messages;
+                    messages = new ArrayList<>(provider.getBatchSize());
+                }
+                try {
+                    publish(bindingName, confirm, drained);
+                } finally {
+                    permits.release(drained.size());
+                }
+            }
+        }
+    }
+
+    private static class Pending {
+        private final Object data;
+        private final CompletableFuture<Void> future;
+
+        Pending(Object data, CompletableFuture<Void> future) {
+            this.data = data;
+            this.future = future;
+        }
+    }
+}
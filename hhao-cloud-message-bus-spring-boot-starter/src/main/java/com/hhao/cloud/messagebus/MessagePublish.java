@@ -18,6 +18,8 @@ import com.hhao.cloud.messagebus.config.Constants;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.MimeType;
 
@@ -44,6 +46,30 @@ public class MessagePublish {
         return streamBridge.send(topic + Constants.OUT_TAG + "0",data);
     }
 
+    /**
+     * 按分区键发送，同一key的消息进入同一分区，由同一消费者按序处理
+     *
+     * @param topic the topic
+     * @param key   the key
+     * @param data  the data
+     * @return the boolean
+     */
+    public static boolean sendByTopic(String topic,Object key,Object data){
+        return streamBridge.send(topic + Constants.OUT_TAG + "0",withPartitionKey(key,data));
+    }
+
+    /**
+     * 设置分区键消息头
+     *
+     * @param key  the key
+     * @param data the data
+     * @return the message
+     */
+    public static Message<?> withPartitionKey(Object key,Object data){
+        MessageBuilder<?> builder = data instanceof Message ? MessageBuilder.fromMessage((Message<?>) data) : MessageBuilder.withPayload(data);
+        return builder.setHeader(Constants.PARTITION_KEY_HEADER,key).build();
+    }
+
     public static boolean send(String bindingName,Object data){
         return streamBridge.send(bindingName,data);
     }
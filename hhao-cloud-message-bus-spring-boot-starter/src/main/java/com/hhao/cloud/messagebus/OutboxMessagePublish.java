@@ -0,0 +1,334 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hhao.cloud.messagebus.config.Constants;
+import com.hhao.cloud.messagebus.config.MessageBusConfigProperties;
+import com.hhao.cloud.messagebus.outbox.OutboxLog;
+import com.hhao.cloud.messagebus.outbox.OutboxRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * outbox发布
+ * 调用方只把消息追加到本地的OutboxLog(内存映射文件)，由后台转发线程按写入顺序批量通过StreamBridge发送，
+ * 发送时带上CorrelationData(启用outbox时所有非loopback的binding都开启发布确认)，checkpoint只推进到最后一条连续确认的消息，
+ * 保证至少一次送达；重启后从checkpoint继续转发
+ * 存在事务同步时在事务提交后才追加，事务回滚的消息不会发出；
+ * 注意追加发生在afterCommit中，事务提交后、追加完成前进程崩溃会丢失该消息，需要严格一致时应把消息写入业务库的outbox表；
+ * 创建记录时分配amqp_messageId(消息中已有时沿用)并随消息保存，重发时id不变，消费端可据此去重；
+ * 消息头中值为字符串、数字、布尔或UUID的用户头随消息保存，其它类型的头被忽略
+ * 转发失败或未确认时按retryBackoff从该消息起重新转发，后续消息等待，以保持顺序
+ *
+ * @author Wang
+ * @since 2026/10/18 22:05
+ */
+public class OutboxMessagePublish implements SmartLifecycle {
+    protected final Logger logger = LoggerFactory.getLogger(OutboxMessagePublish.class);
+    //单独保存或由框架生成的头
+    private static final Set<String> EXCLUDED_HEADERS = new HashSet<>(Arrays.asList(MessageHeaders.ID, MessageHeaders.TIMESTAMP,
+            MessageHeaders.CONTENT_TYPE, Constants.PARTITION_KEY_HEADER, AmqpHeaders.MESSAGE_ID));
+    private final StreamBridge streamBridge;
+    private final ObjectMapper objectMapper;
+    private final OutboxLog outboxLog;
+    private final Predicate<String> confirmBinding;
+    private final MessageBusConfigProperties.Outbox properties;
+    private volatile boolean running = false;
+    private volatile Thread relay;
+
+    /**
+     * Instantiates a new Outbox message publish.
+     *
+     * @param streamBridge   the stream bridge
+     * @param objectMapper   the object mapper
+     * @param outboxLog      the outbox log
+     * @param confirmBinding 启用发布确认的binding，其余binding以send的返回值为准
+     * @param properties     the properties
+     */
+    public OutboxMessagePublish(StreamBridge streamBridge, ObjectMapper objectMapper, OutboxLog outboxLog, Predicate<String> confirmBinding, MessageBusConfigProperties.Outbox properties) {
+        this.streamBridge = streamBridge;
+        this.objectMapper = objectMapper;
+        this.outboxLog = outboxLog;
+        this.confirmBinding = confirmBinding;
+        this.properties = properties;
+    }
+
+    /**
+     * 按topic的默认binding发送
+     *
+     * @param topic the topic
+     * @param data  the data
+     */
+    public void sendByTopic(String topic, Object data) {
+        send(topic + Constants.OUT_TAG + "0", data);
+    }
+
+    /**
+     * 按分区键发送
+     *
+     * @param topic the topic
+     * @param key   the key
+     * @param data  the data
+     */
+    public void sendByTopic(String topic, Object key, Object data) {
+        send(topic + Constants.OUT_TAG + "0", MessagePublish.withPartitionKey(key, data));
+    }
+
+    /**
+     * 追加到outbox
+     * 分区键以字符串保存，按key分区时与直接发送的结果可能不同，同一key应始终通过同一种方式发送
+     *
+     * @param bindingName the binding name
+     * @param data        the data
+     */
+    public void send(String bindingName, Object data) {
+        byte[] body = toRecord(bindingName, data).encode();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(body);
+                }
+            });
+        } else {
+            append(body);
+        }
+    }
+
+    private void append(byte[] body) {
+        try {
+            outboxLog.append(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Thread thread = relay;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private OutboxRecord toRecord(String bindingName, Object data) {
+        Object payload = data;
+        String messageId = null;
+        String partitionKey = null;
+        String contentType = null;
+        Map<String, String> headers = null;
+        if (data instanceof Message) {
+            Message<?> message = (Message<?>) data;
+            payload = message.getPayload();
+            Object id = message.getHeaders().get(AmqpHeaders.MESSAGE_ID);
+            messageId = id == null ? null : id.toString();
+            Object key = message.getHeaders().get(Constants.PARTITION_KEY_HEADER);
+            partitionKey = key == null ? null : key.toString();
+            Object type = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+            contentType = type == null ? null : type.toString();
+            headers = toHeaders(message.getHeaders());
+        }
+        if (messageId == null) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            messageId = new UUID(random.nextLong(), random.nextLong()).toString();
+        }
+        byte[] bytes;
+        if (payload instanceof byte[]) {
+            bytes = (byte[]) payload;
+        } else if (payload instanceof String) {
+            bytes = ((String) payload).getBytes(StandardCharsets.UTF_8);
+            contentType = contentType == null ? MimeTypeUtils.TEXT_PLAIN_VALUE : contentType;
+        } else {
+            try {
+                bytes = objectMapper.writeValueAsBytes(payload);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Failed to serialize outbox message for " + bindingName, e);
+            }
+            contentType = contentType == null ? MimeTypeUtils.APPLICATION_JSON_VALUE : contentType;
+        }
+        return new OutboxRecord(bindingName, messageId, partitionKey, contentType, headers, bytes);
+    }
+
+    private Map<String, String> toHeaders(MessageHeaders messageHeaders) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> header : messageHeaders.entrySet()) {
+            Object value = header.getValue();
+            if (EXCLUDED_HEADERS.contains(header.getKey())) {
+                continue;
+            }
+            if (value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof UUID) {
+                headers.put(header.getKey(), value.toString());
+            }
+        }
+        return headers;
+    }
+
+    private void relay() {
+        OutboxLog.Position position = outboxLog.getCheckpoint();
+        long pollInterval = properties.getPollInterval().toNanos();
+        long retryBackoff = properties.getRetryBackoff().toNanos();
+        while (running) {
+            List<OutboxLog.Entry> entries = outboxLog.read(position, properties.getBatchSize());
+            if (entries.isEmpty()) {
+                LockSupport.parkNanos(this, pollInterval);
+                continue;
+            }
+            //整批先发出，再按顺序等待确认
+            List<CorrelationData> confirms = new ArrayList<>(entries.size());
+            for (OutboxLog.Entry entry : entries) {
+                OutboxRecord record = OutboxRecord.decode(entry.getBody());
+                CorrelationData correlationData = confirmBinding.test(record.getBindingName()) ? new CorrelationData(record.getMessageId()) : null;
+                if (!publish(record, correlationData)) {
+                    break;
+                }
+                confirms.add(correlationData);
+            }
+            OutboxLog.Position acked = awaitConfirms(position, entries, confirms);
+            if (acked != position) {
+                position = acked;
+                try {
+                    outboxLog.checkpoint(position);
+                } catch (IOException e) {
+                    logger.warn("failed to write outbox checkpoint: {}", e.getMessage());
+                }
+            }
+            //有未确认的消息时从其位置重新转发，其后已确认的消息也会重发，由消费端按messageId去重
+            if (acked != entries.get(entries.size() - 1).getNext()) {
+                LockSupport.parkNanos(this, retryBackoff);
+            }
+        }
+    }
+
+    /**
+     * 按顺序等待确认，返回最后一条连续确认的消息之后的位置
+     */
+    private OutboxLog.Position awaitConfirms(OutboxLog.Position position, List<OutboxLog.Entry> entries, List<CorrelationData> confirms) {
+        OutboxLog.Position acked = position;
+        long deadline = System.nanoTime() + properties.getConfirmTimeout().toNanos();
+        for (int i = 0; i < confirms.size(); i++) {
+            CorrelationData correlationData = confirms.get(i);
+            if (correlationData != null && !isAcked(correlationData, deadline)) {
+                break;
+            }
+            acked = entries.get(i).getNext();
+        }
+        return acked;
+    }
+
+    private boolean isAcked(CorrelationData correlationData, long deadline) {
+        try {
+            CorrelationData.Confirm confirm = correlationData.getFuture().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (confirm.isAck() && correlationData.getReturned() == null) {
+                return true;
+            }
+            logger.warn("outbox message {} is not confirmed: {}, will retry", correlationData.getId(),
+                    confirm.isAck() ? "returned" : confirm.getReason());
+        } catch (TimeoutException e) {
+            logger.warn("outbox message {} is not confirmed in {}, will retry", correlationData.getId(), properties.getConfirmTimeout());
+        } catch (ExecutionException e) {
+            logger.warn("outbox message {} is not confirmed: {}, will retry", correlationData.getId(), e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private boolean publish(OutboxRecord record, CorrelationData correlationData) {
+        MessageBuilder<byte[]> builder = MessageBuilder.withPayload(record.getPayload());
+        builder.copyHeaders(record.getHeaders());
+        if (record.getMessageId() != null) {
+            builder.setHeader(AmqpHeaders.MESSAGE_ID, record.getMessageId());
+        }
+        if (record.getContentType() != null) {
+            builder.setHeader(MessageHeaders.CONTENT_TYPE, record.getContentType());
+        }
+        if (record.getPartitionKey() != null) {
+            builder.setHeader(Constants.PARTITION_KEY_HEADER, record.getPartitionKey());
+        }
+        if (correlationData != null) {
+            builder.setHeader(AmqpHeaders.PUBLISH_CONFIRM_CORRELATION, correlationData);
+        }
+        try {
+            if (streamBridge.send(record.getBindingName(), builder.build())) {
+                return true;
+            }
+            logger.warn("failed to relay outbox message to {}, will retry", record.getBindingName());
+        } catch (Exception e) {
+            logger.warn("failed to relay outbox message to {}, will retry: {}", record.getBindingName(), e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::relay, "message-bus-outbox");
+        thread.setDaemon(true);
+        relay = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = relay;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            relay = null;
+        }
+        try {
+            outboxLog.close();
+        } catch (IOException e) {
+            logger.warn("failed to close outbox: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus;
+
+import com.hhao.cloud.messagebus.config.Constants;
+import com.hhao.cloud.messagebus.config.MessageBusProperties;
+import org.reactivestreams.Publisher;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 响应式发布
+ * 按源Flux的顺序在单独的线程上通过StreamBridge发送，不阻塞调用方(如WebFlux的事件循环)线程；
+ * 启用发布确认的binding，每条消息在broker确认后才向下游发出，同时等待确认的消息数不超过provider的maxInFlight，
+ * 超出时不再向上游请求，形成背压；nack或被退回时以异常结束
+ *
+ * @author Wang
+ * @since 2026/10/19 11:00
+ */
+public class ReactiveMessagePublish {
+    private static final MessageBusProperties.TopicProperty.Provider DEFAULT_PROVIDER = new MessageBusProperties.TopicProperty.Provider();
+    private final StreamBridge streamBridge;
+    private final Scheduler scheduler;
+    private final Map<String, MessageBusProperties.TopicProperty.Provider> providers = new HashMap<>();
+    private final Set<String> loopbackBindings = new HashSet<>();
+
+    /**
+     * Instantiates a new Reactive message publish.
+     *
+     * @param streamBridge         the stream bridge
+     * @param messageBusProperties the message bus properties
+     * @param scheduler            执行发送的scheduler
+     */
+    public ReactiveMessagePublish(StreamBridge streamBridge, MessageBusProperties messageBusProperties, Scheduler scheduler) {
+        this.streamBridge = streamBridge;
+        this.scheduler = scheduler;
+        if (messageBusProperties.getTopics() != null) {
+            for (MessageBusProperties.TopicProperty topic : messageBusProperties.getTopics()) {
+                if (topic.getProvider() != null) {
+                    providers.put(topic.getProvider().getBindingName(), topic.getProvider());
+                    if (topic.getInitDefaultProvider()) {
+                        providers.put(topic.getDefaultBindingName(), topic.getProvider());
+                    }
+                    if (topic.getLoopback()) {
+                        loopbackBindings.add(topic.getProvider().getBindingName());
+                        loopbackBindings.add(topic.getDefaultBindingName());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Instantiates a new Reactive message publish.
+     *
+     * @param streamBridge         the stream bridge
+     * @param messageBusProperties the message bus properties
+     */
+    public ReactiveMessagePublish(StreamBridge streamBridge, MessageBusProperties messageBusProperties) {
+        this(streamBridge, messageBusProperties, Schedulers.boundedElastic());
+    }
+
+    /**
+     * 按topic的默认binding发送
+     *
+     * @param <T>    the type parameter
+     * @param topic  the topic
+     * @param source the source
+     * @return 按源的顺序发出已发送(或已确认)的元素
+     */
+    public <T> Flux<T> sendByTopic(String topic, Publisher<T> source) {
+        return send(topic + Constants.OUT_TAG + "0", source);
+    }
+
+    /**
+     * 发送
+     *
+     * @param <T>         the type parameter
+     * @param bindingName the binding name
+     * @param source      the source
+     * @return 按源的顺序发出已发送(或已确认)的元素
+     */
+    public <T> Flux<T> send(String bindingName, Publisher<T> source) {
+        MessageBusProperties.TopicProperty.Provider provider = providers.getOrDefault(bindingName, DEFAULT_PROVIDER);
+        boolean confirm = provider.getConfirm() && !loopbackBindings.contains(bindingName);
+        int maxInFlight = Math.max(1, provider.getMaxInFlight());
+        //publishOn串行执行，发送顺序与源一致
+        return Flux.from(source)
+                .publishOn(scheduler, maxInFlight)
+                .flatMapSequential(data -> Mono.defer(() -> publish(bindingName, data, confirm)), maxInFlight);
+    }
+
+    /**
+     * 发送全部元素，全部发送(或确认)后完成
+     *
+     * @param <T>         the type parameter
+     * @param bindingName the binding name
+     * @param source      the source
+     * @return the mono
+     */
+    public <T> Mono<Void> sendAll(String bindingName, Publisher<T> source) {
+        return send(bindingName, source).then();
+    }
+
+    private <T> Mono<T> publish(String bindingName, T data, boolean confirm) {
+        if (!confirm) {
+            if (streamBridge.send(bindingName, data)) {
+                return Mono.just(data);
+            }
+            return Mono.error(new IllegalStateException("Failed to send message to " + bindingName));
+        }
+        CorrelationData correlationData = new CorrelationData();
+        MessageBuilder<?> builder = data instanceof Message ? MessageBuilder.fromMessage((Message<?>) data) : MessageBuilder.withPayload(data);
+        if (!streamBridge.send(bindingName, builder.setHeader(AmqpHeaders.PUBLISH_CONFIRM_CORRELATION, correlationData).build())) {
+            return Mono.error(new IllegalStateException("Failed to send message to " + bindingName));
+        }
+        return Mono.fromFuture(correlationData.getFuture().completable()).flatMap(result -> {
+            if (result.isAck() && correlationData.getReturned() == null) {
+                return Mono.just(data);
+            }
+            String reason = correlationData.getReturned() != null ? "returned: " + correlationData.getReturned().getReplyText()
+                    : "nack: " + result.getReason();
+            return Mono.error(new IllegalStateException("Message to " + bindingName + " not confirmed, " + reason));
+        });
+    }
+}
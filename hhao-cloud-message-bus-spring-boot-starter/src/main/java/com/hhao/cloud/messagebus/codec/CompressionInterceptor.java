@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus.codec;
+
+import com.hhao.cloud.messagebus.config.Constants;
+import com.hhao.cloud.messagebus.config.MessageBusProperties;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.integration.support.context.NamedComponent;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 按topic压缩payload
+ * 生产端：只处理配置了GZIP的topic的输出binding，payload已转换为byte[]且不小于阈值时GZIP压缩，并设置contentEncoding=gzip；
+ * 消费端：只处理输入binding，contentEncoding为gzip时解压，Rabbit binder已自动解压的消息不会再处理
+ *
+ * @author Wang
+ * @since 2026/10/18 22:40
+ */
+public class CompressionInterceptor implements ChannelInterceptor {
+    /**
+     * GZIP编码
+     */
+    public static final String GZIP = "gzip";
+    private final Map<String, Integer> thresholds = new HashMap<>();
+
+    /**
+     * Instantiates a new Compression interceptor.
+     *
+     * @param messageBusProperties the message bus properties
+     */
+    public CompressionInterceptor(MessageBusProperties messageBusProperties) {
+        List<MessageBusProperties.TopicProperty> topics = messageBusProperties.getTopics();
+        if (topics == null) {
+            return;
+        }
+        for (MessageBusProperties.TopicProperty topic : topics) {
+            if (topic.getCompression() != MessageBusProperties.TopicProperty.Compression.GZIP) {
+                continue;
+            }
+            int threshold = (int) topic.getCompressThreshold().toBytes();
+            if (topic.getProvider() != null) {
+                thresholds.put(topic.getProvider().getBindingName(), threshold);
+            }
+            if (topic.getInitDefaultProvider()) {
+                thresholds.put(topic.getDefaultBindingName(), threshold);
+            }
+        }
+    }
+
+    /**
+     * 是否有topic启用压缩
+     *
+     * @return the boolean
+     */
+    public boolean isCompressionEnabled() {
+        return !thresholds.isEmpty();
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        Object payload = message.getPayload();
+        if (!(payload instanceof byte[]) || !(channel instanceof NamedComponent)) {
+            return message;
+        }
+        String channelName = ((NamedComponent) channel).getComponentName();
+        if (channelName == null) {
+            return message;
+        }
+        Object encoding = message.getHeaders().get(AmqpHeaders.CONTENT_ENCODING);
+        //消费端只解压，生产端只压缩配置了GZIP的binding，未经转换的原始消息不会被误解压
+        if (channelName.contains(Constants.IN_TAG)) {
+            if (encoding == null || !GZIP.equals(encoding.toString())) {
+                return message;
+            }
+            return MessageBuilder.withPayload(gunzip(message, (byte[]) payload))
+                    .copyHeaders(message.getHeaders())
+                    .removeHeader(AmqpHeaders.CONTENT_ENCODING)
+                    .build();
+        }
+        Integer threshold = thresholds.get(channelName);
+        if (threshold == null || encoding != null || ((byte[]) payload).length < threshold) {
+            return message;
+        }
+        return MessageBuilder.withPayload(gzip(message, (byte[]) payload))
+                .copyHeaders(message.getHeaders())
+                .setHeader(AmqpHeaders.CONTENT_ENCODING, GZIP)
+                .build();
+    }
+
+    private byte[] gzip(Message<?> message, byte[] data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 2 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes, 8192)) {
+            out.write(data);
+        } catch (IOException e) {
+            throw new MessagingException(message, "Failed to compress payload", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] gunzip(Message<?> message, byte[] data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length * 4);
+        byte[] buffer = new byte[8192];
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data), 8192)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                bytes.write(buffer, 0, n);
+            }
+        } catch (IOException e) {
+            throw new MessagingException(message, "Failed to decompress payload", e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.MethodParameter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageConversionException;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.util.MimeType;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * 基于Jackson二进制格式(Smile、CBOR等)的消息转换器
+ * 只处理contentType严格匹配的消息，其余消息交给默认的JSON转换
+ *
+ * @author Wang
+ * @since 2026/10/18 22:30
+ */
+public class JacksonBinaryMessageConverter extends AbstractMessageConverter {
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Instantiates a new Jackson binary message converter.
+     *
+     * @param objectMapper 对应二进制格式的ObjectMapper
+     * @param mimeType     the mime type
+     */
+    public JacksonBinaryMessageConverter(ObjectMapper objectMapper, MimeType mimeType) {
+        super(mimeType);
+        this.objectMapper = objectMapper;
+        setStrictContentTypeMatch(true);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return true;
+    }
+
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        Object payload = message.getPayload();
+        if (!(payload instanceof byte[])) {
+            return null;
+        }
+        if (targetClass == byte[].class) {
+            return payload;
+        }
+        try {
+            return objectMapper.readValue((byte[]) payload, getJavaType(targetClass, conversionHint));
+        } catch (IOException e) {
+            throw new MessageConversionException(message, "Could not read " + getSupportedMimeTypes() + " message: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        if (payload instanceof byte[]) {
+            return payload;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (IOException e) {
+            throw new MessageConversionException("Could not write " + getSupportedMimeTypes() + " message: " + e.getMessage(), e);
+        }
+    }
+
+    private JavaType getJavaType(Class<?> targetClass, Object conversionHint) {
+        //函数式绑定传入的是参数的泛型类型
+        if (conversionHint instanceof Type) {
+            return objectMapper.getTypeFactory().constructType((Type) conversionHint);
+        }
+        if (conversionHint instanceof MethodParameter) {
+            MethodParameter parameter = ((MethodParameter) conversionHint).nestedIfOptional();
+            return objectMapper.getTypeFactory().constructType(parameter.getNestedGenericParameterType());
+        }
+        return objectMapper.getTypeFactory().constructType(targetClass);
+    }
+}
@@ -31,4 +31,8 @@ public interface Constants {
      * consumer
      */
     String IN_TAG="-in-";
+    /**
+     * 分区键消息头
+     */
+    String PARTITION_KEY_HEADER="partitionKey";
 }
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hhao.cloud.messagebus.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.amqp.RabbitProperties;
+import org.springframework.cloud.stream.binder.ConsumerProperties;
+import org.springframework.cloud.stream.binder.ProducerProperties;
+import org.springframework.cloud.stream.binder.rabbit.properties.RabbitBindingProperties;
+import org.springframework.cloud.stream.binder.rabbit.properties.RabbitConsumerProperties;
+import org.springframework.cloud.stream.binder.rabbit.properties.RabbitExtendedBindingProperties;
+import org.springframework.cloud.stream.binder.rabbit.properties.RabbitProducerProperties;
+import org.springframework.cloud.stream.config.BindingProperties;
+import org.springframework.cloud.stream.config.BindingServiceProperties;
+import org.springframework.core.env.Environment;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 按MessageBusProperties生成binding配置及函数定义的定制器
+ * 首次使用时所有topic在一次遍历中生成BindingProperties及Rabbit扩展属性，结果缓存；
+ * 由MessageBusConfig在BindingServiceProperties、RabbitExtendedBindingProperties绑定完成后分别应用，不修改Environment；
+ * 记录每个topic的耗时，DEBUG时逐个输出，INFO时输出总耗时及最慢的topic
+ *
+ * @author Wang
+ * @since 2026/10/19 10:20
+ */
+public class MessageBusBindingCustomizer {
+    protected final Logger logger = LoggerFactory.getLogger(MessageBusBindingCustomizer.class);
+
+    private static final String FUNC_ENVIRONMENT_NAME="spring.cloud.function.definition";
+    private static final String OUTBOX_ENABLED="spring.cloud.message-bus.config.outbox.enabled";
+    private static final Pattern HOSTNAME_ORDINAL=Pattern.compile("-(\\d+)$");
+    private static final SpelExpressionParser EXPRESSION_PARSER=new SpelExpressionParser();
+    private static final String RABBIT_BINDER="rabbit";
+    private static final String LOOPBACK_BINDER="loopback";
+    private static final int SLOWEST_TOPICS=5;
+    private final MessageBusProperties messageBusProperties;
+    private final Environment environment;
+    private final Set<String> functionSet=new LinkedHashSet<>();
+    private final Map<String, BindingProperties> bindings=new LinkedHashMap<>();
+    private final Map<String, RabbitBindingProperties> rabbitBindings=new LinkedHashMap<>();
+    private final Set<String> confirmBindings=new LinkedHashSet<>();
+    private final Map<String, MessageBusProperties.TopicProperty.Provider> batchingBindings=new LinkedHashMap<>();
+    private boolean confirmEnabled=false;
+    private boolean generated=false;
+
+    /**
+     * Instantiates a new Message bus binding customizer.
+     *
+     * @param messageBusProperties the message bus properties
+     * @param environment          the environment
+     */
+    public MessageBusBindingCustomizer(MessageBusProperties messageBusProperties, Environment environment){
+        this.messageBusProperties=messageBusProperties;
+        this.environment=environment;
+    }
+
+    /**
+     * 在BindingServiceProperties绑定完成后加入生成的binding，同名binding以生成的为准
+     *
+     * @param bindingServiceProperties the binding service properties
+     */
+    public void customize(BindingServiceProperties bindingServiceProperties){
+        generate();
+        //同时存在rabbit与loopback两个binder，未指定时默认rabbit
+        if (!StringUtils.hasText(bindingServiceProperties.getDefaultBinder())) {
+            bindingServiceProperties.setDefaultBinder(RABBIT_BINDER);
+        }
+        bindingServiceProperties.getBindings().putAll(bindings);
+    }
+
+    /**
+     * 在RabbitExtendedBindingProperties绑定完成后加入消费者扩展属性、生产者批量及发布确认设置，只写回一次
+     *
+     * @param rabbitExtendedBindingProperties the rabbit extended binding properties
+     */
+    public void customize(RabbitExtendedBindingProperties rabbitExtendedBindingProperties){
+        generate();
+        Map<String, RabbitBindingProperties> rabbitBindingPropertiesMap=new HashMap<>(rabbitExtendedBindingProperties.getBindings());
+        rabbitBindingPropertiesMap.putAll(rabbitBindings);
+        for(String bindingName:confirmBindings){
+            //通过消息头中的CorrelationData异步获取确认结果
+            rabbitBindingPropertiesMap.computeIfAbsent(bindingName,key->new RabbitBindingProperties()).getProducer().setUseConfirmHeader(true);
+        }
+        for(Map.Entry<String, MessageBusProperties.TopicProperty.Provider> entry:batchingBindings.entrySet()){
+            //与批量发布相同的batchSize、linger，由binder合并为一条AMQP消息
+            setBatching(rabbitBindingPropertiesMap.computeIfAbsent(entry.getKey(),key->new RabbitBindingProperties()).getProducer(),entry.getValue());
+        }
+        rabbitExtendedBindingProperties.setBindings(rabbitBindingPropertiesMap);
+    }
+
+    //所有topic一次遍历生成，结果缓存
+    private synchronized void generate(){
+        if (generated) {
+            return;
+        }
+        generated=true;
+        long start=System.nanoTime();
+        List<MessageBusProperties.TopicProperty> topics=messageBusProperties.getTopics();
+        List<long[]> timings=new ArrayList<>();
+        if (topics!=null) {
+            for(int i=0;i<topics.size();i++){
+                MessageBusProperties.TopicProperty topic=topics.get(i);
+                if (!StringUtils.hasText(topic.getName())) {
+                    continue;
+                }
+                long topicStart=System.nanoTime();
+                //初始化consumer及扩展,如死信处理等
+                initConsumer(topic);
+                //初始化provider及扩展,如发布确认等
+                initProvider(topic);
+                long elapsed=System.nanoTime()-topicStart;
+                timings.add(new long[]{elapsed,i});
+                if (logger.isDebugEnabled()) {
+                    logger.debug("topic {} bindings generated in {}us",topic.getName(),elapsed/1000);
+                }
+            }
+        }
+        logTimings(topics,timings,System.nanoTime()-start);
+    }
+
+    /**
+     * 合并后的函数定义：topic中的函数、spring.cloud.function.definition及com.hhao.config.message-bus.function.definition
+     *
+     * @return the function definition
+     */
+    public String getFunctionDefinition(){
+        generate();
+        Set<String> definitions=new LinkedHashSet<>(functionSet);
+        addDefinitions(definitions,environment.getProperty(FUNC_ENVIRONMENT_NAME));
+        if (messageBusProperties.getFunction()!=null) {
+            addDefinitions(definitions,messageBusProperties.getFunction().getDefinition());
+        }
+        return String.join(";",definitions);
+    }
+
+    /**
+     * 是否有topic启用发布确认
+     *
+     * @return the boolean
+     */
+    public boolean isConfirmEnabled(){
+        generate();
+        return confirmEnabled;
+    }
+
+    /**
+     * binding是否启用发布确认
+     *
+     * @param bindingName the binding name
+     * @return the boolean
+     */
+    public boolean isConfirmBinding(String bindingName){
+        generate();
+        return confirmBindings.contains(bindingName);
+    }
+
+    private void addDefinitions(Set<String> definitions,String definition){
+        if (!StringUtils.hasText(definition)) {
+            return;
+        }
+        for(String func:StringUtils.tokenizeToStringArray(definition,";")){
+            definitions.add(func);
+        }
+    }
+
+    private void logTimings(List<MessageBusProperties.TopicProperty> topics,List<long[]> timings,long total){
+        if (!logger.isInfoEnabled() || timings.isEmpty()) {
+            return;
+        }
+        timings.sort((a,b)->Long.compare(b[0],a[0]));
+        StringBuilder slowest=new StringBuilder();
+        for(int i=0;i<Math.min(SLOWEST_TOPICS,timings.size());i++){
+            long[] timing=timings.get(i);
+            if (i>0) {
+                slowest.append(", ");
+            }
+            slowest.append(topics.get((int) timing[1]).getName()).append('=').append(timing[0]/1000).append("us");
+        }
+        logger.info("message bus bindings of {} topics generated in {}ms, slowest: {}",timings.size(),total/1_000_000,slowest);
+    }
+
+    private void initConsumer(MessageBusProperties.TopicProperty topic){
+        if (topic.getConsumer()==null){
+            return;
+        }
+        MessageBusProperties.TopicProperty.Consumer consumer=topic.getConsumer();
+        String bindingName=consumer.getBindingName();
+        bindings.put(bindingName, buildConsumeBindingProperties(topic));
+        functionSet.add(consumer.getFunc());
+        if (consumer.hasExtendedSettings()){
+            RabbitBindingProperties rabbitBindingProperties=new RabbitBindingProperties();
+            rabbitBindingProperties.setConsumer(getRabbitConsumerProperties(topic));
+            rabbitBindings.put(bindingName,rabbitBindingProperties);
+        }
+    }
+
+    private BindingProperties buildConsumeBindingProperties(MessageBusProperties.TopicProperty topic){
+        MessageBusProperties.TopicProperty.Consumer consumer=topic.getConsumer();
+        BindingProperties  bindingProperties=new BindingProperties();
+        ConsumerProperties consumerProperties=new ConsumerProperties();
+        bindingProperties.setConsumer(consumerProperties);
+
+        bindingProperties.setDestination(topic.getName());
+        if (StringUtils.hasText(topic.getContentType())) {
+            bindingProperties.setContentType(topic.getContentType());
+        }
+        //进程内投递，不做反序列化
+        if (topic.getLoopback()) {
+            bindingProperties.setBinder(LOOPBACK_BINDER);
+            consumerProperties.setUseNativeDecoding(true);
+        }
+        if (StringUtils.hasText(consumer.getGroup())) {
+            bindingProperties.setGroup(consumer.getGroup());
+        }
+        //最大错误尝试，响应式函数由函数自行处理错误
+        if (consumer.getReactive()) {
+            if (consumer.getMaxAttempts()>1) {
+                logger.warn("maxAttempts {} is ignored for reactive consumer {}",consumer.getMaxAttempts(),consumer.getBindingName());
+            }
+            consumerProperties.setMaxAttempts(1);
+        } else {
+            consumerProperties.setMaxAttempts(consumer.getMaxAttempts());
+        }
+        //并发
+        if (consumer.getConcurrency()!=null) {
+            consumerProperties.setConcurrency(consumer.getConcurrency());
+        }
+        //批量消费
+        consumerProperties.setBatchMode(isBatchMode(consumer));
+        //分区
+        if (topic.isPartitioned()) {
+            setPartition(topic,consumerProperties);
+        }
+        return bindingProperties;
+    }
+
+    //按实例序号分配分区：partition % instanceCount == instanceIndex
+    private void setPartition(MessageBusProperties.TopicProperty topic,ConsumerProperties consumerProperties){
+        MessageBusProperties.TopicProperty.Consumer consumer=topic.getConsumer();
+        Integer configuredCount=consumer.getInstanceCount()!=null?consumer.getInstanceCount():getInstanceCount();
+        int instanceCount=configuredCount!=null?configuredCount:1;
+        int instanceIndex=consumer.getInstanceIndex()!=null?consumer.getInstanceIndex():getInstanceIndex(configuredCount!=null);
+        if (instanceCount<1 || instanceIndex<0 || instanceIndex>=instanceCount) {
+            throw new IllegalStateException("Invalid instance index " + instanceIndex + " of " + instanceCount + " for partitioned topic " + topic.getName());
+        }
+        if (instanceCount>topic.getPartitionCount()) {
+            logger.warn("instance count {} exceeds partition count {} of topic {}, some instances stay idle",instanceCount,topic.getPartitionCount(),topic.getName());
+        }
+        List<Integer> partitions=new ArrayList<>();
+        for(int partition=instanceIndex;partition<topic.getPartitionCount();partition+=instanceCount){
+            partitions.add(partition);
+        }
+        consumerProperties.setPartitioned(true);
+        consumerProperties.setInstanceCount(instanceCount);
+        consumerProperties.setInstanceIndex(instanceIndex);
+        consumerProperties.setInstanceIndexList(partitions);
+        logger.info("topic {} partitions {} assigned to instance {} of {}",topic.getName(),partitions,instanceIndex,instanceCount);
+    }
+
+    /**
+     * 实例序号，未配置时仅在显式配置了实例数时才从主机名后缀推断，否则为0
+     */
+    private int getInstanceIndex(boolean countConfigured){
+        Integer index=parseInstanceProperty("spring.cloud.stream.instance-index","INSTANCE_INDEX");
+        if (index!=null) {
+            return index;
+        }
+        if (!countConfigured) {
+            return 0;
+        }
+        //如StatefulSet的pod名称order-service-2
+        String hostname=environment.getProperty("HOSTNAME");
+        if (!StringUtils.hasText(hostname)) {
+            try {
+                hostname=InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                hostname=null;
+            }
+        }
+        if (hostname!=null) {
+            Matcher matcher=HOSTNAME_ORDINAL.matcher(hostname);
+            if (matcher.find()) {
+                try {
+                    return Integer.parseInt(matcher.group(1));
+                } catch (NumberFormatException e) {
+                    logger.warn("hostname {} has no valid ordinal suffix, instance index 0 is used",hostname);
+                }
+            }
+        }
+        return 0;
+    }
+
+    //未配置时返回null
+    private Integer getInstanceCount(){
+        return parseInstanceProperty("spring.cloud.stream.instance-count","INSTANCE_COUNT");
+    }
+
+    private Integer parseInstanceProperty(String name,String envName){
+        String value=environment.getProperty(name);
+        if (!StringUtils.hasText(value)) {
+            name=envName;
+            value=environment.getProperty(envName);
+        }
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("invalid {} value {}, ignored",name,value);
+            return null;
+        }
+    }
+
+    private void initProvider(MessageBusProperties.TopicProperty topic){
+        List<String> bindingNames=new ArrayList<>(2);
+        if (topic.getProvider()!=null){
+            bindingNames.add(topic.getProvider().getBindingName());
+            functionSet.add(topic.getProvider().getFunc());
+        }
+        if (topic.getInitDefaultProvider()) {
+            bindingNames.add(topic.getDefaultBindingName());
+        }
+        //启用outbox时所有发布都需确认，outbox收到确认后才推进checkpoint
+        boolean confirm=!topic.getLoopback() && (topic.getProvider()!=null && topic.getProvider().getConfirm()
+                || environment.getProperty(OUTBOX_ENABLED,Boolean.class,false));
+        for(String bindingName:bindingNames){
+            bindings.put(bindingName, buildProvideBindingProperties(topic));
+            if (confirm) {
+                confirmEnabled=true;
+                confirmBindings.add(bindingName);
+            } else if (topic.getProvider()!=null && topic.getProvider().getBrokerBatching() && !topic.getLoopback()) {
+                batchingBindings.put(bindingName,topic.getProvider());
+            }
+        }
+    }
+
+    //BatchingRabbitTemplate不合并带CorrelationData的消息，启用确认的binding仍逐条发送，每条消息各自完成Future
+    private void setBatching(RabbitProducerProperties rabbitProducerProperties,MessageBusProperties.TopicProperty.Provider provider){
+        rabbitProducerProperties.setBatchingEnabled(true);
+        rabbitProducerProperties.setBatchSize(Math.max(1,provider.getBatchSize()));
+        rabbitProducerProperties.setBatchTimeout((int) Math.max(1,provider.getLinger().toMillis()));
+    }
+
+    private BindingProperties buildProvideBindingProperties(MessageBusProperties.TopicProperty topic){
+        BindingProperties  bindingProperties=new BindingProperties();
+        ProducerProperties producer=new ProducerProperties();
+        bindingProperties.setProducer(producer);
+
+        bindingProperties.setDestination(topic.getName());
+        if (StringUtils.hasText(topic.getContentType())) {
+            bindingProperties.setContentType(topic.getContentType());
+        }
+        //进程内投递，不做序列化
+        if (topic.getLoopback()) {
+            bindingProperties.setBinder(LOOPBACK_BINDER);
+            producer.setUseNativeEncoding(true);
+        }
+        //分区
+        if (topic.isPartitioned()) {
+            producer.setPartitionKeyExpression(EXPRESSION_PARSER.parseExpression(topic.getPartitionKeyExpression()));
+            producer.setPartitionCount(topic.getPartitionCount());
+        }
+        return bindingProperties;
+    }
+
+    //扩展属性设置
+    private RabbitConsumerProperties getRabbitConsumerProperties(MessageBusProperties.TopicProperty topic){
+        RabbitConsumerProperties rabbitBindingProperties=new RabbitConsumerProperties();
+        MessageBusProperties.TopicProperty.Consumer consumer=topic.getConsumer();
+        if (consumer.getAutoBindDlq()) {
+            rabbitBindingProperties.setAutoBindDlq(true);
+            if (consumer.getTtl()!=-1) {
+                rabbitBindingProperties.setDlqTtl(consumer.getTtl());
+            }
+        }
+        if (consumer.getContainerType()==MessageBusProperties.TopicProperty.ContainerType.DIRECT) {
+            rabbitBindingProperties.setContainerType(RabbitProperties.ContainerType.DIRECT);
+        }
+        if (consumer.getMaxConcurrency()!=null) {
+            rabbitBindingProperties.setMaxConcurrency(consumer.getMaxConcurrency());
+        }
+        if (consumer.getPrefetch()!=null) {
+            rabbitBindingProperties.setPrefetch(consumer.getPrefetch());
+        }
+        if (isBatchMode(consumer)) {
+            rabbitBindingProperties.setEnableBatching(true);
+            if (consumer.getBatchSize()!=null) {
+                rabbitBindingProperties.setBatchSize(consumer.getBatchSize());
+            }
+            if (consumer.getReceiveTimeout()!=null) {
+                rabbitBindingProperties.setReceiveTimeout(consumer.getReceiveTimeout().toMillis());
+            }
+        }
+        return rabbitBindingProperties;
+    }
+
+    //DIRECT容器不支持批量消费
+    private boolean isBatchMode(MessageBusProperties.TopicProperty.Consumer consumer){
+        if (!consumer.getBatchMode()) {
+            return false;
+        }
+        if (consumer.getContainerType()==MessageBusProperties.TopicProperty.ContainerType.DIRECT) {
+            logger.warn("batch mode is not supported by the DIRECT container, ignored for binding {}",consumer.getBindingName());
+            return false;
+        }
+        return true;
+    }
+}
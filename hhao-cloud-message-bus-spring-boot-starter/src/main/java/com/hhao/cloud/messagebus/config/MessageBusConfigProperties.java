@@ -0,0 +1,646 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hhao.cloud.messagebus.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 消息总线starter自身的配置
+ *
+ * @author Wang
+ * @since 2026/10/18 20:05
+ */
+@ConfigurationProperties(prefix = "spring.cloud.message-bus.config")
+public class MessageBusConfigProperties {
+    /**
+     * 是否启用
+     */
+    private Boolean enabled = true;
+    /**
+     * 消息跟踪
+     */
+    private Trace trace = new Trace();
+    /**
+     * 按binding的指标
+     */
+    private Metrics metrics = new Metrics();
+    /**
+     * 本地outbox
+     */
+    private Outbox outbox = new Outbox();
+    /**
+     * 消费去重
+     */
+    private Dedup dedup = new Dedup();
+    /**
+     * loopback binder
+     */
+    private Loopback loopback = new Loopback();
+    /**
+     * 批量发布
+     */
+    private Batching batching = new Batching();
+
+    /**
+     * Gets enabled.
+     *
+     * @return the enabled
+     */
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets enabled.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets trace.
+     *
+     * @return the trace
+     */
+    public Trace getTrace() {
+        return trace;
+    }
+
+    /**
+     * Sets trace.
+     *
+     * @param trace the trace
+     */
+    public void setTrace(Trace trace) {
+        this.trace = trace;
+    }
+
+    /**
+     * Gets metrics.
+     *
+     * @return the metrics
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets metrics.
+     *
+     * @param metrics the metrics
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets outbox.
+     *
+     * @return the outbox
+     */
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    /**
+     * Sets outbox.
+     *
+     * @param outbox the outbox
+     */
+    public void setOutbox(Outbox outbox) {
+        this.outbox = outbox;
+    }
+
+    /**
+     * Gets dedup.
+     *
+     * @return the dedup
+     */
+    public Dedup getDedup() {
+        return dedup;
+    }
+
+    /**
+     * Sets dedup.
+     *
+     * @param dedup the dedup
+     */
+    public void setDedup(Dedup dedup) {
+        this.dedup = dedup;
+    }
+
+    /**
+     * Gets loopback.
+     *
+     * @return the loopback
+     */
+    public Loopback getLoopback() {
+        return loopback;
+    }
+
+    /**
+     * Sets loopback.
+     *
+     * @param loopback the loopback
+     */
+    public void setLoopback(Loopback loopback) {
+        this.loopback = loopback;
+    }
+
+    /**
+     * Gets batching.
+     *
+     * @return the batching
+     */
+    public Batching getBatching() {
+        return batching;
+    }
+
+    /**
+     * Sets batching.
+     *
+     * @param batching the batching
+     */
+    public void setBatching(Batching batching) {
+        this.batching = batching;
+    }
+
+    /**
+     * 消息跟踪配置
+     * 日志级别为DEBUG时才会采样及格式化
+     */
+    public static class Trace {
+        /**
+         * 是否启用
+         */
+        private Boolean enabled = true;
+        /**
+         * 按channel名称模式(支持*通配)的采样率，0~1，按配置顺序匹配第一个
+         */
+        private Map<String, Double> sampleRates = new LinkedHashMap<>();
+        /**
+         * 未匹配任何模式时的采样率
+         */
+        private Double defaultSampleRate = 1.0;
+        /**
+         * 输出payload的最大长度，超出部分截断，为0时不输出payload
+         */
+        private Integer maxPayloadLength = 256;
+
+        /**
+         * Gets enabled.
+         *
+         * @return the enabled
+         */
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets enabled.
+         *
+         * @param enabled the enabled
+         */
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets sample rates.
+         *
+         * @return the sample rates
+         */
+        public Map<String, Double> getSampleRates() {
+            return sampleRates;
+        }
+
+        /**
+         * Sets sample rates.
+         *
+         * @param sampleRates the sample rates
+         */
+        public void setSampleRates(Map<String, Double> sampleRates) {
+            this.sampleRates = sampleRates;
+        }
+
+        /**
+         * Gets default sample rate.
+         *
+         * @return the default sample rate
+         */
+        public Double getDefaultSampleRate() {
+            return defaultSampleRate;
+        }
+
+        /**
+         * Sets default sample rate.
+         *
+         * @param defaultSampleRate the default sample rate
+         */
+        public void setDefaultSampleRate(Double defaultSampleRate) {
+            this.defaultSampleRate = defaultSampleRate;
+        }
+
+        /**
+         * Gets max payload length.
+         *
+         * @return the max payload length
+         */
+        public Integer getMaxPayloadLength() {
+            return maxPayloadLength;
+        }
+
+        /**
+         * Sets max payload length.
+         *
+         * @param maxPayloadLength the max payload length
+         */
+        public void setMaxPayloadLength(Integer maxPayloadLength) {
+            this.maxPayloadLength = maxPayloadLength;
+        }
+    }
+
+    /**
+     * 指标配置
+     * 存在MeterRegistry时生效
+     */
+    public static class Metrics {
+        /**
+         * 是否启用
+         */
+        private Boolean enabled = true;
+
+        /**
+         * Gets enabled.
+         *
+         * @return the enabled
+         */
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets enabled.
+         *
+         * @param enabled the enabled
+         */
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * 本地outbox配置
+     */
+    public static class Outbox {
+        /**
+         * 是否启用
+         */
+        private Boolean enabled = false;
+        /**
+         * 日志目录，启用时必须配置；需位于持久化存储上且每个实例独占(目录被文件锁保护)，
+         * 如StatefulSet每个pod的持久卷，重启后才能从checkpoint继续转发
+         */
+        private String directory;
+        /**
+         * 段文件大小
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        /**
+         * 每批转发的最大消息数
+         */
+        private Integer batchSize = 500;
+        /**
+         * 无消息时转发线程的最长等待时间
+         */
+        private Duration pollInterval = Duration.ofMillis(10);
+        /**
+         * 转发失败后的重试间隔
+         */
+        private Duration retryBackoff = Duration.ofSeconds(1);
+        /**
+         * 每批消息等待发布确认的最长时间，超时未确认的消息及其后的消息重新转发
+         */
+        private Duration confirmTimeout = Duration.ofSeconds(30);
+        /**
+         * 每次写入后是否刷盘；关闭时进程崩溃不丢失，操作系统崩溃可能丢失最近的消息
+         */
+        private Boolean force = false;
+
+        /**
+         * Gets enabled.
+         *
+         * @return the enabled
+         */
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets enabled.
+         *
+         * @param enabled the enabled
+         */
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets directory.
+         *
+         * @return the directory
+         */
+        public String getDirectory() {
+            return directory;
+        }
+
+        /**
+         * Sets directory.
+         *
+         * @param directory the directory
+         */
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Gets segment size.
+         *
+         * @return the segment size
+         */
+        public DataSize getSegmentSize() {
+            return segmentSize;
+        }
+
+        /**
+         * Sets segment size.
+         *
+         * @param segmentSize the segment size
+         */
+        public void setSegmentSize(DataSize segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        /**
+         * Gets batch size.
+         *
+         * @return the batch size
+         */
+        public Integer getBatchSize() {
+            return batchSize;
+        }
+
+        /**
+         * Sets batch size.
+         *
+         * @param batchSize the batch size
+         */
+        public void setBatchSize(Integer batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * Gets poll interval.
+         *
+         * @return the poll interval
+         */
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        /**
+         * Sets poll interval.
+         *
+         * @param pollInterval the poll interval
+         */
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        /**
+         * Gets retry backoff.
+         *
+         * @return the retry backoff
+         */
+        public Duration getRetryBackoff() {
+            return retryBackoff;
+        }
+
+        /**
+         * Sets retry backoff.
+         *
+         * @param retryBackoff the retry backoff
+         */
+        public void setRetryBackoff(Duration retryBackoff) {
+            this.retryBackoff = retryBackoff;
+        }
+
+        /**
+         * Gets confirm timeout.
+         *
+         * @return the confirm timeout
+         */
+        public Duration getConfirmTimeout() {
+            return confirmTimeout;
+        }
+
+        /**
+         * Sets confirm timeout.
+         *
+         * @param confirmTimeout the confirm timeout
+         */
+        public void setConfirmTimeout(Duration confirmTimeout) {
+            this.confirmTimeout = confirmTimeout;
+        }
+
+        /**
+         * Gets force.
+         *
+         * @return the force
+         */
+        public Boolean getForce() {
+            return force;
+        }
+
+        /**
+         * Sets force.
+         *
+         * @param force the force
+         */
+        public void setForce(Boolean force) {
+            this.force = force;
+        }
+    }
+
+    /**
+     * 消费去重配置
+     */
+    public static class Dedup {
+        /**
+         * 是否启用，具体的消费者还需配置dedup=true
+         */
+        private Boolean enabled = true;
+        /**
+         * 是否为发出的消息设置messageId，未配置时仅在本应用有dedup=true的消费者时设置；
+         * 去重消费者在其它应用时，发布方需配置为true
+         */
+        private Boolean stampMessageId;
+        /**
+         * 保存已处理id的目录，未配置时重启后不保留
+         */
+        private String directory;
+
+        /**
+         * Gets enabled.
+         *
+         * @return the enabled
+         */
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets enabled.
+         *
+         * @param enabled the enabled
+         */
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets stamp message id.
+         *
+         * @return the stamp message id
+         */
+        public Boolean getStampMessageId() {
+            return stampMessageId;
+        }
+
+        /**
+         * Sets stamp message id.
+         *
+         * @param stampMessageId the stamp message id
+         */
+        public void setStampMessageId(Boolean stampMessageId) {
+            this.stampMessageId = stampMessageId;
+        }
+
+        /**
+         * Gets directory.
+         *
+         * @return the directory
+         */
+        public String getDirectory() {
+            return directory;
+        }
+
+        /**
+         * Sets directory.
+         *
+         * @param directory the directory
+         */
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+    }
+
+    /**
+     * loopback binder配置
+     */
+    public static class Loopback {
+        /**
+         * 每个消费组的环形队列容量，向上取2的幂
+         */
+        private Integer bufferSize = 1024;
+        /**
+         * 队列满时生产者的最长等待时间
+         */
+        private Duration sendTimeout = Duration.ofSeconds(1);
+
+        /**
+         * Gets buffer size.
+         *
+         * @return the buffer size
+         */
+        public Integer getBufferSize() {
+            return bufferSize;
+        }
+
+        /**
+         * Sets buffer size.
+         *
+         * @param bufferSize the buffer size
+         */
+        public void setBufferSize(Integer bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        /**
+         * Gets send timeout.
+         *
+         * @return the send timeout
+         */
+        public Duration getSendTimeout() {
+            return sendTimeout;
+        }
+
+        /**
+         * Sets send timeout.
+         *
+         * @param sendTimeout the send timeout
+         */
+        public void setSendTimeout(Duration sendTimeout) {
+            this.sendTimeout = sendTimeout;
+        }
+    }
+
+    /**
+     * 批量发布配置
+     */
+    public static class Batching {
+        /**
+         * 发送线程数，binding按名称固定分配到一个线程，同一binding内保持顺序
+         */
+        private Integer threads = 2;
+
+        /**
+         * Gets threads.
+         *
+         * @return the threads
+         */
+        public Integer getThreads() {
+            return threads;
+        }
+
+        /**
+         * Sets threads.
+         *
+         * @param threads the threads
+         */
+        public void setThreads(Integer threads) {
+            this.threads = threads;
+        }
+    }
+}
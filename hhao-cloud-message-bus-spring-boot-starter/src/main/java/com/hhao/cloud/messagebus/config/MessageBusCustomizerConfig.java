@@ -15,39 +15,211 @@
  */
 package com.hhao.cloud.messagebus.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.hhao.cloud.messagebus.BatchingMessagePublish;
+import com.hhao.cloud.messagebus.OutboxMessagePublish;
+import com.hhao.cloud.messagebus.ReactiveMessagePublish;
+import com.hhao.cloud.messagebus.codec.CompressionInterceptor;
+import com.hhao.cloud.messagebus.codec.JacksonBinaryMessageConverter;
+import com.hhao.cloud.messagebus.dedup.DedupFunctionWrapper;
+import com.hhao.cloud.messagebus.dedup.MessageIdInterceptor;
+import com.hhao.cloud.messagebus.outbox.OutboxLog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.integration.config.GlobalChannelInterceptor;
-import org.springframework.messaging.Message;
-import org.springframework.messaging.MessageChannel;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.converter.ProtobufMessageConverter;
 import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.util.MimeType;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Paths;
 
 /**
  * @author Wang
  * @since 2022/3/17 11:52
  */
 @Configuration
+@EnableConfigurationProperties(MessageBusConfigProperties.class)
 @ConditionalOnProperty(prefix = "spring.cloud.message-bus.config",name = "enabled" ,havingValue = "true",matchIfMissing = true)
 public class MessageBusCustomizerConfig {
     protected final Logger logger = LoggerFactory.getLogger(MessageBusCustomizerConfig.class);
 
+    /**
+     * 批量发布
+     *
+     * @param streamBridge               the stream bridge
+     * @param messageBusProperties       the message bus properties
+     * @param messageBusConfigProperties the message bus config properties
+     * @return the batching message publish
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public BatchingMessagePublish batchingMessagePublish(StreamBridge streamBridge, MessageBusProperties messageBusProperties, MessageBusConfigProperties messageBusConfigProperties) {
+        return new BatchingMessagePublish(streamBridge, messageBusProperties, messageBusConfigProperties.getBatching().getThreads());
+    }
+
+    /**
+     * outbox发布
+     *
+     * @param streamBridge               the stream bridge
+     * @param objectMapper               the object mapper
+     * @param bindingCustomizer          the binding customizer
+     * @param messageBusConfigProperties the message bus config properties
+     * @return the outbox message publish
+     * @throws IOException the io exception
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "spring.cloud.message-bus.config.outbox",name = "enabled" ,havingValue = "true")
+    public OutboxMessagePublish outboxMessagePublish(StreamBridge streamBridge, ObjectProvider<ObjectMapper> objectMapper, MessageBusBindingCustomizer bindingCustomizer, MessageBusConfigProperties messageBusConfigProperties) throws IOException {
+        MessageBusConfigProperties.Outbox outbox = messageBusConfigProperties.getOutbox();
+        //临时目录重启后可能被清理，且多个实例会争用同一个文件锁，必须显式配置持久化目录
+        if (!StringUtils.hasText(outbox.getDirectory())) {
+            throw new IllegalStateException("spring.cloud.message-bus.config.outbox.directory must be set to a persistent directory owned by this instance");
+        }
+        OutboxLog outboxLog = OutboxLog.open(Paths.get(outbox.getDirectory()), (int) outbox.getSegmentSize().toBytes(), outbox.getForce());
+        return new OutboxMessagePublish(streamBridge, objectMapper.getIfAvailable(ObjectMapper::new), outboxLog, bindingCustomizer::isConfirmBinding, outbox);
+    }
+
+    /**
+     * 按topic压缩/解压payload，至少有一个topic配置了压缩时注册
+     *
+     * @param messageBusProperties the message bus properties
+     * @return the compression interceptor
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @GlobalChannelInterceptor(patterns = {"*" + Constants.IN_TAG + "*", "*" + Constants.OUT_TAG + "*"})
+    @Conditional(OnCompressionCondition.class)
+    public CompressionInterceptor compressionInterceptor(MessageBusProperties messageBusProperties) {
+        return new CompressionInterceptor(messageBusProperties);
+    }
+
+    /**
+     * 消费去重，至少有一个消费者配置了dedup=true时注册
+     *
+     * @param messageBusProperties       the message bus properties
+     * @param messageBusConfigProperties the message bus config properties
+     * @return the dedup function wrapper
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "spring.cloud.message-bus.config.dedup",name = "enabled" ,havingValue = "true",matchIfMissing = true)
+    @Conditional(OnDedupConsumerCondition.class)
+    public DedupFunctionWrapper dedupFunctionWrapper(MessageBusProperties messageBusProperties, MessageBusConfigProperties messageBusConfigProperties) {
+        return new DedupFunctionWrapper(messageBusProperties, messageBusConfigProperties.getDedup());
+    }
+
+    /**
+     * 为发出的消息设置messageId，未配置stamp-message-id时仅在有去重消费者时注册
+     *
+     * @return the message id interceptor
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @GlobalChannelInterceptor(patterns = "*" + Constants.OUT_TAG + "*")
+    @Conditional(OnDedupConsumerCondition.OnStampMessageId.class)
+    public MessageIdInterceptor messageIdInterceptor() {
+        return new MessageIdInterceptor();
+    }
+
+    /**
+     * 响应式发布
+     *
+     * @param streamBridge         the stream bridge
+     * @param messageBusProperties the message bus properties
+     * @return the reactive message publish
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnClass(name = "reactor.core.publisher.Flux")
+    public ReactiveMessagePublish reactiveMessagePublish(StreamBridge streamBridge, MessageBusProperties messageBusProperties) {
+        return new ReactiveMessagePublish(streamBridge, messageBusProperties);
+    }
+
     /**
      * 消息总线全局拦截器
+     * 按spring.cloud.message-bus.config.trace采样输出，DEBUG未开启时不做任何格式化
      *
-     * @return
+     * @param messageBusConfigProperties the message bus config properties
+     * @return the channel interceptor
      */
     @Bean
     @GlobalChannelInterceptor(patterns = "*")
-    public ChannelInterceptor globalInterceptor() {
-        return new ChannelInterceptor() {
-            @Override
-            public Message<?> preSend(Message<?> message, MessageChannel channel) {
-                logger.info(message.toString());
-                return message;
-            }
-        };
+    @ConditionalOnProperty(prefix = "spring.cloud.message-bus.config.trace",name = "enabled" ,havingValue = "true",matchIfMissing = true)
+    public ChannelInterceptor globalInterceptor(MessageBusConfigProperties messageBusConfigProperties) {
+        return new MessageTraceInterceptor(messageBusConfigProperties.getTrace());
+    }
+
+    /**
+     * Smile格式，contentType为application/x-jackson-smile的topic使用
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(SmileFactory.class)
+    static class SmileCodecConfiguration {
+        /**
+         * Smile message converter message converter.
+         *
+         * @param builder the builder
+         * @return the message converter
+         */
+        @Bean
+        @ConditionalOnMissingBean(name = "smileMessageConverter")
+        public MessageConverter smileMessageConverter(ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+            ObjectMapper objectMapper = builder.getIfAvailable(Jackson2ObjectMapperBuilder::json).factory(new SmileFactory()).build();
+            return new JacksonBinaryMessageConverter(objectMapper, MimeType.valueOf("application/x-jackson-smile"));
+        }
+    }
+
+    /**
+     * CBOR格式，contentType为application/cbor的topic使用
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(CBORFactory.class)
+    static class CborCodecConfiguration {
+        /**
+         * Cbor message converter message converter.
+         *
+         * @param builder the builder
+         * @return the message converter
+         */
+        @Bean
+        @ConditionalOnMissingBean(name = "cborMessageConverter")
+        public MessageConverter cborMessageConverter(ObjectProvider<Jackson2ObjectMapperBuilder> builder) {
+            ObjectMapper objectMapper = builder.getIfAvailable(Jackson2ObjectMapperBuilder::json).factory(new CBORFactory()).build();
+            return new JacksonBinaryMessageConverter(objectMapper, MimeType.valueOf("application/cbor"));
+        }
+    }
+
+    /**
+     * Protobuf格式，contentType为application/x-protobuf的topic使用，需自行引入protobuf-java
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "com.google.protobuf.Message")
+    static class ProtobufCodecConfiguration {
+        /**
+         * Protobuf message converter message converter.
+         *
+         * @return the message converter
+         */
+        @Bean
+        @ConditionalOnMissingBean(name = "protobufMessageConverter")
+        public MessageConverter protobufMessageConverter() {
+            return new ProtobufMessageConverter();
+        }
     }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus.config;
+
+import com.hhao.cloud.messagebus.dedup.DedupFunctionWrapper;
+import com.hhao.cloud.messagebus.dedup.DedupStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.config.GlobalChannelInterceptor;
+
+/**
+ * 消息总线指标配置
+ * 存在micrometer的MeterRegistry时生效，spring.cloud.message-bus.config.metrics.enabled=false时关闭
+ *
+ * @author Wang
+ * @since 2026/10/18 20:55
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(MeterRegistry.class)
+@AutoConfigureAfter(name = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "spring.cloud.message-bus.config", name = {"enabled", "metrics.enabled"}, havingValue = "true", matchIfMissing = true)
+public class MessageBusMetricsConfig {
+
+    /**
+     * 只拦截binding对应的channel
+     *
+     * @param meterRegistry        the meter registry
+     * @param messageBusProperties the message bus properties
+     * @return the message bus metrics interceptor
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @GlobalChannelInterceptor(patterns = {"*" + Constants.IN_TAG + "*", "*" + Constants.OUT_TAG + "*"})
+    public MessageBusMetricsInterceptor messageBusMetricsInterceptor(MeterRegistry meterRegistry, MessageBusProperties messageBusProperties) {
+        return new MessageBusMetricsInterceptor(meterRegistry, messageBusProperties);
+    }
+
+    /**
+     * 去重指标
+     * messagebus.dedup.hits{function}：被丢弃的重复消息数
+     * messagebus.dedup.checks{function}：检查的消息数
+     *
+     * @param dedupFunctionWrapper the dedup function wrapper
+     * @return the meter binder
+     */
+    @Bean
+    public MeterBinder messageBusDedupMetrics(ObjectProvider<DedupFunctionWrapper> dedupFunctionWrapper) {
+        return meterRegistry -> dedupFunctionWrapper.ifAvailable(wrapper -> wrapper.getStores().forEach((func, store) -> {
+            FunctionCounter.builder("messagebus.dedup.hits", store, DedupStore::getHits)
+                    .tags("function", func)
+                    .description("Duplicate messages dropped before the handler")
+                    .register(meterRegistry);
+            FunctionCounter.builder("messagebus.dedup.checks", store, DedupStore::getChecks)
+                    .tags("function", func)
+                    .description("Messages checked for duplicates")
+                    .register(meterRegistry);
+        }));
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.support.context.NamedComponent;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按binding的消息指标
+ * messagebus.messages{binding,direction}：消息数
+ * messagebus.payload.bytes{binding,direction}：payload字节数(byte[]/String)
+ * messagebus.send.latency{binding}：发送耗时
+ * messagebus.handler.latency{binding}：消费处理耗时(p50/p99)
+ * messagebus.failures{binding,direction}：失败数
+ * messagebus.retries{binding}：重试数(deliveryAttempt大于1)
+ * messagebus.dlq{binding}：最后一次尝试仍失败、进入死信的消息数
+ * 所有meter在启动时按MessageBusProperties中的topic预先注册，记录时只使用Counter/Timer，不加锁
+ *
+ * @author Wang
+ * @since 2026/10/18 20:40
+ */
+public class MessageBusMetricsInterceptor implements ChannelInterceptor {
+    private static final BindingMeters NONE = new BindingMeters();
+    private static final ThreadLocal<TimingStack> TIMING = ThreadLocal.withInitial(TimingStack::new);
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, BindingMeters> bindings = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MessageChannel, BindingMeters> channels = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Message bus metrics interceptor.
+     *
+     * @param meterRegistry        the meter registry
+     * @param messageBusProperties the message bus properties
+     */
+    public MessageBusMetricsInterceptor(MeterRegistry meterRegistry, MessageBusProperties messageBusProperties) {
+        this.meterRegistry = meterRegistry;
+        List<MessageBusProperties.TopicProperty> topics = messageBusProperties.getTopics();
+        if (topics != null) {
+            for (MessageBusProperties.TopicProperty topic : topics) {
+                if (topic.getConsumer() != null) {
+                    MessageBusProperties.TopicProperty.Consumer consumer = topic.getConsumer();
+                    int dlqAttempts = consumer.getAutoBindDlq() ? Math.max(1, consumer.getMaxAttempts()) : -1;
+                    bindings.put(consumer.getBindingName(), new BindingMeters(meterRegistry, consumer.getBindingName(), true, dlqAttempts));
+                }
+                if (topic.getProvider() != null) {
+                    String bindingName = topic.getProvider().getBindingName();
+                    bindings.put(bindingName, new BindingMeters(meterRegistry, bindingName, false, -1));
+                }
+                if (topic.getInitDefaultProvider()) {
+                    bindings.putIfAbsent(topic.getDefaultBindingName(), new BindingMeters(meterRegistry, topic.getDefaultBindingName(), false, -1));
+                }
+            }
+        }
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        BindingMeters meters = channels.computeIfAbsent(channel, this::resolve);
+        if (meters == NONE) {
+            return message;
+        }
+        meters.messages.increment();
+        Object payload = message.getPayload();
+        if (payload instanceof byte[]) {
+            meters.bytes.increment(((byte[]) payload).length);
+        } else if (payload instanceof String) {
+            meters.bytes.increment(((String) payload).length());
+        }
+        if (meters.retries != null && deliveryAttempt(message) > 1) {
+            meters.retries.increment();
+        }
+        TIMING.get().push(System.nanoTime());
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        BindingMeters meters = channels.get(channel);
+        if (meters == null || meters == NONE) {
+            return;
+        }
+        meters.latency.record(System.nanoTime() - TIMING.get().pop(), TimeUnit.NANOSECONDS);
+        if (ex != null || !sent) {
+            meters.failures.increment();
+            if (meters.dlq != null && deliveryAttempt(message) >= meters.dlqAttempts) {
+                meters.dlq.increment();
+            }
+        }
+    }
+
+    private BindingMeters resolve(MessageChannel channel) {
+        if (!(channel instanceof NamedComponent)) {
+            return NONE;
+        }
+        String name = ((NamedComponent) channel).getComponentName();
+        if (name == null) {
+            return NONE;
+        }
+        BindingMeters meters = bindings.get(name);
+        if (meters != null) {
+            return meters;
+        }
+        //动态binding，如StreamBridge直接按名称发送
+        if (name.contains(Constants.IN_TAG)) {
+            return bindings.computeIfAbsent(name, key -> new BindingMeters(meterRegistry, key, true, -1));
+        }
+        if (name.contains(Constants.OUT_TAG)) {
+            return bindings.computeIfAbsent(name, key -> new BindingMeters(meterRegistry, key, false, -1));
+        }
+        return NONE;
+    }
+
+    private static int deliveryAttempt(Message<?> message) {
+        Object attempt = message.getHeaders().get(IntegrationMessageHeaderAccessor.DELIVERY_ATTEMPT);
+        if (attempt instanceof AtomicInteger) {
+            return ((AtomicInteger) attempt).get();
+        }
+        if (attempt instanceof Number) {
+            return ((Number) attempt).intValue();
+        }
+        return 1;
+    }
+
+    private static class BindingMeters {
+        private Counter messages;
+        private Counter bytes;
+        private Timer latency;
+        private Counter failures;
+        private Counter retries;
+        private Counter dlq;
+        private int dlqAttempts;
+
+        BindingMeters() {
+        }
+
+        BindingMeters(MeterRegistry registry, String binding, boolean input, int dlqAttempts) {
+            String direction = input ? "in" : "out";
+            this.messages = Counter.builder("messagebus.messages").tags("binding", binding, "direction", direction)
+                    .description("Messages sent to or received from the binding").register(registry);
+            this.bytes = Counter.builder("messagebus.payload.bytes").tags("binding", binding, "direction", direction)
+                    .baseUnit("bytes").description("Payload bytes of byte[] or String messages").register(registry);
+            this.failures = Counter.builder("messagebus.failures").tags("binding", binding, "direction", direction)
+                    .description("Failed sends or handler invocations").register(registry);
+            if (input) {
+                this.latency = Timer.builder("messagebus.handler.latency").tags("binding", binding)
+                        .publishPercentiles(0.5, 0.99).description("Consumer handler latency").register(registry);
+                this.retries = Counter.builder("messagebus.retries").tags("binding", binding)
+                        .description("Redelivery attempts after the first").register(registry);
+                if (dlqAttempts > 0) {
+                    this.dlq = Counter.builder("messagebus.dlq").tags("binding", binding)
+                            .description("Messages routed to the dead letter queue").register(registry);
+                    this.dlqAttempts = dlqAttempts;
+                }
+            } else {
+                this.latency = Timer.builder("messagebus.send.latency").tags("binding", binding)
+                        .publishPercentiles(0.5, 0.99).description("Publish latency").register(registry);
+            }
+        }
+    }
+
+    /**
+     * 嵌套发送(如消费处理中再发送)时按栈记录开始时间
+     */
+    private static class TimingStack {
+        private long[] starts = new long[8];
+        private int depth;
+
+        void push(long start) {
+            if (depth == starts.length) {
+                long[] expanded = new long[depth * 2];
+                System.arraycopy(starts, 0, expanded, 0, depth);
+                starts = expanded;
+            }
+            starts[depth++] = start;
+        }
+
+        long pop() {
+            return depth == 0 ? System.nanoTime() : starts[--depth];
+        }
+    }
+}
@@ -17,7 +17,9 @@
 package com.hhao.cloud.messagebus.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -112,6 +114,30 @@ public class MessageBusProperties {
          * 是否生成一个默认的生产者
          */
         private Boolean initDefaultProvider=false;
+        /**
+         * 分区数，大于1时启用分区，同一分区键的消息由同一消费者按序处理
+         */
+        private Integer partitionCount=1;
+        /**
+         * 分区键表达式(SpEL)，默认取partitionKey消息头
+         */
+        private String partitionKeyExpression="headers['"+Constants.PARTITION_KEY_HEADER+"']";
+        /**
+         * 消息的contentType，如application/x-jackson-smile、application/cbor、application/x-protobuf，未配置时采用默认的JSON
+         */
+        private String contentType;
+        /**
+         * 压缩方式
+         */
+        private Compression compression=Compression.NONE;
+        /**
+         * 启用压缩时，payload不小于该大小才压缩
+         */
+        private DataSize compressThreshold=DataSize.ofKilobytes(1);
+        /**
+         * 是否在进程内直接投递，生产者与消费者都使用loopback binder，消息不经过broker
+         */
+        private Boolean loopback=false;
 
         /**
          * Gets name.
@@ -185,6 +211,123 @@ public class MessageBusProperties {
             this.initDefaultProvider = initDefaultProvider;
         }
 
+        /**
+         * Gets partition count.
+         *
+         * @return the partition count
+         */
+        public Integer getPartitionCount() {
+            return partitionCount;
+        }
+
+        /**
+         * Sets partition count.
+         *
+         * @param partitionCount the partition count
+         */
+        public void setPartitionCount(Integer partitionCount) {
+            this.partitionCount = partitionCount;
+        }
+
+        /**
+         * Gets partition key expression.
+         *
+         * @return the partition key expression
+         */
+        public String getPartitionKeyExpression() {
+            return partitionKeyExpression;
+        }
+
+        /**
+         * Sets partition key expression.
+         *
+         * @param partitionKeyExpression the partition key expression
+         */
+        public void setPartitionKeyExpression(String partitionKeyExpression) {
+            this.partitionKeyExpression = partitionKeyExpression;
+        }
+
+        /**
+         * Gets content type.
+         *
+         * @return the content type
+         */
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Sets content type.
+         *
+         * @param contentType the content type
+         */
+        public void setContentType(String contentType) {
+            this.contentType = contentType;
+        }
+
+        /**
+         * Gets compression.
+         *
+         * @return the compression
+         */
+        public Compression getCompression() {
+            return compression;
+        }
+
+        /**
+         * Sets compression.
+         *
+         * @param compression the compression
+         */
+        public void setCompression(Compression compression) {
+            this.compression = compression;
+        }
+
+        /**
+         * Gets compress threshold.
+         *
+         * @return the compress threshold
+         */
+        public DataSize getCompressThreshold() {
+            return compressThreshold;
+        }
+
+        /**
+         * Sets compress threshold.
+         *
+         * @param compressThreshold the compress threshold
+         */
+        public void setCompressThreshold(DataSize compressThreshold) {
+            this.compressThreshold = compressThreshold;
+        }
+
+        /**
+         * Gets loopback.
+         *
+         * @return the loopback
+         */
+        public Boolean getLoopback() {
+            return loopback;
+        }
+
+        /**
+         * Sets loopback.
+         *
+         * @param loopback the loopback
+         */
+        public void setLoopback(Boolean loopback) {
+            this.loopback = loopback;
+        }
+
+        /**
+         * 是否分区
+         *
+         * @return the boolean
+         */
+        public boolean isPartitioned(){
+            return partitionCount!=null && partitionCount>1;
+        }
+
         /**
          * Get default binding name string.
          *
@@ -222,6 +365,59 @@ public class MessageBusProperties {
              * 最大尝试次数
              */
             private Integer maxAttempts=1;
+            /**
+             * 消费者并发数，未配置时采用binder默认值
+             */
+            private Integer concurrency;
+            /**
+             * 最大消费者并发数，仅SIMPLE容器有效
+             */
+            private Integer maxConcurrency;
+            /**
+             * 每个消费者的预取数量
+             */
+            private Integer prefetch;
+            /**
+             * 是否批量消费，启用后函数参数为List
+             */
+            private Boolean batchMode=false;
+            /**
+             * 批量消费时每批的消息数
+             */
+            private Integer batchSize;
+            /**
+             * 批量消费时等待凑满一批的超时时间
+             */
+            private Duration receiveTimeout;
+            /**
+             * 监听容器类型
+             */
+            private ContainerType containerType=ContainerType.SIMPLE;
+            /**
+             * 分区时的实例序号，未配置时依次取spring.cloud.stream.instance-index、INSTANCE_INDEX及主机名末尾的序号
+             */
+            private Integer instanceIndex;
+            /**
+             * 分区时的实例数，未配置时依次取spring.cloud.stream.instance-count、INSTANCE_COUNT，默认1
+             */
+            private Integer instanceCount;
+            /**
+             * 是否按messageId去重
+             */
+            private Boolean dedup=false;
+            /**
+             * 去重时id的保留时间
+             */
+            private Duration dedupWindow=Duration.ofMinutes(5);
+            /**
+             * 去重时最多保留的id数，超出时提前淘汰最早的id
+             */
+            private Integer dedupCapacity=1000000;
+            /**
+             * 是否为响应式函数(Function&lt;Flux&lt;T&gt;, Flux&lt;R&gt;&gt;或Consumer&lt;Flux&lt;T&gt;&gt;)，
+             * 响应式函数不支持binder重试，maxAttempts固定为1，背压通过prefetch限制未确认的消息数
+             */
+            private Boolean reactive=false;
 
             /**
              * Gets func.
@@ -331,6 +527,240 @@ public class MessageBusProperties {
                 this.maxAttempts = maxAttempts;
             }
 
+            /**
+             * Gets concurrency.
+             *
+             * @return the concurrency
+             */
+            public Integer getConcurrency() {
+                return concurrency;
+            }
+
+            /**
+             * Sets concurrency.
+             *
+             * @param concurrency the concurrency
+             */
+            public void setConcurrency(Integer concurrency) {
+                this.concurrency = concurrency;
+            }
+
+            /**
+             * Gets max concurrency.
+             *
+             * @return the max concurrency
+             */
+            public Integer getMaxConcurrency() {
+                return maxConcurrency;
+            }
+
+            /**
+             * Sets max concurrency.
+             *
+             * @param maxConcurrency the max concurrency
+             */
+            public void setMaxConcurrency(Integer maxConcurrency) {
+                this.maxConcurrency = maxConcurrency;
+            }
+
+            /**
+             * Gets prefetch.
+             *
+             * @return the prefetch
+             */
+            public Integer getPrefetch() {
+                return prefetch;
+            }
+
+            /**
+             * Sets prefetch.
+             *
+             * @param prefetch the prefetch
+             */
+            public void setPrefetch(Integer prefetch) {
+                this.prefetch = prefetch;
+            }
+
+            /**
+             * Gets batch mode.
+             *
+             * @return the batch mode
+             */
+            public Boolean getBatchMode() {
+                return batchMode;
+            }
+
+            /**
+             * Sets batch mode.
+             *
+             * @param batchMode the batch mode
+             */
+            public void setBatchMode(Boolean batchMode) {
+                this.batchMode = batchMode;
+            }
+
+            /**
+             * Gets batch size.
+             *
+             * @return the batch size
+             */
+            public Integer getBatchSize() {
+                return batchSize;
+            }
+
+            /**
+             * Sets batch size.
+             *
+             * @param batchSize the batch size
+             */
+            public void setBatchSize(Integer batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            /**
+             * Gets receive timeout.
+             *
+             * @return the receive timeout
+             */
+            public Duration getReceiveTimeout() {
+                return receiveTimeout;
+            }
+
+            /**
+             * Sets receive timeout.
+             *
+             * @param receiveTimeout the receive timeout
+             */
+            public void setReceiveTimeout(Duration receiveTimeout) {
+                this.receiveTimeout = receiveTimeout;
+            }
+
+            /**
+             * Gets container type.
+             *
+             * @return the container type
+             */
+            public ContainerType getContainerType() {
+                return containerType;
+            }
+
+            /**
+             * Sets container type.
+             *
+             * @param containerType the container type
+             */
+            public void setContainerType(ContainerType containerType) {
+                this.containerType = containerType;
+            }
+
+            /**
+             * Gets instance index.
+             *
+             * @return the instance index
+             */
+            public Integer getInstanceIndex() {
+                return instanceIndex;
+            }
+
+            /**
+             * Sets instance index.
+             *
+             * @param instanceIndex the instance index
+             */
+            public void setInstanceIndex(Integer instanceIndex) {
+                this.instanceIndex = instanceIndex;
+            }
+
+            /**
+             * Gets instance count.
+             *
+             * @return the instance count
+             */
+            public Integer getInstanceCount() {
+                return instanceCount;
+            }
+
+            /**
+             * Sets instance count.
+             *
+             * @param instanceCount the instance count
+             */
+            public void setInstanceCount(Integer instanceCount) {
+                this.instanceCount = instanceCount;
+            }
+
+            /**
+             * Gets dedup.
+             *
+             * @return the dedup
+             */
+            public Boolean getDedup() {
+                return dedup;
+            }
+
+            /**
+             * Sets dedup.
+             *
+             * @param dedup the dedup
+             */
+            public void setDedup(Boolean dedup) {
+                this.dedup = dedup;
+            }
+
+            /**
+             * Gets dedup window.
+             *
+             * @return the dedup window
+             */
+            public Duration getDedupWindow() {
+                return dedupWindow;
+            }
+
+            /**
+             * Sets dedup window.
+             *
+             * @param dedupWindow the dedup window
+             */
+            public void setDedupWindow(Duration dedupWindow) {
+                this.dedupWindow = dedupWindow;
+            }
+
+            /**
+             * Gets dedup capacity.
+             *
+             * @return the dedup capacity
+             */
+            public Integer getDedupCapacity() {
+                return dedupCapacity;
+            }
+
+            /**
+             * Sets dedup capacity.
+             *
+             * @param dedupCapacity the dedup capacity
+             */
+            public void setDedupCapacity(Integer dedupCapacity) {
+                this.dedupCapacity = dedupCapacity;
+            }
+
+            /**
+             * Gets reactive.
+             *
+             * @return the reactive
+             */
+            public Boolean getReactive() {
+                return reactive;
+            }
+
+            /**
+             * Sets reactive.
+             *
+             * @param reactive the reactive
+             */
+            public void setReactive(Boolean reactive) {
+                this.reactive = reactive;
+            }
+
             /**
              * Get binding name string.
              *
@@ -339,6 +769,44 @@ public class MessageBusProperties {
             public String getBindingName(){
                 return this.getFunc()+Constants.IN_TAG+this.getIndex();
             }
+
+            /**
+             * 是否需要binder扩展属性
+             *
+             * @return the boolean
+             */
+            public boolean hasExtendedSettings(){
+                return autoBindDlq || maxConcurrency!=null || prefetch!=null || batchMode
+                        || containerType!=ContainerType.SIMPLE;
+            }
+        }
+
+        /**
+         * 压缩方式
+         */
+        public enum Compression{
+            /**
+             * 不压缩
+             */
+            NONE,
+            /**
+             * GZIP
+             */
+            GZIP
+        }
+
+        /**
+         * 监听容器类型
+         */
+        public enum ContainerType{
+            /**
+             * 容器自有的消费线程，支持maxConcurrency及批量消费
+             */
+            SIMPLE,
+            /**
+             * 直接在AMQP客户端线程上调用监听，线程更少，不支持批量消费
+             */
+            DIRECT
         }
 
         /**
@@ -347,6 +815,35 @@ public class MessageBusProperties {
         public static class Provider{
             private String func;
             private Integer index=0;
+            /**
+             * 批量发送时每批最大消息数
+             */
+            private Integer batchSize=100;
+            /**
+             * 批量发送时消息最长等待时间
+             */
+            private Duration linger=Duration.ofMillis(5);
+            /**
+             * 未启用发布确认时，是否由Rabbit binder按batchSize、linger把消息合并为一条AMQP消息发送；
+             * 消费端由Spring AMQP自动拆分，有非Spring的消费者时应关闭
+             */
+            private Boolean brokerBatching=true;
+            /**
+             * 是否启用发布确认，启用时BatchingMessagePublish返回的Future在broker确认后完成
+             */
+            private Boolean confirm=false;
+            /**
+             * ReactiveMessagePublish最多同时等待确认(未启用确认时为发送中)的消息数
+             */
+            private Integer maxInFlight=256;
+            /**
+             * BatchingMessagePublish每个binding最多缓存的未发送消息数
+             */
+            private Integer maxPending=10000;
+            /**
+             * BatchingMessagePublish缓存满时调用方的最长等待时间，为0时立即以失败完成Future
+             */
+            private Duration sendTimeout=Duration.ZERO;
 
             /**
              * Gets func.
@@ -384,6 +881,132 @@ public class MessageBusProperties {
                 this.index = index;
             }
 
+            /**
+             * Gets batch size.
+             *
+             * @return the batch size
+             */
+            public Integer getBatchSize() {
+                return batchSize;
+            }
+
+            /**
+             * Sets batch size.
+             *
+             * @param batchSize the batch size
+             */
+            public void setBatchSize(Integer batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            /**
+             * Gets linger.
+             *
+             * @return the linger
+             */
+            public Duration getLinger() {
+                return linger;
+            }
+
+            /**
+             * Sets linger.
+             *
+             * @param linger the linger
+             */
+            public void setLinger(Duration linger) {
+                this.linger = linger;
+            }
+
+            /**
+             * Gets broker batching.
+             *
+             * @return the broker batching
+             */
+            public Boolean getBrokerBatching() {
+                return brokerBatching;
+            }
+
+            /**
+             * Sets broker batching.
+             *
+             * @param brokerBatching the broker batching
+             */
+            public void setBrokerBatching(Boolean brokerBatching) {
+                this.brokerBatching = brokerBatching;
+            }
+
+            /**
+             * Gets confirm.
+             *
+             * @return the confirm
+             */
+            public Boolean getConfirm() {
+                return confirm;
+            }
+
+            /**
+             * Sets confirm.
+             *
+             * @param confirm the confirm
+             */
+            public void setConfirm(Boolean confirm) {
+                this.confirm = confirm;
+            }
+
+            /**
+             * Gets max in flight.
+             *
+             * @return the max in flight
+             */
+            public Integer getMaxInFlight() {
+                return maxInFlight;
+            }
+
+            /**
+             * Sets max in flight.
+             *
+             * @param maxInFlight the max in flight
+             */
+            public void setMaxInFlight(Integer maxInFlight) {
+                this.maxInFlight = maxInFlight;
+            }
+
+            /**
+             * Gets max pending.
+             *
+             * @return the max pending
+             */
+            public Integer getMaxPending() {
+                return maxPending;
+            }
+
+            /**
+             * Sets max pending.
+             *
+             * @param maxPending the max pending
+             */
+            public void setMaxPending(Integer maxPending) {
+                this.maxPending = maxPending;
+            }
+
+            /**
+             * Gets send timeout.
+             *
+             * @return the send timeout
+             */
+            public Duration getSendTimeout() {
+                return sendTimeout;
+            }
+
+            /**
+             * Sets send timeout.
+             *
+             * @param sendTimeout the send timeout
+             */
+            public void setSendTimeout(Duration sendTimeout) {
+                this.sendTimeout = sendTimeout;
+            }
+
             /**
              * Get binding name string.
              *
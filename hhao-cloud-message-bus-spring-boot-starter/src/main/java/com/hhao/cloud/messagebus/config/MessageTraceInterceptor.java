@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hhao.cloud.messagebus.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.integration.support.context.NamedComponent;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.util.PatternMatchUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 消息跟踪拦截器
+ * DEBUG未开启时直接返回；按channel缓存匹配到的采样率，
+ * 采样命中时输出channel、binding、消息id、大小及截断后的payload
+ *
+ * @author Wang
+ * @since 2026/10/18 20:15
+ */
+public class MessageTraceInterceptor implements ChannelInterceptor {
+    protected final Logger logger = LoggerFactory.getLogger(MessageTraceInterceptor.class);
+    private final MessageBusConfigProperties.Trace trace;
+    private final ConcurrentMap<MessageChannel, ChannelTrace> channels = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Message trace interceptor.
+     *
+     * @param trace the trace
+     */
+    public MessageTraceInterceptor(MessageBusConfigProperties.Trace trace) {
+        this.trace = trace;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!logger.isDebugEnabled()) {
+            return message;
+        }
+        ChannelTrace channelTrace = channels.computeIfAbsent(channel, this::resolve);
+        double sampleRate = channelTrace.sampleRate;
+        if (sampleRate <= 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return message;
+        }
+        Object payload = message.getPayload();
+        logger.debug("message-bus trace channel={} binding={} id={} size={} payload={}",
+                channelTrace.channelName, channelTrace.bindingName, message.getHeaders().getId(), sizeOf(payload),
+                new TruncatedPayload(payload, trace.getMaxPayloadLength()));
+        return message;
+    }
+
+    private ChannelTrace resolve(MessageChannel channel) {
+        String channelName = channel instanceof NamedComponent ? ((NamedComponent) channel).getComponentName() : null;
+        if (channelName == null) {
+            channelName = channel.toString();
+        }
+        double sampleRate = trace.getDefaultSampleRate() == null ? 1 : trace.getDefaultSampleRate();
+        for (Map.Entry<String, Double> entry : trace.getSampleRates().entrySet()) {
+            if (PatternMatchUtils.simpleMatch(entry.getKey(), channelName)) {
+                sampleRate = entry.getValue() == null ? 0 : entry.getValue();
+                break;
+            }
+        }
+        //binding对应的channel以binding名称命名
+        boolean binding = channelName.contains(Constants.IN_TAG) || channelName.contains(Constants.OUT_TAG);
+        return new ChannelTrace(channelName, binding ? channelName : "-", sampleRate);
+    }
+
+    private static int sizeOf(Object payload) {
+        if (payload instanceof byte[]) {
+            return ((byte[]) payload).length;
+        }
+        if (payload instanceof String) {
+            return ((String) payload).length();
+        }
+        return -1;
+    }
+
+    private static class ChannelTrace {
+        private final String channelName;
+        private final String bindingName;
+        private final double sampleRate;
+
+        ChannelTrace(String channelName, String bindingName, double sampleRate) {
+            this.channelName = channelName;
+            this.bindingName = bindingName;
+            this.sampleRate = sampleRate;
+        }
+    }
+
+    /**
+     * 由日志框架在真正输出时调用toString，按最大长度截断
+     */
+    private static class TruncatedPayload {
+        private final Object payload;
+        private final int maxLength;
+
+        TruncatedPayload(Object payload, Integer maxLength) {
+            this.payload = payload;
+            this.maxLength = maxLength == null ? 0 : maxLength;
+        }
+
+        @Override
+        public String toString() {
+            if (maxLength <= 0) {
+                return "";
+            }
+            String text;
+            if (payload instanceof byte[]) {
+                byte[] bytes = (byte[]) payload;
+                text = new String(bytes, 0, Math.min(bytes.length, maxLength), StandardCharsets.UTF_8);
+                return bytes.length > maxLength ? text + "...(truncated)" : text;
+            }
+            text = String.valueOf(payload);
+            return text.length() > maxLength ? text.substring(0, maxLength) + "...(truncated)" : text;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * 至少有一个带生产者的topic配置了GZIP压缩时匹配
+ * 压缩拦截器作为全局拦截器挂在所有输入、输出channel上，没有topic压缩时不注册
+ *
+ * @author Wang
+ * @since 2026/10/19 20:55
+ */
+class OnCompressionCondition extends SpringBootCondition {
+    private static final String PREFIX = "com.hhao.config.message-bus";
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        MessageBusProperties properties = Binder.get(context.getEnvironment())
+                .bind(PREFIX, MessageBusProperties.class).orElse(null);
+        if (properties != null && properties.getTopics() != null) {
+            for (MessageBusProperties.TopicProperty topic : properties.getTopics()) {
+                if (topic.getCompression() == MessageBusProperties.TopicProperty.Compression.GZIP
+                        && (topic.getProvider() != null || Boolean.TRUE.equals(topic.getInitDefaultProvider()))) {
+                    return ConditionOutcome.match("topic " + topic.getName() + " has gzip compression");
+                }
+            }
+        }
+        return ConditionOutcome.noMatch("no topic has compression enabled");
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hhao.cloud.messagebus.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * 至少有一个topic的消费者配置了dedup=true时匹配
+ * 去重包装器占用唯一的FunctionAroundWrapper位置，且包装所有函数调用，没有去重消费者时不注册
+ *
+ * @author Wang
+ * @since 2026/10/19 18:40
+ */
+class OnDedupConsumerCondition extends SpringBootCondition {
+    private static final String PREFIX = "com.hhao.config.message-bus";
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        MessageBusProperties properties = Binder.get(context.getEnvironment())
+                .bind(PREFIX, MessageBusProperties.class).orElse(null);
+        if (properties != null && properties.getTopics() != null) {
+            for (MessageBusProperties.TopicProperty topic : properties.getTopics()) {
+                if (topic.getConsumer() != null && Boolean.TRUE.equals(topic.getConsumer().getDedup())) {
+                    return ConditionOutcome.match("consumer of topic " + topic.getName() + " has dedup enabled");
+                }
+            }
+        }
+        return ConditionOutcome.noMatch("no consumer has dedup enabled");
+    }
+
+    /**
+     * 是否为发出的消息设置messageId
+     * 显式配置spring.cloud.message-bus.config.dedup.stamp-message-id时按配置，否则与是否有去重消费者一致
+     */
+    static class OnStampMessageId extends OnDedupConsumerCondition {
+        private static final String STAMP_PROPERTY = "spring.cloud.message-bus.config.dedup.stamp-message-id";
+
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            Boolean stamp = context.getEnvironment().getProperty(STAMP_PROPERTY, Boolean.class);
+            if (stamp != null) {
+                return stamp ? ConditionOutcome.match(STAMP_PROPERTY + " is true") : ConditionOutcome.noMatch(STAMP_PROPERTY + " is false");
+            }
+            return super.getMatchOutcome(context, metadata);
+        }
+    }
+}
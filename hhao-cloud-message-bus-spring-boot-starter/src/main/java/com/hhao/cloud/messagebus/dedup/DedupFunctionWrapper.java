@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus.dedup;
+
+import com.hhao.cloud.messagebus.config.MessageBusConfigProperties;
+import com.hhao.cloud.messagebus.config.MessageBusProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.function.context.catalog.FunctionAroundWrapper;
+import org.springframework.cloud.function.context.catalog.SimpleFunctionRegistry.FunctionInvocationWrapper;
+import org.springframework.messaging.Message;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 消费去重
+ * 对启用dedup的消费者函数，按消息的amqp_messageId判断是否已成功处理过，重复的消息直接丢弃、不调用函数；
+ * 函数正常返回后才记录id，处理失败的消息重投时仍会被处理
+ * 配置了目录时，关闭时把已处理的id写入文件，启动时加载
+ *
+ * @author Wang
+ * @since 2026/10/18 23:30
+ */
+public class DedupFunctionWrapper extends FunctionAroundWrapper implements DisposableBean {
+    protected final Logger logger = LoggerFactory.getLogger(DedupFunctionWrapper.class);
+    private static final String FILE_SUFFIX = ".dedup";
+    private final Map<String, DedupStore> stores = new HashMap<>();
+    private final Path directory;
+
+    /**
+     * Instantiates a new Dedup function wrapper.
+     *
+     * @param messageBusProperties the message bus properties
+     * @param properties           the properties
+     */
+    public DedupFunctionWrapper(MessageBusProperties messageBusProperties, MessageBusConfigProperties.Dedup properties) {
+        this.directory = StringUtils.hasText(properties.getDirectory()) ? Paths.get(properties.getDirectory()) : null;
+        List<MessageBusProperties.TopicProperty> topics = messageBusProperties.getTopics();
+        if (topics != null) {
+            for (MessageBusProperties.TopicProperty topic : topics) {
+                MessageBusProperties.TopicProperty.Consumer consumer = topic.getConsumer();
+                if (consumer != null && consumer.getDedup()) {
+                    DedupStore store = new DedupStore(consumer.getDedupWindow(), consumer.getDedupCapacity());
+                    stores.put(consumer.getFunc(), store);
+                    load(consumer.getFunc(), store);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected Object doApply(Object input, FunctionInvocationWrapper targetFunction) {
+        DedupStore store = input instanceof Message ? stores.get(targetFunction.getFunctionDefinition()) : null;
+        if (store == null) {
+            return targetFunction.apply(input);
+        }
+        Object messageId = ((Message<?>) input).getHeaders().get(AmqpHeaders.MESSAGE_ID);
+        if (messageId == null) {
+            return targetFunction.apply(input);
+        }
+        long id = DedupStore.toId(messageId.toString());
+        if (store.contains(id)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("skip duplicate message {} for {}", messageId, targetFunction.getFunctionDefinition());
+            }
+            return null;
+        }
+        Object result = targetFunction.apply(input);
+        store.add(id);
+        return result;
+    }
+
+    /**
+     * 按函数名称的去重集合
+     *
+     * @return the stores
+     */
+    public Map<String, DedupStore> getStores() {
+        return Collections.unmodifiableMap(stores);
+    }
+
+    @Override
+    public void destroy() {
+        if (directory == null) {
+            return;
+        }
+        for (Map.Entry<String, DedupStore> entry : stores.entrySet()) {
+            try {
+                Files.createDirectories(directory);
+                entry.getValue().save(directory.resolve(entry.getKey() + FILE_SUFFIX));
+            } catch (IOException e) {
+                logger.warn("failed to save dedup ids of {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private void load(String func, DedupStore store) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            int count = store.load(directory.resolve(func + FILE_SUFFIX));
+            if (count > 0) {
+                logger.info("loaded {} dedup ids of {}", count, func);
+            }
+        } catch (IOException e) {
+            logger.warn("failed to load dedup ids of {}: {}", func, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus.dedup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 已处理消息id的集合
+ * 按id的hash分为多个stripe，每个stripe由当前、上一代两个开放寻址的long数组组成，
+ * 当前代存在超过window或写满时整体轮换，上一代清空后复用，因此id至少保留window(未写满时)，最多保留2*window，内存固定
+ *
+ * @author Wang
+ * @since 2026/10/18 23:10
+ */
+public class DedupStore {
+    private static final int STRIPES = 16;
+    private static final long EMPTY = 0L;
+    private final long windowNanos;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder checks = new LongAdder();
+
+    /**
+     * Instantiates a new Dedup store.
+     *
+     * @param window   保留时间
+     * @param capacity 最多保留的id数
+     */
+    public DedupStore(Duration window, int capacity) {
+        this.windowNanos = window.toNanos();
+        int perGeneration = Math.max(16, capacity / STRIPES / 2);
+        long now = System.nanoTime();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perGeneration, now);
+        }
+    }
+
+    /**
+     * 是否已处理过
+     *
+     * @param id the id
+     * @return the boolean
+     */
+    public boolean contains(long id) {
+        long hash = hash(id);
+        checks.increment();
+        if (stripes[(int) (hash >>> 60)].contains(hash, System.nanoTime())) {
+            hits.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 记录已处理
+     *
+     * @param id the id
+     */
+    public void add(long id) {
+        long hash = hash(id);
+        stripes[(int) (hash >>> 60)].add(hash, System.nanoTime());
+    }
+
+    /**
+     * 重复消息数
+     *
+     * @return the hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * 检查的消息数
+     *
+     * @return the checks
+     */
+    public long getChecks() {
+        return checks.sum();
+    }
+
+    /**
+     * 按字符串形式的消息id计算64位id(FNV-1a)
+     *
+     * @param messageId the message id
+     * @return the long
+     */
+    public static long toId(String messageId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < messageId.length(); i++) {
+            hash ^= messageId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * 保存到文件，重启后可继续去重
+     *
+     * @param path the path
+     * @throws IOException the io exception
+     */
+    public void save(Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeLong(System.currentTimeMillis());
+            for (Stripe stripe : stripes) {
+                stripe.writeTo(out);
+            }
+            out.writeLong(EMPTY);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 从文件加载，超过保留时间的文件被忽略
+     *
+     * @param path the path
+     * @return 加载的id数
+     * @throws IOException the io exception
+     */
+    public int load(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            long savedAt = in.readLong();
+            if (Duration.ofMillis(System.currentTimeMillis() - savedAt).toNanos() > windowNanos) {
+                return 0;
+            }
+            long now = System.nanoTime();
+            long hash;
+            while ((hash = in.readLong()) != EMPTY) {
+                stripes[(int) (hash >>> 60)].add(hash, now);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long hash(long id) {
+        //murmur3 fmix64，0保留为空槽
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1L : h;
+    }
+
+    private class Stripe {
+        private final int maxSize;
+        private final int mask;
+        private long[] current;
+        private long[] previous;
+        private int size;
+        private long rotatedAt;
+
+        Stripe(int maxSize, long now) {
+            this.maxSize = maxSize;
+            int length = Integer.highestOneBit(maxSize * 2 - 1) << 1;
+            this.mask = length - 1;
+            this.current = new long[length];
+            this.previous = new long[length];
+            this.rotatedAt = now;
+        }
+
+        synchronized boolean contains(long hash, long now) {
+            rotateIfExpired(now);
+            return find(current, hash) || find(previous, hash);
+        }
+
+        synchronized void add(long hash, long now) {
+            rotateIfExpired(now);
+            if (size >= maxSize) {
+                rotate(now);
+            }
+            int index = (int) hash & mask;
+            while (current[index] != EMPTY) {
+                if (current[index] == hash) {
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+            current[index] = hash;
+            size++;
+        }
+
+        synchronized void writeTo(DataOutputStream out) throws IOException {
+            for (long hash : previous) {
+                if (hash != EMPTY) {
+                    out.writeLong(hash);
+                }
+            }
+            for (long hash : current) {
+                if (hash != EMPTY) {
+                    out.writeLong(hash);
+                }
+            }
+        }
+
+        private boolean find(long[] table, long hash) {
+            int index = (int) hash & mask;
+            long value;
+            while ((value = table[index]) != EMPTY) {
+                if (value == hash) {
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+            return false;
+        }
+
+        private void rotateIfExpired(long now) {
+            long elapsed = now - rotatedAt;
+            if (elapsed >= windowNanos) {
+                rotate(now);
+                if (elapsed >= windowNanos * 2) {
+                    //长时间空闲，上一代也已过期
+                    rotate(now);
+                }
+            }
+        }
+
+        private void rotate(long now) {
+            long[] cleared = previous;
+            Arrays.fill(cleared, EMPTY);
+            previous = current;
+            current = cleared;
+            size = 0;
+            rotatedAt = now;
+        }
+    }
+}
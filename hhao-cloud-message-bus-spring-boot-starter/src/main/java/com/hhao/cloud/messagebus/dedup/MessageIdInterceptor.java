@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus.dedup;
+
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 为发出的消息设置amqp_messageId，供消费端去重
+ * 已有messageId的消息不做修改
+ *
+ * @author Wang
+ * @since 2026/10/18 23:20
+ */
+public class MessageIdInterceptor implements ChannelInterceptor {
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (message.getHeaders().containsKey(AmqpHeaders.MESSAGE_ID)) {
+            return message;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return MessageBuilder.fromMessage(message)
+                .setHeader(AmqpHeaders.MESSAGE_ID, new UUID(random.nextLong(), random.nextLong()).toString())
+                .build();
+    }
+}
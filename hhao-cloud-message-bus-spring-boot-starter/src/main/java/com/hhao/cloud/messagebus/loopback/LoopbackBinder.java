@@ -0,0 +1,376 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus.loopback;
+
+import com.hhao.cloud.messagebus.config.MessageBusConfigProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.stream.binder.Binder;
+import org.springframework.cloud.stream.binder.Binding;
+import org.springframework.cloud.stream.binder.ConsumerProperties;
+import org.springframework.cloud.stream.binder.DefaultBinding;
+import org.springframework.cloud.stream.binder.ProducerProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.Lifecycle;
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.context.IntegrationContextUtils;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 进程内的loopback binder
+ * 生产者binding直接把消息放入同一destination下各消费组的环形队列，消费组内的binding竞争消费，不经过broker，也不做序列化；
+ * 队列满时生产者自旋等待，超过sendTimeout抛出MessageDeliveryException；
+ * 消费线程空闲时挂起，由生产者放入消息后唤醒；超过maxAttempts仍失败的消息以ErrorMessage发送到
+ * &lt;destination&gt;.&lt;group&gt;.errors通道，不存在时发送到errorChannel；
+ * 没有消费组的destination上发送的消息被丢弃，可通过生产者的requiredGroups预先创建消费组
+ * 也可作为spring.cloud.stream.default-binder=loopback用于无RabbitMQ的测试环境
+ *
+ * @author Wang
+ * @since 2026/10/19 09:30
+ */
+public class LoopbackBinder implements Binder<MessageChannel, ConsumerProperties, ProducerProperties>, ApplicationContextAware, DisposableBean {
+    protected final Logger logger = LoggerFactory.getLogger(LoopbackBinder.class);
+    private static final String ERROR_CHANNEL_SUFFIX = ".errors";
+    private final MessageBusConfigProperties.Loopback properties;
+    private final ConcurrentMap<String, Destination> destinations = new ConcurrentHashMap<>();
+    private ApplicationContext applicationContext;
+
+    /**
+     * Instantiates a new Loopback binder.
+     *
+     * @param properties the properties
+     */
+    public LoopbackBinder(MessageBusConfigProperties.Loopback properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public Binding<MessageChannel> bindConsumer(String name, String group, MessageChannel inboundBindTarget, ConsumerProperties consumerProperties) {
+        String groupName = StringUtils.hasText(group) ? group : "anonymous." + UUID.randomUUID();
+        Group target = destination(name).group(groupName);
+        ConsumerLifecycle lifecycle = new ConsumerLifecycle(name, target, inboundBindTarget, consumerProperties,
+                target.name + ERROR_CHANNEL_SUFFIX);
+        lifecycle.start();
+        return new DefaultBinding<MessageChannel>(name, group, inboundBindTarget, lifecycle) {
+            @Override
+            protected void afterUnbind() {
+                if (!StringUtils.hasText(group)) {
+                    destination(name).removeGroup(groupName);
+                }
+            }
+        };
+    }
+
+    @Override
+    public Binding<MessageChannel> bindProducer(String name, MessageChannel outboundBindTarget, ProducerProperties producerProperties) {
+        if (!(outboundBindTarget instanceof SubscribableChannel)) {
+            throw new IllegalArgumentException("Loopback binder requires a SubscribableChannel for " + name);
+        }
+        Destination destination = destination(name);
+        if (producerProperties.getRequiredGroups() != null) {
+            for (String requiredGroup : producerProperties.getRequiredGroups()) {
+                destination.group(requiredGroup);
+            }
+        }
+        ProducerLifecycle lifecycle = new ProducerLifecycle((SubscribableChannel) outboundBindTarget, destination);
+        lifecycle.start();
+        return new DefaultBinding<>(name, null, outboundBindTarget, lifecycle);
+    }
+
+    @Override
+    public void destroy() {
+        destinations.clear();
+    }
+
+    private Destination destination(String name) {
+        return destinations.computeIfAbsent(name, Destination::new);
+    }
+
+    //优先使用<destination>.<group>.errors，其次errorChannel
+    private MessageChannel errorChannel(String errorChannelName) {
+        if (applicationContext == null) {
+            return null;
+        }
+        if (applicationContext.containsBean(errorChannelName)) {
+            return applicationContext.getBean(errorChannelName, MessageChannel.class);
+        }
+        if (applicationContext.containsBean(IntegrationContextUtils.ERROR_CHANNEL_BEAN_NAME)) {
+            return applicationContext.getBean(IntegrationContextUtils.ERROR_CHANNEL_BEAN_NAME, MessageChannel.class);
+        }
+        return null;
+    }
+
+    private class Destination {
+        private final String name;
+        private final ConcurrentMap<String, Group> groups = new ConcurrentHashMap<>();
+        private volatile Group[] snapshot = new Group[0];
+
+        Destination(String name) {
+            this.name = name;
+        }
+
+        Group group(String groupName) {
+            return groups.computeIfAbsent(groupName, key -> {
+                Group group = new Group(name + "." + key, properties.getBufferSize());
+                refresh(group, null);
+                return group;
+            });
+        }
+
+        void removeGroup(String groupName) {
+            Group group = groups.remove(groupName);
+            if (group != null) {
+                refresh(null, group);
+            }
+        }
+
+        private synchronized void refresh(Group added, Group removed) {
+            List<Group> list = new ArrayList<>();
+            for (Group group : snapshot) {
+                if (group != removed) {
+                    list.add(group);
+                }
+            }
+            if (added != null) {
+                list.add(added);
+            }
+            snapshot = list.toArray(new Group[0]);
+        }
+
+        void publish(Message<?> message) {
+            for (Group group : snapshot) {
+                group.put(message);
+            }
+        }
+    }
+
+    private class Group {
+        private final String name;
+        private final MpmcRingBuffer<Message<?>> buffer;
+        //空闲挂起的消费线程
+        private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+        Group(String name, int bufferSize) {
+            this.name = name;
+            this.buffer = new MpmcRingBuffer<>(bufferSize);
+        }
+
+        void put(Message<?> message) {
+            if (buffer.offer(message)) {
+                signal();
+                return;
+            }
+            long deadline = System.nanoTime() + properties.getSendTimeout().toNanos();
+            int spins = 0;
+            while (!buffer.offer(message)) {
+                if (System.nanoTime() - deadline > 0) {
+                    throw new MessageDeliveryException(message, "Loopback buffer of " + name + " is full");
+                }
+                if (++spins < 64) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(10_000L);
+                }
+            }
+            signal();
+        }
+
+        private void signal() {
+            Thread waiter = waiters.poll();
+            if (waiter != null) {
+                LockSupport.unpark(waiter);
+            }
+        }
+
+        /**
+         * 队列为空时挂起当前线程，直到put唤醒或消费者停止；
+         * 先登记再检查队列，避免错过登记前放入的消息
+         */
+        Message<?> await(ConsumerLifecycle consumer) {
+            Thread current = Thread.currentThread();
+            waiters.add(current);
+            try {
+                Message<?> message = buffer.poll();
+                if (message == null && consumer.running) {
+                    LockSupport.park(this);
+                    message = buffer.poll();
+                }
+                return message;
+            } finally {
+                waiters.remove(current);
+            }
+        }
+    }
+
+    private static class ProducerLifecycle implements Lifecycle {
+        private final SubscribableChannel channel;
+        private final MessageHandler handler;
+        private volatile boolean running;
+
+        ProducerLifecycle(SubscribableChannel channel, Destination destination) {
+            this.channel = channel;
+            this.handler = destination::publish;
+        }
+
+        @Override
+        public synchronized void start() {
+            if (!running) {
+                channel.subscribe(handler);
+                running = true;
+            }
+        }
+
+        @Override
+        public synchronized void stop() {
+            if (running) {
+                channel.unsubscribe(handler);
+                running = false;
+            }
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+    }
+
+    private class ConsumerLifecycle implements Lifecycle {
+        private final String name;
+        private final Group group;
+        private final MessageChannel channel;
+        private final int concurrency;
+        private final int maxAttempts;
+        private final String errorChannelName;
+        private final List<Thread> workers = new ArrayList<>();
+        private volatile boolean running;
+
+        ConsumerLifecycle(String name, Group group, MessageChannel channel, ConsumerProperties consumerProperties, String errorChannelName) {
+            this.name = name;
+            this.errorChannelName = errorChannelName;
+            this.group = group;
+            this.channel = channel;
+            this.concurrency = Math.max(1, consumerProperties.getConcurrency());
+            this.maxAttempts = Math.max(1, consumerProperties.getMaxAttempts());
+        }
+
+        @Override
+        public synchronized void start() {
+            if (running) {
+                return;
+            }
+            running = true;
+            for (int i = 0; i < concurrency; i++) {
+                Thread worker = new Thread(this::poll, "loopback-" + name + "-" + i);
+                worker.setDaemon(true);
+                workers.add(worker);
+                worker.start();
+            }
+        }
+
+        @Override
+        public synchronized void stop() {
+            running = false;
+            for (Thread worker : workers) {
+                LockSupport.unpark(worker);
+                try {
+                    worker.join(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            workers.clear();
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        private void poll() {
+            while (running) {
+                Message<?> message = group.buffer.poll();
+                if (message == null) {
+                    message = group.await(this);
+                }
+                if (message != null) {
+                    deliver(message);
+                }
+            }
+        }
+
+        private void deliver(Message<?> message) {
+            Message<?> delivery = message;
+            AtomicInteger attempt = null;
+            if (maxAttempts > 1) {
+                attempt = new AtomicInteger(1);
+                delivery = MessageBuilder.fromMessage(message).setHeader(IntegrationMessageHeaderAccessor.DELIVERY_ATTEMPT, attempt).build();
+            }
+            for (int i = 1; ; i++) {
+                try {
+                    channel.send(delivery);
+                    return;
+                } catch (Exception e) {
+                    if (i >= maxAttempts) {
+                        sendError(message, e, i);
+                        return;
+                    }
+                    attempt.incrementAndGet();
+                }
+            }
+        }
+
+        private void sendError(Message<?> message, Exception e, int attempts) {
+            MessageChannel errorChannel = errorChannel(errorChannelName);
+            if (errorChannel == null) {
+                logger.error("loopback message to {} failed after {} attempts", name, attempts, e);
+                return;
+            }
+            MessagingException exception = e instanceof MessagingException ? (MessagingException) e
+                    : new MessagingException(message, "Loopback message to " + name + " failed after " + attempts + " attempts", e);
+            try {
+                errorChannel.send(new ErrorMessage(exception, message));
+            } catch (Exception ex) {
+                logger.error("failed to send loopback error of {} to error channel", name, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus.loopback;
+
+import com.hhao.cloud.messagebus.config.MessageBusConfigProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * loopback binder配置，通过META-INF/spring.binders注册
+ *
+ * @author Wang
+ * @since 2026/10/19 09:50
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties
+public class LoopbackBinderConfiguration {
+
+    /**
+     * Loopback properties.
+     *
+     * @return the message bus config properties . loopback
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "spring.cloud.message-bus.config.loopback")
+    public MessageBusConfigProperties.Loopback loopbackProperties() {
+        return new MessageBusConfigProperties.Loopback();
+    }
+
+    /**
+     * Loopback binder.
+     *
+     * @param loopbackProperties the loopback properties
+     * @return the loopback binder
+     */
+    @Bean
+    public LoopbackBinder loopbackBinder(MessageBusConfigProperties.Loopback loopbackProperties) {
+        return new LoopbackBinder(loopbackProperties);
+    }
+}
@@ -0,0 +1,433 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32;
+
+/**
+ * 本地只追加的消息日志
+ * 按固定大小的段文件组织，每个段通过内存映射写入，记录格式为[长度][CRC32][内容]，长度为0表示段内已无数据，-1表示已切换到下一个段；
+ * 已转发的位置记录在checkpoint文件中，重启时从checkpoint继续，并通过CRC截掉未写完整的记录
+ * 写入由一个锁串行化，读取只由转发线程进行，写入的可见性通过段的volatile limit发布
+ *
+ * @author Wang
+ * @since 2026/10/18 21:40
+ */
+public class OutboxLog implements Closeable {
+    protected final Logger logger = LoggerFactory.getLogger(OutboxLog.class);
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String LOCK_FILE = "lock";
+    private static final int RECORD_HEADER = 8;
+    private static final int ROLL = -1;
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean force;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final FileChannel checkpointChannel;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final CRC32 writeCrc = new CRC32();
+    private final CRC32 readCrc = new CRC32();
+    private Segment writeSegment;
+    private volatile Position checkpoint;
+
+    private OutboxLog(Path directory, int segmentSize, boolean force) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.force = force;
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Outbox directory " + directory + " is used by another process");
+        }
+        this.checkpointChannel = FileChannel.open(directory.resolve(CHECKPOINT_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * 打开日志，恢复未转发的记录
+     *
+     * @param directory   the directory
+     * @param segmentSize the segment size
+     * @param force       每次写入后是否刷盘，否则由操作系统异步刷盘(进程崩溃不丢失，操作系统崩溃可能丢失)
+     * @return the outbox log
+     * @throws IOException the io exception
+     */
+    public static OutboxLog open(Path directory, int segmentSize, boolean force) throws IOException {
+        OutboxLog log = new OutboxLog(directory, segmentSize, force);
+        try {
+            log.recover();
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        return log;
+    }
+
+    /**
+     * 追加一条记录
+     *
+     * @param body the body
+     * @throws IOException the io exception
+     */
+    public synchronized void append(byte[] body) throws IOException {
+        int size = RECORD_HEADER + body.length;
+        if (size > segmentSize - 4) {
+            throw new IllegalArgumentException("Outbox record of " + body.length + " bytes exceeds segment size " + segmentSize);
+        }
+        Segment segment = writeSegment;
+        int offset = segment.limit;
+        if (offset + size > segmentSize - 4) {
+            segment.writer.putInt(offset, ROLL);
+            segment.sealed = true;
+            segment = createSegment(segment.id + 1);
+            offset = 0;
+        }
+        writeCrc.reset();
+        writeCrc.update(body, 0, body.length);
+        ByteBuffer writer = segment.writer;
+        writer.position(offset + 4);
+        writer.putInt((int) writeCrc.getValue());
+        writer.put(body);
+        //长度最后写入，记录完整后才可被恢复
+        writer.putInt(offset, body.length);
+        if (force) {
+            segment.buffer.force();
+        }
+        segment.limit = offset + size;
+    }
+
+    /**
+     * 从指定位置起读取最多max条记录，只由转发线程调用
+     *
+     * @param from the from
+     * @param max  the max
+     * @return the list
+     */
+    public List<Entry> read(Position from, int max) {
+        List<Entry> entries = new ArrayList<>();
+        long segmentId = from.segment;
+        int offset = from.offset;
+        while (entries.size() < max) {
+            Segment segment = segments.get(segmentId);
+            if (segment == null) {
+                Map.Entry<Long, Segment> next = segments.higherEntry(segmentId);
+                if (next == null) {
+                    break;
+                }
+                segmentId = next.getKey();
+                offset = 0;
+                continue;
+            }
+            //先读sealed，再读limit，保证读到的limit是最终值
+            boolean sealed = segment.sealed;
+            int limit = segment.limit;
+            if (offset >= limit) {
+                if (!sealed) {
+                    break;
+                }
+                segmentId++;
+                offset = 0;
+                continue;
+            }
+            int length = segment.buffer.getInt(offset);
+            byte[] body = new byte[length];
+            ByteBuffer reader = segment.buffer.duplicate();
+            reader.position(offset + RECORD_HEADER);
+            reader.get(body);
+            offset += RECORD_HEADER + length;
+            entries.add(new Entry(body, new Position(segmentId, offset)));
+        }
+        return entries;
+    }
+
+    /**
+     * 记录已转发的位置，删除已全部转发的段
+     *
+     * @param position the position
+     * @throws IOException the io exception
+     */
+    public void checkpoint(Position position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(position.segment).putInt(position.offset);
+        readCrc.reset();
+        readCrc.update(buffer.array(), 0, 12);
+        buffer.putInt((int) readCrc.getValue());
+        buffer.flip();
+        checkpointChannel.write(buffer, 0);
+        if (force) {
+            checkpointChannel.force(false);
+        }
+        checkpoint = position;
+        for (Segment segment : segments.headMap(position.segment).values()) {
+            segments.remove(segment.id);
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        }
+    }
+
+    /**
+     * 已转发的位置
+     *
+     * @return the position
+     */
+    public Position getCheckpoint() {
+        return checkpoint;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+            segment.channel.close();
+        }
+        checkpointChannel.close();
+        if (lock != null) {
+            lock.release();
+        }
+        lockChannel.close();
+    }
+
+    private void recover() throws IOException {
+        checkpoint = readCheckpoint();
+        List<Long> ids = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    ids.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    logger.warn("ignore unknown outbox file {}", path);
+                }
+            }
+        }
+        ids.sort(Long::compare);
+        for (Long id : ids) {
+            Path path = segmentPath(id);
+            if (id < checkpoint.segment) {
+                Files.deleteIfExists(path);
+                continue;
+            }
+            Segment segment = mapSegment(id, path);
+            scan(segment);
+            segments.put(id, segment);
+        }
+        if (segments.isEmpty()) {
+            writeSegment = createSegment(checkpoint.segment);
+        } else {
+            Segment last = segments.lastEntry().getValue();
+            for (Segment segment : segments.headMap(last.id).values()) {
+                segment.sealed = true;
+            }
+            writeSegment = last.sealed ? createSegment(last.id + 1) : last;
+        }
+        Segment current = segments.get(checkpoint.segment);
+        if (current != null && current.limit < checkpoint.offset) {
+            //checkpoint之后的记录已被截掉
+            checkpoint = new Position(checkpoint.segment, current.limit);
+        }
+        logger.info("outbox opened at {}, relay from {}:{}", directory, checkpoint.segment, checkpoint.offset);
+    }
+
+    /**
+     * 扫描段内完整的记录，遇到长度为0、切换标记或CRC不符时停止，不完整的尾部清零
+     */
+    private void scan(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = 0;
+        while (offset + RECORD_HEADER <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length == 0) {
+                break;
+            }
+            if (length == ROLL) {
+                segment.sealed = true;
+                break;
+            }
+            if (length < 0 || offset + RECORD_HEADER + length > segmentSize || !checkCrc(buffer, offset, length)) {
+                logger.warn("truncate torn outbox record at {}:{}", segment.id, offset);
+                for (int i = offset; i < segmentSize; i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                break;
+            }
+            offset += RECORD_HEADER + length;
+        }
+        segment.limit = offset;
+    }
+
+    private boolean checkCrc(MappedByteBuffer buffer, int offset, int length) {
+        byte[] body = new byte[length];
+        ByteBuffer reader = buffer.duplicate();
+        reader.position(offset + RECORD_HEADER);
+        reader.get(body);
+        readCrc.reset();
+        readCrc.update(body, 0, length);
+        return (int) readCrc.getValue() == buffer.getInt(offset + 4);
+    }
+
+    private Position readCheckpoint() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        checkpointChannel.read(buffer, 0);
+        if (buffer.position() < 16) {
+            return new Position(0, 0);
+        }
+        readCrc.reset();
+        readCrc.update(buffer.array(), 0, 12);
+        buffer.flip();
+        long segment = buffer.getLong();
+        int offset = buffer.getInt();
+        if ((int) readCrc.getValue() != buffer.getInt()) {
+            //checkpoint损坏时从最早的段重新转发
+            logger.warn("outbox checkpoint in {} is corrupted, relay from the oldest segment", directory);
+            return new Position(0, 0);
+        }
+        return new Position(segment, offset);
+    }
+
+    private Segment createSegment(long id) throws IOException {
+        Segment segment = mapSegment(id, segmentPath(id));
+        segments.put(id, segment);
+        writeSegment = segment;
+        return segment;
+    }
+
+    private Segment mapSegment(long id, Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            return new Segment(id, path, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%020d", id) + SEGMENT_SUFFIX);
+    }
+
+    private static class Segment {
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final ByteBuffer writer;
+        private volatile int limit;
+        private volatile boolean sealed;
+
+        Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.writer = buffer.duplicate();
+        }
+    }
+
+    /**
+     * 日志中的位置
+     */
+    public static class Position {
+        private final long segment;
+        private final int offset;
+
+        /**
+         * Instantiates a new Position.
+         *
+         * @param segment the segment
+         * @param offset  the offset
+         */
+        public Position(long segment, int offset) {
+            this.segment = segment;
+            this.offset = offset;
+        }
+
+        /**
+         * Gets segment.
+         *
+         * @return the segment
+         */
+        public long getSegment() {
+            return segment;
+        }
+
+        /**
+         * Gets offset.
+         *
+         * @return the offset
+         */
+        public int getOffset() {
+            return offset;
+        }
+    }
+
+    /**
+     * 读取到的记录及其后的位置
+     */
+    public static class Entry {
+        private final byte[] body;
+        private final Position next;
+
+        /**
+         * Instantiates a new Entry.
+         *
+         * @param body the body
+         * @param next the next
+         */
+        public Entry(byte[] body, Position next) {
+            this.body = body;
+            this.next = next;
+        }
+
+        /**
+         * Gets body.
+         *
+         * @return the body
+         */
+        public byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * Gets next.
+         *
+         * @return the next
+         */
+        public Position getNext() {
+            return next;
+        }
+    }
+}
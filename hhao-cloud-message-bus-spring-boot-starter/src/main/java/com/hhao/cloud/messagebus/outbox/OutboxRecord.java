@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus.outbox;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * outbox中的一条消息
+ * 编码为[bindingName][messageId][partitionKey][contentType][headerCount][name,value...][payload]，
+ * 消息头的值以字符串保存
+ *
+ * @author Wang
+ * @since 2026/10/18 21:55
+ */
+public class OutboxRecord {
+    private final String bindingName;
+    private final String messageId;
+    private final String partitionKey;
+    private final String contentType;
+    private final Map<String, String> headers;
+    private final byte[] payload;
+
+    /**
+     * Instantiates a new Outbox record.
+     *
+     * @param bindingName  the binding name
+     * @param messageId    the message id
+     * @param partitionKey the partition key
+     * @param contentType  the content type
+     * @param headers      the headers
+     * @param payload      the payload
+     */
+    public OutboxRecord(String bindingName, String messageId, String partitionKey, String contentType, Map<String, String> headers, byte[] payload) {
+        this.bindingName = bindingName;
+        this.messageId = messageId;
+        this.partitionKey = partitionKey;
+        this.contentType = contentType;
+        this.headers = headers == null ? Collections.emptyMap() : headers;
+        this.payload = payload;
+    }
+
+    /**
+     * 编码
+     *
+     * @return the byte [ ]
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(bindingName);
+            writeNullable(out, messageId);
+            writeNullable(out, partitionKey);
+            writeNullable(out, contentType);
+            out.writeInt(headers.size());
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeUTF(header.getValue());
+            }
+            out.write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 解码
+     *
+     * @param body the body
+     * @return the outbox record
+     */
+    public static OutboxRecord decode(byte[] body) {
+        ByteArrayInputStream bytes = new ByteArrayInputStream(body);
+        try (DataInputStream in = new DataInputStream(bytes)) {
+            String bindingName = in.readUTF();
+            String messageId = readNullable(in);
+            String partitionKey = readNullable(in);
+            String contentType = readNullable(in);
+            int headerCount = in.readInt();
+            Map<String, String> headers = new LinkedHashMap<>(headerCount * 2);
+            for (int i = 0; i < headerCount; i++) {
+                headers.put(in.readUTF(), in.readUTF());
+            }
+            byte[] payload = new byte[bytes.available()];
+            in.readFully(payload);
+            return new OutboxRecord(bindingName, messageId, partitionKey, contentType, headers, payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Gets binding name.
+     *
+     * @return the binding name
+     */
+    public String getBindingName() {
+        return bindingName;
+    }
+
+    /**
+     * Gets message id.
+     *
+     * @return the message id
+     */
+    public String getMessageId() {
+        return messageId;
+    }
+
+    /**
+     * Gets partition key.
+     *
+     * @return the partition key
+     */
+    public String getPartitionKey() {
+        return partitionKey;
+    }
+
+    /**
+     * Gets content type.
+     *
+     * @return the content type
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Gets headers.
+     *
+     * @return the headers
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Get payload byte [ ].
+     *
+     * @return the byte [ ]
+     */
+    public byte[] getPayload() {
+        return payload;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hhao.cloud.messagebus.config.MessageBusConfigProperties;
+import com.hhao.cloud.messagebus.outbox.OutboxLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * outbox转发的重试及确认测试
+ *
+ * @author Wang
+ * @since 2026/10/19 20:05
+ */
+class OutboxMessagePublishTest {
+    private static final String BINDING = "orders-out-0";
+
+    @TempDir
+    Path directory;
+
+    private final StreamBridge streamBridge = mock(StreamBridge.class);
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final List<String> messageIds = new CopyOnWriteArrayList<>();
+    private OutboxLog outboxLog;
+    private OutboxMessagePublish publish;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        outboxLog = OutboxLog.open(directory, 64 * 1024, false);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (publish != null) {
+            publish.stop();
+        } else {
+            outboxLog.close();
+        }
+    }
+
+    @Test
+    void relayRetriesSameRecordAfterSendFailure() {
+        AtomicBoolean fail = new AtomicBoolean(true);
+        when(streamBridge.send(eq(BINDING), any())).thenAnswer(invocation -> {
+            record(invocation.getArgument(1));
+            return !fail.getAndSet(false);
+        });
+        publish = newPublish(false);
+        publish.send(BINDING, "a");
+        publish.send(BINDING, "b");
+        publish.start();
+
+        await(this::drained);
+        assertEquals(Arrays.asList("a", "a", "b"), sent);
+        //重发时messageId不变
+        assertEquals(messageIds.get(0), messageIds.get(1));
+    }
+
+    @Test
+    void checkpointStopsAtFirstNack() {
+        AtomicBoolean nacked = new AtomicBoolean(false);
+        when(streamBridge.send(eq(BINDING), any())).thenAnswer(invocation -> {
+            Message<?> message = invocation.getArgument(1);
+            String body = record(message);
+            boolean ack = !("b".equals(body) && nacked.compareAndSet(false, true));
+            correlationData(message).getFuture().set(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            return true;
+        });
+        publish = newPublish(true);
+        publish.send(BINDING, "a");
+        publish.send(BINDING, "b");
+        publish.send(BINDING, "c");
+        publish.start();
+
+        await(this::drained);
+        //c虽已确认，但b未确认，checkpoint停在a之后，b、c都重发
+        assertEquals(Arrays.asList("a", "b", "c", "b", "c"), sent);
+    }
+
+    @Test
+    void unconfirmedRecordIsResentAfterTimeout() {
+        AtomicBoolean dropped = new AtomicBoolean(false);
+        when(streamBridge.send(eq(BINDING), any())).thenAnswer(invocation -> {
+            Message<?> message = invocation.getArgument(1);
+            record(message);
+            if (dropped.getAndSet(true)) {
+                correlationData(message).getFuture().set(new CorrelationData.Confirm(true, null));
+            }
+            return true;
+        });
+        publish = newPublish(true);
+        publish.send(BINDING, "a");
+        publish.start();
+
+        await(this::drained);
+        assertEquals(Arrays.asList("a", "a"), sent);
+    }
+
+    private OutboxMessagePublish newPublish(boolean confirm) {
+        MessageBusConfigProperties.Outbox properties = new MessageBusConfigProperties.Outbox();
+        properties.setPollInterval(Duration.ofMillis(1));
+        properties.setRetryBackoff(Duration.ofMillis(10));
+        properties.setConfirmTimeout(Duration.ofMillis(100));
+        return new OutboxMessagePublish(streamBridge, new ObjectMapper(), outboxLog, binding -> confirm, properties);
+    }
+
+    private String record(Message<?> message) {
+        String body = new String((byte[]) message.getPayload(), StandardCharsets.UTF_8);
+        sent.add(body);
+        messageIds.add(String.valueOf(message.getHeaders().get(AmqpHeaders.MESSAGE_ID)));
+        return body;
+    }
+
+    private CorrelationData correlationData(Message<?> message) {
+        return message.getHeaders().get(AmqpHeaders.PUBLISH_CONFIRM_CORRELATION, CorrelationData.class);
+    }
+
+    private boolean drained() {
+        return outboxLog.read(outboxLog.getCheckpoint(), 1).isEmpty();
+    }
+
+    private void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
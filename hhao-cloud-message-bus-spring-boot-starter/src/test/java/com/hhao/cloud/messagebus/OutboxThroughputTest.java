@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hhao.cloud.messagebus.config.MessageBusConfigProperties;
+import com.hhao.cloud.messagebus.outbox.OutboxLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 调用方延迟对比：直接通过StreamBridge发送与追加到outbox
+ * StreamBridge以固定延迟模拟broker往返，只比较调用线程上的耗时，outbox的转发在后台完成
+ *
+ * @author Wang
+ * @since 2026/10/19 20:20
+ */
+class OutboxThroughputTest {
+    protected final Logger logger = LoggerFactory.getLogger(OutboxThroughputTest.class);
+    private static final String BINDING = "orders-out-0";
+    private static final int MESSAGES = 500;
+    private static final long BROKER_LATENCY = TimeUnit.MICROSECONDS.toNanos(500);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void outboxKeepsBrokerLatencyOffTheCaller() throws IOException {
+        AtomicInteger delivered = new AtomicInteger();
+        StreamBridge streamBridge = mock(StreamBridge.class);
+        when(streamBridge.send(eq(BINDING), any())).thenAnswer(invocation -> {
+            LockSupport.parkNanos(BROKER_LATENCY);
+            delivered.incrementAndGet();
+            return true;
+        });
+        String payload = "{\"orderId\":1,\"status\":\"CREATED\"}";
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            streamBridge.send(BINDING, payload);
+        }
+        long direct = System.nanoTime() - start;
+
+        MessageBusConfigProperties.Outbox properties = new MessageBusConfigProperties.Outbox();
+        properties.setPollInterval(Duration.ofMillis(1));
+        OutboxMessagePublish publish = new OutboxMessagePublish(streamBridge, new ObjectMapper(),
+                OutboxLog.open(directory, 16 * 1024 * 1024, false), binding -> false, properties);
+        publish.start();
+        try {
+            start = System.nanoTime();
+            for (int i = 0; i < MESSAGES; i++) {
+                publish.send(BINDING, payload);
+            }
+            long outbox = System.nanoTime() - start;
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (delivered.get() < MESSAGES * 2 && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+            logger.info("{} messages, direct send {}us/op, outbox append {}us/op", MESSAGES,
+                    direct / MESSAGES / 1000, outbox / MESSAGES / 1000);
+            assertEquals(MESSAGES * 2, delivered.get());
+            assertTrue(outbox < direct, "outbox append should not wait for the broker");
+        } finally {
+            publish.stop();
+        }
+    }
+}
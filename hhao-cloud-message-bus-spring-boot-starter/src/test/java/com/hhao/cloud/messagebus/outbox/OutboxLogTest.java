@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.messagebus.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * OutboxLog的恢复、截断及分段测试
+ *
+ * @author Wang
+ * @since 2026/10/19 19:50
+ */
+class OutboxLogTest {
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopenContinuesFromCheckpoint() throws IOException {
+        try (OutboxLog log = OutboxLog.open(directory, SEGMENT_SIZE, false)) {
+            append(log, "a", "b", "c");
+            List<OutboxLog.Entry> entries = log.read(log.getCheckpoint(), 10);
+            assertEquals(3, entries.size());
+            log.checkpoint(entries.get(1).getNext());
+        }
+        try (OutboxLog log = OutboxLog.open(directory, SEGMENT_SIZE, false)) {
+            assertBodies(log.read(log.getCheckpoint(), 10), "c");
+            append(log, "d");
+            assertBodies(log.read(log.getCheckpoint(), 10), "c", "d");
+        }
+    }
+
+    @Test
+    void tornTailIsTruncated() throws IOException {
+        try (OutboxLog log = OutboxLog.open(directory, SEGMENT_SIZE, false)) {
+            append(log, "first", "second");
+        }
+        //破坏第二条记录的内容，CRC不再匹配
+        int secondBody = 8 + "first".length() + 8;
+        try (FileChannel channel = FileChannel.open(segment(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), secondBody);
+        }
+        try (OutboxLog log = OutboxLog.open(directory, SEGMENT_SIZE, false)) {
+            assertBodies(log.read(log.getCheckpoint(), 10), "first");
+            //截断处被新的记录覆盖
+            append(log, "third");
+            assertBodies(log.read(log.getCheckpoint(), 10), "first", "third");
+        }
+    }
+
+    @Test
+    void corruptCheckpointRelaysFromOldestSegment() throws IOException {
+        try (OutboxLog log = OutboxLog.open(directory, SEGMENT_SIZE, false)) {
+            append(log, "a", "b");
+            log.checkpoint(log.read(log.getCheckpoint(), 1).get(0).getNext());
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve("checkpoint"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 11);
+        }
+        try (OutboxLog log = OutboxLog.open(directory, SEGMENT_SIZE, false)) {
+            assertEquals(0, log.getCheckpoint().getSegment());
+            assertEquals(0, log.getCheckpoint().getOffset());
+            assertBodies(log.read(log.getCheckpoint(), 10), "a", "b");
+        }
+    }
+
+    @Test
+    void segmentsRollAndAreDeletedAfterCheckpoint() throws IOException {
+        //每条记录25字节，64字节的段只能容纳两条
+        try (OutboxLog log = OutboxLog.open(directory, 64, false)) {
+            append(log, "record-0000000001", "record-0000000002", "record-0000000003", "record-0000000004", "record-0000000005");
+            assertTrue(Files.exists(segment(0)));
+            assertTrue(Files.exists(segment(1)));
+            assertTrue(Files.exists(segment(2)));
+            List<OutboxLog.Entry> entries = log.read(log.getCheckpoint(), 10);
+            assertBodies(entries, "record-0000000001", "record-0000000002", "record-0000000003", "record-0000000004", "record-0000000005");
+
+            log.checkpoint(entries.get(4).getNext());
+            assertFalse(Files.exists(segment(0)));
+            assertFalse(Files.exists(segment(1)));
+            assertTrue(Files.exists(segment(2)));
+        }
+        try (OutboxLog log = OutboxLog.open(directory, 64, false)) {
+            assertTrue(log.read(log.getCheckpoint(), 10).isEmpty());
+            append(log, "record-0000000006");
+            assertBodies(log.read(log.getCheckpoint(), 10), "record-0000000006");
+        }
+    }
+
+    @Test
+    void oversizedRecordIsRejected() throws IOException {
+        try (OutboxLog log = OutboxLog.open(directory, 64, false)) {
+            assertThrows(IllegalArgumentException.class, () -> log.append(new byte[64]));
+        }
+    }
+
+    private void append(OutboxLog log, String... bodies) throws IOException {
+        for (String body : bodies) {
+            log.append(body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void assertBodies(List<OutboxLog.Entry> entries, String... expected) {
+        assertEquals(expected.length, entries.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], new String(entries.get(i).getBody(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private Path segment(long id) {
+        return directory.resolve(String.format("%020d", id) + ".log");
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import org.springframework.cloud.openfeign.FallbackFactory;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 异步Feign客户端声明
+ * 不直接支持@FeignClient方法返回CompletableFuture的原因：OpenFeign 3.1的FeignClientFactoryBean只能用同步的Feign.Builder创建客户端，
+ * 请求经过FeignBlockingLoadBalancerClient等同步Client，返回CompletableFuture时只能占用一个线程等待响应，失去了enqueue不占用线程的意义；
+ * 异步客户端需要AsyncFeign.AsyncBuilder，因此单独声明，由AsyncFeignClientFactory创建。
+ * <p>
+ * 接入方式(不会被@EnableFeignClients扫描，需手动注册)：
+ * <ol>
+ * <li>接口标注@AsyncFeignClient，方法的返回值必须为CompletableFuture&lt;T&gt;，不要同时标注@FeignClient；</li>
+ * <li>每个接口声明一个@Bean，通过自动配置的AsyncFeignClientFactory创建；</li>
+ * <li>自定义fallbackFactory需为容器中的bean。</li>
+ * </ol>
+ * 与@FeignClient的差异：使用共享的OkHttpClient及全局RequestInterceptor，
+ * 不应用feign.client.config下的按客户端配置及Capability(对冲、重试预算、响应缓存、合并请求)。
+ * 如：
+ * <pre>
+ * &#64;AsyncFeignClient(name = "hhao-cloud-nacos-service-demo")
+ * public interface DemoAsyncClient {
+ *     &#64;GetMapping("/demo/{id}")
+ *     CompletableFuture&lt;Demo&gt; get(&#64;PathVariable("id") Long id);
+ * }
+ *
+ * &#64;Bean
+ * public DemoAsyncClient demoAsyncClient(AsyncFeignClientFactory factory) {
+ *     return factory.create(DemoAsyncClient.class);
+ * }
+ * </pre>
+ *
+ * @author Wang
+ * @since 2026/10/18 11:31
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface AsyncFeignClient {
+    /**
+     * 服务名称，未指定url时通过负载均衡选择实例
+     *
+     * @return the string
+     */
+    String name();
+
+    /**
+     * 绝对地址，支持占位符
+     *
+     * @return the string
+     */
+    String url() default "";
+
+    /**
+     * 路径前缀
+     *
+     * @return the string
+     */
+    String path() default "";
+
+    /**
+     * 异常处理，默认采用DefaultFallbackFactory
+     *
+     * @return the class
+     */
+    Class<? extends FallbackFactory> fallbackFactory() default FallbackFactory.class;
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import feign.AsyncFeign;
+import feign.RequestInterceptor;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.commons.httpclient.OkHttpClientFactory;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.stream.Collectors;
+
+/**
+ * 异步Feign配置
+ * spring.cloud.openfeign.config.async.enabled=false时关闭
+ *
+ * @author Wang
+ * @since 2026/10/18 12:02
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({AsyncFeign.class, OkHttpClient.class})
+@AutoConfigureAfter({OkHttpClientConfiguration.class, OpenFeignConfig.class})
+@ConditionalOnProperty(prefix = "spring.cloud.openfeign.config", name = {"enabled", "async.enabled"}, havingValue = "true", matchIfMissing = true)
+public class AsyncFeignClientConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OkHttpAsyncClient okHttpAsyncClient(ObjectProvider<OkHttpClientRegistry> okHttpClientRegistry, ObjectProvider<OkHttpClient> okHttpClient, OkHttpClientFactory okHttpClientFactory) {
+        OkHttpClientRegistry registry = okHttpClientRegistry.getIfAvailable();
+        if (registry != null) {
+            return new OkHttpAsyncClient(registry.getSharedClient());
+        }
+        return new OkHttpAsyncClient(okHttpClient.getIfAvailable(() -> okHttpClientFactory.createBuilder(false).build()));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AsyncFeignClientFactory asyncFeignClientFactory(OkHttpAsyncClient okHttpAsyncClient,
+                                                           ObjectProvider<LoadBalancerClient> loadBalancerClient,
+                                                           ObjectProvider<HttpMessageConverters> messageConverters,
+                                                           ObjectProvider<RequestInterceptor> requestInterceptors,
+                                                           ObjectProvider<OpenFeignConfigProperties> properties,
+                                                           ObjectProvider<ResultWrapperReaderRegistry> readerRegistry,
+                                                           DefaultFallbackFactory defaultFallbackFactory,
+                                                           BeanFactory beanFactory) {
+        boolean streaming = properties.getIfAvailable(OpenFeignConfigProperties::new).getDecoder().getStreaming();
+        return new AsyncFeignClientFactory(okHttpAsyncClient,
+                loadBalancerClient.getIfAvailable(),
+                new SpringMvcContract(),
+                new SpringEncoder(messageConverters::getObject),
+                new MyFeignDecoder(readerRegistry.getIfAvailable(), streaming),
+                new MyFeignErrorDecoder(readerRegistry.getIfAvailable()),
+                requestInterceptors.orderedStream().collect(Collectors.toList()),
+                defaultFallbackFactory,
+                beanFactory);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import feign.AsyncClient;
+import feign.AsyncFeign;
+import feign.Contract;
+import feign.RequestInterceptor;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import feign.codec.ErrorDecoder;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 异步Feign客户端工厂
+ * 根据@AsyncFeignClient创建返回CompletableFuture的客户端，需为每个接口手动声明@Bean，请求通过OkHttp的enqueue发送，
+ * 解码采用与MyOpenFeignConfig相同的MyFeignDecoder/MyFeignErrorDecoder，
+ * 异常通过FallbackFactory(默认DefaultFallbackFactory)转换后再完成Future
+ *
+ * @author Wang
+ * @since 2026/10/18 11:40
+ */
+public class AsyncFeignClientFactory {
+    private final AsyncClient<Object> asyncClient;
+    private final LoadBalancerClient loadBalancerClient;
+    private final Contract contract;
+    private final Encoder encoder;
+    private final Decoder decoder;
+    private final ErrorDecoder errorDecoder;
+    private final List<RequestInterceptor> requestInterceptors;
+    private final FallbackFactory<?> defaultFallbackFactory;
+    private final BeanFactory beanFactory;
+
+    /**
+     * Instantiates a new Async feign client factory.
+     *
+     * @param asyncClient            the async client
+     * @param loadBalancerClient     the load balancer client,可为空
+     * @param contract               the contract
+     * @param encoder                the encoder
+     * @param decoder                the decoder
+     * @param errorDecoder           the error decoder
+     * @param requestInterceptors    the request interceptors
+     * @param defaultFallbackFactory the default fallback factory
+     * @param beanFactory            the bean factory
+     */
+    public AsyncFeignClientFactory(AsyncClient<Object> asyncClient, LoadBalancerClient loadBalancerClient, Contract contract,
+                                   Encoder encoder, Decoder decoder, ErrorDecoder errorDecoder, List<RequestInterceptor> requestInterceptors,
+                                   FallbackFactory<?> defaultFallbackFactory, BeanFactory beanFactory) {
+        this.asyncClient = asyncClient;
+        this.loadBalancerClient = loadBalancerClient;
+        this.contract = contract;
+        this.encoder = encoder;
+        this.decoder = decoder;
+        this.errorDecoder = errorDecoder;
+        this.requestInterceptors = requestInterceptors;
+        this.defaultFallbackFactory = defaultFallbackFactory;
+        this.beanFactory = beanFactory;
+    }
+
+    /**
+     * 创建异步客户端
+     *
+     * @param <T>  the type parameter
+     * @param type the type
+     * @return the t
+     */
+    public <T> T create(Class<T> type) {
+        AsyncFeignClient annotation = AnnotatedElementUtils.findMergedAnnotation(type, AsyncFeignClient.class);
+        Assert.notNull(annotation, type.getName() + " is not annotated with @AsyncFeignClient");
+        //同时标注时@EnableFeignClients会再注册一个同步客户端，CompletableFuture会被当作响应类型解码
+        Assert.state(!AnnotatedElementUtils.hasAnnotation(type, FeignClient.class), type.getName() + " must not be annotated with both @AsyncFeignClient and @FeignClient");
+
+        String url = resolve(annotation.url());
+        AsyncClient<Object> client = asyncClient;
+        if (StringUtils.hasText(url)) {
+            if (!url.contains("://")) {
+                url = "http://" + url;
+            }
+        } else {
+            Assert.state(loadBalancerClient != null, "No LoadBalancerClient available for @AsyncFeignClient " + annotation.name());
+            url = "http://" + resolve(annotation.name());
+            client = new LoadBalancedAsyncClient(asyncClient, loadBalancerClient);
+        }
+        url = trimTrailingSlash(url) + cleanPath(resolve(annotation.path()));
+
+        AsyncFeign.AsyncBuilder<Object> builder = AsyncFeign.asyncBuilder();
+        T target = builder.client(client)
+                .contract(contract)
+                .encoder(encoder)
+                .decoder(decoder)
+                .errorDecoder(errorDecoder)
+                .requestInterceptors(requestInterceptors)
+                .target(type, url);
+        return withFallback(type, target, getFallbackFactory(annotation));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T withFallback(Class<T> type, T target, FallbackFactory<?> fallbackFactory) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(target, args);
+            }
+            CompletableFuture<?> future;
+            try {
+                future = (CompletableFuture<?>) method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                CompletableFuture<Object> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e.getCause());
+                future = failed;
+            }
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            CompletableFuture<?> source = future;
+            source.whenComplete((value, throwable) -> {
+                if (throwable == null) {
+                    result.complete(value);
+                } else {
+                    fallback(method, args, unwrap(throwable), fallbackFactory, result);
+                }
+            });
+            result.whenComplete((value, throwable) -> {
+                if (result.isCancelled()) {
+                    source.cancel(true);
+                }
+            });
+            return result;
+        });
+    }
+
+    private void fallback(Method method, Object[] args, Throwable cause, FallbackFactory<?> fallbackFactory, CompletableFuture<Object> result) {
+        try {
+            //DefaultFallbackFactory直接抛出转换后的异常；自定义的FallbackFactory可返回降级实现
+            Object fallback = fallbackFactory.create(cause);
+            CompletableFuture<?> fallbackFuture = (CompletableFuture<?>) method.invoke(fallback, args);
+            fallbackFuture.whenComplete((value, throwable) -> {
+                if (throwable == null) {
+                    result.complete(value);
+                } else {
+                    result.completeExceptionally(unwrap(throwable));
+                }
+            });
+        } catch (InvocationTargetException e) {
+            result.completeExceptionally(e.getCause());
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private FallbackFactory<?> getFallbackFactory(AsyncFeignClient annotation) {
+        if (annotation.fallbackFactory() == FallbackFactory.class) {
+            return defaultFallbackFactory;
+        }
+        return beanFactory.getBean(annotation.fallbackFactory());
+    }
+
+    private Throwable unwrap(Throwable throwable) {
+        while ((throwable instanceof CompletionException || throwable instanceof ExecutionException) && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+
+    private String resolve(String value) {
+        if (StringUtils.hasText(value) && beanFactory instanceof ConfigurableBeanFactory) {
+            return ((ConfigurableBeanFactory) beanFactory).resolveEmbeddedValue(value);
+        }
+        return value;
+    }
+
+    private String trimTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private String cleanPath(String path) {
+        if (!StringUtils.hasText(path)) {
+            return "";
+        }
+        path = path.trim();
+        if (!path.startsWith("/")) {
+            path = "/" + path;
+        }
+        return trimTrailingSlash(path);
+    }
+}
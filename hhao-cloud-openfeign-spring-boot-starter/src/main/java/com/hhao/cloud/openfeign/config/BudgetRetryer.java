@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import feign.RetryableException;
+import feign.Retryer;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于预算的重试
+ * 1.尝试次数达到maxAttempts时放弃
+ * 2.目标服务的重试预算用尽时放弃，避免下游故障时重试放大流量
+ * 3.退避优先采用Retry-After，否则在[0, backoff*2^(n-1)]内随机(full jitter)，不超过maxBackoff
+ * 4.退避后会超过整个调用的deadline时放弃
+ * Feign每次调用都会clone，调用内的状态保存在clone出的实例中
+ *
+ * @author Wang
+ * @since 2026/10/18 15:35
+ */
+public class BudgetRetryer implements Retryer {
+    private final RetryBudget retryBudget;
+    private final long startNanos;
+    private int attempt = 1;
+
+    /**
+     * Instantiates a new Budget retryer.
+     *
+     * @param retryBudget the retry budget
+     */
+    public BudgetRetryer(RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+        this.startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+        OpenFeignConfigProperties.Retry properties = retryBudget.getProperties();
+        RetryBudget.Target target = retryBudget.getTarget(RetryBudget.targetName(e.request()));
+        if (attempt++ >= properties.getMaxAttempts()) {
+            target.recordExhausted();
+            throw e;
+        }
+        long backoffMillis = backoff(properties, e);
+        if (isPastDeadline(properties, backoffMillis)) {
+            target.recordExhausted();
+            throw e;
+        }
+        if (!target.getBudget().tryAcquire(properties.getBudgetRatio(), properties.getMinRetriesPerWindow())) {
+            target.recordSuppressed();
+            throw e;
+        }
+        if (backoffMillis > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(backoffMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+        }
+        target.recordAttempted();
+    }
+
+    private long backoff(OpenFeignConfigProperties.Retry properties, RetryableException e) {
+        if (e.retryAfter() != null) {
+            return Math.max(0, e.retryAfter().getTime() - System.currentTimeMillis());
+        }
+        long base = properties.getBackoff().toMillis();
+        long max = properties.getMaxBackoff().toMillis();
+        //attempt已自增，第一次重试时shift为0
+        int shift = Math.min(attempt - 2, 30);
+        long ceiling = Math.min(max, base << shift);
+        if (ceiling <= 0) {
+            return 0;
+        }
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private boolean isPastDeadline(OpenFeignConfigProperties.Retry properties, long backoffMillis) {
+        Duration deadline = properties.getDeadline();
+        if (deadline == null || deadline.isZero() || deadline.isNegative()) {
+            return false;
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return elapsedMillis + backoffMillis >= deadline.toMillis();
+    }
+
+    @Override
+    public Retryer clone() {
+        return new BudgetRetryer(retryBudget);
+    }
+}
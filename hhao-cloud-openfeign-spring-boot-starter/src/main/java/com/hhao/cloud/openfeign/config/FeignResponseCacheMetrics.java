@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * 响应缓存指标
+ * cache.gets{cache=feign.response,result=hit|miss}、cache.evictions等Caffeine指标，
+ * feign.response.cache.revalidated
+ *
+ * @author Wang
+ * @since 2026/10/18 19:10
+ */
+public class FeignResponseCacheMetrics implements MeterBinder {
+    private static final String CACHE_NAME = "feign.response";
+    private final ResponseCache responseCache;
+
+    /**
+     * Instantiates a new Feign response cache metrics.
+     *
+     * @param responseCache the response cache
+     */
+    public FeignResponseCacheMetrics(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, responseCache.getCache(), CACHE_NAME);
+        FunctionCounter.builder("feign.response.cache.revalidated", responseCache, ResponseCache::getRevalidated)
+                .description("Stale Feign responses revalidated with 304 Not Modified")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * 重试指标
+ * feign.retry{target,result=attempted|suppressed|exhausted}
+ *
+ * @author Wang
+ * @since 2026/10/18 15:55
+ */
+public class FeignRetryMetrics implements MeterBinder {
+    private final RetryBudget retryBudget;
+
+    /**
+     * Instantiates a new Feign retry metrics.
+     *
+     * @param retryBudget the retry budget
+     */
+    public FeignRetryMetrics(RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        retryBudget.addTargetListener(target -> {
+            FunctionCounter.builder("feign.retry", target, RetryBudget.Target::getAttempted)
+                    .tags("target", target.getName(), "result", "attempted")
+                    .description("Feign retries attempted")
+                    .register(meterRegistry);
+            FunctionCounter.builder("feign.retry", target, RetryBudget.Target::getSuppressed)
+                    .tags("target", target.getName(), "result", "suppressed")
+                    .description("Feign retries suppressed by the retry budget")
+                    .register(meterRegistry);
+            FunctionCounter.builder("feign.retry", target, RetryBudget.Target::getExhausted)
+                    .tags("target", target.getName(), "result", "exhausted")
+                    .description("Feign calls that gave up after max attempts or deadline")
+                    .register(meterRegistry);
+        });
+    }
+}
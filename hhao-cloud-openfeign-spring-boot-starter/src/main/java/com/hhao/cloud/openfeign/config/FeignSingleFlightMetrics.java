@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * 合并调用指标
+ * feign.single.flight{client,role=leader|follower}
+ * feign.single.flight.ratio{client}
+ *
+ * @author Wang
+ * @since 2026/10/18 18:10
+ */
+public class FeignSingleFlightMetrics implements MeterBinder {
+    private final SingleFlightRegistry registry;
+
+    /**
+     * Instantiates a new Feign single flight metrics.
+     *
+     * @param registry the registry
+     */
+    public FeignSingleFlightMetrics(SingleFlightRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        registry.addGroupListener(group -> {
+            FunctionCounter.builder("feign.single.flight", group, SingleFlightRegistry.Group::getLeaders)
+                    .tags("client", group.getName(), "role", "leader")
+                    .description("Feign calls sent to the network")
+                    .register(meterRegistry);
+            FunctionCounter.builder("feign.single.flight", group, SingleFlightRegistry.Group::getFollowers)
+                    .tags("client", group.getName(), "role", "follower")
+                    .description("Feign calls coalesced onto an in-flight call")
+                    .register(meterRegistry);
+            Gauge.builder("feign.single.flight.ratio", group, SingleFlightRegistry.Group::getCoalescingRatio)
+                    .tags("client", group.getName())
+                    .description("Share of Feign calls that were coalesced")
+                    .register(meterRegistry);
+        });
+    }
+}
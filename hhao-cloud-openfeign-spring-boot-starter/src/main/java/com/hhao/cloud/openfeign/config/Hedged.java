@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 对Feign客户端的GET方法启用对冲请求
+ * 标注在接口上时对所有GET方法生效，需配合MyOpenFeignConfig使用，
+ * 也可通过spring.cloud.openfeign.config.hedging.clients按客户端启用
+ *
+ * @author Wang
+ * @since 2026/10/18 16:10
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Hedged {
+    /**
+     * 超过该百分位耗时未返回时发出对冲请求，小于0时采用spring.cloud.openfeign.config.hedging.percentile
+     *
+     * @return the double
+     */
+    double percentile() default -1;
+}
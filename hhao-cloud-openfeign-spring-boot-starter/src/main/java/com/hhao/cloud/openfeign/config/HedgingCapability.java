@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import feign.Capability;
+import feign.Client;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.RetryableFeignBlockingLoadBalancerClient;
+import org.springframework.core.Ordered;
+
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 对冲请求
+ * 优先级最高，最先包装Client，使其余Capability(如重试预算)能统计到对冲后的结果；
+ * 持有执行首次请求的有界线程池，随客户端的上下文关闭
+ *
+ * @author Wang
+ * @since 2026/10/18 17:05
+ */
+public class HedgingCapability implements Capability, Ordered, DisposableBean {
+    private static final AtomicInteger POOL_INDEX = new AtomicInteger();
+    private final OkHttpAsyncClient asyncClient;
+    private final LoadBalancerClient loadBalancerClient;
+    private final LoadBalancerClientFactory loadBalancerClientFactory;
+    private final HedgingPolicy hedgingPolicy;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Instantiates a new Hedging capability.
+     *
+     * @param asyncClient               the async client
+     * @param loadBalancerClient        the load balancer client
+     * @param loadBalancerClientFactory the load balancer client factory
+     * @param hedgingPolicy             the hedging policy
+     * @param maxConcurrency            同时等待的首次请求数上限
+     */
+    public HedgingCapability(OkHttpAsyncClient asyncClient, LoadBalancerClient loadBalancerClient, LoadBalancerClientFactory loadBalancerClientFactory,
+                             HedgingPolicy hedgingPolicy, int maxConcurrency) {
+        this.asyncClient = asyncClient;
+        this.loadBalancerClient = loadBalancerClient;
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+        this.hedgingPolicy = hedgingPolicy;
+        String prefix = "feign-hedging-" + POOL_INDEX.incrementAndGet() + "-";
+        AtomicInteger threadIndex = new AtomicInteger();
+        //不排队，线程用满时拒绝，由HedgingClient在调用线程中执行
+        this.executor = new ThreadPoolExecutor(0, Math.max(1, maxConcurrency), 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        //指定了url的客户端已去掉负载均衡，直接按url发送；负载均衡时由HedgingClient选择实例，通过原始Client发送
+        Client rawClient = client;
+        LoadBalancerClient balancer = null;
+        if (client instanceof FeignBlockingLoadBalancerClient) {
+            rawClient = ((FeignBlockingLoadBalancerClient) client).getDelegate();
+            balancer = loadBalancerClient;
+        } else if (client instanceof RetryableFeignBlockingLoadBalancerClient) {
+            rawClient = ((RetryableFeignBlockingLoadBalancerClient) client).getDelegate();
+            balancer = loadBalancerClient;
+        }
+        return new HedgingClient(client, rawClient, asyncClient, balancer, loadBalancerClientFactory, hedgingPolicy, executor);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
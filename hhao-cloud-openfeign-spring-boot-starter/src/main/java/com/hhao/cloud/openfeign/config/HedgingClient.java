@@ -0,0 +1,243 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 对冲请求客户端
+ * 负载均衡的客户端由本类选择首次请求的实例，重建url后通过原始Client发送；
+ * 对冲请求从ServiceInstanceListSupplier中排除首次请求的实例后随机选择，通过OkHttpAsyncClient发送，没有其它实例时不对冲；
+ * 样本不足(不会对冲)时首次请求直接在调用线程中执行；否则放到HedgingCapability持有的有界线程池中，调用线程等待对冲延迟，
+ * 线程池已满时同样在调用线程中执行且不对冲；
+ * 先成功返回者胜出，对冲请求的OkHttp Call会被取消，首次请求无法中断，完成后关闭其响应；
+ * 只记录首次请求的耗时，不只记录胜出者，避免对冲延迟的分位数被低估；
+ * 不可对冲的请求直接交给delegate
+ *
+ * @author Wang
+ * @since 2026/10/18 16:50
+ */
+public class HedgingClient implements Client {
+    private final Client delegate;
+    private final Client rawClient;
+    private final OkHttpAsyncClient asyncClient;
+    private final LoadBalancerClient loadBalancerClient;
+    private final LoadBalancerClientFactory loadBalancerClientFactory;
+    private final HedgingPolicy hedgingPolicy;
+    private final Executor executor;
+
+    /**
+     * Instantiates a new Hedging client.
+     *
+     * @param delegate                  the delegate
+     * @param rawClient                 负载均衡客户端内部的原始Client，不负载均衡时与delegate相同
+     * @param asyncClient               the async client
+     * @param loadBalancerClient        为空时按url直接发送
+     * @param loadBalancerClientFactory 用于获取对冲请求的候选实例，可为空
+     * @param hedgingPolicy             the hedging policy
+     * @param executor                  执行首次请求的有界线程池
+     */
+    public HedgingClient(Client delegate, Client rawClient, OkHttpAsyncClient asyncClient, LoadBalancerClient loadBalancerClient,
+                         LoadBalancerClientFactory loadBalancerClientFactory, HedgingPolicy hedgingPolicy, Executor executor) {
+        this.delegate = delegate;
+        this.rawClient = rawClient;
+        this.asyncClient = asyncClient;
+        this.loadBalancerClient = loadBalancerClient;
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+        this.hedgingPolicy = hedgingPolicy;
+        this.executor = executor;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (!hedgingPolicy.isHedgeable(request)) {
+            return delegate.execute(request, options);
+        }
+        ServiceInstance primaryInstance = null;
+        Request primaryRequest = request;
+        if (loadBalancerClient != null) {
+            primaryInstance = loadBalancerClient.choose(URI.create(request.url()).getHost());
+            if (primaryInstance == null) {
+                //交给负载均衡客户端返回与不对冲时相同的结果
+                return delegate.execute(request, options);
+            }
+            primaryRequest = reconstruct(request, primaryInstance);
+        }
+        hedgingPolicy.recordRequest(request);
+        long delay = hedgingPolicy.getHedgeDelay(request);
+        if (delay < 0) {
+            return executeInline(request, primaryRequest, options);
+        }
+        CompletableFuture<Response> primary;
+        try {
+            primary = sendPrimary(request, primaryRequest, options);
+        } catch (RejectedExecutionException e) {
+            return executeInline(request, primaryRequest, options);
+        }
+        try {
+            return primary.get(delay, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            //超过对冲延迟
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+        Request hedgeRequest = hedgeRequest(request, primaryInstance);
+        if (hedgeRequest != null && hedgingPolicy.tryAcquireHedge(request)) {
+            return await(primary, asyncClient.execute(hedgeRequest, options, Optional.empty()));
+        }
+        return await(primary, null);
+    }
+
+    private Response executeInline(Request request, Request primaryRequest, Request.Options options) throws IOException {
+        long startNanos = System.nanoTime();
+        Response response = rawClient.execute(primaryRequest, options);
+        hedgingPolicy.recordLatency(request, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return response;
+    }
+
+    private Response await(CompletableFuture<Response> primary, CompletableFuture<Response> hedge) throws IOException {
+        CompletableFuture<Response> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        int attempts = hedge == null ? 1 : 2;
+        watch(primary, winner, failures, attempts);
+        if (hedge != null) {
+            watch(hedge, winner, failures, attempts);
+        }
+        try {
+            return winner.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        } finally {
+            //取消未胜出的请求，已完成的会在watch中释放
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    private void watch(CompletableFuture<Response> attempt, CompletableFuture<Response> winner, AtomicInteger failures, int attempts) {
+        attempt.whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                if (!winner.complete(response)) {
+                    response.close();
+                }
+            } else if (failures.incrementAndGet() == attempts) {
+                winner.completeExceptionally(throwable);
+            }
+        });
+    }
+
+    /**
+     * 首次请求通过原始Client发送，耗时在完成时记录，与是否胜出无关
+     */
+    private CompletableFuture<Response> sendPrimary(Request request, Request primaryRequest, Request.Options options) {
+        long startNanos = System.nanoTime();
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                Response response = rawClient.execute(primaryRequest, options);
+                hedgingPolicy.recordLatency(request, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+                if (!future.complete(response)) {
+                    //已被取消或对冲请求胜出
+                    response.close();
+                }
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 对冲请求，负载均衡时排除首次请求的实例，没有其它实例时返回null
+     */
+    private Request hedgeRequest(Request request, ServiceInstance primaryInstance) {
+        if (primaryInstance == null) {
+            return request;
+        }
+        if (loadBalancerClientFactory == null) {
+            return null;
+        }
+        ServiceInstanceListSupplier supplier = loadBalancerClientFactory.getInstance(primaryInstance.getServiceId(), ServiceInstanceListSupplier.class);
+        List<ServiceInstance> instances = supplier == null ? null : supplier.get().blockFirst();
+        if (instances == null) {
+            return null;
+        }
+        List<ServiceInstance> candidates = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!isSame(instance, primaryInstance)) {
+                candidates.add(instance);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return reconstruct(request, candidates.get(ThreadLocalRandom.current().nextInt(candidates.size())));
+    }
+
+    private Request reconstruct(Request request, ServiceInstance instance) {
+        String reconstructedUrl = loadBalancerClient.reconstructURI(instance, URI.create(request.url())).toString();
+        return Request.create(request.httpMethod(), reconstructedUrl, request.headers(),
+                request.body(), request.charset(), request.requestTemplate());
+    }
+
+    private boolean isSame(ServiceInstance instance, ServiceInstance other) {
+        return instance.getHost().equals(other.getHost()) && instance.getPort() == other.getPort();
+    }
+
+    private IOException unwrap(Throwable throwable) {
+        //OkHttpAsyncClient把IO异常包装成RetryableException，同步客户端需还原为IOException
+        if (throwable.getCause() instanceof IOException) {
+            return (IOException) throwable.getCause();
+        }
+        if (throwable instanceof IOException) {
+            return (IOException) throwable;
+        }
+        if (throwable instanceof RuntimeException) {
+            throw (RuntimeException) throwable;
+        }
+        return new IOException(throwable);
+    }
+}
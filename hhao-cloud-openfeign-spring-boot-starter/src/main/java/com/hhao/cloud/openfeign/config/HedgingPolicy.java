@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import feign.MethodMetadata;
+import feign.Request;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 对冲策略
+ * 维护按方法(configKey)的耗时直方图及按目标服务的对冲预算，
+ * 判断请求是否可对冲及对冲延迟
+ *
+ * @author Wang
+ * @since 2026/10/18 16:35
+ */
+public class HedgingPolicy {
+    private static final int BUCKETS = 10;
+    private final Supplier<OpenFeignConfigProperties.Hedging> properties;
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, SlidingWindowBudget> budgets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Method, Optional<Hedged>> annotations = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Hedging policy.
+     *
+     * @param properties the properties
+     */
+    public HedgingPolicy(Supplier<OpenFeignConfigProperties.Hedging> properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 是否可对冲：仅GET/HEAD请求，且客户端启用或方法标注了@Hedged
+     *
+     * @param request the request
+     * @return the boolean
+     */
+    public boolean isHedgeable(Request request) {
+        if (request.httpMethod() != Request.HttpMethod.GET && request.httpMethod() != Request.HttpMethod.HEAD) {
+            return false;
+        }
+        if (getHedged(request) != null) {
+            return true;
+        }
+        OpenFeignConfigProperties.Hedging hedging = properties.get();
+        return Boolean.TRUE.equals(hedging.getEnabled()) || hedging.getClients().contains(RetryBudget.targetName(request));
+    }
+
+    /**
+     * 对冲延迟，样本不足时返回-1
+     *
+     * @param request the request
+     * @return 毫秒
+     */
+    public long getHedgeDelay(Request request) {
+        OpenFeignConfigProperties.Hedging hedging = properties.get();
+        Hedged hedged = getHedged(request);
+        double percentile = hedged != null && hedged.percentile() >= 0 ? hedged.percentile() : hedging.getPercentile();
+        long delay = getHistogram(request).percentile(percentile, hedging.getMinSamples());
+        if (delay < 0) {
+            return -1;
+        }
+        return Math.max(delay, hedging.getMinDelay().toMillis());
+    }
+
+    /**
+     * 记录耗时
+     *
+     * @param request the request
+     * @param millis  the millis
+     */
+    public void recordLatency(Request request, long millis) {
+        getHistogram(request).record(millis);
+    }
+
+    /**
+     * 记录一次可对冲的请求，作为对冲预算的基数
+     *
+     * @param request the request
+     */
+    public void recordRequest(Request request) {
+        getBudget(request).recordRequest();
+    }
+
+    /**
+     * 申请对冲额度
+     *
+     * @param request the request
+     * @return the boolean
+     */
+    public boolean tryAcquireHedge(Request request) {
+        OpenFeignConfigProperties.Hedging hedging = properties.get();
+        return getBudget(request).tryAcquire(hedging.getBudgetRatio(), hedging.getMinHedgesPerWindow());
+    }
+
+    private LatencyHistogram getHistogram(Request request) {
+        return histograms.computeIfAbsent(methodKey(request),
+                key -> new LatencyHistogram(properties.get().getHistogramWindow().toMillis()));
+    }
+
+    private SlidingWindowBudget getBudget(Request request) {
+        return budgets.computeIfAbsent(RetryBudget.targetName(request),
+                key -> new SlidingWindowBudget(properties.get().getBudgetWindow(), BUCKETS));
+    }
+
+    private Hedged getHedged(Request request) {
+        MethodMetadata metadata = request.requestTemplate() == null ? null : request.requestTemplate().methodMetadata();
+        if (metadata == null || metadata.method() == null) {
+            return null;
+        }
+        return annotations.computeIfAbsent(metadata.method(), method -> {
+            Hedged hedged = AnnotatedElementUtils.findMergedAnnotation(method, Hedged.class);
+            if (hedged == null) {
+                hedged = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), Hedged.class);
+            }
+            return Optional.ofNullable(hedged);
+        }).orElse(null);
+    }
+
+    private String methodKey(Request request) {
+        MethodMetadata metadata = request.requestTemplate() == null ? null : request.requestTemplate().methodMetadata();
+        if (metadata != null) {
+            return metadata.configKey();
+        }
+        return RetryBudget.targetName(request) + "#" + request.httpMethod();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 近期耗时直方图
+ * 桶按1.25倍指数增长(1ms~约20分钟)，保留当前及上一个窗口，窗口到期时轮换，
+ * 百分位按两个窗口合并计算
+ *
+ * @author Wang
+ * @since 2026/10/18 16:20
+ */
+public class LatencyHistogram {
+    private static final long[] BOUNDS = new long[64];
+
+    static {
+        double bound = 1;
+        for (int i = 0; i < BOUNDS.length; i++) {
+            BOUNDS[i] = (long) Math.ceil(bound);
+            bound = Math.max(bound * 1.25, BOUNDS[i] + 1);
+        }
+    }
+
+    private final long windowMillis;
+    private final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+    private volatile AtomicLongArray current = new AtomicLongArray(BOUNDS.length);
+    private volatile AtomicLongArray previous = new AtomicLongArray(BOUNDS.length);
+
+    /**
+     * Instantiates a new Latency histogram.
+     *
+     * @param windowMillis 窗口大小
+     */
+    public LatencyHistogram(long windowMillis) {
+        this.windowMillis = Math.max(1, windowMillis);
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param millis the millis
+     */
+    public void record(long millis) {
+        rotate();
+        current.incrementAndGet(indexOf(millis));
+    }
+
+    /**
+     * 样本数
+     *
+     * @return the long
+     */
+    public long count() {
+        rotate();
+        AtomicLongArray cur = current;
+        AtomicLongArray prev = previous;
+        long count = 0;
+        for (int i = 0; i < BOUNDS.length; i++) {
+            count += cur.get(i) + prev.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * 百分位耗时，样本不足minSamples时返回-1
+     *
+     * @param percentile 0~1
+     * @param minSamples 最少样本数
+     * @return 毫秒
+     */
+    public long percentile(double percentile, long minSamples) {
+        rotate();
+        AtomicLongArray cur = current;
+        AtomicLongArray prev = previous;
+        long[] counts = new long[BOUNDS.length];
+        long total = 0;
+        for (int i = 0; i < BOUNDS.length; i++) {
+            counts[i] = cur.get(i) + prev.get(i);
+            total += counts[i];
+        }
+        if (total == 0 || total < minSamples) {
+            return -1;
+        }
+        long rank = (long) Math.ceil(Math.min(1, Math.max(0, percentile)) * total);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return BOUNDS[i];
+            }
+        }
+        return BOUNDS[BOUNDS.length - 1];
+    }
+
+    private void rotate() {
+        long now = System.currentTimeMillis();
+        long start = windowStart.get();
+        if (now - start < windowMillis || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        //超过两个窗口未更新时，上一个窗口也已过期
+        previous = now - start >= 2 * windowMillis ? new AtomicLongArray(BOUNDS.length) : current;
+        current = new AtomicLongArray(BOUNDS.length);
+    }
+
+    private int indexOf(long millis) {
+        int low = 0;
+        int high = BOUNDS.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (BOUNDS[mid] >= millis) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import feign.AsyncClient;
+import feign.Request;
+import feign.Response;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.http.HttpStatus;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 带负载均衡的异步客户端
+ * 以url中的host作为serviceId，通过LoadBalancerClient选择实例后再交给delegate执行
+ * 与FeignBlockingLoadBalancerClient一致，找不到实例时返回503
+ *
+ * @author Wang
+ * @since 2026/10/18 11:20
+ */
+public class LoadBalancedAsyncClient implements AsyncClient<Object> {
+    private final AsyncClient<Object> delegate;
+    private final LoadBalancerClient loadBalancerClient;
+
+    /**
+     * Instantiates a new Load balanced async client.
+     *
+     * @param delegate           the delegate
+     * @param loadBalancerClient the load balancer client
+     */
+    public LoadBalancedAsyncClient(AsyncClient<Object> delegate, LoadBalancerClient loadBalancerClient) {
+        this.delegate = delegate;
+        this.loadBalancerClient = loadBalancerClient;
+    }
+
+    @Override
+    public CompletableFuture<Response> execute(Request request, Request.Options options, Optional<Object> requestContext) {
+        URI originalUri = URI.create(request.url());
+        String serviceId = originalUri.getHost();
+        ServiceInstance instance = loadBalancerClient.choose(serviceId);
+        if (instance == null) {
+            String message = "Load balancer does not contain an instance for the service " + serviceId;
+            CompletableFuture<Response> future = new CompletableFuture<>();
+            future.complete(Response.builder()
+                    .request(request)
+                    .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                    .reason(message)
+                    .headers(Collections.emptyMap())
+                    .body(message, feign.Util.UTF_8)
+                    .build());
+            return future;
+        }
+        String reconstructedUrl = loadBalancerClient.reconstructURI(instance, originalUri).toString();
+        Request newRequest = Request.create(request.httpMethod(), reconstructedUrl, request.headers(),
+                request.body(), request.charset(), request.requestTemplate());
+        return delegate.execute(newRequest, options, requestContext);
+    }
+}
@@ -16,6 +16,9 @@
 package com.hhao.cloud.openfeign.config;
 
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.hhao.common.exception.error.server.ServerException;
 import com.hhao.common.exception.error.unknow.UnknowException;
 import com.hhao.common.springboot.exception.error.other.ResultWrapperException;
@@ -31,29 +34,68 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
 
 
 /**
  * 自定义feign decode
  * 用于解析json格式统一返回的ResultWrapper
+ * 如果指定了ResultWrapperReaderRegistry，ResultWrapper泛型解析及ObjectReader按返回类型复用；
+ * streaming=true时采用流式解码：直接在response的InputStream上解析，
+ * 先读取status，成功时只把data部份绑定到目标类型，不生成中间String
  *
  * @author Wang
  * @since 2022/1/8 19:44
  */
 public class MyFeignDecoder implements Decoder {
     protected final Logger logger = LoggerFactory.getLogger(MyFeignDecoder.class);
+    private static final String STATUS_FIELD = "status";
+    private static final String DATA_FIELD = "data";
+    private final ResultWrapperReaderRegistry readerRegistry;
+    private final boolean streaming;
+
+    /**
+     * 采用字符串方式解码
+     */
+    public MyFeignDecoder() {
+        this(null, false);
+    }
+
+    /**
+     * 采用流式解码
+     *
+     * @param readerRegistry the reader registry
+     */
+    public MyFeignDecoder(ResultWrapperReaderRegistry readerRegistry) {
+        this(readerRegistry, true);
+    }
+
+    /**
+     * Instantiates a new My feign decoder.
+     *
+     * @param readerRegistry 为null时采用ResultWrapperUtil解析
+     * @param streaming      是否流式解码，需要readerRegistry
+     */
+    public MyFeignDecoder(ResultWrapperReaderRegistry readerRegistry, boolean streaming) {
+        this.readerRegistry = readerRegistry;
+        this.streaming = streaming && readerRegistry != null;
+    }
 
     @Override
     public Object decode(Response response, Type type) throws IOException, DecodeException, FeignException {
         if (response.body() == null) {
             throw new ServerException();
         }
+        if (streaming) {
+            return streamingDecode(response, type);
+        }
 
         try {
             String bodyStr = Util.toString(response.body().asReader(Util.UTF_8));
             //对结果进行转换
-            ResultWrapper result = ResultWrapperUtil.jsonToResultWrapper(type,bodyStr);
+            ResultWrapper result = readerRegistry != null ? readerRegistry.getResultReader(type).readValue(bodyStr)
+                    : ResultWrapperUtil.jsonToResultWrapper(type,bodyStr);
 
             //如果返回错误，且为内部错误，则直接抛出异常
             if (result.getStatus()!= ResultWrapperConstant.STATUS_SUCCEED) {
@@ -64,4 +106,56 @@ public class MyFeignDecoder implements Decoder {
             throw new UnknowException(e);
         }
     }
-}
\ No newline at end of file
+
+    private Object streamingDecode(Response response, Type type) {
+        try (InputStream in = response.body().asInputStream();
+             JsonParser parser = readerRegistry.getObjectMapper().getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new DecodeException(response.status(), "ResultWrapper json object expected", response.request());
+            }
+            //除data以外的字段很少，缓存下来，失败时用于还原完整的ResultWrapper
+            TokenBuffer envelope = new TokenBuffer(parser);
+            envelope.writeStartObject();
+            Integer status = null;
+            Object data = null;
+            boolean dataBuffered = false;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if (DATA_FIELD.equals(fieldName) && status != null && status == ResultWrapperConstant.STATUS_SUCCEED) {
+                    //status已经成功，data直接绑定到目标类型
+                    data = readerRegistry.getDataReader(type).readValue(parser);
+                    continue;
+                }
+                if (STATUS_FIELD.equals(fieldName)) {
+                    status = parser.getValueAsInt();
+                } else if (DATA_FIELD.equals(fieldName)) {
+                    dataBuffered = true;
+                }
+                envelope.writeFieldName(fieldName);
+                envelope.copyCurrentStructure(parser);
+            }
+            envelope.writeEndObject();
+
+            if (status != null && status == ResultWrapperConstant.STATUS_SUCCEED) {
+                if (dataBuffered) {
+                    //data出现在status之前，从缓存中取出data绑定
+                    ResultWrapper result = readResultWrapper(envelope, type);
+                    return result.getData();
+                }
+                return data;
+            }
+            //如果返回错误，且为内部错误，则直接抛出异常
+            throw new ResultWrapperException(readResultWrapper(envelope, type), response.request().url());
+        } catch (Exception e) {
+            throw new UnknowException(e);
+        }
+    }
+
+    private ResultWrapper readResultWrapper(TokenBuffer envelope, Type type) throws IOException {
+        try (JsonParser bufferParser = envelope.asParser(readerRegistry.getObjectMapper())) {
+            return readerRegistry.getResultReader(type).readValue(bufferParser);
+        }
+    }
+}
@@ -26,6 +26,8 @@ import feign.codec.ErrorDecoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 
 /**
@@ -38,9 +40,40 @@ import java.util.HashMap;
  */
 public class MyFeignErrorDecoder extends ErrorDecoder.Default {
     protected final Logger logger = LoggerFactory.getLogger(MyFeignErrorDecoder.class);
+    private final ResultWrapperReaderRegistry readerRegistry;
+
+    /**
+     * 采用ResultWrapperUtil解析
+     */
+    public MyFeignErrorDecoder() {
+        this(null);
+    }
+
+    /**
+     * ObjectReader从注册表中复用
+     *
+     * @param readerRegistry the reader registry
+     */
+    public MyFeignErrorDecoder(ResultWrapperReaderRegistry readerRegistry) {
+        this.readerRegistry = readerRegistry;
+        if (readerRegistry != null) {
+            readerRegistry.warm(HashMap.class);
+        }
+    }
 
     @Override
     public Exception decode(String methodKey, Response response) {
+        //错误响应的body只读取一次，super.decode与ResultWrapper转换共用，body不是byte[]时流只能读一次
+        byte[] body = null;
+        if (response.body() != null) {
+            try (InputStream in = response.body().asInputStream()) {
+                body = Util.toByteArray(in);
+                response = response.toBuilder().body(body).build();
+            } catch (IOException e) {
+                logger.debug("Read error body failed:" + e.getMessage());
+                response = response.toBuilder().body((byte[]) null).build();
+            }
+        }
         Exception exception = super.decode(methodKey, response);
         if (exception instanceof RetryableException ||
                 exception instanceof FeignException.ServiceUnavailable
@@ -50,16 +83,15 @@ public class MyFeignErrorDecoder extends ErrorDecoder.Default {
         //尝试对response body做ResultWrapper转换
         //如果转换成功，说明是业务类异常
         //如果转换失败，则说明有可能是系统的异常
-        String bodyStr ="";
+        if (body == null) {
+            return exception;
+        }
         try {
-            if (response.body() != null) {
-                bodyStr = Util.toString(response.body().asReader(Util.UTF_8));
-                //对结果进行转换
-                ResultWrapper result = ResultWrapperUtil.jsonToResultWrapper(HashMap.class,bodyStr);
-                return new ResultWrapperException(result,response.request().url());
-            }
+            ResultWrapper result = readerRegistry != null ? readerRegistry.getResultReader(HashMap.class).readValue(body)
+                    : ResultWrapperUtil.jsonToResultWrapper(HashMap.class, new String(body, Util.UTF_8));
+            return new ResultWrapperException(result,response.request().url());
         } catch (Exception e) {
-            logger.debug("Json parsing error:" + bodyStr);
+            logger.debug("Json parsing error:" + new String(body, Util.UTF_8));
         }
         return exception;
     }
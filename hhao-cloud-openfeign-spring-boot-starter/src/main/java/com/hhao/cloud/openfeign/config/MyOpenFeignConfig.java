@@ -16,11 +16,21 @@
 
 package com.hhao.cloud.openfeign.config;
 
+import feign.Capability;
+import feign.Client;
 import feign.Logger;
+import feign.Request;
 import feign.Retryer;
 import feign.codec.Decoder;
 import feign.codec.ErrorDecoder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.FeignLoggerFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.env.Environment;
 
 /**
  * 用于处理统一返回的openfeign调用
@@ -34,40 +44,200 @@ import org.springframework.context.annotation.Bean;
 public class MyOpenFeignConfig {
     /**
      * Retryer retryer.
+     * 按spring.cloud.openfeign.config.retry配置的预算重试
      *
+     * @param retryBudget the retry budget
      * @return the retryer
      */
     @Bean
-    public Retryer retryer(){
-        return  new Retryer.Default();
+    public Retryer retryer(ObjectProvider<RetryBudget> retryBudget){
+        RetryBudget budget = retryBudget.getIfAvailable();
+        if (budget == null) {
+            return new Retryer.Default();
+        }
+        return new BudgetRetryer(budget);
+    }
+
+    /**
+     * 记录成功请求，作为重试预算的基数
+     *
+     * @param retryBudget the retry budget
+     * @return the capability
+     */
+    @Bean
+    public Capability retryBudgetCapability(ObjectProvider<RetryBudget> retryBudget) {
+        RetryBudget budget = retryBudget.getIfAvailable();
+        if (budget == null) {
+            return new Capability() {
+            };
+        }
+        return new RetryBudgetCapability(budget);
     }
 
 
+    /**
+     * 对冲请求，对@Hedged标注的方法或spring.cloud.openfeign.config.hedging启用的客户端生效
+     *
+     * @param registry                  the registry
+     * @param hedgingPolicy             the hedging policy
+     * @param loadBalancerClient        the load balancer client
+     * @param loadBalancerClientFactory the load balancer client factory
+     * @param properties                the properties
+     * @param environment               the environment
+     * @return the capability
+     */
+    @Bean
+    public Capability hedgingCapability(ObjectProvider<OkHttpClientRegistry> registry, ObjectProvider<HedgingPolicy> hedgingPolicy,
+                                        ObjectProvider<LoadBalancerClient> loadBalancerClient, ObjectProvider<LoadBalancerClientFactory> loadBalancerClientFactory,
+                                        ObjectProvider<OpenFeignConfigProperties> properties, Environment environment) {
+        OkHttpClientRegistry okHttpClientRegistry = registry.getIfAvailable();
+        HedgingPolicy policy = hedgingPolicy.getIfAvailable();
+        if (okHttpClientRegistry == null || policy == null) {
+            return new Capability() {
+            };
+        }
+        OkHttpAsyncClient asyncClient = new OkHttpAsyncClient(okHttpClientRegistry.getClient(getClientName(environment)));
+        int maxConcurrency = properties.getIfAvailable(OpenFeignConfigProperties::new).getHedging().getMaxConcurrency();
+        return new HedgingCapability(asyncClient, loadBalancerClient.getIfAvailable(), loadBalancerClientFactory.getIfAvailable(), policy, maxConcurrency);
+    }
+
+    /**
+     * 合并相同的并发调用，对@SingleFlight标注的方法或spring.cloud.openfeign.config.single-flight启用的客户端生效
+     *
+     * @param registry               the registry
+     * @param defaultFallbackFactory the default fallback factory
+     * @return the capability
+     */
+    @Bean
+    public Capability singleFlightCapability(ObjectProvider<SingleFlightRegistry> registry, ObjectProvider<DefaultFallbackFactory> defaultFallbackFactory) {
+        SingleFlightRegistry singleFlightRegistry = registry.getIfAvailable();
+        if (singleFlightRegistry == null) {
+            return new Capability() {
+            };
+        }
+        return new SingleFlightCapability(singleFlightRegistry, defaultFallbackFactory.getIfAvailable(DefaultFallbackFactory::new));
+    }
+
+    /**
+     * 响应缓存，对spring.cloud.openfeign.config.response-cache启用的客户端生效
+     * 最后包装Client，命中时不经过重试、对冲等处理
+     *
+     * @param responseCache the response cache
+     * @param environment   the environment
+     * @return the capability
+     */
+    @Bean
+    public Capability responseCacheCapability(ObjectProvider<ResponseCache> responseCache, Environment environment) {
+        ResponseCache cache = responseCache.getIfAvailable();
+        if (cache == null) {
+            return new Capability() {
+            };
+        }
+        return new ResponseCacheCapability(cache, getClientName(environment));
+    }
+
     /**
      * NONE – no logging, which is the default
      * BASIC – log only the request method, URL and response status
      * HEADERS – log the basic information together with request and response headers
      * FULL – log the body, headers and metadata for both request and response
+     * 默认BASIC，由SamplingFeignLogger按采样、慢调用及失败提升为FULL
      *
      * @return the logger . level
      */
     @Bean
     Logger.Level feignLoggerLevel() {
-        return Logger.Level.FULL;
+        return Logger.Level.BASIC;
     }
 
+    /**
+     * Feign logger factory.
+     * 按spring.cloud.openfeign.config.logging配置采样输出
+     *
+     * @param properties the properties
+     * @return the feign logger factory
+     */
+    @Bean
+    public FeignLoggerFactory feignLoggerFactory(ObjectProvider<OpenFeignConfigProperties> properties) {
+        OpenFeignConfigProperties openFeignConfigProperties = properties.getIfAvailable(OpenFeignConfigProperties::new);
+        return type -> new SamplingFeignLogger(type, openFeignConfigProperties::getLogging);
+    }
+
+    /**
+     * Feign decoder decoder.
+     * 有ResultWrapperReaderRegistry时按返回类型复用ObjectReader，
+     * spring.cloud.openfeign.config.decoder.streaming=true时采用流式解码
+     *
+     * @param properties     the properties
+     * @param readerRegistry the reader registry
+     * @return the decoder
+     */
     @Bean
-    public Decoder feignDecoder() {
-        return new MyFeignDecoder();
+    public Decoder feignDecoder(ObjectProvider<OpenFeignConfigProperties> properties, ObjectProvider<ResultWrapperReaderRegistry> readerRegistry) {
+        return new MyFeignDecoder(readerRegistry.getIfAvailable(), isStreaming(properties));
     }
 
     /**
      * Feign error decoder error decoder.
      *
+     * @param readerRegistry the reader registry
      * @return the error decoder
      */
     @Bean
-    public ErrorDecoder feignErrorDecoder(){
-        return new MyFeignErrorDecoder();
+    public ErrorDecoder feignErrorDecoder(ObjectProvider<ResultWrapperReaderRegistry> readerRegistry){
+        return new MyFeignErrorDecoder(readerRegistry.getIfAvailable());
+    }
+
+    /**
+     * Feign options.
+     * 按spring.cloud.openfeign.config.okhttp.clients.<name>覆盖connect/read超时，
+     * feign.client.config中的配置优先
+     *
+     * @param registry    the registry
+     * @param environment the environment
+     * @return the request . options
+     */
+    @Bean
+    public Request.Options feignOptions(ObjectProvider<OkHttpClientRegistry> registry, Environment environment) {
+        OkHttpClientRegistry okHttpClientRegistry = registry.getIfAvailable();
+        if (okHttpClientRegistry == null) {
+            return new Request.Options();
+        }
+        return okHttpClientRegistry.getOptions(getClientName(environment));
+    }
+
+    /**
+     * Feign client.
+     * 需要独立连接池或write/call超时的客户端采用独立的OkHttpClient；
+     * 其余客户端不定义Client，沿用父上下文中的负载均衡Client，没有时由Spring Cloud OpenFeign在启动时报错
+     *
+     * @param registry                  the registry
+     * @param loadBalancerClient        the load balancer client
+     * @param loadBalancerClientFactory the load balancer client factory
+     * @param environment               the environment
+     * @return the client
+     */
+    @Bean
+    @Conditional(OnDedicatedClientCondition.class)
+    public Client feignClient(ObjectProvider<OkHttpClientRegistry> registry,
+                              ObjectProvider<LoadBalancerClient> loadBalancerClient,
+                              ObjectProvider<LoadBalancerClientFactory> loadBalancerClientFactory,
+                              Environment environment) {
+        String clientName = getClientName(environment);
+        OkHttpClientRegistry okHttpClientRegistry = registry.getIfAvailable();
+        Client delegate = okHttpClientRegistry != null ? new feign.okhttp.OkHttpClient(okHttpClientRegistry.getClient(clientName))
+                : new feign.okhttp.OkHttpClient();
+        if (loadBalancerClient.getIfAvailable() != null && loadBalancerClientFactory.getIfAvailable() != null) {
+            return new FeignBlockingLoadBalancerClient(delegate, loadBalancerClient.getIfAvailable(), loadBalancerClientFactory.getIfAvailable());
+        }
+        return delegate;
+    }
+
+    private String getClientName(Environment environment) {
+        return environment.getProperty("feign.client.name");
+    }
+
+    private boolean isStreaming(ObjectProvider<OpenFeignConfigProperties> properties) {
+        return properties.getIfAvailable(OpenFeignConfigProperties::new).getDecoder().getStreaming();
     }
 }
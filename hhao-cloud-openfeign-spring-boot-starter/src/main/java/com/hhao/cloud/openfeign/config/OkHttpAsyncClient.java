@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import feign.AsyncClient;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于OkHttp enqueue的异步Feign客户端
+ * 请求在OkHttp的Dispatcher中执行，不占用调用线程；返回的CompletableFuture被取消时，同时取消OkHttp的Call
+ *
+ * @author Wang
+ * @since 2026/10/18 11:02
+ */
+public class OkHttpAsyncClient implements AsyncClient<Object> {
+    private static final String CONTENT_TYPE = "Content-Type";
+    private final OkHttpClient delegate;
+
+    /**
+     * Instantiates a new Ok http async client.
+     *
+     * @param delegate the delegate
+     */
+    public OkHttpAsyncClient(OkHttpClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public CompletableFuture<Response> execute(Request request, Request.Options options, Optional<Object> requestContext) {
+        CompletableFuture<Response> responseFuture = new CompletableFuture<>();
+        Call call = getClient(options).newCall(toOkHttpRequest(request));
+        responseFuture.whenComplete((response, throwable) -> {
+            if (responseFuture.isCancelled()) {
+                call.cancel();
+            }
+        });
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                //与同步调用一致，IO异常转为RetryableException
+                responseFuture.completeExceptionally(new RetryableException(-1,
+                        String.format("%s executing %s %s", e.getMessage(), request.httpMethod(), request.url()),
+                        request.httpMethod(), e, null, request));
+            }
+
+            @Override
+            public void onResponse(Call call, okhttp3.Response response) {
+                if (!responseFuture.complete(toFeignResponse(response, request))) {
+                    //已被取消，释放连接
+                    response.close();
+                }
+            }
+        });
+        return responseFuture;
+    }
+
+    private OkHttpClient getClient(Request.Options options) {
+        if (options == null || (delegate.connectTimeoutMillis() == options.connectTimeoutMillis()
+                && delegate.readTimeoutMillis() == options.readTimeoutMillis()
+                && delegate.followRedirects() == options.isFollowRedirects())) {
+            return delegate;
+        }
+        //与feign-okhttp一致，按请求的Options调整超时，连接池与Dispatcher仍共享
+        return delegate.newBuilder()
+                .connectTimeout(options.connectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(options.readTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .followRedirects(options.isFollowRedirects())
+                .build();
+    }
+
+    private okhttp3.Request toOkHttpRequest(Request request) {
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder().url(request.url());
+        MediaType mediaType = null;
+        for (Map.Entry<String, Collection<String>> header : request.headers().entrySet()) {
+            for (String value : header.getValue()) {
+                if (CONTENT_TYPE.equalsIgnoreCase(header.getKey())) {
+                    mediaType = MediaType.parse(value);
+                }
+                builder.addHeader(header.getKey(), value);
+            }
+        }
+        byte[] body = request.body();
+        RequestBody requestBody = null;
+        if (body != null) {
+            requestBody = RequestBody.create(mediaType, body);
+        } else if (request.httpMethod() == Request.HttpMethod.POST
+                || request.httpMethod() == Request.HttpMethod.PUT
+                || request.httpMethod() == Request.HttpMethod.PATCH) {
+            requestBody = RequestBody.create(mediaType, new byte[0]);
+        }
+        return builder.method(request.httpMethod().name(), requestBody).build();
+    }
+
+    private Response toFeignResponse(okhttp3.Response response, Request request) {
+        Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Headers okHeaders = response.headers();
+        for (String name : okHeaders.names()) {
+            headers.put(name, okHeaders.values(name));
+        }
+        Response.Builder builder = Response.builder()
+                .status(response.code())
+                .reason(response.message())
+                .request(request)
+                .headers(headers);
+        ResponseBody body = response.body();
+        if (body != null) {
+            long length = body.contentLength();
+            builder.body(body.byteStream(), length >= 0 && length <= Integer.MAX_VALUE ? (int) length : null);
+        }
+        return builder.build();
+    }
+}
@@ -17,14 +17,20 @@ package com.hhao.cloud.openfeign.config;
 
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
 import okhttp3.*;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.commons.httpclient.DefaultOkHttpClientConnectionPoolFactory;
 import org.springframework.cloud.commons.httpclient.DefaultOkHttpClientFactory;
 import org.springframework.cloud.commons.httpclient.OkHttpClientConnectionPoolFactory;
 import org.springframework.cloud.commons.httpclient.OkHttpClientFactory;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
+import org.springframework.cloud.openfeign.loadbalancer.FeignLoadBalancerAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.stereotype.Component;
@@ -32,10 +38,14 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Enumeration;
 
 /**
  * OkHttp配置
+ * 连接池、Dispatcher、协议及超时通过spring.cloud.openfeign.config.okhttp配置，
+ * 生成的OkHttpClient先于FeignAutoConfiguration注册，Feign的负载均衡客户端会直接使用，Spring Cloud的OkHttpFeignConfiguration不再生效；
+ * 因此未配置的连接池大小、空闲时间、连接超时沿用feign.httpclient的配置，follow-redirects、disable-ssl-validation同样生效
  * 注释部分可以增加request、response拦截
  *
  * @author Wang
@@ -45,6 +55,8 @@ import java.util.Enumeration;
 @ConditionalOnClass(OkHttpClient.class)
 @ConditionalOnMissingBean(OkHttpClientConfiguration.class)
 @ConditionalOnProperty(prefix = "spring.cloud.openfeign.config",name = "enabled" ,havingValue = "true",matchIfMissing = true)
+@AutoConfigureBefore({FeignAutoConfiguration.class, FeignLoadBalancerAutoConfiguration.class})
+@EnableConfigurationProperties({OpenFeignConfigProperties.class, FeignHttpClientProperties.class})
 public class OkHttpClientConfiguration {
 
     @Bean
@@ -66,6 +78,44 @@ public class OkHttpClientConfiguration {
         return new DefaultOkHttpClientFactory(builder);
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    public OkHttpClientRegistry okHttpClientRegistry(OpenFeignConfigProperties properties, FeignHttpClientProperties httpClientProperties,
+                                                     OkHttpClientConnectionPoolFactory connPoolFactory, OkHttpClientFactory okHttpClientFactory) {
+        OpenFeignConfigProperties.OkHttp okHttp = properties.getOkhttp();
+        if (okHttp.getMaxIdleConnections() == null) {
+            okHttp.setMaxIdleConnections(httpClientProperties.getMaxConnections());
+        }
+        if (okHttp.getKeepAliveDuration() == null) {
+            okHttp.setKeepAliveDuration(Duration.ofMillis(httpClientProperties.getTimeToLiveUnit().toMillis(httpClientProperties.getTimeToLive())));
+        }
+        if (okHttp.getConnectTimeout() == null) {
+            okHttp.setConnectTimeout(Duration.ofMillis(httpClientProperties.getConnectionTimeout()));
+        }
+        OkHttpClient.Builder builder = okHttpClientFactory.createBuilder(httpClientProperties.isDisableSslValidation())
+                .followRedirects(httpClientProperties.isFollowRedirects());
+        return new OkHttpClientRegistry(okHttp, connPoolFactory, builder);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OkHttpClient okHttpClient(OkHttpClientRegistry okHttpClientRegistry) {
+        return okHttpClientRegistry.getSharedClient();
+    }
+
+    /**
+     * 连接池指标，存在micrometer时生效
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class OkHttpPoolMetricsConfiguration {
+        @Bean
+        @ConditionalOnMissingBean
+        public OkHttpPoolMetrics okHttpPoolMetrics(OkHttpClientRegistry okHttpClientRegistry) {
+            return new OkHttpPoolMetrics(okHttpClientRegistry);
+        }
+    }
+
 
 //    @Component
 //    class FeignRequestInterceptor implements RequestInterceptor {
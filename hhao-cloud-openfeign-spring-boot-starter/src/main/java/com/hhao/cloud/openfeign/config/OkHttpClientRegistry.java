@@ -0,0 +1,412 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import feign.Request;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.commons.httpclient.OkHttpClientConnectionPoolFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * OkHttpClient注册表
+ * 按spring.cloud.openfeign.config.okhttp配置生成共享的OkHttpClient，
+ * pool-strategy=per-client或配置了客户端级别的write/call超时时，为该客户端生成独立的OkHttpClient；
+ * 销毁时清空所有连接池并关闭Dispatcher的线程池
+ *
+ * @author Wang
+ * @since 2026/10/18 13:10
+ */
+public class OkHttpClientRegistry implements DisposableBean {
+    /**
+     * 共享连接池名称
+     */
+    public static final String SHARED = "shared";
+    private final OpenFeignConfigProperties.OkHttp properties;
+    private final OkHttpClientConnectionPoolFactory connectionPoolFactory;
+    private final EventListener.Factory eventListenerFactory;
+    private final Pool sharedPool;
+    private final OkHttpClient sharedClient;
+    private final ConcurrentMap<String, OkHttpClient> clients = new ConcurrentHashMap<>();
+    private final List<Pool> pools = new CopyOnWriteArrayList<>();
+    private final List<Consumer<Pool>> poolListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Instantiates a new Ok http client registry.
+     *
+     * @param properties            the properties
+     * @param connectionPoolFactory the connection pool factory
+     * @param builder               共享的builder
+     */
+    public OkHttpClientRegistry(OpenFeignConfigProperties.OkHttp properties, OkHttpClientConnectionPoolFactory connectionPoolFactory, OkHttpClient.Builder builder) {
+        this.properties = properties;
+        this.connectionPoolFactory = connectionPoolFactory;
+        //应用在builder上配置的监听，连接统计包装在其外层，不覆盖
+        this.eventListenerFactory = builder.build().eventListenerFactory();
+        this.sharedPool = createPool(SHARED, properties.getMaxIdleConnections(), properties.getKeepAliveDuration());
+        configure(builder, sharedPool);
+        applyTimeouts(builder, properties.getConnectTimeout(), properties.getReadTimeout(), properties.getWriteTimeout(), properties.getCallTimeout());
+        this.sharedClient = builder.build();
+    }
+
+    /**
+     * Gets shared client.
+     *
+     * @return the shared client
+     */
+    public OkHttpClient getSharedClient() {
+        return sharedClient;
+    }
+
+    /**
+     * 客户端是否需要独立的OkHttpClient
+     *
+     * @param clientName the client name
+     * @return the boolean
+     */
+    public boolean isDedicated(String clientName) {
+        return isDedicated(properties, clientName);
+    }
+
+    /**
+     * 按配置判断客户端是否需要独立的OkHttpClient
+     *
+     * @param properties the properties
+     * @param clientName the client name
+     * @return the boolean
+     */
+    public static boolean isDedicated(OpenFeignConfigProperties.OkHttp properties, String clientName) {
+        if (clientName == null) {
+            return false;
+        }
+        if (properties.getPoolStrategy() == OpenFeignConfigProperties.PoolStrategy.PER_CLIENT) {
+            return true;
+        }
+        OpenFeignConfigProperties.Client client = properties.getClients().get(clientName);
+        return client != null && (client.getWriteTimeout() != null || client.getCallTimeout() != null);
+    }
+
+    /**
+     * 获取客户端对应的OkHttpClient
+     *
+     * @param clientName the client name
+     * @return the client
+     */
+    public OkHttpClient getClient(String clientName) {
+        if (!isDedicated(clientName)) {
+            return sharedClient;
+        }
+        return clients.computeIfAbsent(clientName, this::createClient);
+    }
+
+    /**
+     * 客户端对应的Feign Options，Feign会按Options覆盖OkHttp的connect/read超时
+     *
+     * @param clientName the client name
+     * @return the options
+     */
+    public Request.Options getOptions(String clientName) {
+        OpenFeignConfigProperties.Client client = clientName == null ? null : properties.getClients().get(clientName);
+        Duration connectTimeout = client != null && client.getConnectTimeout() != null ? client.getConnectTimeout() : properties.getConnectTimeout();
+        Duration readTimeout = client != null && client.getReadTimeout() != null ? client.getReadTimeout() : properties.getReadTimeout();
+        //与OkHttpClient的设置一致，否则Feign会为每个请求新建OkHttpClient
+        return new Request.Options(connectTimeout.toMillis(), TimeUnit.MILLISECONDS, readTimeout.toMillis(), TimeUnit.MILLISECONDS, sharedClient.followRedirects());
+    }
+
+    /**
+     * 注册连接池监听，已有的连接池会立即回调
+     *
+     * @param listener the listener
+     */
+    public void addPoolListener(Consumer<Pool> listener) {
+        poolListeners.add(listener);
+        for (Pool pool : pools) {
+            listener.accept(pool);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (Pool pool : pools) {
+            pool.getConnectionPool().evictAll();
+            pool.getDispatcher().executorService().shutdown();
+        }
+    }
+
+    private OkHttpClient createClient(String clientName) {
+        OpenFeignConfigProperties.Client client = properties.getClients().get(clientName);
+        if (client == null) {
+            client = new OpenFeignConfigProperties.Client();
+        }
+        OkHttpClient.Builder builder = sharedClient.newBuilder();
+        if (properties.getPoolStrategy() == OpenFeignConfigProperties.PoolStrategy.PER_CLIENT) {
+            Pool pool = createPool(clientName,
+                    client.getMaxIdleConnections() != null ? client.getMaxIdleConnections() : properties.getMaxIdleConnections(),
+                    client.getKeepAliveDuration() != null ? client.getKeepAliveDuration() : properties.getKeepAliveDuration());
+            configure(builder, pool);
+        }
+        applyTimeouts(builder, client.getConnectTimeout(), client.getReadTimeout(), client.getWriteTimeout(), client.getCallTimeout());
+        return builder.build();
+    }
+
+    private Pool createPool(String name, int maxIdleConnections, Duration keepAliveDuration) {
+        ConnectionPool connectionPool = connectionPoolFactory.create(maxIdleConnections, keepAliveDuration.toMillis(), TimeUnit.MILLISECONDS);
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(properties.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(properties.getMaxRequestsPerHost());
+        Pool pool = new Pool(name, connectionPool, dispatcher);
+        pools.add(pool);
+        for (Consumer<Pool> listener : poolListeners) {
+            listener.accept(pool);
+        }
+        return pool;
+    }
+
+    private void configure(OkHttpClient.Builder builder, Pool pool) {
+        builder.connectionPool(pool.getConnectionPool());
+        builder.dispatcher(pool.getDispatcher());
+        builder.eventListenerFactory(pool.eventListenerFactory(eventListenerFactory));
+        if (!properties.getProtocols().isEmpty()) {
+            builder.protocols(new ArrayList<>(properties.getProtocols()));
+        }
+    }
+
+    private void applyTimeouts(OkHttpClient.Builder builder, Duration connectTimeout, Duration readTimeout, Duration writeTimeout, Duration callTimeout) {
+        if (connectTimeout != null) {
+            builder.connectTimeout(connectTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (readTimeout != null) {
+            builder.readTimeout(readTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (writeTimeout != null) {
+            builder.writeTimeout(writeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (callTimeout != null) {
+            builder.callTimeout(callTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 连接池及其统计
+     */
+    public static class Pool {
+        private final String name;
+        private final ConnectionPool connectionPool;
+        private final Dispatcher dispatcher;
+        private final LongAdder created = new LongAdder();
+
+        Pool(String name, ConnectionPool connectionPool, Dispatcher dispatcher) {
+            this.name = name;
+            this.connectionPool = connectionPool;
+            this.dispatcher = dispatcher;
+        }
+
+        /**
+         * Gets name.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets connection pool.
+         *
+         * @return the connection pool
+         */
+        public ConnectionPool getConnectionPool() {
+            return connectionPool;
+        }
+
+        /**
+         * Gets dispatcher.
+         *
+         * @return the dispatcher
+         */
+        public Dispatcher getDispatcher() {
+            return dispatcher;
+        }
+
+        EventListener.Factory eventListenerFactory(EventListener.Factory delegate) {
+            return call -> new CountingEventListener(delegate.create(call), created);
+        }
+
+        /**
+         * 新建连接总数
+         *
+         * @return the long
+         */
+        public long getCreatedCount() {
+            return created.sum();
+        }
+
+        /**
+         * 已关闭(过期或超出空闲数被回收)的连接数估算值
+         * OkHttp未暴露回收事件，按新建总数减去池中现有连接数计算；
+         * connectEnd早于连接放入连接池，该值可能短暂偏高后回落，不是单调递增的，只能作为Gauge
+         *
+         * @return the long
+         */
+        public long getEvictedCount() {
+            return Math.max(0, getCreatedCount() - connectionPool.connectionCount());
+        }
+    }
+
+    /**
+     * 统计新建连接，其余事件转发给应用配置的监听
+     */
+    private static class CountingEventListener extends EventListener {
+        private final EventListener delegate;
+        private final LongAdder created;
+
+        CountingEventListener(EventListener delegate, LongAdder created) {
+            this.delegate = delegate;
+            this.created = created;
+        }
+
+        @Override
+        public void callStart(Call call) {
+            delegate.callStart(call);
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            delegate.dnsStart(call, domainName);
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            delegate.dnsEnd(call, domainName, inetAddressList);
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            delegate.connectStart(call, inetSocketAddress, proxy);
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            delegate.secureConnectStart(call);
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            delegate.secureConnectEnd(call, handshake);
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            created.increment();
+            delegate.connectEnd(call, inetSocketAddress, proxy, protocol);
+        }
+
+        @Override
+        public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol, IOException ioe) {
+            delegate.connectFailed(call, inetSocketAddress, proxy, protocol, ioe);
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            delegate.connectionAcquired(call, connection);
+        }
+
+        @Override
+        public void connectionReleased(Call call, Connection connection) {
+            delegate.connectionReleased(call, connection);
+        }
+
+        @Override
+        public void requestHeadersStart(Call call) {
+            delegate.requestHeadersStart(call);
+        }
+
+        @Override
+        public void requestHeadersEnd(Call call, okhttp3.Request request) {
+            delegate.requestHeadersEnd(call, request);
+        }
+
+        @Override
+        public void requestBodyStart(Call call) {
+            delegate.requestBodyStart(call);
+        }
+
+        @Override
+        public void requestBodyEnd(Call call, long byteCount) {
+            delegate.requestBodyEnd(call, byteCount);
+        }
+
+        @Override
+        public void requestFailed(Call call, IOException ioe) {
+            delegate.requestFailed(call, ioe);
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            delegate.responseHeadersStart(call);
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, okhttp3.Response response) {
+            delegate.responseHeadersEnd(call, response);
+        }
+
+        @Override
+        public void responseBodyStart(Call call) {
+            delegate.responseBodyStart(call);
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            delegate.responseBodyEnd(call, byteCount);
+        }
+
+        @Override
+        public void responseFailed(Call call, IOException ioe) {
+            delegate.responseFailed(call, ioe);
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            delegate.callEnd(call);
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            delegate.callFailed(call, ioe);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * OkHttp连接池指标
+ * okhttp.pool.connections{pool,state=idle|active}
+ * okhttp.pool.connections.created{pool}
+ * okhttp.pool.connections.evicted{pool}，估算值，为Gauge
+ * okhttp.dispatcher.calls{pool,state=running|queued}
+ *
+ * @author Wang
+ * @since 2026/10/18 13:42
+ */
+public class OkHttpPoolMetrics implements MeterBinder {
+    private static final String POOL_TAG = "pool";
+    private static final String STATE_TAG = "state";
+    private final OkHttpClientRegistry registry;
+
+    /**
+     * Instantiates a new Ok http pool metrics.
+     *
+     * @param registry the registry
+     */
+    public OkHttpPoolMetrics(OkHttpClientRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        registry.addPoolListener(pool -> bindPool(pool, meterRegistry));
+    }
+
+    private void bindPool(OkHttpClientRegistry.Pool pool, MeterRegistry meterRegistry) {
+        Gauge.builder("okhttp.pool.connections", pool, p -> p.getConnectionPool().idleConnectionCount())
+                .tags(POOL_TAG, pool.getName(), STATE_TAG, "idle")
+                .description("Idle connections in the OkHttp connection pool")
+                .register(meterRegistry);
+        Gauge.builder("okhttp.pool.connections", pool, p -> p.getConnectionPool().connectionCount() - p.getConnectionPool().idleConnectionCount())
+                .tags(POOL_TAG, pool.getName(), STATE_TAG, "active")
+                .description("Active connections in the OkHttp connection pool")
+                .register(meterRegistry);
+        FunctionCounter.builder("okhttp.pool.connections.created", pool, OkHttpClientRegistry.Pool::getCreatedCount)
+                .tags(POOL_TAG, pool.getName())
+                .description("Connections opened by the OkHttp connection pool")
+                .register(meterRegistry);
+        Gauge.builder("okhttp.pool.connections.evicted", pool, OkHttpClientRegistry.Pool::getEvictedCount)
+                .tags(POOL_TAG, pool.getName())
+                .description("Estimated connections evicted or closed by the OkHttp connection pool, may decrease")
+                .register(meterRegistry);
+        Gauge.builder("okhttp.dispatcher.calls", pool, p -> p.getDispatcher().runningCallsCount())
+                .tags(POOL_TAG, pool.getName(), STATE_TAG, "running")
+                .register(meterRegistry);
+        Gauge.builder("okhttp.dispatcher.calls", pool, p -> p.getDispatcher().queuedCallsCount())
+                .tags(POOL_TAG, pool.getName(), STATE_TAG, "queued")
+                .register(meterRegistry);
+    }
+}
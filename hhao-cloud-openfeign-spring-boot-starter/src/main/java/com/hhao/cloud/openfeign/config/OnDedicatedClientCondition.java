@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * 当前Feign客户端(feign.client.name)需要独立的OkHttpClient时匹配
+ * 不匹配时不定义Client，由Spring Cloud OpenFeign按常规方式从父上下文解析
+ *
+ * @author Wang
+ * @since 2026/10/19 19:20
+ */
+class OnDedicatedClientCondition extends SpringBootCondition {
+    private static final String PREFIX = "spring.cloud.openfeign.config";
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Environment environment = context.getEnvironment();
+        String clientName = environment.getProperty("feign.client.name");
+        if (!environment.getProperty(PREFIX + ".enabled", Boolean.class, true)) {
+            return ConditionOutcome.noMatch(PREFIX + ".enabled is false");
+        }
+        OpenFeignConfigProperties.OkHttp okHttp = Binder.get(environment)
+                .bind(PREFIX + ".okhttp", OpenFeignConfigProperties.OkHttp.class)
+                .orElseGet(OpenFeignConfigProperties.OkHttp::new);
+        if (OkHttpClientRegistry.isDedicated(okHttp, clientName)) {
+            return ConditionOutcome.match("feign client " + clientName + " uses a dedicated OkHttpClient");
+        }
+        return ConditionOutcome.noMatch("feign client " + clientName + " uses the shared client");
+    }
+}
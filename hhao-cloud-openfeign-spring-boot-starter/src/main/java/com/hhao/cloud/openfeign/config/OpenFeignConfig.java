@@ -15,16 +15,21 @@
  */
 package com.hhao.cloud.openfeign.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hhao.common.jackson.JacksonUtilFactory;
 import feign.Logger;
 import feign.Retryer;
 import feign.codec.Decoder;
 import feign.codec.ErrorDecoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.ListableBeanFactory;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.HttpMessageConverter;
@@ -38,6 +43,7 @@ import java.util.stream.Collectors;
  * @since 2022/1/8 20:24
  */
 @Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(OpenFeignConfigProperties.class)
 @ConditionalOnMissingBean(OpenFeignConfig.class)
 @ConditionalOnProperty(prefix = "spring.cloud.openfeign.config",name = "enabled" ,havingValue = "true",matchIfMissing = true)
 public class OpenFeignConfig {
@@ -47,6 +53,67 @@ public class OpenFeignConfig {
         return new DefaultFallbackFactory();
     }
 
+    /**
+     * 按返回类型缓存的ResultWrapper解析器，与ResultWrapperUtil使用同一个ObjectMapper，解析结果与其一致
+     *
+     * @return the result wrapper reader registry
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ResultWrapperReaderRegistry resultWrapperReaderRegistry() {
+        return new ResultWrapperReaderRegistry(JacksonUtilFactory.getJsonUtil().getObjectMapper());
+    }
+
+    /**
+     * 启动阶段预热所有@FeignClient方法返回类型的解析器，流式与非流式解码都使用
+     *
+     * @param beanFactory    the bean factory
+     * @param readerRegistry the reader registry
+     * @return the result wrapper reader warmer
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "spring.cloud.openfeign.config.decoder", name = "warm-up", havingValue = "true", matchIfMissing = true)
+    public ResultWrapperReaderWarmer resultWrapperReaderWarmer(ListableBeanFactory beanFactory, ResultWrapperReaderRegistry readerRegistry) {
+        return new ResultWrapperReaderWarmer(beanFactory, readerRegistry);
+    }
+
+    /**
+     * 按目标服务的重试预算
+     *
+     * @param properties the properties
+     * @return the retry budget
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RetryBudget retryBudget(OpenFeignConfigProperties properties) {
+        return new RetryBudget(properties::getRetry);
+    }
+
+    /**
+     * 对冲策略
+     *
+     * @param properties the properties
+     * @return the hedging policy
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public HedgingPolicy hedgingPolicy(OpenFeignConfigProperties properties) {
+        return new HedgingPolicy(properties::getHedging);
+    }
+
+    /**
+     * 合并相同并发调用的注册表
+     *
+     * @param properties the properties
+     * @return the single flight registry
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public SingleFlightRegistry singleFlightRegistry(OpenFeignConfigProperties properties) {
+        return new SingleFlightRegistry(properties::getSingleFlight);
+    }
+
     /**
      * 防止与gateway混合时，发生messageConverters找不到的情况
      * 未验证过！！！！
@@ -59,4 +126,46 @@ public class OpenFeignConfig {
     public HttpMessageConverters messageConverters(ObjectProvider<HttpMessageConverter<?>> converters) {
         return new HttpMessageConverters(converters.orderedStream().collect(Collectors.toList()));
     }
+
+    /**
+     * 响应缓存，存在caffeine时生效
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Caffeine.class)
+    static class ResponseCacheConfiguration {
+        @Bean
+        @ConditionalOnMissingBean
+        public ResponseCache responseCache(OpenFeignConfigProperties properties) {
+            return new ResponseCache(properties::getResponseCache);
+        }
+
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnClass(MeterRegistry.class)
+        static class ResponseCacheMetricsConfiguration {
+            @Bean
+            @ConditionalOnMissingBean
+            public FeignResponseCacheMetrics feignResponseCacheMetrics(ResponseCache responseCache) {
+                return new FeignResponseCacheMetrics(responseCache);
+            }
+        }
+    }
+
+    /**
+     * 指标，存在micrometer时生效
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class OpenFeignMetricsConfiguration {
+        @Bean
+        @ConditionalOnMissingBean
+        public FeignRetryMetrics feignRetryMetrics(RetryBudget retryBudget) {
+            return new FeignRetryMetrics(retryBudget);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public FeignSingleFlightMetrics feignSingleFlightMetrics(SingleFlightRegistry singleFlightRegistry) {
+            return new FeignSingleFlightMetrics(singleFlightRegistry);
+        }
+    }
 }
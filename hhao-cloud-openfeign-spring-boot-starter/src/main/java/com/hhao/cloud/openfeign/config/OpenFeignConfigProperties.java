@@ -0,0 +1,1465 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import okhttp3.Protocol;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * openfeign扩展配置属性
+ *
+ * @author Wang
+ * @since 2026/10/18 9:12
+ */
+@ConfigurationProperties(prefix = "spring.cloud.openfeign.config")
+public class OpenFeignConfigProperties {
+    /**
+     * 是否启用
+     */
+    private Boolean enabled = true;
+    /**
+     * 解码配置
+     */
+    private Decoder decoder = new Decoder();
+    /**
+     * 异步客户端配置
+     */
+    private Async async = new Async();
+    /**
+     * OkHttp配置
+     */
+    private OkHttp okhttp = new OkHttp();
+    /**
+     * 日志配置
+     */
+    private Logging logging = new Logging();
+    /**
+     * 重试配置
+     */
+    private Retry retry = new Retry();
+    /**
+     * 对冲请求配置
+     */
+    private Hedging hedging = new Hedging();
+    /**
+     * 合并相同请求配置
+     */
+    private SingleFlight singleFlight = new SingleFlight();
+    /**
+     * 响应缓存配置
+     */
+    private ResponseCache responseCache = new ResponseCache();
+
+    /**
+     * Gets enabled.
+     *
+     * @return the enabled
+     */
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets enabled.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets decoder.
+     *
+     * @return the decoder
+     */
+    public Decoder getDecoder() {
+        return decoder;
+    }
+
+    /**
+     * Sets decoder.
+     *
+     * @param decoder the decoder
+     */
+    public void setDecoder(Decoder decoder) {
+        this.decoder = decoder;
+    }
+
+    /**
+     * Gets async.
+     *
+     * @return the async
+     */
+    public Async getAsync() {
+        return async;
+    }
+
+    /**
+     * Sets async.
+     *
+     * @param async the async
+     */
+    public void setAsync(Async async) {
+        this.async = async;
+    }
+
+    /**
+     * Gets okhttp.
+     *
+     * @return the okhttp
+     */
+    public OkHttp getOkhttp() {
+        return okhttp;
+    }
+
+    /**
+     * Sets okhttp.
+     *
+     * @param okhttp the okhttp
+     */
+    public void setOkhttp(OkHttp okhttp) {
+        this.okhttp = okhttp;
+    }
+
+    /**
+     * Gets logging.
+     *
+     * @return the logging
+     */
+    public Logging getLogging() {
+        return logging;
+    }
+
+    /**
+     * Sets logging.
+     *
+     * @param logging the logging
+     */
+    public void setLogging(Logging logging) {
+        this.logging = logging;
+    }
+
+    /**
+     * Gets retry.
+     *
+     * @return the retry
+     */
+    public Retry getRetry() {
+        return retry;
+    }
+
+    /**
+     * Sets retry.
+     *
+     * @param retry the retry
+     */
+    public void setRetry(Retry retry) {
+        this.retry = retry;
+    }
+
+    /**
+     * Gets hedging.
+     *
+     * @return the hedging
+     */
+    public Hedging getHedging() {
+        return hedging;
+    }
+
+    /**
+     * Sets hedging.
+     *
+     * @param hedging the hedging
+     */
+    public void setHedging(Hedging hedging) {
+        this.hedging = hedging;
+    }
+
+    /**
+     * Gets single flight.
+     *
+     * @return the single flight
+     */
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * Sets single flight.
+     *
+     * @param singleFlight the single flight
+     */
+    public void setSingleFlight(SingleFlight singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    /**
+     * Gets response cache.
+     *
+     * @return the response cache
+     */
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Sets response cache.
+     *
+     * @param responseCache the response cache
+     */
+    public void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * The type Decoder.
+     */
+    public static class Decoder {
+        /**
+         * 是否采用流式解码，直接从response的InputStream解析，不生成中间String
+         */
+        private Boolean streaming = false;
+        /**
+         * 启动时是否预热所有@FeignClient方法返回类型的解析器
+         */
+        private Boolean warmUp = true;
+
+        /**
+         * Gets streaming.
+         *
+         * @return the streaming
+         */
+        public Boolean getStreaming() {
+            return streaming;
+        }
+
+        /**
+         * Sets streaming.
+         *
+         * @param streaming the streaming
+         */
+        public void setStreaming(Boolean streaming) {
+            this.streaming = streaming;
+        }
+
+        /**
+         * Gets warm up.
+         *
+         * @return the warm up
+         */
+        public Boolean getWarmUp() {
+            return warmUp;
+        }
+
+        /**
+         * Sets warm up.
+         *
+         * @param warmUp the warm up
+         */
+        public void setWarmUp(Boolean warmUp) {
+            this.warmUp = warmUp;
+        }
+    }
+
+    /**
+     * The type Async.
+     */
+    public static class Async {
+        /**
+         * 是否启用AsyncFeignClientFactory
+         */
+        private Boolean enabled = true;
+
+        /**
+         * Gets enabled.
+         *
+         * @return the enabled
+         */
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets enabled.
+         *
+         * @param enabled the enabled
+         */
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * Feign日志配置
+     * 默认按BASIC输出，被采样、慢调用或失败的调用提升为FULL；
+     * 配置刷新后即时生效，无需重启
+     */
+    public static class Logging {
+        /**
+         * 提升为FULL的采样率，0~1
+         */
+        private Double sampleRate = 0.0;
+        /**
+         * 慢调用阈值，超过时提升为FULL，为0时不按耗时提升
+         */
+        private Duration slowThreshold = Duration.ofSeconds(1);
+        /**
+         * 失败(状态码>=400或IO异常)的调用是否提升为FULL
+         */
+        private Boolean logFailures = true;
+        /**
+         * 输出body的最大字节数，超出部分截断
+         */
+        private Integer maxBodyBytes = 1024;
+
+        /**
+         * Gets sample rate.
+         *
+         * @return the sample rate
+         */
+        public Double getSampleRate() {
+            return sampleRate;
+        }
+
+        /**
+         * Sets sample rate.
+         *
+         * @param sampleRate the sample rate
+         */
+        public void setSampleRate(Double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        /**
+         * Gets slow threshold.
+         *
+         * @return the slow threshold
+         */
+        public Duration getSlowThreshold() {
+            return slowThreshold;
+        }
+
+        /**
+         * Sets slow threshold.
+         *
+         * @param slowThreshold the slow threshold
+         */
+        public void setSlowThreshold(Duration slowThreshold) {
+            this.slowThreshold = slowThreshold;
+        }
+
+        /**
+         * Gets log failures.
+         *
+         * @return the log failures
+         */
+        public Boolean getLogFailures() {
+            return logFailures;
+        }
+
+        /**
+         * Sets log failures.
+         *
+         * @param logFailures the log failures
+         */
+        public void setLogFailures(Boolean logFailures) {
+            this.logFailures = logFailures;
+        }
+
+        /**
+         * Gets max body bytes.
+         *
+         * @return the max body bytes
+         */
+        public Integer getMaxBodyBytes() {
+            return maxBodyBytes;
+        }
+
+        /**
+         * Sets max body bytes.
+         *
+         * @param maxBodyBytes the max body bytes
+         */
+        public void setMaxBodyBytes(Integer maxBodyBytes) {
+            this.maxBodyBytes = maxBodyBytes;
+        }
+    }
+
+    /**
+     * 重试配置
+     * 按目标服务统计滑动窗口内的成功请求，重试数超过预算时不再重试；
+     * 退避采用full jitter指数退避，优先采用响应的Retry-After
+     */
+    public static class Retry {
+        /**
+         * 最大尝试次数(含首次调用)
+         */
+        private Integer maxAttempts = 3;
+        /**
+         * 退避基数，第n次重试在[0, backoff*2^(n-1)]内随机
+         */
+        private Duration backoff = Duration.ofMillis(100);
+        /**
+         * 最大退避时间
+         */
+        private Duration maxBackoff = Duration.ofSeconds(1);
+        /**
+         * 单次调用(含所有重试)的总时限，为0时不限制
+         */
+        private Duration deadline = Duration.ofSeconds(5);
+        /**
+         * 重试预算，窗口内重试数不超过成功请求数的比例
+         */
+        private Double budgetRatio = 0.1;
+        /**
+         * 窗口内最少允许的重试数，保证低流量时仍可重试
+         */
+        private Integer minRetriesPerWindow = 10;
+        /**
+         * 预算统计的滑动窗口
+         */
+        private Duration budgetWindow = Duration.ofSeconds(10);
+
+        /**
+         * Gets max attempts.
+         *
+         * @return the max attempts
+         */
+        public Integer getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        /**
+         * Sets max attempts.
+         *
+         * @param maxAttempts the max attempts
+         */
+        public void setMaxAttempts(Integer maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        /**
+         * Gets backoff.
+         *
+         * @return the backoff
+         */
+        public Duration getBackoff() {
+            return backoff;
+        }
+
+        /**
+         * Sets backoff.
+         *
+         * @param backoff the backoff
+         */
+        public void setBackoff(Duration backoff) {
+            this.backoff = backoff;
+        }
+
+        /**
+         * Gets max backoff.
+         *
+         * @return the max backoff
+         */
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        /**
+         * Sets max backoff.
+         *
+         * @param maxBackoff the max backoff
+         */
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        /**
+         * Gets deadline.
+         *
+         * @return the deadline
+         */
+        public Duration getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * Sets deadline.
+         *
+         * @param deadline the deadline
+         */
+        public void setDeadline(Duration deadline) {
+            this.deadline = deadline;
+        }
+
+        /**
+         * Gets budget ratio.
+         *
+         * @return the budget ratio
+         */
+        public Double getBudgetRatio() {
+            return budgetRatio;
+        }
+
+        /**
+         * Sets budget ratio.
+         *
+         * @param budgetRatio the budget ratio
+         */
+        public void setBudgetRatio(Double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+
+        /**
+         * Gets min retries per window.
+         *
+         * @return the min retries per window
+         */
+        public Integer getMinRetriesPerWindow() {
+            return minRetriesPerWindow;
+        }
+
+        /**
+         * Sets min retries per window.
+         *
+         * @param minRetriesPerWindow the min retries per window
+         */
+        public void setMinRetriesPerWindow(Integer minRetriesPerWindow) {
+            this.minRetriesPerWindow = minRetriesPerWindow;
+        }
+
+        /**
+         * Gets budget window.
+         *
+         * @return the budget window
+         */
+        public Duration getBudgetWindow() {
+            return budgetWindow;
+        }
+
+        /**
+         * Sets budget window.
+         *
+         * @param budgetWindow the budget window
+         */
+        public void setBudgetWindow(Duration budgetWindow) {
+            this.budgetWindow = budgetWindow;
+        }
+    }
+
+    /**
+     * 对冲请求配置
+     * 幂等的GET请求超过近期耗时的百分位仍未返回时，向另一个实例发出第二个请求，先返回者胜出，另一个被取消
+     */
+    public static class Hedging {
+        /**
+         * 是否对所有客户端的GET请求启用，为false时仅对clients中的客户端及@Hedged标注的方法启用
+         */
+        private Boolean enabled = false;
+        /**
+         * 启用对冲的客户端名称
+         */
+        private List<String> clients = new ArrayList<>();
+        /**
+         * 超过该百分位耗时未返回时发出对冲请求
+         */
+        private Double percentile = 0.95;
+        /**
+         * 最小对冲延迟
+         */
+        private Duration minDelay = Duration.ofMillis(10);
+        /**
+         * 计算百分位所需的最少样本数，不足时不对冲
+         */
+        private Integer minSamples = 50;
+        /**
+         * 耗时直方图的窗口
+         */
+        private Duration histogramWindow = Duration.ofSeconds(60);
+        /**
+         * 对冲预算，窗口内对冲数不超过请求数的比例
+         */
+        private Double budgetRatio = 0.05;
+        /**
+         * 窗口内最少允许的对冲数
+         */
+        private Integer minHedgesPerWindow = 1;
+        /**
+         * 预算统计的滑动窗口
+         */
+        private Duration budgetWindow = Duration.ofSeconds(10);
+        /**
+         * 同时在后台等待首次请求的最大线程数，超过时不对冲，首次请求在调用线程中执行
+         */
+        private Integer maxConcurrency = 64;
+
+        /**
+         * Gets enabled.
+         *
+         * @return the enabled
+         */
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets enabled.
+         *
+         * @param enabled the enabled
+         */
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets clients.
+         *
+         * @return the clients
+         */
+        public List<String> getClients() {
+            return clients;
+        }
+
+        /**
+         * Sets clients.
+         *
+         * @param clients the clients
+         */
+        public void setClients(List<String> clients) {
+            this.clients = clients;
+        }
+
+        /**
+         * Gets percentile.
+         *
+         * @return the percentile
+         */
+        public Double getPercentile() {
+            return percentile;
+        }
+
+        /**
+         * Sets percentile.
+         *
+         * @param percentile the percentile
+         */
+        public void setPercentile(Double percentile) {
+            this.percentile = percentile;
+        }
+
+        /**
+         * Gets min delay.
+         *
+         * @return the min delay
+         */
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        /**
+         * Sets min delay.
+         *
+         * @param minDelay the min delay
+         */
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        /**
+         * Gets min samples.
+         *
+         * @return the min samples
+         */
+        public Integer getMinSamples() {
+            return minSamples;
+        }
+
+        /**
+         * Sets min samples.
+         *
+         * @param minSamples the min samples
+         */
+        public void setMinSamples(Integer minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        /**
+         * Gets histogram window.
+         *
+         * @return the histogram window
+         */
+        public Duration getHistogramWindow() {
+            return histogramWindow;
+        }
+
+        /**
+         * Sets histogram window.
+         *
+         * @param histogramWindow the histogram window
+         */
+        public void setHistogramWindow(Duration histogramWindow) {
+            this.histogramWindow = histogramWindow;
+        }
+
+        /**
+         * Gets budget ratio.
+         *
+         * @return the budget ratio
+         */
+        public Double getBudgetRatio() {
+            return budgetRatio;
+        }
+
+        /**
+         * Sets budget ratio.
+         *
+         * @param budgetRatio the budget ratio
+         */
+        public void setBudgetRatio(Double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+
+        /**
+         * Gets min hedges per window.
+         *
+         * @return the min hedges per window
+         */
+        public Integer getMinHedgesPerWindow() {
+            return minHedgesPerWindow;
+        }
+
+        /**
+         * Sets min hedges per window.
+         *
+         * @param minHedgesPerWindow the min hedges per window
+         */
+        public void setMinHedgesPerWindow(Integer minHedgesPerWindow) {
+            this.minHedgesPerWindow = minHedgesPerWindow;
+        }
+
+        /**
+         * Gets budget window.
+         *
+         * @return the budget window
+         */
+        public Duration getBudgetWindow() {
+            return budgetWindow;
+        }
+
+        /**
+         * Sets budget window.
+         *
+         * @param budgetWindow the budget window
+         */
+        public void setBudgetWindow(Duration budgetWindow) {
+            this.budgetWindow = budgetWindow;
+        }
+
+        /**
+         * Gets max concurrency.
+         *
+         * @return the max concurrency
+         */
+        public Integer getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        /**
+         * Sets max concurrency.
+         *
+         * @param maxConcurrency the max concurrency
+         */
+        public void setMaxConcurrency(Integer maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+    }
+
+    /**
+     * 合并相同请求配置
+     * 方法、参数及指定header相同的并发调用只发出一次请求，所有调用方共享解码后的结果或异常
+     */
+    public static class SingleFlight {
+        /**
+         * 是否对所有客户端的GET方法启用，为false时仅对clients中的客户端及@SingleFlight标注的方法启用
+         */
+        private Boolean enabled = false;
+        /**
+         * 启用合并的客户端名称
+         */
+        private List<String> clients = new ArrayList<>();
+        /**
+         * 参与合并判断的当前请求header，header不同的调用不会合并
+         */
+        private List<String> headers = new ArrayList<>(Collections.singletonList("Authorization"));
+
+        /**
+         * Gets enabled.
+         *
+         * @return the enabled
+         */
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets enabled.
+         *
+         * @param enabled the enabled
+         */
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets clients.
+         *
+         * @return the clients
+         */
+        public List<String> getClients() {
+            return clients;
+        }
+
+        /**
+         * Sets clients.
+         *
+         * @param clients the clients
+         */
+        public void setClients(List<String> clients) {
+            this.clients = clients;
+        }
+
+        /**
+         * Gets headers.
+         *
+         * @return the headers
+         */
+        public List<String> getHeaders() {
+            return headers;
+        }
+
+        /**
+         * Sets headers.
+         *
+         * @param headers the headers
+         */
+        public void setHeaders(List<String> headers) {
+            this.headers = headers;
+        }
+    }
+
+    /**
+     * 响应缓存配置
+     * 缓存GET请求解码后的对象，按Cache-Control计算有效期，过期后带If-None-Match重新验证，
+     * 304时直接返回缓存的对象，不再解码
+     */
+    public static class ResponseCache {
+        /**
+         * 是否对所有客户端启用，为false时仅对clients中启用的客户端生效
+         */
+        private Boolean enabled = false;
+        /**
+         * 缓存的最大权重，按响应body字节数计算
+         */
+        private Long maximumWeight = 64L * 1024 * 1024;
+        /**
+         * 响应未指定Cache-Control max-age时的有效期
+         */
+        private Duration defaultTtl = Duration.ofSeconds(60);
+        /**
+         * 过期后保留用于重新验证的时间，超过后按访问时间淘汰
+         */
+        private Duration retention = Duration.ofMinutes(10);
+        /**
+         * 响应未指定长度时的权重
+         */
+        private Integer defaultWeight = 1024;
+        /**
+         * 参与缓存键的请求header
+         */
+        private List<String> headers = new ArrayList<>(Collections.singletonList("Authorization"));
+        /**
+         * 按客户端名称的配置
+         */
+        private Map<String, ResponseCacheClient> clients = new HashMap<>();
+
+        /**
+         * Gets enabled.
+         *
+         * @return the enabled
+         */
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets enabled.
+         *
+         * @param enabled the enabled
+         */
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets maximum weight.
+         *
+         * @return the maximum weight
+         */
+        public Long getMaximumWeight() {
+            return maximumWeight;
+        }
+
+        /**
+         * Sets maximum weight.
+         *
+         * @param maximumWeight the maximum weight
+         */
+        public void setMaximumWeight(Long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+        }
+
+        /**
+         * Gets default ttl.
+         *
+         * @return the default ttl
+         */
+        public Duration getDefaultTtl() {
+            return defaultTtl;
+        }
+
+        /**
+         * Sets default ttl.
+         *
+         * @param defaultTtl the default ttl
+         */
+        public void setDefaultTtl(Duration defaultTtl) {
+            this.defaultTtl = defaultTtl;
+        }
+
+        /**
+         * Gets retention.
+         *
+         * @return the retention
+         */
+        public Duration getRetention() {
+            return retention;
+        }
+
+        /**
+         * Sets retention.
+         *
+         * @param retention the retention
+         */
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        /**
+         * Gets default weight.
+         *
+         * @return the default weight
+         */
+        public Integer getDefaultWeight() {
+            return defaultWeight;
+        }
+
+        /**
+         * Sets default weight.
+         *
+         * @param defaultWeight the default weight
+         */
+        public void setDefaultWeight(Integer defaultWeight) {
+            this.defaultWeight = defaultWeight;
+        }
+
+        /**
+         * Gets headers.
+         *
+         * @return the headers
+         */
+        public List<String> getHeaders() {
+            return headers;
+        }
+
+        /**
+         * Sets headers.
+         *
+         * @param headers the headers
+         */
+        public void setHeaders(List<String> headers) {
+            this.headers = headers;
+        }
+
+        /**
+         * Gets clients.
+         *
+         * @return the clients
+         */
+        public Map<String, ResponseCacheClient> getClients() {
+            return clients;
+        }
+
+        /**
+         * Sets clients.
+         *
+         * @param clients the clients
+         */
+        public void setClients(Map<String, ResponseCacheClient> clients) {
+            this.clients = clients;
+        }
+    }
+
+    /**
+     * 单个客户端的响应缓存配置
+     */
+    public static class ResponseCacheClient {
+        /**
+         * 是否启用
+         */
+        private Boolean enabled = true;
+        /**
+         * 有效期，配置后覆盖响应的Cache-Control max-age
+         */
+        private Duration ttl;
+
+        /**
+         * Gets enabled.
+         *
+         * @return the enabled
+         */
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets enabled.
+         *
+         * @param enabled the enabled
+         */
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets ttl.
+         *
+         * @return the ttl
+         */
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        /**
+         * Sets ttl.
+         *
+         * @param ttl the ttl
+         */
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    /**
+     * 连接池策略
+     */
+    public enum PoolStrategy {
+        /**
+         * 所有客户端共享一个连接池及Dispatcher
+         */
+        SHARED,
+        /**
+         * 每个Feign客户端独立的连接池及Dispatcher
+         */
+        PER_CLIENT
+    }
+
+    /**
+     * The type Ok http.
+     */
+    public static class OkHttp {
+        /**
+         * 最大空闲连接数，未配置时取feign.httpclient.max-connections(默认200)
+         */
+        private Integer maxIdleConnections;
+        /**
+         * 空闲连接保持时间，未配置时取feign.httpclient.time-to-live(默认900秒)
+         */
+        private Duration keepAliveDuration;
+        /**
+         * Dispatcher最大并发请求数，仅对异步调用生效
+         */
+        private Integer maxRequests = 64;
+        /**
+         * Dispatcher每个host最大并发请求数，仅对异步调用生效
+         */
+        private Integer maxRequestsPerHost = 5;
+        /**
+         * 协议列表，如：h2-prior-knowledge(h2c)，或http-2,http-1-1；为空时采用OkHttp默认值
+         */
+        private List<Protocol> protocols = new ArrayList<>();
+        /**
+         * 连接超时，未配置时取feign.httpclient.connection-timeout(默认2秒)
+         */
+        private Duration connectTimeout;
+        /**
+         * 读超时
+         */
+        private Duration readTimeout = Duration.ofSeconds(60);
+        /**
+         * 写超时
+         */
+        private Duration writeTimeout = Duration.ofSeconds(10);
+        /**
+         * 整个调用的超时，0表示不限制
+         */
+        private Duration callTimeout = Duration.ZERO;
+        /**
+         * 连接池策略
+         */
+        private PoolStrategy poolStrategy = PoolStrategy.SHARED;
+        /**
+         * 按客户端名称覆盖的配置
+         */
+        private Map<String, Client> clients = new HashMap<>();
+
+        /**
+         * Gets max idle connections.
+         *
+         * @return the max idle connections
+         */
+        public Integer getMaxIdleConnections() {
+            return maxIdleConnections;
+        }
+
+        /**
+         * Sets max idle connections.
+         *
+         * @param maxIdleConnections the max idle connections
+         */
+        public void setMaxIdleConnections(Integer maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+        }
+
+        /**
+         * Gets keep alive duration.
+         *
+         * @return the keep alive duration
+         */
+        public Duration getKeepAliveDuration() {
+            return keepAliveDuration;
+        }
+
+        /**
+         * Sets keep alive duration.
+         *
+         * @param keepAliveDuration the keep alive duration
+         */
+        public void setKeepAliveDuration(Duration keepAliveDuration) {
+            this.keepAliveDuration = keepAliveDuration;
+        }
+
+        /**
+         * Gets max requests.
+         *
+         * @return the max requests
+         */
+        public Integer getMaxRequests() {
+            return maxRequests;
+        }
+
+        /**
+         * Sets max requests.
+         *
+         * @param maxRequests the max requests
+         */
+        public void setMaxRequests(Integer maxRequests) {
+            this.maxRequests = maxRequests;
+        }
+
+        /**
+         * Gets max requests per host.
+         *
+         * @return the max requests per host
+         */
+        public Integer getMaxRequestsPerHost() {
+            return maxRequestsPerHost;
+        }
+
+        /**
+         * Sets max requests per host.
+         *
+         * @param maxRequestsPerHost the max requests per host
+         */
+        public void setMaxRequestsPerHost(Integer maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+        }
+
+        /**
+         * Gets protocols.
+         *
+         * @return the protocols
+         */
+        public List<Protocol> getProtocols() {
+            return protocols;
+        }
+
+        /**
+         * Sets protocols.
+         *
+         * @param protocols the protocols
+         */
+        public void setProtocols(List<Protocol> protocols) {
+            this.protocols = protocols;
+        }
+
+        /**
+         * Gets connect timeout.
+         *
+         * @return the connect timeout
+         */
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        /**
+         * Sets connect timeout.
+         *
+         * @param connectTimeout the connect timeout
+         */
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        /**
+         * Gets read timeout.
+         *
+         * @return the read timeout
+         */
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        /**
+         * Sets read timeout.
+         *
+         * @param readTimeout the read timeout
+         */
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        /**
+         * Gets write timeout.
+         *
+         * @return the write timeout
+         */
+        public Duration getWriteTimeout() {
+            return writeTimeout;
+        }
+
+        /**
+         * Sets write timeout.
+         *
+         * @param writeTimeout the write timeout
+         */
+        public void setWriteTimeout(Duration writeTimeout) {
+            this.writeTimeout = writeTimeout;
+        }
+
+        /**
+         * Gets call timeout.
+         *
+         * @return the call timeout
+         */
+        public Duration getCallTimeout() {
+            return callTimeout;
+        }
+
+        /**
+         * Sets call timeout.
+         *
+         * @param callTimeout the call timeout
+         */
+        public void setCallTimeout(Duration callTimeout) {
+            this.callTimeout = callTimeout;
+        }
+
+        /**
+         * Gets pool strategy.
+         *
+         * @return the pool strategy
+         */
+        public PoolStrategy getPoolStrategy() {
+            return poolStrategy;
+        }
+
+        /**
+         * Sets pool strategy.
+         *
+         * @param poolStrategy the pool strategy
+         */
+        public void setPoolStrategy(PoolStrategy poolStrategy) {
+            this.poolStrategy = poolStrategy;
+        }
+
+        /**
+         * Gets clients.
+         *
+         * @return the clients
+         */
+        public Map<String, Client> getClients() {
+            return clients;
+        }
+
+        /**
+         * Sets clients.
+         *
+         * @param clients the clients
+         */
+        public void setClients(Map<String, Client> clients) {
+            this.clients = clients;
+        }
+    }
+
+    /**
+     * 单个客户端的覆盖配置，为空时采用okhttp下的全局配置
+     * 连接池相关配置仅在pool-strategy=per-client时生效
+     */
+    public static class Client {
+        private Duration connectTimeout;
+        private Duration readTimeout;
+        private Duration writeTimeout;
+        private Duration callTimeout;
+        private Integer maxIdleConnections;
+        private Duration keepAliveDuration;
+
+        /**
+         * Gets connect timeout.
+         *
+         * @return the connect timeout
+         */
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        /**
+         * Sets connect timeout.
+         *
+         * @param connectTimeout the connect timeout
+         */
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        /**
+         * Gets read timeout.
+         *
+         * @return the read timeout
+         */
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        /**
+         * Sets read timeout.
+         *
+         * @param readTimeout the read timeout
+         */
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        /**
+         * Gets write timeout.
+         *
+         * @return the write timeout
+         */
+        public Duration getWriteTimeout() {
+            return writeTimeout;
+        }
+
+        /**
+         * Sets write timeout.
+         *
+         * @param writeTimeout the write timeout
+         */
+        public void setWriteTimeout(Duration writeTimeout) {
+            this.writeTimeout = writeTimeout;
+        }
+
+        /**
+         * Gets call timeout.
+         *
+         * @return the call timeout
+         */
+        public Duration getCallTimeout() {
+            return callTimeout;
+        }
+
+        /**
+         * Sets call timeout.
+         *
+         * @param callTimeout the call timeout
+         */
+        public void setCallTimeout(Duration callTimeout) {
+            this.callTimeout = callTimeout;
+        }
+
+        /**
+         * Gets max idle connections.
+         *
+         * @return the max idle connections
+         */
+        public Integer getMaxIdleConnections() {
+            return maxIdleConnections;
+        }
+
+        /**
+         * Sets max idle connections.
+         *
+         * @param maxIdleConnections the max idle connections
+         */
+        public void setMaxIdleConnections(Integer maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+        }
+
+        /**
+         * Gets keep alive duration.
+         *
+         * @return the keep alive duration
+         */
+        public Duration getKeepAliveDuration() {
+            return keepAliveDuration;
+        }
+
+        /**
+         * Sets keep alive duration.
+         *
+         * @param keepAliveDuration the keep alive duration
+         */
+        public void setKeepAliveDuration(Duration keepAliveDuration) {
+            this.keepAliveDuration = keepAliveDuration;
+        }
+    }
+}
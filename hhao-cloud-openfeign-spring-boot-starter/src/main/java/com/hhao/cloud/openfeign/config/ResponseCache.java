@@ -0,0 +1,259 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Util;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Feign响应缓存
+ * 缓存解码后的对象，按解码时实际读取的body字节数计算权重，由Caffeine(W-TinyLFU)按最大权重淘汰；
+ * 命中时返回的是缓存中的同一个对象，调用方不应修改
+ *
+ * @author Wang
+ * @since 2026/10/18 18:40
+ */
+public class ResponseCache {
+    private final Supplier<OpenFeignConfigProperties.ResponseCache> properties;
+    private final Cache<String, Entry> cache;
+    private final LongAdder revalidated = new LongAdder();
+
+    /**
+     * Instantiates a new Response cache.
+     *
+     * @param properties the properties
+     */
+    public ResponseCache(Supplier<OpenFeignConfigProperties.ResponseCache> properties) {
+        this.properties = properties;
+        OpenFeignConfigProperties.ResponseCache config = properties.get();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(config.getMaximumWeight())
+                .weigher((String key, Entry entry) -> entry.weight)
+                .expireAfterAccess(config.getRetention().toMillis(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Gets cache.
+     *
+     * @return the cache
+     */
+    public Cache<String, Entry> getCache() {
+        return cache;
+    }
+
+    /**
+     * 304重新验证的次数
+     *
+     * @return the revalidated
+     */
+    public long getRevalidated() {
+        return revalidated.sum();
+    }
+
+    /**
+     * 客户端是否启用缓存
+     *
+     * @param clientName the client name
+     * @return the boolean
+     */
+    public boolean isEnabled(String clientName) {
+        OpenFeignConfigProperties.ResponseCache config = properties.get();
+        OpenFeignConfigProperties.ResponseCacheClient client = config.getClients().get(clientName);
+        if (client != null) {
+            return !Boolean.FALSE.equals(client.getEnabled());
+        }
+        return Boolean.TRUE.equals(config.getEnabled());
+    }
+
+    /**
+     * 缓存键：方法、url及指定的请求header
+     *
+     * @param request the request
+     * @return the string
+     */
+    public String key(Request request) {
+        StringBuilder key = new StringBuilder();
+        MethodMetadata metadata = request.requestTemplate() == null ? null : request.requestTemplate().methodMetadata();
+        key.append(metadata != null ? metadata.configKey() : request.httpMethod().name()).append(' ').append(request.url());
+        List<String> headers = properties.get().getHeaders();
+        if (headers != null) {
+            for (String header : headers) {
+                Collection<String> values = Util.valuesOrEmpty(request.headers(), header);
+                if (!values.isEmpty()) {
+                    key.append('\n').append(header).append(':').append(values);
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Gets entry.
+     *
+     * @param key the key
+     * @return the entry
+     */
+    public Entry get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * 按响应头保存解码后的对象，Cache-Control为no-store时不保存
+     *
+     * @param key        the key
+     * @param clientName the client name
+     * @param value      the value
+     * @param headers    the headers
+     * @param size       解码时读取的body字节数，为空时按defaultWeight计算
+     */
+    public void put(String key, String clientName, Object value, Map<String, Collection<String>> headers, Integer size) {
+        CacheControl cacheControl = CacheControl.parse(headers);
+        if (cacheControl.noStore || value == null) {
+            return;
+        }
+        int weight = size != null && size >= 0 ? size : properties.get().getDefaultWeight();
+        Entry entry = new Entry(value, firstValue(headers, "ETag"), Math.max(1, weight));
+        entry.expiresAt = expiresAt(clientName, cacheControl);
+        cache.put(key, entry);
+    }
+
+    /**
+     * 304时刷新有效期
+     *
+     * @param entry      the entry
+     * @param clientName the client name
+     * @param headers    the headers
+     */
+    public void revalidate(Entry entry, String clientName, Map<String, Collection<String>> headers) {
+        entry.expiresAt = expiresAt(clientName, CacheControl.parse(headers));
+        revalidated.increment();
+    }
+
+    private long expiresAt(String clientName, CacheControl cacheControl) {
+        long now = System.currentTimeMillis();
+        if (cacheControl.noCache) {
+            return now;
+        }
+        OpenFeignConfigProperties.ResponseCache config = properties.get();
+        OpenFeignConfigProperties.ResponseCacheClient client = config.getClients().get(clientName);
+        Duration ttl;
+        if (client != null && client.getTtl() != null) {
+            ttl = client.getTtl();
+        } else if (cacheControl.maxAge >= 0) {
+            ttl = Duration.ofSeconds(cacheControl.maxAge);
+        } else {
+            ttl = config.getDefaultTtl();
+        }
+        return now + ttl.toMillis();
+    }
+
+    private static String firstValue(Map<String, Collection<String>> headers, String name) {
+        for (Map.Entry<String, Collection<String>> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey()) && header.getValue() != null && !header.getValue().isEmpty()) {
+                return header.getValue().iterator().next();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 缓存项
+     */
+    public static class Entry {
+        private final Object value;
+        private final String etag;
+        private final int weight;
+        private volatile long expiresAt;
+
+        Entry(Object value, String etag, int weight) {
+            this.value = value;
+            this.etag = etag;
+            this.weight = weight;
+        }
+
+        /**
+         * Gets value.
+         *
+         * @return the value
+         */
+        public Object getValue() {
+            return value;
+        }
+
+        /**
+         * Gets etag.
+         *
+         * @return the etag
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * 是否在有效期内
+         *
+         * @return the boolean
+         */
+        public boolean isFresh() {
+            return System.currentTimeMillis() < expiresAt;
+        }
+    }
+
+    private static class CacheControl {
+        private boolean noStore;
+        private boolean noCache;
+        private long maxAge = -1;
+
+        static CacheControl parse(Map<String, Collection<String>> headers) {
+            CacheControl cacheControl = new CacheControl();
+            for (Map.Entry<String, Collection<String>> header : headers.entrySet()) {
+                if (!"Cache-Control".equalsIgnoreCase(header.getKey()) || header.getValue() == null) {
+                    continue;
+                }
+                for (String value : header.getValue()) {
+                    for (String directive : value.split(",")) {
+                        directive = directive.trim().toLowerCase();
+                        if ("no-store".equals(directive)) {
+                            cacheControl.noStore = true;
+                        } else if ("no-cache".equals(directive)) {
+                            cacheControl.noCache = true;
+                        } else if (directive.startsWith("max-age=")) {
+                            try {
+                                cacheControl.maxAge = Long.parseLong(directive.substring("max-age=".length()).trim());
+                            } catch (NumberFormatException e) {
+                                cacheControl.maxAge = 0;
+                            }
+                        }
+                    }
+                }
+            }
+            return cacheControl;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 响应缓存
+ * Client层：有效期内直接返回命中标记的空响应；过期且有ETag时带If-None-Match重新验证，304转为命中标记的响应；
+ * 200响应打上保存标记
+ * Decoder层：命中标记的响应直接返回缓存的对象，不再解码；保存标记的响应解码后写入缓存
+ * 同步调用时Client与Decoder在同一线程执行，缓存项通过ThreadLocal传递，因此需作为最后一个Capability包装Client(最外层)；
+ * 命中时所有调用方得到同一个解码后的对象(与@SingleFlight合并调用相同)，调用方不应修改该对象，需要修改时自行复制
+ *
+ * @author Wang
+ * @since 2026/10/18 19:00
+ */
+public class ResponseCacheCapability implements Capability {
+    private static final String MARKER_HEADER = "X-Hhao-Feign-Cache";
+    private static final String HIT = "hit";
+    private static final String STORE = "store";
+    private static final ThreadLocal<Pending> PENDING = new ThreadLocal<>();
+    private final ResponseCache responseCache;
+    private final String clientName;
+
+    /**
+     * Instantiates a new Response cache capability.
+     *
+     * @param responseCache the response cache
+     * @param clientName    the client name
+     */
+    public ResponseCacheCapability(ResponseCache responseCache, String clientName) {
+        this.responseCache = responseCache;
+        this.clientName = clientName;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            PENDING.remove();
+            if (request.httpMethod() != Request.HttpMethod.GET || !responseCache.isEnabled(clientName)) {
+                return client.execute(request, options);
+            }
+            String key = responseCache.key(request);
+            ResponseCache.Entry entry = responseCache.get(key);
+            if (entry != null && entry.isFresh()) {
+                PENDING.set(new Pending(key, entry));
+                return hit(request, Collections.emptyMap());
+            }
+            Request sent = request;
+            if (entry != null && entry.getEtag() != null) {
+                sent = withHeader(request, "If-None-Match", entry.getEtag());
+            }
+            Response response = client.execute(sent, options);
+            if (response.status() == 304 && entry != null) {
+                responseCache.revalidate(entry, clientName, response.headers());
+                response.close();
+                PENDING.set(new Pending(key, entry));
+                return hit(request, response.headers());
+            }
+            if (response.status() == 200) {
+                PENDING.set(new Pending(key, null));
+                return response.toBuilder().headers(withMarker(response.headers(), STORE)).build();
+            }
+            return response;
+        };
+    }
+
+    @Override
+    public Decoder enrich(Decoder decoder) {
+        return (response, type) -> {
+            Pending pending = PENDING.get();
+            PENDING.remove();
+            String marker = marker(response);
+            if (pending != null && HIT.equals(marker)) {
+                return pending.entry.getValue();
+            }
+            if (pending == null || !STORE.equals(marker) || response.body() == null) {
+                return decoder.decode(response, type);
+            }
+            //按实际读取的字节数计算权重，chunked响应没有Content-Length
+            CountingBody body = new CountingBody(response.body());
+            Object value = decoder.decode(response.toBuilder().body(body).build(), type);
+            responseCache.put(pending.key, clientName, value, response.headers(), body.size());
+            return value;
+        };
+    }
+
+    private Response hit(Request request, Map<String, Collection<String>> headers) {
+        return Response.builder()
+                .status(200)
+                .reason("OK")
+                .request(request)
+                .headers(withMarker(headers, HIT))
+                .body(new byte[0])
+                .build();
+    }
+
+    private Request withHeader(Request request, String name, String value) {
+        Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+        headers.put(name, Collections.singletonList(value));
+        return Request.create(request.httpMethod(), request.url(), headers, request.body(), request.charset(), request.requestTemplate());
+    }
+
+    private Map<String, Collection<String>> withMarker(Map<String, Collection<String>> headers, String marker) {
+        Map<String, Collection<String>> result = new LinkedHashMap<>(headers);
+        result.put(MARKER_HEADER, Collections.singletonList(marker));
+        return result;
+    }
+
+    private String marker(Response response) {
+        Collection<String> values = response.headers().get(MARKER_HEADER);
+        return values == null || values.isEmpty() ? null : values.iterator().next();
+    }
+
+    private static class CountingBody implements Response.Body {
+        private final Response.Body body;
+        private long count;
+
+        CountingBody(Response.Body body) {
+            this.body = body;
+        }
+
+        //未读取时退回Content-Length
+        Integer size() {
+            return count > 0 ? (int) Math.min(Integer.MAX_VALUE, count) : body.length();
+        }
+
+        @Override
+        public Integer length() {
+            return body.length();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return body.isRepeatable();
+        }
+
+        @Override
+        public InputStream asInputStream() throws IOException {
+            count = 0;
+            return new FilterInputStream(body.asInputStream()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        count++;
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = super.read(b, off, len);
+                    if (n > 0) {
+                        count += n;
+                    }
+                    return n;
+                }
+
+                @Override
+                public long skip(long n) throws IOException {
+                    long skipped = super.skip(n);
+                    count += skipped;
+                    return skipped;
+                }
+            };
+        }
+
+        public Reader asReader() throws IOException {
+            return asReader(Util.UTF_8);
+        }
+
+        @Override
+        public Reader asReader(Charset charset) throws IOException {
+            return new InputStreamReader(asInputStream(), charset);
+        }
+
+        @Override
+        public void close() throws IOException {
+            body.close();
+        }
+    }
+
+    private static class Pending {
+        private final String key;
+        private final ResponseCache.Entry entry;
+
+        Pending(String key, ResponseCache.Entry entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.hhao.common.springboot.response.ResultWrapper;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * ResultWrapper解析器注册表
+ * 按Feign方法的返回Type缓存已解析好的JavaType及ObjectReader，避免每次调用都重新解析泛型
+ *
+ * @author Wang
+ * @since 2026/10/18 10:05
+ */
+public class ResultWrapperReaderRegistry {
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<Type, Readers> readers = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Result wrapper reader registry.
+     *
+     * @param objectMapper the object mapper
+     */
+    public ResultWrapperReaderRegistry(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Gets object mapper.
+     *
+     * @return the object mapper
+     */
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * 读取data部份的ObjectReader
+     *
+     * @param type the type
+     * @return the data reader
+     */
+    public ObjectReader getDataReader(Type type) {
+        return getReaders(type).dataReader;
+    }
+
+    /**
+     * 读取ResultWrapper&lt;type&gt;的ObjectReader
+     *
+     * @param type the type
+     * @return the result reader
+     */
+    public ObjectReader getResultReader(Type type) {
+        return getReaders(type).resultReader;
+    }
+
+    /**
+     * 预热
+     *
+     * @param type the type
+     */
+    public void warm(Type type) {
+        getReaders(type);
+    }
+
+    /**
+     * 已缓存的类型数量
+     *
+     * @return the int
+     */
+    public int size() {
+        return readers.size();
+    }
+
+    private Readers getReaders(Type type) {
+        Readers result = readers.get(type);
+        if (result == null) {
+            result = readers.computeIfAbsent(type, this::createReaders);
+        }
+        return result;
+    }
+
+    private Readers createReaders(Type type) {
+        JavaType dataType = objectMapper.getTypeFactory().constructType(type);
+        JavaType resultType = objectMapper.getTypeFactory().constructParametricType(ResultWrapper.class, dataType);
+        return new Readers(objectMapper.readerFor(dataType), objectMapper.readerFor(resultType));
+    }
+
+    private static class Readers {
+        private final ObjectReader dataReader;
+        private final ObjectReader resultReader;
+
+        Readers(ObjectReader dataReader, ObjectReader resultReader) {
+            this.dataReader = dataReader;
+            this.resultReader = resultReader;
+        }
+    }
+}
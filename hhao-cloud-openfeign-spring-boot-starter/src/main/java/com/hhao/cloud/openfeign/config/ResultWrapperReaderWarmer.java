@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.cloud.openfeign.FeignClient;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+
+/**
+ * 启动时扫描所有@FeignClient接口，预先生成返回类型对应的ObjectReader
+ *
+ * @author Wang
+ * @since 2026/10/18 10:21
+ */
+public class ResultWrapperReaderWarmer implements SmartInitializingSingleton {
+    protected final Logger logger = LoggerFactory.getLogger(ResultWrapperReaderWarmer.class);
+    private final ListableBeanFactory beanFactory;
+    private final ResultWrapperReaderRegistry registry;
+
+    /**
+     * Instantiates a new Result wrapper reader warmer.
+     *
+     * @param beanFactory the bean factory
+     * @param registry    the registry
+     */
+    public ResultWrapperReaderWarmer(ListableBeanFactory beanFactory, ResultWrapperReaderRegistry registry) {
+        this.beanFactory = beanFactory;
+        this.registry = registry;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String beanName : beanFactory.getBeanNamesForAnnotation(FeignClient.class)) {
+            Class<?> clientType = beanFactory.getType(beanName);
+            if (clientType == null || !clientType.isInterface()) {
+                continue;
+            }
+            for (Method method : clientType.getMethods()) {
+                if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                Type returnType = method.getGenericReturnType();
+                if (returnType == void.class || returnType == Void.class) {
+                    continue;
+                }
+                try {
+                    registry.warm(returnType);
+                } catch (Exception e) {
+                    logger.debug("Skip warming result reader for " + method + ": " + e.getMessage());
+                }
+            }
+        }
+        logger.debug("Warmed {} feign result readers", registry.size());
+    }
+}
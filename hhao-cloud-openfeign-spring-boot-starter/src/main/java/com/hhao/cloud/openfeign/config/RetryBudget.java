@@ -0,0 +1,184 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import feign.Request;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 按目标服务的重试预算
+ * 成功的请求由RetryBudgetCapability记录，BudgetRetryer重试前申请额度
+ *
+ * @author Wang
+ * @since 2026/10/18 15:20
+ */
+public class RetryBudget {
+    private static final int BUCKETS = 10;
+    private final Supplier<OpenFeignConfigProperties.Retry> properties;
+    private final ConcurrentMap<String, Target> targets = new ConcurrentHashMap<>();
+    private final List<Consumer<Target>> targetListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Instantiates a new Retry budget.
+     *
+     * @param properties the properties
+     */
+    public RetryBudget(Supplier<OpenFeignConfigProperties.Retry> properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Gets properties.
+     *
+     * @return the properties
+     */
+    public OpenFeignConfigProperties.Retry getProperties() {
+        return properties.get();
+    }
+
+    /**
+     * 获取目标服务的统计
+     *
+     * @param name the name
+     * @return the target
+     */
+    public Target getTarget(String name) {
+        Target target = targets.get(name);
+        if (target != null) {
+            return target;
+        }
+        return targets.computeIfAbsent(name, key -> {
+            Target created = new Target(key, new SlidingWindowBudget(properties.get().getBudgetWindow(), BUCKETS));
+            for (Consumer<Target> listener : targetListeners) {
+                listener.accept(created);
+            }
+            return created;
+        });
+    }
+
+    /**
+     * 注册目标服务监听，已有的目标服务会立即回调
+     *
+     * @param listener the listener
+     */
+    public void addTargetListener(Consumer<Target> listener) {
+        targetListeners.add(listener);
+        for (Target target : targets.values()) {
+            listener.accept(target);
+        }
+    }
+
+    /**
+     * 请求对应的目标服务名，优先取Feign客户端名称
+     *
+     * @param request the request
+     * @return the string
+     */
+    public static String targetName(Request request) {
+        if (request == null) {
+            return "unknown";
+        }
+        if (request.requestTemplate() != null && request.requestTemplate().feignTarget() != null) {
+            return request.requestTemplate().feignTarget().name();
+        }
+        try {
+            return URI.create(request.url()).getHost();
+        } catch (IllegalArgumentException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * 目标服务的预算及统计
+     */
+    public static class Target {
+        private final String name;
+        private final SlidingWindowBudget budget;
+        private final LongAdder attempted = new LongAdder();
+        private final LongAdder suppressed = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+
+        Target(String name, SlidingWindowBudget budget) {
+            this.name = name;
+            this.budget = budget;
+        }
+
+        /**
+         * Gets name.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets budget.
+         *
+         * @return the budget
+         */
+        public SlidingWindowBudget getBudget() {
+            return budget;
+        }
+
+        /**
+         * 已执行的重试数
+         *
+         * @return the attempted
+         */
+        public long getAttempted() {
+            return attempted.sum();
+        }
+
+        /**
+         * 因预算不足放弃的重试数
+         *
+         * @return the suppressed
+         */
+        public long getSuppressed() {
+            return suppressed.sum();
+        }
+
+        /**
+         * 因次数或时限用尽放弃的重试数
+         *
+         * @return the exhausted
+         */
+        public long getExhausted() {
+            return exhausted.sum();
+        }
+
+        void recordAttempted() {
+            attempted.increment();
+        }
+
+        void recordSuppressed() {
+            suppressed.increment();
+        }
+
+        void recordExhausted() {
+            exhausted.increment();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import feign.Capability;
+import feign.Client;
+import feign.Response;
+
+/**
+ * 记录成功请求，作为重试预算的基数
+ * 状态码小于500的响应视为成功
+ *
+ * @author Wang
+ * @since 2026/10/18 15:50
+ */
+public class RetryBudgetCapability implements Capability {
+    private final RetryBudget retryBudget;
+
+    /**
+     * Instantiates a new Retry budget capability.
+     *
+     * @param retryBudget the retry budget
+     */
+    public RetryBudgetCapability(RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            Response response = client.execute(request, options);
+            if (response.status() < 500) {
+                retryBudget.getTarget(RetryBudget.targetName(request)).getBudget().recordRequest();
+            }
+            return response;
+        };
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 采样的Feign日志
+ * 默认按BASIC输出请求行及响应状态；
+ * 被采样、耗时超过阈值或失败的调用提升为FULL，输出header及截断后的body；
+ * 是否采样由Request实例本身决定(identityHashCode)，logRequest与logAndRebufferResponse在不同线程执行时
+ * (异步调用、对冲请求)结果也一致，不依赖ThreadLocal；
+ * 响应body只预读maxBodyBytes字节：未截断时以byte[]重建body，可重复读取；
+ * 截断的成功响应与剩余的流拼接后交给解码器，不会把整个body读入内存；
+ * 失败响应会被ErrorDecoder读取，截断时仍完整读入byte[]
+ * 配置通过Supplier每次读取，配置刷新后即时生效
+ *
+ * @author Wang
+ * @since 2026/10/18 14:20
+ */
+public class SamplingFeignLogger extends feign.Logger {
+    private static final String HTTP_VERSION = "HTTP/1.1";
+    private final org.slf4j.Logger logger;
+    private final Supplier<OpenFeignConfigProperties.Logging> properties;
+
+    /**
+     * Instantiates a new Sampling feign logger.
+     *
+     * @param type       the type
+     * @param properties the properties
+     */
+    public SamplingFeignLogger(Class<?> type, Supplier<OpenFeignConfigProperties.Logging> properties) {
+        this.logger = LoggerFactory.getLogger(type);
+        this.properties = properties;
+    }
+
+    @Override
+    protected void logRequest(String configKey, Level logLevel, Request request) {
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        if (isSampled(properties.get(), request)) {
+            logFullRequest(configKey, request);
+        } else {
+            log(configKey, "---> %s %s %s", request.httpMethod().name(), request.url(), HTTP_VERSION);
+        }
+    }
+
+    @Override
+    protected void logRetry(String configKey, Level logLevel) {
+        if (logger.isDebugEnabled()) {
+            log(configKey, "---> RETRYING");
+        }
+    }
+
+    @Override
+    protected Response logAndRebufferResponse(String configKey, Level logLevel, Response response, long elapsedTime) throws IOException {
+        if (!logger.isDebugEnabled()) {
+            return response;
+        }
+        OpenFeignConfigProperties.Logging logging = properties.get();
+        //Feign在Client返回后把发出的Request设置回response，与logRequest时是同一实例
+        boolean sampled = isSampled(logging, response.request());
+        String reason = response.reason() != null ? " " + response.reason() : "";
+        log(configKey, "<--- %s %s%s (%sms)", HTTP_VERSION, response.status(), reason, elapsedTime);
+
+        boolean promoted = sampled || isSlow(logging, elapsedTime) || (isLogFailures(logging) && response.status() >= 400);
+        if (!promoted) {
+            return response;
+        }
+        if (!sampled && response.request() != null) {
+            //慢调用或失败时补充输出请求
+            logFullRequest(configKey, response.request());
+        }
+        logHeaders(configKey, response.headers());
+        if (response.body() == null || response.status() == 204 || response.status() == 205) {
+            log(configKey, "<--- END HTTP (0-byte body)");
+            return response;
+        }
+        int maxBodyBytes = getMaxBodyBytes(logging);
+        InputStream inputStream = response.body().asInputStream();
+        byte[] prefix = readPrefix(inputStream, maxBodyBytes + 1);
+        boolean truncated = prefix.length > maxBodyBytes;
+        log(configKey, "");
+        log(configKey, "%s", toText(prefix, Math.min(prefix.length, maxBodyBytes), response.charset()) + (truncated ? "...(truncated)" : ""));
+        Integer length = response.body().length();
+        log(configKey, "<--- END HTTP (%s-byte body)", length != null ? length : (truncated ? "unknown" : prefix.length));
+        if (truncated && response.status() < 400) {
+            return response.toBuilder().body(new SequenceInputStream(new ByteArrayInputStream(prefix), inputStream), length).build();
+        }
+        byte[] body = prefix;
+        try {
+            if (truncated) {
+                //失败响应由ErrorDecoder读取，需可重复读取
+                body = readFully(prefix, inputStream);
+            }
+        } finally {
+            inputStream.close();
+        }
+        return response.toBuilder().body(body).build();
+    }
+
+    @Override
+    protected IOException logIOException(String configKey, Level logLevel, IOException ioe, long elapsedTime) {
+        if (logger.isDebugEnabled()) {
+            log(configKey, "<--- ERROR %s: %s (%sms)", ioe.getClass().getSimpleName(), ioe.getMessage(), elapsedTime);
+        }
+        return ioe;
+    }
+
+    @Override
+    protected void log(String configKey, String format, Object... args) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(String.format(methodTag(configKey) + format, args));
+        }
+    }
+
+    private void logFullRequest(String configKey, Request request) {
+        log(configKey, "---> %s %s %s", request.httpMethod().name(), request.url(), HTTP_VERSION);
+        logHeaders(configKey, request.headers());
+        int bodyLength = 0;
+        if (request.body() != null) {
+            bodyLength = request.length();
+            int maxBodyBytes = getMaxBodyBytes(properties.get());
+            boolean truncated = bodyLength > maxBodyBytes;
+            log(configKey, "");
+            log(configKey, "%s", toText(request.body(), Math.min(bodyLength, maxBodyBytes), request.charset()) + (truncated ? "...(truncated)" : ""));
+        }
+        log(configKey, "---> END HTTP (%s-byte body)", bodyLength);
+    }
+
+    private void logHeaders(String configKey, Map<String, Collection<String>> headers) {
+        for (String field : headers.keySet()) {
+            for (String value : Util.valuesOrEmpty(headers, field)) {
+                log(configKey, "%s: %s", field, value);
+            }
+        }
+    }
+
+    private byte[] readPrefix(InputStream inputStream, int limit) throws IOException {
+        byte[] buffer = new byte[limit];
+        int read = 0;
+        while (read < limit) {
+            int n = inputStream.read(buffer, read, limit - read);
+            if (n < 0) {
+                break;
+            }
+            read += n;
+        }
+        if (read == limit) {
+            return buffer;
+        }
+        byte[] prefix = new byte[read];
+        System.arraycopy(buffer, 0, prefix, 0, read);
+        return prefix;
+    }
+
+    private byte[] readFully(byte[] prefix, InputStream inputStream) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(prefix.length * 2);
+        out.write(prefix);
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = inputStream.read(buffer)) >= 0) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private String toText(byte[] data, int length, Charset charset) {
+        if (charset == null) {
+            return "Binary data";
+        }
+        return new String(data, 0, length, charset);
+    }
+
+    /**
+     * 按Request实例的identityHashCode打散后与采样率比较，同一Request在任意线程判断结果相同
+     */
+    private boolean isSampled(OpenFeignConfigProperties.Logging logging, Request request) {
+        double sampleRate = logging.getSampleRate() == null ? 0 : logging.getSampleRate();
+        if (sampleRate <= 0 || request == null) {
+            return false;
+        }
+        if (sampleRate >= 1) {
+            return true;
+        }
+        int hash = System.identityHashCode(request) * 0x9E3779B9;
+        hash ^= hash >>> 16;
+        return (hash & 0x7fffffff) < sampleRate * Integer.MAX_VALUE;
+    }
+
+    private boolean isSlow(OpenFeignConfigProperties.Logging logging, long elapsedTime) {
+        return logging.getSlowThreshold() != null && !logging.getSlowThreshold().isZero()
+                && elapsedTime >= logging.getSlowThreshold().toMillis();
+    }
+
+    private boolean isLogFailures(OpenFeignConfigProperties.Logging logging) {
+        return logging.getLogFailures() == null || logging.getLogFailures();
+    }
+
+    private int getMaxBodyBytes(OpenFeignConfigProperties.Logging logging) {
+        return logging.getMaxBodyBytes() == null ? 1024 : Math.max(0, logging.getMaxBodyBytes());
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 合并相同的并发调用
+ * 方法、参数及指定header相同的并发调用只发出一次请求，所有调用方得到同一个返回对象，调用方不应修改该对象(响应缓存命中时同样返回同一个对象)；
+ * 标注在接口上时对所有方法生效，需配合MyOpenFeignConfig使用，
+ * 也可通过spring.cloud.openfeign.config.single-flight.clients按客户端对GET方法启用
+ *
+ * @author Wang
+ * @since 2026/10/18 17:30
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SingleFlight {
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import feign.Capability;
+import feign.InvocationHandlerFactory;
+import org.springframework.cloud.openfeign.FallbackFactory;
+
+/**
+ * 合并相同的并发调用
+ * 包装在InvocationHandler上，位于解码及熔断降级之外，合并的是解码后的结果
+ *
+ * @author Wang
+ * @since 2026/10/18 18:05
+ */
+public class SingleFlightCapability implements Capability {
+    private final SingleFlightRegistry registry;
+    private final FallbackFactory<?> fallbackFactory;
+
+    /**
+     * Instantiates a new Single flight capability.
+     *
+     * @param registry        the registry
+     * @param fallbackFactory the fallback factory
+     */
+    public SingleFlightCapability(SingleFlightRegistry registry, FallbackFactory<?> fallbackFactory) {
+        this.registry = registry;
+        this.fallbackFactory = fallbackFactory;
+    }
+
+    @Override
+    public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+        return (target, dispatch) -> new SingleFlightInvocationHandler(invocationHandlerFactory.create(target, dispatch),
+                target.name(), registry, fallbackFactory);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import com.hhao.common.exception.AbstractBaseRuntimeException;
+import com.hhao.common.exception.error.unknow.UnknowException;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 合并相同并发调用的InvocationHandler
+ * 第一个调用(leader)交给delegate执行，其余相同的调用等待leader的结果；
+ * 异常先经DefaultFallbackFactory转换，再由所有调用方共享
+ *
+ * @author Wang
+ * @since 2026/10/18 17:55
+ */
+public class SingleFlightInvocationHandler implements InvocationHandler {
+    private final InvocationHandler delegate;
+    private final String clientName;
+    private final SingleFlightRegistry registry;
+    private final FallbackFactory<?> fallbackFactory;
+
+    /**
+     * Instantiates a new Single flight invocation handler.
+     *
+     * @param delegate        the delegate
+     * @param clientName      the client name
+     * @param registry        the registry
+     * @param fallbackFactory the fallback factory
+     */
+    public SingleFlightInvocationHandler(InvocationHandler delegate, String clientName, SingleFlightRegistry registry, FallbackFactory<?> fallbackFactory) {
+        this.delegate = delegate;
+        this.clientName = clientName;
+        this.registry = registry;
+        this.fallbackFactory = fallbackFactory;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (!registry.isEnabled(clientName, method)) {
+            return delegate.invoke(proxy, method, args);
+        }
+        SingleFlightRegistry.Group group = registry.getGroup(clientName);
+        Key key = new Key(method, args, currentHeaders());
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = group.join(key, future);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            Object result = delegate.invoke(proxy, method, args);
+            future.complete(result);
+            return result;
+        } catch (Throwable e) {
+            Throwable mapped = map(e);
+            future.completeExceptionally(mapped);
+            throw mapped;
+        } finally {
+            group.leave(key, future);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future) throws Throwable {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnknowException(e);
+        }
+    }
+
+    private Throwable map(Throwable e) {
+        if (e instanceof AbstractBaseRuntimeException || fallbackFactory == null) {
+            return e;
+        }
+        try {
+            //DefaultFallbackFactory直接抛出转换后的异常
+            fallbackFactory.create(e);
+        } catch (Throwable mapped) {
+            return mapped;
+        }
+        return e;
+    }
+
+    private String[] currentHeaders() {
+        List<String> names = registry.getProperties().getHeaders();
+        if (names == null || names.isEmpty()) {
+            return null;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        String[] values = new String[names.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = request.getHeader(names.get(i));
+        }
+        return values;
+    }
+
+    /**
+     * 方法、参数及header组成的合并键，参数需实现equals/hashCode
+     */
+    private static class Key {
+        private final Method method;
+        private final Object[] args;
+        private final String[] headers;
+        private final int hash;
+
+        Key(Method method, Object[] args, String[] headers) {
+            this.method = method;
+            this.args = args;
+            this.headers = headers;
+            this.hash = 31 * (31 * method.hashCode() + Arrays.deepHashCode(args)) + Arrays.hashCode(headers);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && method.equals(other.method)
+                    && Arrays.deepEquals(args, other.args) && Arrays.equals(headers, other.headers);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 按客户端维护进行中的调用
+ *
+ * @author Wang
+ * @since 2026/10/18 17:40
+ */
+public class SingleFlightRegistry {
+    private final Supplier<OpenFeignConfigProperties.SingleFlight> properties;
+    private final ConcurrentMap<String, Group> groups = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Method, Mode> modes = new ConcurrentHashMap<>();
+    private final List<Consumer<Group>> groupListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Instantiates a new Single flight registry.
+     *
+     * @param properties the properties
+     */
+    public SingleFlightRegistry(Supplier<OpenFeignConfigProperties.SingleFlight> properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Gets properties.
+     *
+     * @return the properties
+     */
+    public OpenFeignConfigProperties.SingleFlight getProperties() {
+        return properties.get();
+    }
+
+    /**
+     * 获取客户端对应的分组
+     *
+     * @param name the name
+     * @return the group
+     */
+    public Group getGroup(String name) {
+        Group group = groups.get(name);
+        if (group != null) {
+            return group;
+        }
+        return groups.computeIfAbsent(name, key -> {
+            Group created = new Group(key);
+            for (Consumer<Group> listener : groupListeners) {
+                listener.accept(created);
+            }
+            return created;
+        });
+    }
+
+    /**
+     * 注册分组监听，已有的分组会立即回调
+     *
+     * @param listener the listener
+     */
+    public void addGroupListener(Consumer<Group> listener) {
+        groupListeners.add(listener);
+        for (Group group : groups.values()) {
+            listener.accept(group);
+        }
+    }
+
+    /**
+     * 方法是否启用合并：标注了@SingleFlight，或客户端启用且为GET方法
+     *
+     * @param clientName the client name
+     * @param method     the method
+     * @return the boolean
+     */
+    public boolean isEnabled(String clientName, Method method) {
+        Mode mode = modes.computeIfAbsent(method, this::resolveMode);
+        if (mode == Mode.ANNOTATED) {
+            return true;
+        }
+        if (mode == Mode.NONE) {
+            return false;
+        }
+        OpenFeignConfigProperties.SingleFlight singleFlight = properties.get();
+        return Boolean.TRUE.equals(singleFlight.getEnabled()) || singleFlight.getClients().contains(clientName);
+    }
+
+    private Mode resolveMode(Method method) {
+        if (method.getDeclaringClass() == Object.class || method.isDefault()) {
+            return Mode.NONE;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(method, SingleFlight.class)
+                || AnnotatedElementUtils.hasAnnotation(method.getDeclaringClass(), SingleFlight.class)) {
+            return Mode.ANNOTATED;
+        }
+        RequestMapping requestMapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+        if (requestMapping == null) {
+            return Mode.NONE;
+        }
+        RequestMethod[] methods = requestMapping.method();
+        boolean get = methods.length == 0 || Arrays.asList(methods).contains(RequestMethod.GET);
+        return get ? Mode.GET : Mode.NONE;
+    }
+
+    private enum Mode {
+        ANNOTATED, GET, NONE
+    }
+
+    /**
+     * 客户端的进行中调用及统计
+     */
+    public static class Group {
+        private final String name;
+        private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+        private final LongAdder leaders = new LongAdder();
+        private final LongAdder followers = new LongAdder();
+
+        Group(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Gets name.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 实际发出的调用数
+         *
+         * @return the leaders
+         */
+        public long getLeaders() {
+            return leaders.sum();
+        }
+
+        /**
+         * 被合并的调用数
+         *
+         * @return the followers
+         */
+        public long getFollowers() {
+            return followers.sum();
+        }
+
+        /**
+         * 被合并的调用占比
+         *
+         * @return the double
+         */
+        public double getCoalescingRatio() {
+            long l = leaders.sum();
+            long f = followers.sum();
+            return l + f == 0 ? 0 : (double) f / (l + f);
+        }
+
+        /**
+         * 加入进行中的调用，返回null表示当前调用为leader，需负责完成future
+         *
+         * @param key    the key
+         * @param future the future
+         * @return 进行中的调用
+         */
+        CompletableFuture<Object> join(Object key, CompletableFuture<Object> future) {
+            CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+            if (existing == null) {
+                leaders.increment();
+            } else {
+                followers.increment();
+            }
+            return existing;
+        }
+
+        void leave(Object key, CompletableFuture<Object> future) {
+            inFlight.remove(key, future);
+        }
+    }
+}
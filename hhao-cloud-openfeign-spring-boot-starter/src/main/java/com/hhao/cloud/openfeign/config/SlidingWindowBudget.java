@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 滑动窗口预算
+ * 窗口按时间分桶，记录窗口内的请求数及已消耗的额度，
+ * 可用额度 = max(minPerWindow, 请求数 * ratio) - 已消耗额度
+ * 无锁实现：每个桶用LongAdder计数，进入新的时间片时以CAS把槽位换成新桶，统计时跳过窗口外的桶；
+ * 判断与消耗额度之间不加锁，并发时可能超出少量额度，换桶瞬间写入旧桶的计数会丢失
+ *
+ * @author Wang
+ * @since 2026/10/18 15:05
+ */
+public class SlidingWindowBudget {
+    private final int buckets;
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> slots;
+
+    /**
+     * Instantiates a new Sliding window budget.
+     *
+     * @param window  窗口大小
+     * @param buckets 分桶数
+     */
+    public SlidingWindowBudget(Duration window, int buckets) {
+        this.buckets = Math.max(1, buckets);
+        this.bucketMillis = Math.max(1, window.toMillis() / this.buckets);
+        this.slots = new AtomicReferenceArray<>(this.buckets);
+        for (int i = 0; i < this.buckets; i++) {
+            slots.set(i, new Bucket(-1));
+        }
+    }
+
+    /**
+     * 记录一次请求
+     */
+    public void recordRequest() {
+        current(System.currentTimeMillis() / bucketMillis).requests.increment();
+    }
+
+    /**
+     * 尝试消耗一个额度
+     *
+     * @param ratio        额度占请求数的比例
+     * @param minPerWindow 窗口内的最小额度
+     * @return 是否成功
+     */
+    public boolean tryAcquire(double ratio, long minPerWindow) {
+        long epoch = System.currentTimeMillis() / bucketMillis;
+        Bucket current = current(epoch);
+        long totalRequests = 0;
+        long totalSpent = 0;
+        for (int i = 0; i < buckets; i++) {
+            Bucket bucket = slots.get(i);
+            if (epoch - bucket.epoch < buckets) {
+                totalRequests += bucket.requests.sum();
+                totalSpent += bucket.spent.sum();
+            }
+        }
+        double allowed = Math.max(minPerWindow, totalRequests * ratio);
+        if (totalSpent + 1 > allowed) {
+            return false;
+        }
+        current.spent.increment();
+        return true;
+    }
+
+    private Bucket current(long epoch) {
+        int index = (int) (epoch % buckets);
+        Bucket bucket = slots.get(index);
+        while (bucket.epoch != epoch) {
+            if (bucket.epoch > epoch) {
+                //时钟回拨或线程落后，计入较新的桶
+                return bucket;
+            }
+            Bucket fresh = new Bucket(epoch);
+            if (slots.compareAndSet(index, bucket, fresh)) {
+                return fresh;
+            }
+            bucket = slots.get(index);
+        }
+        return bucket;
+    }
+
+    private static class Bucket {
+        private final long epoch;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder spent = new LongAdder();
+
+        Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import feign.Capability;
+import feign.Client;
+import feign.Feign;
+import feign.RequestLine;
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 响应缓存Capability的顺序测试
+ * 命中时Client返回带标记的空body响应，缓存项通过ThreadLocal交给Decoder，
+ * 因此ResponseCacheCapability必须是MyOpenFeignConfig中最后注册的Capability(包装在最外层)，否则空body会被交给下游解码
+ *
+ * @author Wang
+ * @since 2026/10/19 21:20
+ */
+class ResponseCacheCapabilityOrderTest {
+    private static final byte[] BODY = "{\"id\":1,\"name\":\"catalog\"}".getBytes(StandardCharsets.UTF_8);
+    private AnnotationConfigApplicationContext context;
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        OpenFeignConfigProperties.ResponseCache properties = new OpenFeignConfigProperties.ResponseCache();
+        properties.setEnabled(true);
+        responseCache = new ResponseCache(() -> properties);
+        context = new AnnotationConfigApplicationContext();
+        TestPropertyValues.of("feign.client.name=catalog").applyTo(context);
+        context.registerBean(ResponseCache.class, () -> responseCache);
+        context.register(MyOpenFeignConfig.class);
+        context.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void responseCacheCapabilityIsRegisteredLast() {
+        //FeignClientFactoryBean按bean定义顺序添加Capability，后添加的包装在外层
+        List<Capability> capabilities = new ArrayList<>(context.getBeansOfType(Capability.class).values());
+        assertTrue(capabilities.get(capabilities.size() - 1) instanceof ResponseCacheCapability,
+                "ResponseCacheCapability must be the last capability, got " + capabilities);
+    }
+
+    @Test
+    void freshHitSkipsClientAndDecoder() {
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger decodes = new AtomicInteger();
+        Client client = (request, options) -> {
+            requests.incrementAndGet();
+            Map<String, Collection<String>> headers = Collections.singletonMap("Cache-Control", Collections.singletonList("max-age=60"));
+            //chunked响应，没有Content-Length
+            return Response.builder().status(200).reason("OK").request(request).headers(headers)
+                    .body(new ByteArrayInputStream(BODY), null).build();
+        };
+        Decoder decoder = (response, type) -> {
+            decodes.incrementAndGet();
+            return Util.toString(response.body().asReader(StandardCharsets.UTF_8));
+        };
+        Feign.Builder builder = Feign.builder().client(client).decoder(decoder);
+        context.getBeansOfType(Capability.class).values().forEach(builder::addCapability);
+        CatalogClient catalogClient = builder.target(CatalogClient.class, "http://catalog");
+
+        String first = catalogClient.get();
+        String second = catalogClient.get();
+
+        assertEquals(new String(BODY, StandardCharsets.UTF_8), first);
+        //命中时返回同一个对象
+        assertSame(first, second);
+        assertEquals(1, requests.get());
+        assertEquals(1, decodes.get());
+        //权重按实际读取的字节数计算
+        responseCache.getCache().cleanUp();
+        assertEquals(BODY.length, responseCache.getCache().policy().eviction().get().weightedSize().getAsLong());
+    }
+
+    interface CatalogClient {
+        @RequestLine("GET /items/1")
+        String get();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.openfeign.config;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.hhao.common.jackson.JacksonUtilFactory;
+import com.hhao.common.springboot.response.ResultWrapper;
+import com.hhao.common.springboot.response.ResultWrapperUtil;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 每次调用的解码开销对比：ResultWrapperUtil每次解析泛型类型，ResultWrapperReaderRegistry按返回类型复用ObjectReader
+ * 先各自预热，再交替测量多轮取最好的一轮，输出每次调用的耗时
+ *
+ * @author Wang
+ * @since 2026/10/19 20:40
+ */
+class ResultWrapperReaderRegistryBenchmarkTest {
+    protected final Logger logger = LoggerFactory.getLogger(ResultWrapperReaderRegistryBenchmarkTest.class);
+    private static final int WARM_UP = 20_000;
+    private static final int ITERATIONS = 100_000;
+    private static final int ROUNDS = 5;
+    private static final String BODY = "{\"data\":[{\"id\":1,\"name\":\"a\"},{\"id\":2,\"name\":\"b\"}]}";
+    private static volatile Object sink;
+
+    @Test
+    void registryAvoidsPerCallTypeResolution() throws Exception {
+        Type type = SampleClient.class.getMethod("list").getGenericReturnType();
+        ResultWrapperReaderRegistry registry = new ResultWrapperReaderRegistry(JacksonUtilFactory.getJsonUtil().getObjectMapper());
+
+        ResultWrapper<?> expected = ResultWrapperUtil.jsonToResultWrapper(type, BODY);
+        ResultWrapper<?> actual = registry.getResultReader(type).readValue(BODY);
+        assertEquals(String.valueOf(expected.getData()), String.valueOf(actual.getData()));
+
+        util(type, WARM_UP);
+        registry(registry, type, WARM_UP);
+        long utilBest = Long.MAX_VALUE;
+        long registryBest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            utilBest = Math.min(utilBest, util(type, ITERATIONS));
+            registryBest = Math.min(registryBest, registry(registry, type, ITERATIONS));
+        }
+        logger.info("ResultWrapperUtil {}ns/op, ResultWrapperReaderRegistry {}ns/op",
+                utilBest / ITERATIONS, registryBest / ITERATIONS);
+    }
+
+    private long util(Type type, int iterations) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = ResultWrapperUtil.jsonToResultWrapper(type, BODY);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long registry(ResultWrapperReaderRegistry registry, Type type, int iterations) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            ObjectReader reader = registry.getResultReader(type);
+            sink = reader.readValue(BODY);
+        }
+        return System.nanoTime() - start;
+    }
+
+    interface SampleClient {
+        List<Item> list();
+    }
+
+    static class Item {
+        private Long id;
+        private String name;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return id + ":" + name;
+        }
+    }
+}
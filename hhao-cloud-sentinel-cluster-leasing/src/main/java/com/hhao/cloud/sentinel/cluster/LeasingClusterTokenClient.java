@@ -0,0 +1,151 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.cluster;
+
+import com.alibaba.csp.sentinel.cluster.TokenResult;
+import com.alibaba.csp.sentinel.cluster.TokenResultStatus;
+import com.alibaba.csp.sentinel.cluster.client.DefaultClusterTokenClient;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 预租token的集群客户端
+ * 通过SPI注册，TokenClientProvider取类路径上第一个注册的ClusterTokenClient(不按@Spi的order排序)，
+ * 本模块需排在sentinel-cluster-client-default之前，未生效时ClusterFlowBootstrap启动失败；
+ * 由ClusterFlowBootstrap启用后，按flowId一次申请一批token在租期内本地发放，
+ * 大部分请求不经过网络；被拒绝后在租期内直接拒绝；
+ * 其它状态(server不可用、规则不存在等)原样返回，由FlowRuleChecker决定是否退回本地规则；
+ * 优先级请求和热点参数请求不预租
+ *
+ * @author Wang
+ * @since 2026/10/19 13:10
+ */
+public class LeasingClusterTokenClient extends DefaultClusterTokenClient {
+    private static final TokenResult OK = new TokenResult(TokenResultStatus.OK);
+    private static final TokenResult BLOCKED = new TokenResult(TokenResultStatus.BLOCKED);
+    private static volatile boolean enabled = false;
+    private static volatile long leaseMillis = 100;
+    private static volatile int maxTokens = 100;
+    private final Map<Long, Lease> leases = new ConcurrentHashMap<>();
+
+    /**
+     * 配置预租，由ClusterFlowBootstrap调用
+     *
+     * @param enabled     the enabled
+     * @param leaseMillis the lease millis
+     * @param maxTokens   the max tokens
+     */
+    public static void configure(boolean enabled, long leaseMillis, int maxTokens) {
+        LeasingClusterTokenClient.enabled = enabled;
+        LeasingClusterTokenClient.leaseMillis = Math.max(1, leaseMillis);
+        LeasingClusterTokenClient.maxTokens = Math.max(1, maxTokens);
+    }
+
+    @Override
+    public TokenResult requestToken(Long flowId, int acquireCount, boolean prioritized) {
+        if (!enabled || prioritized || flowId == null || acquireCount <= 0) {
+            return super.requestToken(flowId, acquireCount, prioritized);
+        }
+        Lease lease = leases.get(flowId);
+        if (lease == null) {
+            lease = leases.computeIfAbsent(flowId, key -> new Lease());
+        }
+        return lease.acquire(flowId, acquireCount);
+    }
+
+    @Override
+    public void stop() throws Exception {
+        leases.clear();
+        super.stop();
+    }
+
+    /**
+     * 单个flowId的租约，锁只保护本地计数，请求server时不持有锁；
+     * 同一时刻只有一个线程续租，其它线程使用剩余token，不够时直接请求server且结果不缓存
+     */
+    private class Lease {
+        private long expireAt;
+        private int remaining;
+        private boolean blocked;
+        private boolean renewing;
+        private int used;
+        private int lastUsed;
+
+        TokenResult acquire(Long flowId, int acquireCount) {
+            long now = TimeUtil.currentTimeMillis();
+            int batch;
+            synchronized (this) {
+                if (now < expireAt) {
+                    if (blocked) {
+                        return BLOCKED;
+                    }
+                    if (remaining >= acquireCount) {
+                        remaining -= acquireCount;
+                        used += acquireCount;
+                        return OK;
+                    }
+                } else if (!renewing) {
+                    //新租期，按上一个租期的用量估算批量
+                    lastUsed = used;
+                    used = 0;
+                }
+                if (renewing) {
+                    batch = 0;
+                } else {
+                    renewing = true;
+                    batch = Math.max(acquireCount, Math.min(maxTokens, lastUsed));
+                }
+            }
+            if (batch == 0) {
+                //其它线程正在续租
+                return LeasingClusterTokenClient.super.requestToken(flowId, acquireCount, false);
+            }
+            TokenResult result = null;
+            try {
+                result = LeasingClusterTokenClient.super.requestToken(flowId, batch, false);
+                if (result != null && result.getStatus() == TokenResultStatus.BLOCKED && batch > acquireCount) {
+                    //整批被拒时只申请本次需要的数量
+                    batch = acquireCount;
+                    result = LeasingClusterTokenClient.super.requestToken(flowId, batch, false);
+                }
+                return result;
+            } finally {
+                renewed(now, batch, acquireCount, result);
+            }
+        }
+
+        private synchronized void renewed(long now, int batch, int acquireCount, TokenResult result) {
+            renewing = false;
+            if (result != null && result.getStatus() == TokenResultStatus.OK) {
+                expireAt = now + leaseMillis;
+                remaining = batch - acquireCount;
+                used += acquireCount;
+                blocked = false;
+            } else if (result != null && result.getStatus() == TokenResultStatus.BLOCKED) {
+                expireAt = now + leaseMillis;
+                remaining = 0;
+                blocked = true;
+            } else {
+                //server不可用等情况不缓存，下次请求重试
+                expireAt = 0;
+                remaining = 0;
+                blocked = false;
+            }
+        }
+    }
+}
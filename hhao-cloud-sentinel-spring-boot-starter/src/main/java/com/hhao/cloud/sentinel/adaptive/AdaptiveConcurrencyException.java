@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.adaptive;
+
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+
+/**
+ * 超过自适应并发上限时抛出，与FlowException等一样由BlockExceptionHandler处理
+ *
+ * @author Wang
+ * @since 2026/10/19 10:12
+ */
+public class AdaptiveConcurrencyException extends BlockException {
+
+    /**
+     * Instantiates a new Adaptive concurrency exception.
+     *
+     * @param ruleLimitApp the rule limit app
+     * @param rule         the rule
+     */
+    public AdaptiveConcurrencyException(String ruleLimitApp, AdaptiveConcurrencyRule rule) {
+        super(ruleLimitApp, rule);
+    }
+
+    @Override
+    public AdaptiveConcurrencyRule getRule() {
+        return rule.as(AdaptiveConcurrencyRule.class);
+    }
+}
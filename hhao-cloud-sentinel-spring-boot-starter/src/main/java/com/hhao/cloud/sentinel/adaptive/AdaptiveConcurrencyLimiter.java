@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.adaptive;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个资源的自适应并发限制器
+ *
+ * @author Wang
+ * @since 2026/10/19 10:30
+ */
+public class AdaptiveConcurrencyLimiter {
+    private final AdaptiveConcurrencyRule rule;
+    private final AdaptiveLimit limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder rejected;
+    private long windowRtt;
+    private int windowCount;
+    private int windowMaxInflight;
+    private boolean windowDropped;
+
+    /**
+     * Instantiates a new Adaptive concurrency limiter.
+     *
+     * @param rule     the rule
+     * @param rejected 拒绝计数，规则重新加载后沿用
+     */
+    public AdaptiveConcurrencyLimiter(AdaptiveConcurrencyRule rule, LongAdder rejected) {
+        this.rule = rule;
+        this.limit = AdaptiveLimit.create(rule);
+        this.rejected = rejected;
+    }
+
+    /**
+     * 并发数未达上限时占用一个名额
+     *
+     * @return the boolean
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit.getLimit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 请求完成，释放名额并用本次结果调整上限
+     *
+     * @param rtt     the rtt
+     * @param didDrop the did drop
+     */
+    public void release(long rtt, boolean didDrop) {
+        int current = decrement();
+        if (current > 0) {
+            sample(rtt, current, didDrop);
+        }
+    }
+
+    /**
+     * 按窗口汇总：平均RT、窗口内最大并发数、是否有丢弃
+     */
+    private void sample(long rtt, int current, boolean didDrop) {
+        long averageRtt;
+        int maxInflight;
+        boolean dropped;
+        synchronized (this) {
+            windowRtt += rtt;
+            windowMaxInflight = Math.max(windowMaxInflight, current);
+            windowDropped |= didDrop;
+            if (++windowCount < rule.getWindowSize()) {
+                return;
+            }
+            averageRtt = Math.round((double) windowRtt / windowCount);
+            maxInflight = windowMaxInflight;
+            dropped = windowDropped;
+            windowRtt = 0;
+            windowCount = 0;
+            windowMaxInflight = 0;
+            windowDropped = false;
+        }
+        limit.onSample(averageRtt, maxInflight, dropped);
+    }
+
+    /**
+     * 释放名额，不调整上限，用于后续slot拒绝的请求
+     */
+    public void cancel() {
+        decrement();
+    }
+
+    private int decrement() {
+        //规则重新加载时，加载前进入的请求可能在新的限制器上释放
+        while (true) {
+            int current = inflight.get();
+            if (current <= 0) {
+                return 0;
+            }
+            if (inflight.compareAndSet(current, current - 1)) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Gets rule.
+     *
+     * @return the rule
+     */
+    public AdaptiveConcurrencyRule getRule() {
+        return rule;
+    }
+
+    /**
+     * Gets limit.
+     *
+     * @return the limit
+     */
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    /**
+     * Gets inflight.
+     *
+     * @return the inflight
+     */
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    /**
+     * Gets rejected.
+     *
+     * @return the rejected
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
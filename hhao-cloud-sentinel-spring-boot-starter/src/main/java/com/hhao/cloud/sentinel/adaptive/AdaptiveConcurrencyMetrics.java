@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.adaptive;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 自适应并发指标
+ * sentinel.adaptive.limit{resource}
+ * sentinel.adaptive.inflight{resource}
+ * sentinel.adaptive.rejected{resource}
+ * 规则变更后新增的资源自动注册，规则删除后gauge返回NaN
+ *
+ * @author Wang
+ * @since 2026/10/19 10:50
+ */
+public class AdaptiveConcurrencyMetrics implements MeterBinder {
+    private static final String RESOURCE_TAG = "resource";
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindLimiters(AdaptiveConcurrencyRuleManager.getLimiters(), registry);
+        AdaptiveConcurrencyRuleManager.addListener(limiters -> bindLimiters(limiters, registry));
+    }
+
+    private void bindLimiters(Map<String, AdaptiveConcurrencyLimiter> limiters, MeterRegistry registry) {
+        for (String resource : limiters.keySet()) {
+            Gauge.builder("sentinel.adaptive.limit", () -> {
+                        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyRuleManager.getLimiter(resource);
+                        return limiter == null ? Double.NaN : limiter.getLimit();
+                    })
+                    .tag(RESOURCE_TAG, resource)
+                    .description("Current adaptive concurrency limit")
+                    .register(registry);
+            Gauge.builder("sentinel.adaptive.inflight", () -> {
+                        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyRuleManager.getLimiter(resource);
+                        return limiter == null ? Double.NaN : limiter.getInflight();
+                    })
+                    .tag(RESOURCE_TAG, resource)
+                    .description("Requests currently admitted by the adaptive concurrency limiter")
+                    .register(registry);
+            //拒绝计数在规则重新加载后沿用，计数器保持单调
+            FunctionCounter.builder("sentinel.adaptive.rejected", AdaptiveConcurrencyRuleManager.getRejectedCounter(resource), LongAdder::sum)
+                    .tag(RESOURCE_TAG, resource)
+                    .description("Requests rejected by the adaptive concurrency limiter")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.adaptive;
+
+import com.alibaba.csp.sentinel.slots.block.AbstractRule;
+
+import java.util.Objects;
+
+/**
+ * 自适应并发规则
+ * 按资源限制同时处理的请求数，上限由算法根据观察到的RT动态调整
+ * AIMD:超时或出错时按比例下调，否则加1
+ * GRADIENT2:按基线RT与本次RT的比值调整
+ * VEGAS:按估算的排队数调整
+ *
+ * @author Wang
+ * @since 2026/10/19 10:05
+ */
+public class AdaptiveConcurrencyRule extends AbstractRule {
+    /**
+     * 算法
+     */
+    private Algorithm algorithm = Algorithm.GRADIENT2;
+    /**
+     * 初始并发数
+     */
+    private int initialLimit = 20;
+    /**
+     * 最小并发数
+     */
+    private int minLimit = 1;
+    /**
+     * 最大并发数
+     */
+    private int maxLimit = 1000;
+    /**
+     * 每windowSize个请求的平均RT作为一个样本，单个请求的RT抖动太大
+     */
+    private int windowSize = 10;
+    /**
+     * AIMD:下调比例
+     */
+    private double backoffRatio = 0.9;
+    /**
+     * AIMD:RT超过该值视为超时，毫秒
+     */
+    private long timeoutMs = 5000;
+    /**
+     * GRADIENT2、VEGAS:新值的平滑系数
+     */
+    private double smoothing = 0.2;
+    /**
+     * GRADIENT2:可容忍的短期RT与长期RT之比
+     */
+    private double rttTolerance = 1.5;
+    /**
+     * GRADIENT2、VEGAS:基线RT上升的窗口，样本数
+     */
+    private int longWindow = 600;
+    /**
+     * GRADIENT2:允许的排队数
+     */
+    private int queueSize = 4;
+
+    /**
+     * 算法
+     */
+    public enum Algorithm {
+        /**
+         * Aimd algorithm.
+         */
+        AIMD,
+        /**
+         * Gradient 2 algorithm.
+         */
+        GRADIENT2,
+        /**
+         * Vegas algorithm.
+         */
+        VEGAS
+    }
+
+    /**
+     * 规则是否有效
+     *
+     * @return the boolean
+     */
+    public boolean isValid() {
+        return getResource() != null && !getResource().isEmpty() && algorithm != null
+                && minLimit >= 1 && maxLimit >= minLimit && windowSize >= 1 && backoffRatio > 0 && backoffRatio < 1
+                && smoothing > 0 && smoothing <= 1 && longWindow > 0;
+    }
+
+    /**
+     * 限制在[minLimit,maxLimit]内的初始并发数
+     *
+     * @return the int
+     */
+    public int boundedInitialLimit() {
+        return Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Gets algorithm.
+     *
+     * @return the algorithm
+     */
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Sets algorithm.
+     *
+     * @param algorithm the algorithm
+     */
+    public void setAlgorithm(Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Gets initial limit.
+     *
+     * @return the initial limit
+     */
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    /**
+     * Sets initial limit.
+     *
+     * @param initialLimit the initial limit
+     */
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    /**
+     * Gets min limit.
+     *
+     * @return the min limit
+     */
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    /**
+     * Sets min limit.
+     *
+     * @param minLimit the min limit
+     */
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    /**
+     * Gets max limit.
+     *
+     * @return the max limit
+     */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * Sets max limit.
+     *
+     * @param maxLimit the max limit
+     */
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Gets window size.
+     *
+     * @return the window size
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Sets window size.
+     *
+     * @param windowSize the window size
+     */
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Gets backoff ratio.
+     *
+     * @return the backoff ratio
+     */
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    /**
+     * Sets backoff ratio.
+     *
+     * @param backoffRatio the backoff ratio
+     */
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * Gets timeout ms.
+     *
+     * @return the timeout ms
+     */
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    /**
+     * Sets timeout ms.
+     *
+     * @param timeoutMs the timeout ms
+     */
+    public void setTimeoutMs(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Gets smoothing.
+     *
+     * @return the smoothing
+     */
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    /**
+     * Sets smoothing.
+     *
+     * @param smoothing the smoothing
+     */
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    /**
+     * Gets rtt tolerance.
+     *
+     * @return the rtt tolerance
+     */
+    public double getRttTolerance() {
+        return rttTolerance;
+    }
+
+    /**
+     * Sets rtt tolerance.
+     *
+     * @param rttTolerance the rtt tolerance
+     */
+    public void setRttTolerance(double rttTolerance) {
+        this.rttTolerance = rttTolerance;
+    }
+
+    /**
+     * Gets long window.
+     *
+     * @return the long window
+     */
+    public int getLongWindow() {
+        return longWindow;
+    }
+
+    /**
+     * Sets long window.
+     *
+     * @param longWindow the long window
+     */
+    public void setLongWindow(int longWindow) {
+        this.longWindow = longWindow;
+    }
+
+    /**
+     * Gets queue size.
+     *
+     * @return the queue size
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Sets queue size.
+     *
+     * @param queueSize the queue size
+     */
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass() || !super.equals(o)) {
+            return false;
+        }
+        AdaptiveConcurrencyRule that = (AdaptiveConcurrencyRule) o;
+        return initialLimit == that.initialLimit && minLimit == that.minLimit && maxLimit == that.maxLimit && windowSize == that.windowSize
+                && Double.compare(that.backoffRatio, backoffRatio) == 0 && timeoutMs == that.timeoutMs
+                && Double.compare(that.smoothing, smoothing) == 0 && Double.compare(that.rttTolerance, rttTolerance) == 0
+                && longWindow == that.longWindow && queueSize == that.queueSize
+                && algorithm == that.algorithm;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), algorithm, initialLimit, minLimit, maxLimit, windowSize, backoffRatio, timeoutMs,
+                smoothing, rttTolerance, longWindow, queueSize);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveConcurrencyRule{" +
+                "resource=" + getResource() +
+                ", algorithm=" + algorithm +
+                ", initialLimit=" + initialLimit +
+                ", minLimit=" + minLimit +
+                ", maxLimit=" + maxLimit +
+                '}';
+    }
+}
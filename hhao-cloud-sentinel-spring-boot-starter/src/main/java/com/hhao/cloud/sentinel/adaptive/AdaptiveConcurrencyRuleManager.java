@@ -0,0 +1,169 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.adaptive;
+
+import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
+import com.alibaba.csp.sentinel.property.PropertyListener;
+import com.alibaba.csp.sentinel.property.SentinelProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 自适应并发规则管理
+ * 与FlowRuleManager一样，可直接loadRules，也可通过register2Property接入nacos等动态数据源
+ * 规则不变的资源保留原限制器及其已收敛的上限
+ *
+ * @author Wang
+ * @since 2026/10/19 10:36
+ */
+public final class AdaptiveConcurrencyRuleManager {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyRuleManager.class);
+    private static final Map<String, LongAdder> REJECTED = new ConcurrentHashMap<>();
+    private static final List<Consumer<Map<String, AdaptiveConcurrencyLimiter>>> LISTENERS = new CopyOnWriteArrayList<>();
+    private static final RulePropertyListener LISTENER = new RulePropertyListener();
+    private static volatile Map<String, AdaptiveConcurrencyLimiter> limiters = Collections.emptyMap();
+    private static SentinelProperty<List<AdaptiveConcurrencyRule>> currentProperty = new DynamicSentinelProperty<>();
+
+    static {
+        currentProperty.addListener(LISTENER);
+    }
+
+    private AdaptiveConcurrencyRuleManager() {
+    }
+
+    /**
+     * 接入动态数据源
+     *
+     * @param property the property
+     */
+    public static void register2Property(SentinelProperty<List<AdaptiveConcurrencyRule>> property) {
+        synchronized (LISTENER) {
+            currentProperty.removeListener(LISTENER);
+            property.addListener(LISTENER);
+            currentProperty = property;
+        }
+    }
+
+    /**
+     * 加载规则，替换全部已有规则
+     *
+     * @param rules the rules
+     */
+    public static void loadRules(List<AdaptiveConcurrencyRule> rules) {
+        currentProperty.updateValue(rules);
+    }
+
+    /**
+     * Gets rules.
+     *
+     * @return the rules
+     */
+    public static List<AdaptiveConcurrencyRule> getRules() {
+        List<AdaptiveConcurrencyRule> rules = new ArrayList<>();
+        for (AdaptiveConcurrencyLimiter limiter : limiters.values()) {
+            rules.add(limiter.getRule());
+        }
+        return rules;
+    }
+
+    /**
+     * 资源的限制器，没有规则时返回null
+     *
+     * @param resource the resource
+     * @return the limiter
+     */
+    public static AdaptiveConcurrencyLimiter getLimiter(String resource) {
+        return limiters.get(resource);
+    }
+
+    /**
+     * 全部限制器
+     *
+     * @return the limiters
+     */
+    public static Map<String, AdaptiveConcurrencyLimiter> getLimiters() {
+        return limiters;
+    }
+
+    /**
+     * 资源的拒绝计数，规则重新加载后沿用
+     *
+     * @param resource the resource
+     * @return the rejected counter
+     */
+    public static LongAdder getRejectedCounter(String resource) {
+        return REJECTED.computeIfAbsent(resource, key -> new LongAdder());
+    }
+
+    /**
+     * 规则变更后回调，参数为新的全部限制器
+     *
+     * @param listener the listener
+     */
+    public static void addListener(Consumer<Map<String, AdaptiveConcurrencyLimiter>> listener) {
+        LISTENERS.add(listener);
+    }
+
+    private static synchronized void applyRules(List<AdaptiveConcurrencyRule> rules) {
+        Map<String, AdaptiveConcurrencyLimiter> old = limiters;
+        Map<String, AdaptiveConcurrencyLimiter> updated = new HashMap<>();
+        if (rules != null) {
+            for (AdaptiveConcurrencyRule rule : rules) {
+                if (rule == null || !rule.isValid()) {
+                    logger.warn("Ignoring invalid adaptive concurrency rule: {}", rule);
+                    continue;
+                }
+                if (updated.containsKey(rule.getResource())) {
+                    logger.warn("Duplicate adaptive concurrency rule for resource {}, only the first one is used", rule.getResource());
+                    continue;
+                }
+                AdaptiveConcurrencyLimiter limiter = old.get(rule.getResource());
+                if (limiter == null || !limiter.getRule().equals(rule)) {
+                    limiter = new AdaptiveConcurrencyLimiter(rule, getRejectedCounter(rule.getResource()));
+                }
+                updated.put(rule.getResource(), limiter);
+            }
+        }
+        limiters = Collections.unmodifiableMap(updated);
+        logger.info("Adaptive concurrency rules loaded: {}", updated.keySet());
+        for (Consumer<Map<String, AdaptiveConcurrencyLimiter>> listener : LISTENERS) {
+            listener.accept(limiters);
+        }
+    }
+
+    private static class RulePropertyListener implements PropertyListener<List<AdaptiveConcurrencyRule>> {
+
+        @Override
+        public void configUpdate(List<AdaptiveConcurrencyRule> value) {
+            applyRules(value);
+        }
+
+        @Override
+        public void configLoad(List<AdaptiveConcurrencyRule> value) {
+            applyRules(value);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.adaptive;
+
+import com.alibaba.csp.sentinel.Constants;
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.context.Context;
+import com.alibaba.csp.sentinel.node.DefaultNode;
+import com.alibaba.csp.sentinel.slotchain.AbstractLinkedProcessorSlot;
+import com.alibaba.csp.sentinel.slotchain.ResourceWrapper;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.spi.Spi;
+import com.alibaba.csp.sentinel.util.TimeUtil;
+
+/**
+ * 自适应并发slot，通过SPI加入slot链，位于DegradeSlot之后
+ * 超过上限时抛出AdaptiveConcurrencyException，走与其它BlockException相同的处理流程；
+ * 退出时以entry创建到退出的耗时作为RT，出错(Tracer记录的异常)视为丢弃
+ *
+ * @author Wang
+ * @since 2026/10/19 10:42
+ */
+@Spi(isSingleton = false, order = AdaptiveConcurrencySlot.ORDER)
+public class AdaptiveConcurrencySlot extends AbstractLinkedProcessorSlot<DefaultNode> {
+    /**
+     * slot顺序
+     */
+    public static final int ORDER = Constants.ORDER_DEGRADE_SLOT + 500;
+
+    @Override
+    public void entry(Context context, ResourceWrapper resourceWrapper, DefaultNode node, int count, boolean prioritized, Object... args) throws Throwable {
+        AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyRuleManager.getLimiter(resourceWrapper.getName());
+        if (limiter == null) {
+            fireEntry(context, resourceWrapper, node, count, prioritized, args);
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            throw new AdaptiveConcurrencyException(context.getOrigin(), limiter.getRule());
+        }
+        try {
+            fireEntry(context, resourceWrapper, node, count, prioritized, args);
+        } catch (BlockException e) {
+            //后续slot拒绝时exit不会释放名额
+            limiter.cancel();
+            throw e;
+        }
+    }
+
+    @Override
+    public void exit(Context context, ResourceWrapper resourceWrapper, int count, Object... args) {
+        Entry entry = context.getCurEntry();
+        //被拒绝的请求也会执行exit，此时没有占用名额
+        if (entry != null && entry.getBlockError() == null) {
+            AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyRuleManager.getLimiter(resourceWrapper.getName());
+            if (limiter != null) {
+                limiter.release(TimeUtil.currentTimeMillis() - entry.getCreateTimestamp(), entry.getError() != null);
+            }
+        }
+        fireExit(context, resourceWrapper, count, args);
+    }
+}
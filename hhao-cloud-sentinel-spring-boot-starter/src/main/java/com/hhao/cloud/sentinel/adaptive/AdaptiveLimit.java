@@ -0,0 +1,59 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.adaptive;
+
+/**
+ * 并发上限算法
+ *
+ * @author Wang
+ * @since 2026/10/19 10:15
+ */
+public interface AdaptiveLimit {
+
+    /**
+     * 当前上限
+     *
+     * @return the limit
+     */
+    int getLimit();
+
+    /**
+     * 根据一次请求的结果调整上限
+     *
+     * @param rtt      请求耗时，毫秒
+     * @param inflight 请求完成前的并发数
+     * @param didDrop  是否出错或超时
+     * @return 调整后的上限
+     */
+    int onSample(long rtt, int inflight, boolean didDrop);
+
+    /**
+     * 按规则创建
+     *
+     * @param rule the rule
+     * @return the adaptive limit
+     */
+    static AdaptiveLimit create(AdaptiveConcurrencyRule rule) {
+        switch (rule.getAlgorithm()) {
+            case AIMD:
+                return new AimdLimit(rule);
+            case VEGAS:
+                return new VegasLimit(rule);
+            default:
+                return new Gradient2Limit(rule);
+        }
+    }
+}
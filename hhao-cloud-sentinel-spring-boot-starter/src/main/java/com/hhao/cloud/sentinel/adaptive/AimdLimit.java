@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.adaptive;
+
+/**
+ * 加法增、乘法减
+ * 出错或RT超过timeoutMs时上限乘以backoffRatio，否则在并发数达到上限一半以上时加1
+ *
+ * @author Wang
+ * @since 2026/10/19 10:18
+ */
+public class AimdLimit implements AdaptiveLimit {
+    private final AdaptiveConcurrencyRule rule;
+    private volatile int limit;
+
+    /**
+     * Instantiates a new Aimd limit.
+     *
+     * @param rule the rule
+     */
+    public AimdLimit(AdaptiveConcurrencyRule rule) {
+        this.rule = rule;
+        this.limit = rule.boundedInitialLimit();
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized int onSample(long rtt, int inflight, boolean didDrop) {
+        int current = limit;
+        if (didDrop || rtt > rule.getTimeoutMs()) {
+            current = Math.max(rule.getMinLimit(), Math.min(current - 1, (int) (current * rule.getBackoffRatio())));
+        } else if (inflight * 2 >= current) {
+            current = Math.min(rule.getMaxLimit(), current + 1);
+        }
+        limit = current;
+        return current;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.adaptive;
+
+/**
+ * 基线RT，近似无负载时的RT
+ * 非对称的指数移动平均：样本低于基线时快速下降，高于基线时按longWindow缓慢上升；
+ * 上限稳定时RT总略高于基线，基线会缓慢上涨并带动上限漂移，
+ * 因此每longWindow个样本排空一次：DRAIN_SAMPLES个样本内上限减半，结束时以其间的最小RT重置基线
+ *
+ * @author Wang
+ * @since 2026/10/19 11:20
+ */
+class BaselineRtt {
+    private static final double FALL_RATE = 0.1;
+    private static final int DRAIN_SAMPLES = 3;
+    private final double riseRate;
+    private final int longWindow;
+    private double value;
+    private long samples;
+    private double drainMin;
+
+    /**
+     * Instantiates a new Baseline rtt.
+     *
+     * @param longWindow the long window
+     */
+    BaselineRtt(int longWindow) {
+        this.longWindow = Math.max(DRAIN_SAMPLES + 1, longWindow);
+        this.riseRate = 2.0 / (longWindow + 1);
+    }
+
+    /**
+     * 加入样本
+     *
+     * @param rtt the rtt
+     * @return 更新后的基线
+     */
+    double update(double rtt) {
+        long position = ++samples % longWindow;
+        if (value == 0) {
+            value = rtt;
+        } else if (position > longWindow - DRAIN_SAMPLES || position == 0) {
+            //排空期间只记录最小值
+            drainMin = drainMin == 0 ? rtt : Math.min(drainMin, rtt);
+            if (position == 0) {
+                value = drainMin;
+                drainMin = 0;
+            }
+        } else if (rtt < value) {
+            value += (rtt - value) * FALL_RATE;
+        } else {
+            value += (rtt - value) * riseRate;
+        }
+        return value;
+    }
+
+    /**
+     * 下一个样本是否处于排空期，此时上限应减半
+     *
+     * @return the boolean
+     */
+    boolean isDraining() {
+        return (samples + 1) % longWindow > longWindow - DRAIN_SAMPLES || (samples + 1) % longWindow == 0;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.adaptive;
+
+/**
+ * 梯度算法
+ * 梯度=rttTolerance*基线RT/本次RT，限制在[0.5,1]，新上限=当前上限*梯度+queueSize，再按smoothing平滑；
+ * 基线RT见BaselineRtt，排队时上涨很慢并定期排空重置，上限不会随RT一起漂移；
+ * 出错时梯度取0.5；并发数不到上限一半时说明上限不是瓶颈，不调整
+ *
+ * @author Wang
+ * @since 2026/10/19 10:22
+ */
+public class Gradient2Limit implements AdaptiveLimit {
+    private final AdaptiveConcurrencyRule rule;
+    private final BaselineRtt baselineRtt;
+    private double estimatedLimit;
+    private volatile int limit;
+
+    /**
+     * Instantiates a new Gradient 2 limit.
+     *
+     * @param rule the rule
+     */
+    public Gradient2Limit(AdaptiveConcurrencyRule rule) {
+        this.rule = rule;
+        this.baselineRtt = new BaselineRtt(rule.getLongWindow());
+        this.limit = rule.boundedInitialLimit();
+        this.estimatedLimit = limit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized int onSample(long rtt, int inflight, boolean didDrop) {
+        //RT精度为毫秒，过快的请求按1毫秒计
+        double shortRtt = Math.max(1, rtt);
+        double longRtt = baselineRtt.update(shortRtt);
+        if (baselineRtt.isDraining() || inflight < estimatedLimit / 2) {
+            return publish();
+        }
+        double gradient = didDrop ? 0.5 : Math.max(0.5, Math.min(1.0, rule.getRttTolerance() * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + rule.getQueueSize();
+        newLimit = estimatedLimit * (1 - rule.getSmoothing()) + newLimit * rule.getSmoothing();
+        estimatedLimit = Math.max(rule.getMinLimit(), Math.min(rule.getMaxLimit(), newLimit));
+        return publish();
+    }
+
+    private int publish() {
+        //排空期间上限减半，让排队的请求完成，以便测得无负载RT
+        limit = baselineRtt.isDraining() ? Math.max(rule.getMinLimit(), (int) (estimatedLimit / 2)) : (int) estimatedLimit;
+        return limit;
+    }
+}
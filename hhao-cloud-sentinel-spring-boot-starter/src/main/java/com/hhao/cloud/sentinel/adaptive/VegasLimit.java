@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.adaptive;
+
+/**
+ * Vegas算法
+ * 以基线RT(见BaselineRtt)作为无负载RT，估算排队数=上限*(1-无负载RT/本次RT)；
+ * 排队数不超过3*log10(上限)时增加log10(上限)，不小于6*log10(上限)时减少log10(上限)，出错时减少；
+ * 并发数不到上限一半时不增加
+ *
+ * @author Wang
+ * @since 2026/10/19 10:26
+ */
+public class VegasLimit implements AdaptiveLimit {
+    private final AdaptiveConcurrencyRule rule;
+    private final BaselineRtt rttNoLoad;
+    private double estimatedLimit;
+    private volatile int limit;
+
+    /**
+     * Instantiates a new Vegas limit.
+     *
+     * @param rule the rule
+     */
+    public VegasLimit(AdaptiveConcurrencyRule rule) {
+        this.rule = rule;
+        this.rttNoLoad = new BaselineRtt(rule.getLongWindow());
+        this.limit = rule.boundedInitialLimit();
+        this.estimatedLimit = limit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized int onSample(long rtt, int inflight, boolean didDrop) {
+        //RT精度为毫秒，过快的请求按1毫秒计
+        double sample = Math.max(1, rtt);
+        double noLoad = rttNoLoad.update(sample);
+        if (rttNoLoad.isDraining()) {
+            return publish();
+        }
+        double log = Math.max(1, Math.log10(estimatedLimit));
+        double newLimit;
+        if (didDrop) {
+            newLimit = estimatedLimit - log;
+        } else {
+            double queueSize = estimatedLimit * Math.max(0, 1 - noLoad / sample);
+            if (queueSize <= 3 * log) {
+                if (inflight * 2 < estimatedLimit) {
+                    return publish();
+                }
+                newLimit = estimatedLimit + log;
+            } else if (queueSize >= 6 * log) {
+                newLimit = estimatedLimit - log;
+            } else {
+                return publish();
+            }
+        }
+        newLimit = estimatedLimit * (1 - rule.getSmoothing()) + newLimit * rule.getSmoothing();
+        estimatedLimit = Math.max(rule.getMinLimit(), Math.min(rule.getMaxLimit(), newLimit));
+        return publish();
+    }
+
+    private int publish() {
+        //排空期间上限减半，让排队的请求完成，以便测得无负载RT
+        limit = rttNoLoad.isDraining() ? Math.max(rule.getMinLimit(), (int) (estimatedLimit / 2)) : (int) estimatedLimit;
+        return limit;
+    }
+}
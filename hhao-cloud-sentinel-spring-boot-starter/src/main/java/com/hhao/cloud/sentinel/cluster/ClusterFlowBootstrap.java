@@ -0,0 +1,246 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.cluster;
+
+import com.alibaba.csp.sentinel.cluster.ClusterStateManager;
+import com.alibaba.csp.sentinel.cluster.client.ClusterTokenClient;
+import com.alibaba.csp.sentinel.cluster.client.TokenClientProvider;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientAssignConfig;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfig;
+import com.alibaba.csp.sentinel.cluster.client.config.ClusterClientConfigManager;
+import com.alibaba.csp.sentinel.cluster.flow.rule.ClusterFlowRuleManager;
+import com.alibaba.csp.sentinel.cluster.server.config.ClusterServerConfigManager;
+import com.alibaba.csp.sentinel.cluster.server.config.ServerFlowConfig;
+import com.alibaba.csp.sentinel.cluster.server.config.ServerTransportConfig;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.hhao.cloud.sentinel.config.SentinelConfigProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 集群流控启动
+ * CLIENT、SERVER模式启动时设置一次；
+ * EMBEDDED模式按electionInterval定时选举：同名服务的实例按host、port排序，最小的作为token server，
+ * 选举结果变化时切换角色或重新指向新的server；
+ * 作为server时定时把FlowRuleManager中clusterMode的规则同步到本命名空间；
+ * 作为客户端启用预租时需引入hhao-cloud-sentinel-cluster-leasing
+ *
+ * @author Wang
+ * @since 2026/10/19 13:30
+ */
+public class ClusterFlowBootstrap implements SmartLifecycle {
+    protected final Logger logger = LoggerFactory.getLogger(ClusterFlowBootstrap.class);
+    private static final String LEASING_CLIENT = "com.hhao.cloud.sentinel.cluster.LeasingClusterTokenClient";
+    private static final Comparator<ServiceInstance> ADDRESS_ORDER = Comparator.comparing(ServiceInstance::getHost).thenComparingInt(ServiceInstance::getPort);
+    private final SentinelConfigProperties.Cluster cluster;
+    private final String namespace;
+    private final DiscoveryClient discoveryClient;
+    private final Registration registration;
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+    private String currentTarget;
+    private List<FlowRule> loadedRules;
+
+    /**
+     * Instantiates a new Cluster flow bootstrap.
+     *
+     * @param cluster         the cluster
+     * @param namespace       the namespace
+     * @param discoveryClient EMBEDDED模式必需
+     * @param registration    EMBEDDED模式必需，本实例的注册信息
+     */
+    public ClusterFlowBootstrap(SentinelConfigProperties.Cluster cluster, String namespace, DiscoveryClient discoveryClient, Registration registration) {
+        this.cluster = cluster;
+        this.namespace = namespace;
+        this.discoveryClient = discoveryClient;
+        this.registration = registration;
+    }
+
+    @Override
+    public void start() {
+        if (cluster.getLease().getEnabled() && (cluster.getMode() == SentinelConfigProperties.Cluster.Mode.CLIENT || cluster.getMode() == SentinelConfigProperties.Cluster.Mode.EMBEDDED)) {
+            enableLeasing(cluster.getLease());
+        }
+        ClusterClientConfigManager.applyNewConfig(new ClusterClientConfig().setRequestTimeout((int) cluster.getRequestTimeout().toMillis()));
+        switch (cluster.getMode()) {
+            case CLIENT:
+                becomeClient(cluster.getServerHost(), cluster.getServerPort());
+                break;
+            case SERVER:
+                becomeServer();
+                startScheduler(this::syncRules);
+                break;
+            case EMBEDDED:
+                if (discoveryClient == null || registration == null) {
+                    logger.warn("Sentinel cluster mode EMBEDDED requires a DiscoveryClient and a service Registration, cluster flow control not started");
+                    return;
+                }
+                elect();
+                startScheduler(this::elect);
+                break;
+            default:
+                return;
+        }
+        running = true;
+    }
+
+    /**
+     * 启用预租，TokenClientProvider解析到的不是LeasingClusterTokenClient时直接失败，避免静默退回逐次请求server
+     */
+    private void enableLeasing(SentinelConfigProperties.Cluster.Lease lease) {
+        if (!ClassUtils.isPresent(LEASING_CLIENT, ClusterFlowBootstrap.class.getClassLoader())) {
+            throw new IllegalStateException("Sentinel token leasing is enabled but hhao-cloud-sentinel-cluster-leasing is not on the classpath, "
+                    + "add it or set spring.cloud.sentinel.config.cluster.lease.enabled=false");
+        }
+        ClusterTokenClient client = TokenClientProvider.getClient();
+        if (!(client instanceof LeasingClusterTokenClient)) {
+            throw new IllegalStateException("Sentinel token leasing is enabled but the resolved token client is "
+                    + (client == null ? "null" : client.getClass().getName())
+                    + ", hhao-cloud-sentinel-cluster-leasing must precede sentinel-cluster-client-default on the classpath");
+        }
+        LeasingClusterTokenClient.configure(true, lease.getLeaseTime().toMillis(), lease.getMaxTokens());
+        logger.info("Sentinel token leasing enabled, lease time {}ms, max tokens {}", lease.getLeaseTime().toMillis(), lease.getMaxTokens());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (ClusterStateManager.isClient() || ClusterStateManager.isServer()) {
+            ClusterStateManager.applyState(ClusterStateManager.CLUSTER_NOT_STARTED);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void startScheduler(Runnable task) {
+        long interval = Math.max(1000, cluster.getElectionInterval().toMillis());
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sentinel-cluster-bootstrap");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.warn("Sentinel cluster bootstrap task failed", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void elect() {
+        List<ServiceInstance> instances = new ArrayList<>(discoveryClient.getInstances(registration.getServiceId()));
+        boolean registered = instances.stream().anyMatch(this::isSelf);
+        if (!registered) {
+            //本实例尚未出现在注册中心时也参与选举，避免启动期间所有实例都等待
+            instances.add(registration);
+        }
+        ServiceInstance leader = Collections.min(instances, ADDRESS_ORDER);
+        if (isSelf(leader)) {
+            becomeServer();
+            syncRules();
+        } else {
+            becomeClient(leader.getHost(), getTokenPort(leader));
+        }
+    }
+
+    private synchronized void becomeServer() {
+        String target = "server:" + cluster.getTokenPort();
+        if (target.equals(currentTarget)) {
+            return;
+        }
+        ClusterServerConfigManager.loadGlobalTransportConfig(new ServerTransportConfig()
+                .setPort(cluster.getTokenPort())
+                .setIdleSeconds(cluster.getIdleSeconds()));
+        ClusterServerConfigManager.loadGlobalFlowConfig(new ServerFlowConfig().setMaxAllowedQps(cluster.getMaxAllowedQps()));
+        ClusterServerConfigManager.loadServerNamespaceSet(Collections.singleton(namespace));
+        loadedRules = null;
+        syncRules();
+        ClusterStateManager.applyState(ClusterStateManager.CLUSTER_SERVER);
+        currentTarget = target;
+        logger.info("Sentinel cluster token server started on port {} for namespace {}", cluster.getTokenPort(), namespace);
+    }
+
+    private synchronized void becomeClient(String host, int port) {
+        String target = "client:" + host + ":" + port;
+        if (target.equals(currentTarget)) {
+            return;
+        }
+        ClusterClientConfigManager.applyNewAssignConfig(new ClusterClientAssignConfig(host, port));
+        ClusterStateManager.applyState(ClusterStateManager.CLUSTER_CLIENT);
+        currentTarget = target;
+        logger.info("Sentinel cluster client connecting to token server {}:{}", host, port);
+    }
+
+    /**
+     * token server按命名空间加载规则，这里使用本实例FlowRuleManager中clusterMode的规则
+     */
+    private synchronized void syncRules() {
+        if (currentTarget != null && !currentTarget.startsWith("server:")) {
+            return;
+        }
+        List<FlowRule> rules = FlowRuleManager.getRules().stream()
+                .filter(FlowRule::isClusterMode)
+                .collect(Collectors.toList());
+        if (!rules.equals(loadedRules)) {
+            ClusterFlowRuleManager.loadRules(namespace, rules);
+            loadedRules = rules;
+            logger.info("Sentinel cluster flow rules loaded for namespace {}: {}", namespace, rules.size());
+        }
+    }
+
+    private boolean isSelf(ServiceInstance instance) {
+        return instance.getHost().equals(registration.getHost()) && instance.getPort() == registration.getPort();
+    }
+
+    private int getTokenPort(ServiceInstance instance) {
+        String port = instance.getMetadata() == null ? null : instance.getMetadata().get(cluster.getTokenPortMetadataKey());
+        if (port != null) {
+            try {
+                return Integer.parseInt(port.trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid sentinel token port metadata {} on {}:{}", port, instance.getHost(), instance.getPort());
+            }
+        }
+        return cluster.getTokenPort();
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 100;
+    }
+}
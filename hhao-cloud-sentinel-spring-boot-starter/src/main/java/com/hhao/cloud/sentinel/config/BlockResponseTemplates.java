@@ -0,0 +1,360 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.config;
+
+import com.hhao.common.jackson.JacksonUtilFactory;
+import com.hhao.common.springboot.exception.util.ErrorAttributeConstant;
+import com.hhao.common.springboot.response.ResultWrapperBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 流控响应模板
+ * 按(资源,规则类型,媒体类型)把错误响应预先渲染成字节数组，时间戳和路径用占位符代替，
+ * 拒绝请求时只拼接时间戳和路径，不再创建异常、Map及序列化；
+ * 时间戳按毫秒缓存渲染结果，格式与直接序列化Date一致
+ *
+ * @author Wang
+ * @since 2026/10/19 9:20
+ */
+public class BlockResponseTemplates {
+    /**
+     * 时间戳占位符
+     */
+    public static final String TIMESTAMP_PLACEHOLDER = "HHAO_BLOCK_TIMESTAMP_PLACEHOLDER";
+    /**
+     * 路径占位符
+     */
+    public static final String PATH_PLACEHOLDER = "HHAO_BLOCK_PATH_PLACEHOLDER";
+    private static final Logger logger = LoggerFactory.getLogger(BlockResponseTemplates.class);
+    private static final int TIMESTAMP = 0;
+    private static final int PATH = 1;
+    private static final Template UNAVAILABLE = new Template(new byte[0][], new int[0]);
+    private final int maxResources;
+    private final ConcurrentMap<String, ConcurrentMap<Class<?>, Template[]>> templates = new ConcurrentHashMap<>();
+    private final TimestampRenderer jsonTimestamp = new TimestampRenderer(false);
+    private final TimestampRenderer xmlTimestamp = new TimestampRenderer(true);
+
+    /**
+     * Instantiates a new Block response templates.
+     *
+     * @param maxResources the max resources
+     */
+    public BlockResponseTemplates(int maxResources) {
+        this.maxResources = Math.max(1, maxResources);
+    }
+
+    /**
+     * 取模板，不存在时用attributes渲染，attributes中的时间戳和路径应为占位符
+     *
+     * @param resource   the resource
+     * @param ruleType   the rule type
+     * @param xml        the xml
+     * @param attributes the attributes
+     * @return 模板，无法定位占位符时返回null，调用方应走完整渲染
+     */
+    public Template get(String resource, Class<?> ruleType, boolean xml, Supplier<Map<String, Object>> attributes) {
+        String key = resource == null ? "" : resource;
+        ConcurrentMap<Class<?>, Template[]> byRule = templates.get(key);
+        if (byRule == null) {
+            if (templates.size() >= maxResources) {
+                templates.clear();
+            }
+            byRule = templates.computeIfAbsent(key, k -> new ConcurrentHashMap<>(8));
+        }
+        Template[] byMedia = byRule.get(ruleType);
+        if (byMedia == null) {
+            byMedia = byRule.computeIfAbsent(ruleType, k -> new Template[2]);
+        }
+        int index = xml ? 1 : 0;
+        Template template = byMedia[index];
+        if (template == null) {
+            //并发时可能重复渲染，结果相同，Template字段均为final可以安全发布
+            template = compile(render(ResultWrapperBuilder.error(attributes.get()), xml), xml);
+            byMedia[index] = template;
+        }
+        return template == UNAVAILABLE ? null : template;
+    }
+
+    /**
+     * 当前时间戳渲染后的字节
+     *
+     * @param xml the xml
+     * @return the byte [ ]
+     */
+    public byte[] timestamp(boolean xml) {
+        return (xml ? xmlTimestamp : jsonTimestamp).render(System.currentTimeMillis());
+    }
+
+    /**
+     * 转义后的路径字节
+     *
+     * @param path the path
+     * @param xml  the xml
+     * @return the byte [ ]
+     */
+    public byte[] path(String path, boolean xml) {
+        if (path == null) {
+            return new byte[0];
+        }
+        for (int i = 0; i < path.length(); i++) {
+            if (needsEscape(path.charAt(i), xml)) {
+                return escape(path, xml).getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        return path.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 清空模板
+     */
+    public void clear() {
+        templates.clear();
+    }
+
+    /**
+     * 序列化
+     *
+     * @param body the body
+     * @param xml  the xml
+     * @return the string
+     */
+    public static String render(Object body, boolean xml) {
+        return xml ? JacksonUtilFactory.getXmlUtil().obj2String(body) : JacksonUtilFactory.getJsonUtil().obj2String(body);
+    }
+
+    private static Template compile(String text, boolean xml) {
+        List<byte[]> segments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            int timestamp = text.indexOf(TIMESTAMP_PLACEHOLDER, from);
+            int path = text.indexOf(PATH_PLACEHOLDER, from);
+            if (timestamp < 0 && path < 0) {
+                break;
+            }
+            int start;
+            int end;
+            int slot;
+            if (timestamp >= 0 && (path < 0 || timestamp < path)) {
+                start = timestamp;
+                end = timestamp + TIMESTAMP_PLACEHOLDER.length();
+                slot = TIMESTAMP;
+                //json中Date可能渲染为数字，连同引号一起替换
+                if (!xml && start > 0 && end < text.length() && text.charAt(start - 1) == '"' && text.charAt(end) == '"') {
+                    start--;
+                    end++;
+                }
+            } else {
+                start = path;
+                end = path + PATH_PLACEHOLDER.length();
+                slot = PATH;
+            }
+            segments.add(text.substring(from, start).getBytes(StandardCharsets.UTF_8));
+            slots.add(slot);
+            from = end;
+        }
+        if (!slots.contains(PATH)) {
+            logger.warn("Path placeholder not found in block response, fast reject disabled for it: {}", text);
+            return UNAVAILABLE;
+        }
+        segments.add(text.substring(from).getBytes(StandardCharsets.UTF_8));
+        int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+        return new Template(segments.toArray(new byte[0][]), slotArray);
+    }
+
+    private static boolean needsEscape(char c, boolean xml) {
+        if (xml) {
+            return c == '&' || c == '<' || c == '>';
+        }
+        return c == '"' || c == '\\' || c < 0x20;
+    }
+
+    private static String escape(String path, boolean xml) {
+        StringBuilder builder = new StringBuilder(path.length() + 16);
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (!needsEscape(c, xml)) {
+                builder.append(c);
+            } else if (c == '&') {
+                builder.append("&amp;");
+            } else if (c == '<') {
+                builder.append("&lt;");
+            } else if (c == '>') {
+                builder.append("&gt;");
+            } else if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else {
+                builder.append(String.format("\\u%04x", (int) c));
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 预先渲染的响应
+     */
+    public static final class Template {
+        private final byte[][] segments;
+        private final int[] slots;
+        private final int fixedLength;
+
+        private Template(byte[][] segments, int[] slots) {
+            this.segments = segments;
+            this.slots = slots;
+            int length = 0;
+            for (byte[] segment : segments) {
+                length += segment.length;
+            }
+            this.fixedLength = length;
+        }
+
+        /**
+         * 响应字节数
+         *
+         * @param timestamp the timestamp
+         * @param path      the path
+         * @return the int
+         */
+        public int contentLength(byte[] timestamp, byte[] path) {
+            int length = fixedLength;
+            for (int slot : slots) {
+                length += slot == TIMESTAMP ? timestamp.length : path.length;
+            }
+            return length;
+        }
+
+        /**
+         * 写出响应
+         *
+         * @param out       the out
+         * @param timestamp the timestamp
+         * @param path      the path
+         * @throws IOException the io exception
+         */
+        public void write(OutputStream out, byte[] timestamp, byte[] path) throws IOException {
+            for (int i = 0; i < slots.length; i++) {
+                out.write(segments[i]);
+                out.write(slots[i] == TIMESTAMP ? timestamp : path);
+            }
+            out.write(segments[slots.length]);
+        }
+
+        /**
+         * 写入DataBuffer，buffer通常由池化的DataBufferFactory按contentLength分配
+         *
+         * @param buffer    the buffer
+         * @param timestamp the timestamp
+         * @param path      the path
+         * @return the data buffer
+         */
+        public DataBuffer write(DataBuffer buffer, byte[] timestamp, byte[] path) {
+            for (int i = 0; i < slots.length; i++) {
+                buffer.write(segments[i]);
+                buffer.write(slots[i] == TIMESTAMP ? timestamp : path);
+            }
+            return buffer.write(segments[slots.length]);
+        }
+
+        /**
+         * 渲染为字节数组
+         *
+         * @param timestamp the timestamp
+         * @param path      the path
+         * @return the byte [ ]
+         */
+        public byte[] toBytes(byte[] timestamp, byte[] path) {
+            byte[] bytes = new byte[contentLength(timestamp, path)];
+            int position = 0;
+            for (int i = 0; i < slots.length; i++) {
+                System.arraycopy(segments[i], 0, bytes, position, segments[i].length);
+                position += segments[i].length;
+                byte[] value = slots[i] == TIMESTAMP ? timestamp : path;
+                System.arraycopy(value, 0, bytes, position, value.length);
+                position += value.length;
+            }
+            System.arraycopy(segments[slots.length], 0, bytes, position, segments[slots.length].length);
+            return bytes;
+        }
+    }
+
+    /**
+     * 按毫秒缓存时间戳的渲染结果
+     * 先渲染只含占位符的Map得到前后缀，再渲染只含Date的同构Map截取中间部分
+     */
+    private static class TimestampRenderer {
+        private final boolean xml;
+        private volatile String[] affixes;
+        private volatile Rendered last;
+
+        TimestampRenderer(boolean xml) {
+            this.xml = xml;
+        }
+
+        byte[] render(long now) {
+            Rendered rendered = last;
+            if (rendered != null && rendered.millis == now) {
+                return rendered.value;
+            }
+            String[] affix = affixes;
+            if (affix == null) {
+                String text = BlockResponseTemplates.render(Collections.singletonMap(ErrorAttributeConstant.TIMESTAMP, TIMESTAMP_PLACEHOLDER), xml);
+                int start = text.indexOf(TIMESTAMP_PLACEHOLDER);
+                int end = start + TIMESTAMP_PLACEHOLDER.length();
+                if (!xml && start > 0 && text.charAt(start - 1) == '"' && end < text.length() && text.charAt(end) == '"') {
+                    start--;
+                    end++;
+                }
+                affix = start < 0 ? new String[]{"", ""} : new String[]{text.substring(0, start), text.substring(end)};
+                affixes = affix;
+            }
+            String text = BlockResponseTemplates.render(Collections.singletonMap(ErrorAttributeConstant.TIMESTAMP, new Date(now)), xml);
+            String value = text;
+            if (text.startsWith(affix[0]) && text.endsWith(affix[1]) && text.length() >= affix[0].length() + affix[1].length()) {
+                value = text.substring(affix[0].length(), text.length() - affix[1].length());
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            last = new Rendered(now, bytes);
+            return bytes;
+        }
+    }
+
+    private static class Rendered {
+        private final long millis;
+        private final byte[] value;
+
+        Rendered(long millis, byte[] value) {
+            this.millis = millis;
+            this.value = value;
+        }
+    }
+}
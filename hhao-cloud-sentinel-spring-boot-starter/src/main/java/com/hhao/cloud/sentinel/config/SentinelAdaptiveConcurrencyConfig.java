@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.config;
+
+import com.hhao.cloud.sentinel.adaptive.AdaptiveConcurrencyMetrics;
+import com.hhao.cloud.sentinel.adaptive.AdaptiveConcurrencyRuleManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+
+/**
+ * 自适应并发配置
+ * AdaptiveConcurrencySlot通过SPI加入slot链，这里负责加载spring.cloud.sentinel.config.adaptive-concurrency.rules，
+ * 没有规则的资源在slot中只有一次Map查找
+ *
+ * @author Wang
+ * @since 2026/10/19 10:58
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties({SentinelConfigProperties.class})
+@ConditionalOnMissingBean(SentinelAdaptiveConcurrencyConfig.class)
+@ConditionalOnProperty(prefix = "spring.cloud.sentinel.config.adaptive-concurrency", name = "enabled", havingValue = "true")
+public class SentinelAdaptiveConcurrencyConfig {
+
+    /**
+     * Instantiates a new Sentinel adaptive concurrency config.
+     *
+     * @param sentinelConfigProperties the sentinel config properties
+     */
+    public SentinelAdaptiveConcurrencyConfig(SentinelConfigProperties sentinelConfigProperties) {
+        if (sentinelConfigProperties.getAdaptiveConcurrency().getRules() != null) {
+            AdaptiveConcurrencyRuleManager.loadRules(new ArrayList<>(sentinelConfigProperties.getAdaptiveConcurrency().getRules()));
+        }
+    }
+
+    /**
+     * 指标
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({MeterRegistry.class})
+    protected static class AdaptiveConcurrencyMetricsConfig {
+
+        /**
+         * Adaptive concurrency metrics.
+         *
+         * @return the adaptive concurrency metrics
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public AdaptiveConcurrencyMetrics adaptiveConcurrencyMetrics() {
+            return new AdaptiveConcurrencyMetrics();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.config;
+
+import com.hhao.cloud.sentinel.cluster.ClusterFlowBootstrap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+/**
+ * 集群流控配置
+ * 需要sentinel-cluster-client-default及sentinel-cluster-server-default，
+ * spring.cloud.sentinel.config.cluster.mode不为none时生效
+ *
+ * @author Wang
+ * @since 2026/10/19 13:50
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties({SentinelConfigProperties.class})
+@ConditionalOnClass(name = {"com.alibaba.csp.sentinel.cluster.client.DefaultClusterTokenClient", "com.alibaba.csp.sentinel.cluster.server.SentinelDefaultTokenServer"})
+@ConditionalOnMissingBean(SentinelClusterConfig.class)
+@ConditionalOnProperty(prefix = "spring.cloud.sentinel.config.cluster", name = "mode")
+public class SentinelClusterConfig {
+
+    /**
+     * 命名空间默认为spring.application.name，与客户端上报的应用名一致
+     *
+     * @param sentinelConfigProperties the sentinel config properties
+     * @param environment              the environment
+     * @param discoveryClient          the discovery client
+     * @param registration             the registration
+     * @return the cluster flow bootstrap
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ClusterFlowBootstrap clusterFlowBootstrap(SentinelConfigProperties sentinelConfigProperties, Environment environment,
+                                                     ObjectProvider<DiscoveryClient> discoveryClient, ObjectProvider<Registration> registration) {
+        SentinelConfigProperties.Cluster cluster = sentinelConfigProperties.getCluster();
+        String namespace = StringUtils.hasText(cluster.getNamespace()) ? cluster.getNamespace() : environment.getProperty("spring.application.name", "default");
+        return new ClusterFlowBootstrap(cluster, namespace, discoveryClient.getIfAvailable(), registration.getIfAvailable());
+    }
+}
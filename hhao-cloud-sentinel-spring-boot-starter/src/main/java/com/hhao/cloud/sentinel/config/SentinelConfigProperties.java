@@ -0,0 +1,714 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.config;
+
+import com.hhao.cloud.sentinel.adaptive.AdaptiveConcurrencyRule;
+import com.hhao.cloud.sentinel.param.HotParamRule;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * sentinel扩展配置属性
+ *
+ * @author Wang
+ * @since 2026/10/19 9:10
+ */
+@ConfigurationProperties(prefix = "spring.cloud.sentinel.config")
+public class SentinelConfigProperties {
+    /**
+     * 是否启用
+     */
+    private Boolean enabled = true;
+    /**
+     * 快速拒绝配置
+     */
+    private FastReject fastReject = new FastReject();
+    /**
+     * 自适应并发配置
+     */
+    private AdaptiveConcurrency adaptiveConcurrency = new AdaptiveConcurrency();
+    /**
+     * 集群流控配置
+     */
+    private Cluster cluster = new Cluster();
+    /**
+     * 热点参数配置
+     */
+    private HotParam hotParam = new HotParam();
+
+    /**
+     * Gets enabled.
+     *
+     * @return the enabled
+     */
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets enabled.
+     *
+     * @param enabled the enabled
+     */
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets fast reject.
+     *
+     * @return the fast reject
+     */
+    public FastReject getFastReject() {
+        return fastReject;
+    }
+
+    /**
+     * Sets fast reject.
+     *
+     * @param fastReject the fast reject
+     */
+    public void setFastReject(FastReject fastReject) {
+        this.fastReject = fastReject;
+    }
+
+    /**
+     * Gets adaptive concurrency.
+     *
+     * @return the adaptive concurrency
+     */
+    public AdaptiveConcurrency getAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    /**
+     * Sets adaptive concurrency.
+     *
+     * @param adaptiveConcurrency the adaptive concurrency
+     */
+    public void setAdaptiveConcurrency(AdaptiveConcurrency adaptiveConcurrency) {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+    }
+
+    /**
+     * Gets cluster.
+     *
+     * @return the cluster
+     */
+    public Cluster getCluster() {
+        return cluster;
+    }
+
+    /**
+     * Sets cluster.
+     *
+     * @param cluster the cluster
+     */
+    public void setCluster(Cluster cluster) {
+        this.cluster = cluster;
+    }
+
+    /**
+     * Gets hot param.
+     *
+     * @return the hot param
+     */
+    public HotParam getHotParam() {
+        return hotParam;
+    }
+
+    /**
+     * Sets hot param.
+     *
+     * @param hotParam the hot param
+     */
+    public void setHotParam(HotParam hotParam) {
+        this.hotParam = hotParam;
+    }
+
+    /**
+     * 快速拒绝
+     * 被流控的请求使用按(资源,规则类型)预先渲染的响应模板，只替换时间戳和路径
+     */
+    public static class FastReject {
+        /**
+         * 是否启用
+         */
+        private Boolean enabled = true;
+        /**
+         * 缓存的资源数上限，超过后清空重建
+         */
+        private Integer maxResources = 1024;
+
+        /**
+         * Gets enabled.
+         *
+         * @return the enabled
+         */
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets enabled.
+         *
+         * @param enabled the enabled
+         */
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets max resources.
+         *
+         * @return the max resources
+         */
+        public Integer getMaxResources() {
+            return maxResources;
+        }
+
+        /**
+         * Sets max resources.
+         *
+         * @param maxResources the max resources
+         */
+        public void setMaxResources(Integer maxResources) {
+            this.maxResources = maxResources;
+        }
+    }
+
+    /**
+     * 自适应并发
+     * 按资源配置AdaptiveConcurrencyRule，也可通过AdaptiveConcurrencyRuleManager.register2Property接入动态数据源
+     */
+    public static class AdaptiveConcurrency {
+        /**
+         * 是否启用
+         */
+        private Boolean enabled = false;
+        /**
+         * 规则
+         */
+        private List<AdaptiveConcurrencyRule> rules = new ArrayList<>();
+
+        /**
+         * Gets enabled.
+         *
+         * @return the enabled
+         */
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets enabled.
+         *
+         * @param enabled the enabled
+         */
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets rules.
+         *
+         * @return the rules
+         */
+        public List<AdaptiveConcurrencyRule> getRules() {
+            return rules;
+        }
+
+        /**
+         * Sets rules.
+         *
+         * @param rules the rules
+         */
+        public void setRules(List<AdaptiveConcurrencyRule> rules) {
+            this.rules = rules;
+        }
+    }
+
+    /**
+     * 集群流控
+     * 规则为clusterMode=true的FlowRule，token server不可用时按FlowRule的fallbackToLocalWhenFail退回本地规则
+     * NONE:不启用
+     * CLIENT:作为客户端连接serverHost:serverPort上的token server
+     * SERVER:本实例在tokenPort上运行token server，同时为自身发放token，可作为独立的token server部署
+     * EMBEDDED:通过DiscoveryClient在同名服务的实例中按host、port排序选最小的作为token server，其余实例作为客户端
+     * 单机运行多个实例时，EMBEDDED模式需给每个实例配置不同的tokenPort，并在注册中心元数据tokenPortMetadataKey中声明
+     */
+    public static class Cluster {
+        /**
+         * 模式
+         */
+        private Mode mode = Mode.NONE;
+        /**
+         * 命名空间，为空时使用spring.application.name
+         */
+        private String namespace;
+        /**
+         * CLIENT:token server地址
+         */
+        private String serverHost = "127.0.0.1";
+        /**
+         * CLIENT:token server端口
+         */
+        private Integer serverPort = 18730;
+        /**
+         * SERVER、EMBEDDED:本实例作为token server时的端口
+         */
+        private Integer tokenPort = 18730;
+        /**
+         * EMBEDDED:实例元数据中token server端口的key，没有时使用tokenPort
+         */
+        private String tokenPortMetadataKey = "sentinel.cluster.token-port";
+        /**
+         * 客户端请求token的超时时间
+         */
+        private Duration requestTimeout = Duration.ofMillis(20);
+        /**
+         * token server连接空闲关闭时间，秒
+         */
+        private Integer idleSeconds = 600;
+        /**
+         * token server每秒最多处理的token请求数
+         */
+        private Double maxAllowedQps = 30000D;
+        /**
+         * EMBEDDED:重新选举的间隔，同时用于向token server同步规则
+         */
+        private Duration electionInterval = Duration.ofSeconds(10);
+        /**
+         * 预租token配置
+         */
+        private Lease lease = new Lease();
+
+        /**
+         * 模式
+         */
+        public enum Mode {
+            /**
+             * None mode.
+             */
+            NONE,
+            /**
+             * Client mode.
+             */
+            CLIENT,
+            /**
+             * Server mode.
+             */
+            SERVER,
+            /**
+             * Embedded mode.
+             */
+            EMBEDDED
+        }
+
+        /**
+         * Gets mode.
+         *
+         * @return the mode
+         */
+        public Mode getMode() {
+            return mode;
+        }
+
+        /**
+         * Sets mode.
+         *
+         * @param mode the mode
+         */
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        /**
+         * Gets namespace.
+         *
+         * @return the namespace
+         */
+        public String getNamespace() {
+            return namespace;
+        }
+
+        /**
+         * Sets namespace.
+         *
+         * @param namespace the namespace
+         */
+        public void setNamespace(String namespace) {
+            this.namespace = namespace;
+        }
+
+        /**
+         * Gets server host.
+         *
+         * @return the server host
+         */
+        public String getServerHost() {
+            return serverHost;
+        }
+
+        /**
+         * Sets server host.
+         *
+         * @param serverHost the server host
+         */
+        public void setServerHost(String serverHost) {
+            this.serverHost = serverHost;
+        }
+
+        /**
+         * Gets server port.
+         *
+         * @return the server port
+         */
+        public Integer getServerPort() {
+            return serverPort;
+        }
+
+        /**
+         * Sets server port.
+         *
+         * @param serverPort the server port
+         */
+        public void setServerPort(Integer serverPort) {
+            this.serverPort = serverPort;
+        }
+
+        /**
+         * Gets token port.
+         *
+         * @return the token port
+         */
+        public Integer getTokenPort() {
+            return tokenPort;
+        }
+
+        /**
+         * Sets token port.
+         *
+         * @param tokenPort the token port
+         */
+        public void setTokenPort(Integer tokenPort) {
+            this.tokenPort = tokenPort;
+        }
+
+        /**
+         * Gets token port metadata key.
+         *
+         * @return the token port metadata key
+         */
+        public String getTokenPortMetadataKey() {
+            return tokenPortMetadataKey;
+        }
+
+        /**
+         * Sets token port metadata key.
+         *
+         * @param tokenPortMetadataKey the token port metadata key
+         */
+        public void setTokenPortMetadataKey(String tokenPortMetadataKey) {
+            this.tokenPortMetadataKey = tokenPortMetadataKey;
+        }
+
+        /**
+         * Gets request timeout.
+         *
+         * @return the request timeout
+         */
+        public Duration getRequestTimeout() {
+            return requestTimeout;
+        }
+
+        /**
+         * Sets request timeout.
+         *
+         * @param requestTimeout the request timeout
+         */
+        public void setRequestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+        }
+
+        /**
+         * Gets idle seconds.
+         *
+         * @return the idle seconds
+         */
+        public Integer getIdleSeconds() {
+            return idleSeconds;
+        }
+
+        /**
+         * Sets idle seconds.
+         *
+         * @param idleSeconds the idle seconds
+         */
+        public void setIdleSeconds(Integer idleSeconds) {
+            this.idleSeconds = idleSeconds;
+        }
+
+        /**
+         * Gets max allowed qps.
+         *
+         * @return the max allowed qps
+         */
+        public Double getMaxAllowedQps() {
+            return maxAllowedQps;
+        }
+
+        /**
+         * Sets max allowed qps.
+         *
+         * @param maxAllowedQps the max allowed qps
+         */
+        public void setMaxAllowedQps(Double maxAllowedQps) {
+            this.maxAllowedQps = maxAllowedQps;
+        }
+
+        /**
+         * Gets election interval.
+         *
+         * @return the election interval
+         */
+        public Duration getElectionInterval() {
+            return electionInterval;
+        }
+
+        /**
+         * Sets election interval.
+         *
+         * @param electionInterval the election interval
+         */
+        public void setElectionInterval(Duration electionInterval) {
+            this.electionInterval = electionInterval;
+        }
+
+        /**
+         * Gets lease.
+         *
+         * @return the lease
+         */
+        public Lease getLease() {
+            return lease;
+        }
+
+        /**
+         * Sets lease.
+         *
+         * @param lease the lease
+         */
+        public void setLease(Lease lease) {
+            this.lease = lease;
+        }
+
+        /**
+         * 预租token
+         * 客户端一次向token server申请一批token，在leaseTime内本地发放，用完或过期后再申请；
+         * 批量大小按上一个租期的用量估算，不超过maxTokens；被拒绝时在租期内直接拒绝，不再请求server
+         */
+        public static class Lease {
+            /**
+             * 是否启用，需引入hhao-cloud-sentinel-cluster-leasing，启用而未生效时启动失败
+             */
+            private Boolean enabled = false;
+            /**
+             * 租期，过期未用的token作废，越短全局限流越精确
+             */
+            private Duration leaseTime = Duration.ofMillis(100);
+            /**
+             * 每次最多申请的token数
+             */
+            private Integer maxTokens = 100;
+
+            /**
+             * Gets enabled.
+             *
+             * @return the enabled
+             */
+            public Boolean getEnabled() {
+                return enabled;
+            }
+
+            /**
+             * Sets enabled.
+             *
+             * @param enabled the enabled
+             */
+            public void setEnabled(Boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            /**
+             * Gets lease time.
+             *
+             * @return the lease time
+             */
+            public Duration getLeaseTime() {
+                return leaseTime;
+            }
+
+            /**
+             * Sets lease time.
+             *
+             * @param leaseTime the lease time
+             */
+            public void setLeaseTime(Duration leaseTime) {
+                this.leaseTime = leaseTime;
+            }
+
+            /**
+             * Gets max tokens.
+             *
+             * @return the max tokens
+             */
+            public Integer getMaxTokens() {
+                return maxTokens;
+            }
+
+            /**
+             * Sets max tokens.
+             *
+             * @param maxTokens the max tokens
+             */
+            public void setMaxTokens(Integer maxTokens) {
+                this.maxTokens = maxTokens;
+            }
+        }
+    }
+
+    /**
+     * 热点参数
+     * 按HotParamRule从web请求、gateway路由、dubbo调用中提取参数，经HotParamIndex过滤后作为ParamFlowRule的参数；
+     * 每个参数的索引占用4*sketchWidth个int及至多maxKeys个热点值，与不同参数值的数量无关
+     */
+    public static class HotParam {
+        /**
+         * 是否启用
+         */
+        private Boolean enabled = false;
+        /**
+         * 频率统计sketch每行的计数器数，每记录4*sketchWidth次计数减半，高峰流量下该窗口宜覆盖1秒以上
+         */
+        private Integer sketchWidth = 16384;
+        /**
+         * 窗口内出现达到该次数的值才作为热点参数
+         */
+        private Integer admitThreshold = 8;
+        /**
+         * 每个参数保留的热点值数量
+         */
+        private Integer maxKeys = 4000;
+        /**
+         * 规则
+         */
+        private List<HotParamRule> rules = new ArrayList<>();
+
+        /**
+         * Gets enabled.
+         *
+         * @return the enabled
+         */
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets enabled.
+         *
+         * @param enabled the enabled
+         */
+        public void setEnabled(Boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets sketch width.
+         *
+         * @return the sketch width
+         */
+        public Integer getSketchWidth() {
+            return sketchWidth;
+        }
+
+        /**
+         * Sets sketch width.
+         *
+         * @param sketchWidth the sketch width
+         */
+        public void setSketchWidth(Integer sketchWidth) {
+            this.sketchWidth = sketchWidth;
+        }
+
+        /**
+         * Gets admit threshold.
+         *
+         * @return the admit threshold
+         */
+        public Integer getAdmitThreshold() {
+            return admitThreshold;
+        }
+
+        /**
+         * Sets admit threshold.
+         *
+         * @param admitThreshold the admit threshold
+         */
+        public void setAdmitThreshold(Integer admitThreshold) {
+            this.admitThreshold = admitThreshold;
+        }
+
+        /**
+         * Gets max keys.
+         *
+         * @return the max keys
+         */
+        public Integer getMaxKeys() {
+            return maxKeys;
+        }
+
+        /**
+         * Sets max keys.
+         *
+         * @param maxKeys the max keys
+         */
+        public void setMaxKeys(Integer maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        /**
+         * Gets rules.
+         *
+         * @return the rules
+         */
+        public List<HotParamRule> getRules() {
+            return rules;
+        }
+
+        /**
+         * Sets rules.
+         *
+         * @param rules the rules
+         */
+        public void setRules(List<HotParamRule> rules) {
+            this.rules = rules;
+        }
+    }
+}
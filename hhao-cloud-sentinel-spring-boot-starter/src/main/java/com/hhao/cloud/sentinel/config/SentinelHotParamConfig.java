@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.config;
+
+import com.alibaba.csp.sentinel.adapter.spring.webmvc.callback.BlockExceptionHandler;
+import com.alibaba.csp.sentinel.adapter.spring.webmvc.callback.DefaultBlockExceptionHandler;
+import com.hhao.cloud.sentinel.param.HotParamGatewayFilter;
+import com.hhao.cloud.sentinel.param.HotParamInterceptor;
+import com.hhao.cloud.sentinel.param.HotParamRuleManager;
+import com.hhao.cloud.sentinel.param.HotParamWebFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.ArrayList;
+
+/**
+ * 热点参数配置
+ * 需要sentinel-parameter-flow-control，加载spring.cloud.sentinel.config.hot-param.rules，
+ * 按运行环境注册mvc拦截器、webflux过滤器、gateway全局过滤器，dubbo过滤器通过SPI注册；
+ * 限流阈值由ParamFlowRule配置在规则的resource上，paramIdx为参数在params中的位置
+ *
+ * @author Wang
+ * @since 2026/10/19 16:15
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties({SentinelConfigProperties.class})
+@ConditionalOnClass(name = "com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowSlot")
+@ConditionalOnMissingBean(SentinelHotParamConfig.class)
+@ConditionalOnProperty(prefix = "spring.cloud.sentinel.config.hot-param", name = "enabled", havingValue = "true")
+public class SentinelHotParamConfig {
+
+    /**
+     * Instantiates a new Sentinel hot param config.
+     *
+     * @param sentinelConfigProperties the sentinel config properties
+     */
+    public SentinelHotParamConfig(SentinelConfigProperties sentinelConfigProperties) {
+        SentinelConfigProperties.HotParam hotParam = sentinelConfigProperties.getHotParam();
+        HotParamRuleManager.configure(hotParam.getSketchWidth(), hotParam.getAdmitThreshold(), hotParam.getMaxKeys());
+        if (hotParam.getRules() != null) {
+            HotParamRuleManager.loadRules(new ArrayList<>(hotParam.getRules()));
+        }
+    }
+
+    /**
+     * mvc
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass({WebMvcConfigurer.class, BlockExceptionHandler.class})
+    protected static class HotParamWebMvcConfig implements WebMvcConfigurer {
+        private final BlockExceptionHandler blockExceptionHandler;
+
+        /**
+         * Instantiates a new Hot param web mvc config.
+         *
+         * @param blockExceptionHandler 默认为MyWebBlockExceptionHandler
+         */
+        public HotParamWebMvcConfig(ObjectProvider<BlockExceptionHandler> blockExceptionHandler) {
+            this.blockExceptionHandler = blockExceptionHandler.getIfAvailable(DefaultBlockExceptionHandler::new);
+        }
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(new HotParamInterceptor(blockExceptionHandler));
+        }
+    }
+
+    /**
+     * webflux
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    @ConditionalOnClass(name = "com.alibaba.csp.sentinel.adapter.reactor.SentinelReactorTransformer")
+    protected static class HotParamWebFluxConfig {
+
+        /**
+         * Hot param web filter.
+         *
+         * @return the hot param web filter
+         */
+        @Bean
+        @ConditionalOnMissingBean
+        public HotParamWebFilter hotParamWebFilter() {
+            return new HotParamWebFilter();
+        }
+
+        /**
+         * gateway
+         */
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnClass(name = "org.springframework.cloud.gateway.filter.GlobalFilter")
+        protected static class HotParamGatewayConfig {
+
+            /**
+             * Hot param gateway filter.
+             *
+             * @return the hot param gateway filter
+             */
+            @Bean
+            @ConditionalOnMissingBean
+            public HotParamGatewayFilter hotParamGatewayFilter() {
+                return new HotParamGatewayFilter();
+            }
+        }
+    }
+}
@@ -34,7 +34,7 @@ import javax.servlet.Servlet;
  * @since 2022/1/9 9:23
  */
 @Configuration(proxyBeanMethods = false)
-@EnableConfigurationProperties({ServerProperties.class})
+@EnableConfigurationProperties({ServerProperties.class, SentinelConfigProperties.class})
 @ConditionalOnClass({Servlet.class, DispatcherServlet.class})
 @ConditionalOnMissingBean(SentinelWebConfig.class)
 @ConditionalOnProperty(prefix = "spring.cloud.sentinel.config",name = "enabled" ,havingValue = "true",matchIfMissing = true)
@@ -42,7 +42,7 @@ public class SentinelWebConfig {
 
     @Bean
     @ConditionalOnMissingBean
-    public MyWebBlockExceptionHandler myWebBlockExceptionHandler(ServerProperties serverProperties){
-        return new MyWebBlockExceptionHandler(serverProperties);
+    public MyWebBlockExceptionHandler myWebBlockExceptionHandler(ServerProperties serverProperties, SentinelConfigProperties sentinelConfigProperties){
+        return new MyWebBlockExceptionHandler(serverProperties, sentinelConfigProperties);
     }
 }
@@ -37,7 +37,7 @@ import org.springframework.web.reactive.config.WebFluxConfigurer;
  * @since 2022/1/9 9:23
  */
 @Configuration(proxyBeanMethods = false)
-@EnableConfigurationProperties({ServerProperties.class})
+@EnableConfigurationProperties({ServerProperties.class, SentinelConfigProperties.class})
 @ConditionalOnClass({WebFluxConfigurer.class})
 @ConditionalOnMissingBean(SentinelWebFluxConfig.class)
 @ConditionalOnProperty(prefix = "spring.cloud.sentinel.config",name = "enabled" ,havingValue = "true",matchIfMissing = true)
@@ -47,14 +47,15 @@ public class SentinelWebFluxConfig {
      * 顺序要在CustomErrorWebExceptionHandler之前
      * @param serverProperties
      * @param serverCodecConfigurer
+     * @param sentinelConfigProperties
      * @return
      */
     @Bean
     @ConditionalOnMissingBean
     @Order(-4)
     @ConditionalOnClass({GatewayCallbackManager.class})
-    public MyGatewayBlockExceptionHandler myGatewayBlockExceptionHandler(ServerProperties serverProperties, ServerCodecConfigurer serverCodecConfigurer){
-        return new MyGatewayBlockExceptionHandler(serverProperties,serverCodecConfigurer);
+    public MyGatewayBlockExceptionHandler myGatewayBlockExceptionHandler(ServerProperties serverProperties, ServerCodecConfigurer serverCodecConfigurer, SentinelConfigProperties sentinelConfigProperties){
+        return new MyGatewayBlockExceptionHandler(serverProperties,serverCodecConfigurer,sentinelConfigProperties);
     }
 
     /**
@@ -62,13 +63,14 @@ public class SentinelWebFluxConfig {
      * 顺序要在CustomErrorWebExceptionHandler、MyWebfluxBlockExceptionHandler之前
      * @param serverProperties
      * @param serverCodecConfigurer
+     * @param sentinelConfigProperties
      * @return
      */
     @Bean
     @ConditionalOnMissingBean
     @Order(-3)
     @ConditionalOnClass({WebFluxCallbackManager.class})
-    public MyWebfluxBlockExceptionHandler myWebfluxBlockExceptionHandler(ServerProperties serverProperties, ServerCodecConfigurer serverCodecConfigurer){
-        return new MyWebfluxBlockExceptionHandler(serverProperties,serverCodecConfigurer);
+    public MyWebfluxBlockExceptionHandler myWebfluxBlockExceptionHandler(ServerProperties serverProperties, ServerCodecConfigurer serverCodecConfigurer, SentinelConfigProperties sentinelConfigProperties){
+        return new MyWebfluxBlockExceptionHandler(serverProperties,serverCodecConfigurer,sentinelConfigProperties);
     }
 }
@@ -17,9 +17,10 @@ package com.hhao.cloud.sentinel.config.web;
 
 import com.alibaba.csp.sentinel.adapter.spring.webmvc.callback.BlockExceptionHandler;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.hhao.cloud.sentinel.config.BlockResponseTemplates;
+import com.hhao.cloud.sentinel.config.SentinelConfigProperties;
 import com.hhao.common.exception.AbstractBaseRuntimeException;
 import com.hhao.common.exception.error.server.ServiceUnavailableException;
-import com.hhao.common.jackson.JacksonUtilFactory;
 import com.hhao.common.springboot.exception.util.ErrorAttributeConstant;
 import com.hhao.common.springboot.response.ResultWrapperBuilder;
 import org.slf4j.Logger;
@@ -32,6 +33,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.util.StringUtils;
 
+import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletRequest;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -50,6 +52,8 @@ import java.util.Map;
  * ParamFlowException:热点参数限流
  * SystemBlockException:系统规则
  * AuthorityException:授权规则不通过
+ * AdaptiveConcurrencyException:超过自适应并发上限
+ * 启用快速拒绝时，不需要输出message及trace的请求直接写出预先渲染的响应字节
  *
  * @author Wang
  * @since 2022/1/6 15:52
@@ -57,36 +61,58 @@ import java.util.Map;
 public class MyWebBlockExceptionHandler implements BlockExceptionHandler {
     protected final Logger logger = LoggerFactory.getLogger(MyWebBlockExceptionHandler.class);
     private ErrorProperties errorProperties;
+    private BlockResponseTemplates templates;
 
-    @Autowired
     public MyWebBlockExceptionHandler(ServerProperties serverProperties) {
         this.errorProperties=serverProperties.getError();
     }
 
+    @Autowired
+    public MyWebBlockExceptionHandler(ServerProperties serverProperties, SentinelConfigProperties sentinelConfigProperties) {
+        this(serverProperties);
+        SentinelConfigProperties.FastReject fastReject = sentinelConfigProperties.getFastReject();
+        if (fastReject != null && fastReject.getEnabled()) {
+            this.templates = new BlockResponseTemplates(fastReject.getMaxResources());
+        }
+    }
+
     @Override
     public void handle(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse, BlockException e) throws Exception {
         MediaType mediaType = getMediaType(httpServletRequest);
         if (mediaType==null){
             mediaType=MediaType.APPLICATION_JSON;
         }
-
-        Map<String, Object> errorAttributes=new ErrorAttributesBuilder(new ServiceUnavailableException(e),httpServletRequest).build();
+        boolean xml = mediaType.includes(MediaType.APPLICATION_XML);
+        ErrorAttributeOptions options = getErrorAttributeOptions(httpServletRequest, MediaType.ALL);
 
         httpServletResponse.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
         httpServletResponse.setCharacterEncoding("UTF-8");
-        String responseInfo="";
-
-        if (mediaType.includes(MediaType.APPLICATION_XML)){
-            httpServletResponse.setContentType(MediaType.APPLICATION_XML_VALUE);
-            responseInfo= JacksonUtilFactory.getXmlUtil().obj2String(ResultWrapperBuilder.error(errorAttributes));
-        }else{
-            httpServletResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
-            responseInfo=JacksonUtilFactory.getJsonUtil().obj2String(ResultWrapperBuilder.error(errorAttributes));
+        httpServletResponse.setContentType(xml ? MediaType.APPLICATION_XML_VALUE : MediaType.APPLICATION_JSON_VALUE);
+
+        if (templates != null && !options.isIncluded(ErrorAttributeOptions.Include.MESSAGE) && !options.isIncluded(ErrorAttributeOptions.Include.STACK_TRACE)) {
+            BlockResponseTemplates.Template template = templates.get(getResource(e), e.getClass(), xml,
+                    () -> new ErrorAttributesBuilder(new ServiceUnavailableException(e), httpServletRequest).buildTemplate(options));
+            if (template != null) {
+                byte[] timestamp = templates.timestamp(xml);
+                byte[] path = templates.path(httpServletRequest.getRequestURI(), xml);
+                httpServletResponse.setContentLength(template.contentLength(timestamp, path));
+                ServletOutputStream outputStream = httpServletResponse.getOutputStream();
+                template.write(outputStream, timestamp, path);
+                outputStream.flush();
+                return;
+            }
         }
+
+        Map<String, Object> errorAttributes=new ErrorAttributesBuilder(new ServiceUnavailableException(e),httpServletRequest).build(options);
+        String responseInfo=BlockResponseTemplates.render(ResultWrapperBuilder.error(errorAttributes), xml);
         logger.debug(responseInfo);
         httpServletResponse.getWriter().write(responseInfo);
     }
 
+    private String getResource(BlockException e) {
+        return e.getRule() != null ? e.getRule().getResource() : e.getRuleLimitApp();
+    }
+
     private MediaType getMediaType(ServletRequest request) {
         String contentType = request.getContentType();
         if (!StringUtils.hasText(contentType)) {
@@ -98,6 +124,58 @@ public class MyWebBlockExceptionHandler implements BlockExceptionHandler {
         return null;
     }
 
+    protected ErrorAttributeOptions getErrorAttributeOptions(HttpServletRequest request, MediaType mediaType) {
+        ErrorAttributeOptions options = ErrorAttributeOptions.defaults();
+        if (errorProperties.isIncludeException()) {
+            options = options.including(ErrorAttributeOptions.Include.EXCEPTION);
+        }
+        if (isIncludeStackTrace(request, mediaType)) {
+            options = options.including(ErrorAttributeOptions.Include.STACK_TRACE);
+        }
+        if (isIncludeMessage(request, mediaType)) {
+            options = options.including(ErrorAttributeOptions.Include.MESSAGE);
+        }
+        return options;
+    }
+
+    protected boolean isIncludeMessage(HttpServletRequest request, MediaType produces) {
+        switch (errorProperties.getIncludeMessage()) {
+            case ALWAYS:
+                return true;
+            case ON_PARAM:
+                return getMessageParameter(request);
+            default:
+                return false;
+        }
+    }
+
+    protected boolean isIncludeStackTrace(HttpServletRequest request, MediaType produces) {
+        switch (errorProperties.getIncludeStacktrace()) {
+            case ALWAYS:
+                return true;
+            case ON_PARAM:
+                return getTraceParameter(request);
+            default:
+                return false;
+        }
+    }
+
+    protected boolean getTraceParameter(HttpServletRequest request) {
+        return getBooleanParameter(request, ErrorAttributeConstant.TRACE);
+    }
+
+    protected boolean getBooleanParameter(HttpServletRequest request, String parameterName) {
+        String parameter = request.getParameter(parameterName);
+        if (parameter == null) {
+            return false;
+        }
+        return !"false".equalsIgnoreCase(parameter);
+    }
+
+    protected boolean getMessageParameter(HttpServletRequest request) {
+        return getBooleanParameter(request, ErrorAttributeConstant.MESSAGE);
+    }
+
     class ErrorAttributesBuilder{
         private HttpServletRequest httpServletRequest;
         private Exception exception;
@@ -108,31 +186,41 @@ public class MyWebBlockExceptionHandler implements BlockExceptionHandler {
         }
 
         public Map<String,Object> build(){
-            ErrorAttributeOptions options=this.getErrorAttributeOptions(this.httpServletRequest,MediaType.ALL);
-            Map<String,Object> errorAttributes=new LinkedHashMap<>();
-            errorAttributes=getErrorAttributes(errorAttributes);
+            return build(getErrorAttributeOptions(this.httpServletRequest,MediaType.ALL));
+        }
 
-            if (!options.isIncluded(ErrorAttributeOptions.Include.EXCEPTION)) {
-                errorAttributes.remove(ErrorAttributeConstant.EXCEPTION);
-            }
-            if (!options.isIncluded(ErrorAttributeOptions.Include.STACK_TRACE)) {
-                errorAttributes.remove(ErrorAttributeConstant.TRACE);
-            }
-            if (!options.isIncluded(ErrorAttributeOptions.Include.MESSAGE) && errorAttributes.get(ErrorAttributeConstant.MESSAGE) != null) {
-                errorAttributes.remove(ErrorAttributeConstant.MESSAGE);
-            }
-            return errorAttributes;
+        public Map<String,Object> build(ErrorAttributeOptions options){
+            return getErrorAttributes(new LinkedHashMap<>(), options, new Date(), httpServletRequest.getRequestURI());
+        }
+
+        /**
+         * 模板用的属性，时间戳和路径为占位符
+         *
+         * @param options the options
+         * @return the map
+         */
+        public Map<String,Object> buildTemplate(ErrorAttributeOptions options){
+            return getErrorAttributes(new LinkedHashMap<>(), options, BlockResponseTemplates.TIMESTAMP_PLACEHOLDER, BlockResponseTemplates.PATH_PLACEHOLDER);
         }
 
-        protected Map<String, Object> getErrorAttributes(Map<String,Object> errorAttributes) {
-            errorAttributes.put(ErrorAttributeConstant.TIMESTAMP, new Date());
+        /**
+         * 只在需要时添加exception、message及trace，trace不包含时不打印堆栈
+         */
+        protected Map<String, Object> getErrorAttributes(Map<String,Object> errorAttributes, ErrorAttributeOptions options, Object timestamp, String path) {
+            errorAttributes.put(ErrorAttributeConstant.TIMESTAMP, timestamp);
             errorAttributes.put(ErrorAttributeConstant.STATUS, getStatus(this.httpServletRequest));
             errorAttributes.put(ErrorAttributeConstant.ERROR, HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase());
 
-            errorAttributes.put(ErrorAttributeConstant.EXCEPTION, exception.getClass().getName());
-            errorAttributes.put(ErrorAttributeConstant.PATH, httpServletRequest.getRequestURI());
-            addMessage(errorAttributes, exception);
-            addStackTrace(errorAttributes, exception);
+            if (options.isIncluded(ErrorAttributeOptions.Include.EXCEPTION)) {
+                errorAttributes.put(ErrorAttributeConstant.EXCEPTION, exception.getClass().getName());
+            }
+            errorAttributes.put(ErrorAttributeConstant.PATH, path);
+            if (options.isIncluded(ErrorAttributeOptions.Include.MESSAGE)) {
+                addMessage(errorAttributes, exception);
+            }
+            if (options.isIncluded(ErrorAttributeOptions.Include.STACK_TRACE)) {
+                addStackTrace(errorAttributes, exception);
+            }
             addErrorCode(errorAttributes,exception);
 
             return errorAttributes;
@@ -162,58 +250,5 @@ public class MyWebBlockExceptionHandler implements BlockExceptionHandler {
         protected HttpStatus getStatus(HttpServletRequest request) {
             return HttpStatus.INTERNAL_SERVER_ERROR;
         }
-
-        protected ErrorAttributeOptions getErrorAttributeOptions(HttpServletRequest request, MediaType mediaType) {
-            ErrorAttributeOptions options = ErrorAttributeOptions.defaults();
-            if (errorProperties.isIncludeException()) {
-                options = options.including(ErrorAttributeOptions.Include.EXCEPTION);
-            }
-            if (isIncludeStackTrace(request, mediaType)) {
-                options = options.including(ErrorAttributeOptions.Include.STACK_TRACE);
-            }
-            if (isIncludeMessage(request, mediaType)) {
-                options = options.including(ErrorAttributeOptions.Include.MESSAGE);
-            }
-            return options;
-        }
-
-        protected boolean isIncludeMessage(HttpServletRequest request, MediaType produces) {
-            switch (errorProperties.getIncludeMessage()) {
-                case ALWAYS:
-                    return true;
-                case ON_PARAM:
-                    return getMessageParameter(request);
-                default:
-                    return false;
-            }
-        }
-
-        protected boolean isIncludeStackTrace(HttpServletRequest request, MediaType produces) {
-            switch (errorProperties.getIncludeStacktrace()) {
-                case ALWAYS:
-                    return true;
-                case ON_PARAM:
-                    return getTraceParameter(request);
-                default:
-                    return false;
-            }
-        }
-
-        protected boolean getTraceParameter(HttpServletRequest request) {
-            return getBooleanParameter(request, ErrorAttributeConstant.TRACE);
-        }
-
-        protected boolean getBooleanParameter(HttpServletRequest request, String parameterName) {
-            String parameter = request.getParameter(parameterName);
-            if (parameter == null) {
-                return false;
-            }
-            return !"false".equalsIgnoreCase(parameter);
-        }
-
-        protected boolean getMessageParameter(HttpServletRequest request) {
-            return getBooleanParameter(request, ErrorAttributeConstant.MESSAGE);
-        }
     }
 }
-
@@ -16,9 +16,10 @@
 package com.hhao.cloud.sentinel.config.webflux;
 
 import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.hhao.cloud.sentinel.config.BlockResponseTemplates;
+import com.hhao.cloud.sentinel.config.SentinelConfigProperties;
 import com.hhao.common.exception.AbstractBaseRuntimeException;
 import com.hhao.common.exception.error.server.ServiceUnavailableException;
-import com.hhao.common.jackson.JacksonUtilFactory;
 import com.hhao.common.springboot.exception.util.ErrorAttributeConstant;
 import com.hhao.common.springboot.response.ResultWrapperBuilder;
 import org.slf4j.Logger;
@@ -38,21 +39,24 @@ import org.springframework.http.codec.ServerCodecConfigurer;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.ResponseStatus;
-import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebExceptionHandler;
 import reactor.core.publisher.Mono;
 
-import javax.servlet.http.HttpServletRequest;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Webflux BlockException处理基类
+ * 启用快速拒绝时，不需要输出message及trace的请求使用预先渲染的模板，
+ * 按contentLength从池化的DataBufferFactory分配buffer，只写入时间戳和路径；
+ * 不再创建ServerRequest，异常类对应的HttpStatus按类缓存
  * @author Wang
  * @since 2022/1/27 20:04
  */
@@ -61,14 +65,24 @@ public abstract class AbstractReactiveBlockExceptionHandler implements WebExcept
     protected ErrorProperties errorProperties;
     protected List<HttpMessageReader<?>> messageReaders = Collections.emptyList();
     protected List<HttpMessageWriter<?>> messageWriters = Collections.emptyList();
+    protected BlockResponseTemplates templates;
+    private final ConcurrentMap<Class<?>, HttpStatus> statuses = new ConcurrentHashMap<>();
 
-    @Autowired
     public AbstractReactiveBlockExceptionHandler(ServerProperties serverProperties, ServerCodecConfigurer serverCodecConfigurer) {
         this.errorProperties=serverProperties.getError();
         this.messageReaders=serverCodecConfigurer.getReaders();
         this.messageWriters=serverCodecConfigurer.getWriters();
     }
 
+    @Autowired
+    public AbstractReactiveBlockExceptionHandler(ServerProperties serverProperties, ServerCodecConfigurer serverCodecConfigurer, SentinelConfigProperties sentinelConfigProperties) {
+        this(serverProperties, serverCodecConfigurer);
+        SentinelConfigProperties.FastReject fastReject = sentinelConfigProperties.getFastReject();
+        if (fastReject != null && fastReject.getEnabled()) {
+            this.templates = new BlockResponseTemplates(fastReject.getMaxResources());
+        }
+    }
+
     @Override
     public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
         if (exchange.getResponse().isCommitted()) {
@@ -84,89 +98,178 @@ public abstract class AbstractReactiveBlockExceptionHandler implements WebExcept
     protected abstract Mono<ServerResponse> handleBlockedRequest(ServerWebExchange exchange, Throwable throwable);
 
     protected Mono<Void> writeResponse(ServerResponse response, ServerWebExchange exchange, Throwable throwable) {
-        MediaType mediaType =getMediaType(exchange.getRequest());
+        ServerHttpRequest request = exchange.getRequest();
+        MediaType mediaType =getMediaType(request);
         if (mediaType==null){
             mediaType=MediaType.APPLICATION_JSON;
         }
-
-        ServerRequest request = ServerRequest.create(exchange, this.messageReaders);
-        Map<String, Object> errorAttributes=new ErrorAttributesBuilder(new ServiceUnavailableException(throwable),request).build();
-        String responseInfo="";
+        boolean xml = mediaType.includes(MediaType.APPLICATION_XML);
+        ErrorAttributeOptions options = getErrorAttributeOptions(request, MediaType.ALL);
 
         ServerHttpResponse serverHttpResponse = exchange.getResponse();
         //serverHttpResponse.getHeaders().setAcceptCharset(Arrays.asList(StandardCharsets.UTF_8));
         //serverHttpResponse.getHeaders().add(HttpHeaders.ACCEPT_ENCODING,"UTF-8");
-
-        if (mediaType.includes(MediaType.APPLICATION_XML)){
-            serverHttpResponse.getHeaders().setContentType(MediaType.APPLICATION_XML);
-            responseInfo= JacksonUtilFactory.getXmlUtil().obj2String(ResultWrapperBuilder.error(errorAttributes));
-        }else{
-            serverHttpResponse.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-            responseInfo= JacksonUtilFactory.getJsonUtil().obj2String(ResultWrapperBuilder.error(errorAttributes));
+        serverHttpResponse.getHeaders().setContentType(xml ? MediaType.APPLICATION_XML : MediaType.APPLICATION_JSON);
+
+        if (templates != null && !options.isIncluded(ErrorAttributeOptions.Include.MESSAGE) && !options.isIncluded(ErrorAttributeOptions.Include.STACK_TRACE)) {
+            BlockException blockException = throwable instanceof BlockException ? (BlockException) throwable : null;
+            BlockResponseTemplates.Template template = templates.get(getResource(blockException), throwable.getClass(), xml,
+                    () -> new ErrorAttributesBuilder(new ServiceUnavailableException(throwable), request).buildTemplate(options));
+            if (template != null) {
+                byte[] timestamp = templates.timestamp(xml);
+                byte[] path = templates.path(request.getPath().pathWithinApplication().value(), xml);
+                int contentLength = template.contentLength(timestamp, path);
+                serverHttpResponse.getHeaders().setContentLength(contentLength);
+                DataBuffer buffer = template.write(serverHttpResponse.bufferFactory().allocateBuffer(contentLength), timestamp, path);
+                return serverHttpResponse.writeWith(Mono.just(buffer));
+            }
         }
 
+        Map<String, Object> errorAttributes=new ErrorAttributesBuilder(new ServiceUnavailableException(throwable),request).build(options);
+        String responseInfo=BlockResponseTemplates.render(ResultWrapperBuilder.error(errorAttributes), xml);
+
         byte[] datas =responseInfo.getBytes(StandardCharsets.UTF_8);
 
         DataBuffer buffer = serverHttpResponse.bufferFactory().wrap(datas);
         return serverHttpResponse.writeWith(Mono.just(buffer));
     }
 
+    private String getResource(BlockException e) {
+        if (e == null) {
+            return null;
+        }
+        return e.getRule() != null ? e.getRule().getResource() : e.getRuleLimitApp();
+    }
+
     private MediaType getMediaType(ServerHttpRequest request) {
         return request.getHeaders().getContentType();
     }
 
+    /**
+     * 异常类对应的HttpStatus，按类缓存，避免每次拒绝都解析注解
+     *
+     * @param error the error
+     * @return the http status
+     */
+    protected HttpStatus determineHttpStatus(Throwable error) {
+        if (error instanceof ResponseStatusException) {
+            return ((ResponseStatusException) error).getStatus();
+        }
+        HttpStatus status = statuses.get(error.getClass());
+        if (status == null) {
+            MergedAnnotation<ResponseStatus> responseStatusAnnotation = MergedAnnotations
+                    .from(error.getClass(), MergedAnnotations.SearchStrategy.TYPE_HIERARCHY).get(ResponseStatus.class);
+            status = responseStatusAnnotation.getValue("code", HttpStatus.class).orElse(HttpStatus.INTERNAL_SERVER_ERROR);
+            statuses.putIfAbsent(error.getClass(), status);
+        }
+        return status;
+    }
+
+    protected ErrorAttributeOptions getErrorAttributeOptions(ServerHttpRequest request, MediaType mediaType) {
+        ErrorAttributeOptions options = ErrorAttributeOptions.defaults();
+        if (errorProperties.isIncludeException()) {
+            options = options.including(ErrorAttributeOptions.Include.EXCEPTION);
+        }
+        if (isIncludeStackTrace(request, mediaType)) {
+            options = options.including(ErrorAttributeOptions.Include.STACK_TRACE);
+        }
+        if (isIncludeMessage(request, mediaType)) {
+            options = options.including(ErrorAttributeOptions.Include.MESSAGE);
+        }
+        return options;
+    }
+
+    protected boolean isIncludeStackTrace(ServerHttpRequest request, MediaType produces) {
+        switch (errorProperties.getIncludeStacktrace()) {
+            case ALWAYS:
+                return true;
+            case ON_PARAM:
+                return isTraceEnabled(request);
+            default:
+                return false;
+        }
+    }
+
+    protected boolean isTraceEnabled(ServerHttpRequest request) {
+        return getBooleanParameter(request, "trace");
+    }
+
+    protected boolean isIncludeMessage(ServerHttpRequest request, MediaType produces) {
+        switch (errorProperties.getIncludeMessage()) {
+            case ALWAYS:
+                return true;
+            case ON_PARAM:
+                return isMessageEnabled(request);
+            default:
+                return false;
+        }
+    }
+
+    protected boolean isMessageEnabled(ServerHttpRequest request) {
+        return getBooleanParameter(request, "message");
+    }
+
+    private boolean getBooleanParameter(ServerHttpRequest request, String parameterName) {
+        String parameter = request.getQueryParams().getFirst(parameterName);
+        if (parameter == null) {
+            return false;
+        }
+        return !"false".equalsIgnoreCase(parameter);
+    }
+
     public class ErrorAttributesBuilder{
-        private ServerRequest request;
+        private ServerHttpRequest request;
         private Exception exception;
 
-        public ErrorAttributesBuilder(Exception exception,ServerRequest request){
+        public ErrorAttributesBuilder(Exception exception,ServerHttpRequest request){
             this.exception=exception;
             this.request=request;
         }
 
         public Map<String,Object> build(){
-            ErrorAttributeOptions options=this.getErrorAttributeOptions(this.request,MediaType.ALL);
-            Map<String,Object> errorAttributes=new LinkedHashMap<>();
-            errorAttributes=getErrorAttributes(errorAttributes);
+            return build(getErrorAttributeOptions(this.request,MediaType.ALL));
+        }
 
-            if (!options.isIncluded(ErrorAttributeOptions.Include.EXCEPTION)) {
-                errorAttributes.remove(ErrorAttributeConstant.EXCEPTION);
-            }
-            if (!options.isIncluded(ErrorAttributeOptions.Include.STACK_TRACE)) {
-                errorAttributes.remove(ErrorAttributeConstant.TRACE);
-            }
-            if (!options.isIncluded(ErrorAttributeOptions.Include.MESSAGE) && errorAttributes.get(ErrorAttributeConstant.MESSAGE) != null) {
-                errorAttributes.remove(ErrorAttributeConstant.MESSAGE);
-            }
-            return errorAttributes;
+        public Map<String,Object> build(ErrorAttributeOptions options){
+            return getErrorAttributes(new LinkedHashMap<>(), options, new Date(), request.getPath().pathWithinApplication().value());
         }
 
-        protected Map<String, Object> getErrorAttributes(Map<String,Object> errorAttributes) {
-            errorAttributes.put(ErrorAttributeConstant.TIMESTAMP, new Date());
+        /**
+         * 模板用的属性，时间戳和路径为占位符
+         *
+         * @param options the options
+         * @return the map
+         */
+        public Map<String,Object> buildTemplate(ErrorAttributeOptions options){
+            return getErrorAttributes(new LinkedHashMap<>(), options, BlockResponseTemplates.TIMESTAMP_PLACEHOLDER, BlockResponseTemplates.PATH_PLACEHOLDER);
+        }
 
-            MergedAnnotation<ResponseStatus> responseStatusAnnotation = MergedAnnotations
-                    .from(exception.getClass(), MergedAnnotations.SearchStrategy.TYPE_HIERARCHY).get(ResponseStatus.class);
-            HttpStatus errorStatus = determineHttpStatus(exception, responseStatusAnnotation);
+        /**
+         * 只在需要时添加exception、message及trace，trace不包含时不打印堆栈
+         */
+        protected Map<String, Object> getErrorAttributes(Map<String,Object> errorAttributes, ErrorAttributeOptions options, Object timestamp, String path) {
+            errorAttributes.put(ErrorAttributeConstant.TIMESTAMP, timestamp);
+
+            HttpStatus errorStatus = determineHttpStatus(exception);
             errorAttributes.put(ErrorAttributeConstant.STATUS, errorStatus.value());
 
             errorAttributes.put(ErrorAttributeConstant.ERROR,errorStatus.getReasonPhrase());
 
-            errorAttributes.put(ErrorAttributeConstant.EXCEPTION, exception.getClass().getName());
-            errorAttributes.put(ErrorAttributeConstant.PATH, request.path());
-            addMessage(errorAttributes, exception);
-            addStackTrace(errorAttributes, exception);
+            if (options.isIncluded(ErrorAttributeOptions.Include.EXCEPTION)) {
+                errorAttributes.put(ErrorAttributeConstant.EXCEPTION, exception.getClass().getName());
+            }
+            errorAttributes.put(ErrorAttributeConstant.PATH, path);
+            if (options.isIncluded(ErrorAttributeOptions.Include.MESSAGE)) {
+                addMessage(errorAttributes, exception);
+            }
+            if (options.isIncluded(ErrorAttributeOptions.Include.STACK_TRACE)) {
+                addStackTrace(errorAttributes, exception);
+            }
             addErrorCode(errorAttributes,exception);
 
             return errorAttributes;
         }
 
-        private HttpStatus determineHttpStatus(Throwable error, MergedAnnotation<ResponseStatus> responseStatusAnnotation) {
-            if (error instanceof ResponseStatusException) {
-                return ((ResponseStatusException) error).getStatus();
-            }
-            return responseStatusAnnotation.getValue("code", HttpStatus.class).orElse(HttpStatus.INTERNAL_SERVER_ERROR);
-        }
-
         private void addMessage(Map<String, Object> errorAttributes, Throwable exception) {
             errorAttributes.put(ErrorAttributeConstant.MESSAGE, exception.getMessage());
         }
@@ -187,59 +290,5 @@ public abstract class AbstractReactiveBlockExceptionHandler implements WebExcept
             stackTrace.flush();
             errorAttributes.put(ErrorAttributeConstant.TRACE, stackTrace.toString());
         }
-
-        protected HttpStatus getStatus(HttpServletRequest request) {
-            return HttpStatus.INTERNAL_SERVER_ERROR;
-        }
-
-        protected ErrorAttributeOptions getErrorAttributeOptions(ServerRequest request, MediaType mediaType) {
-            ErrorAttributeOptions options = ErrorAttributeOptions.defaults();
-            if (errorProperties.isIncludeException()) {
-                options = options.including(ErrorAttributeOptions.Include.EXCEPTION);
-            }
-            if (isIncludeStackTrace(request, mediaType)) {
-                options = options.including(ErrorAttributeOptions.Include.STACK_TRACE);
-            }
-            if (isIncludeMessage(request, mediaType)) {
-                options = options.including(ErrorAttributeOptions.Include.MESSAGE);
-            }
-            return options;
-        }
-
-
-        protected boolean isIncludeStackTrace(ServerRequest request, MediaType produces) {
-            switch (errorProperties.getIncludeStacktrace()) {
-                case ALWAYS:
-                    return true;
-                case ON_PARAM:
-                    return isTraceEnabled(request);
-                default:
-                    return false;
-            }
-        }
-
-        protected boolean isTraceEnabled(ServerRequest request) {
-            return getBooleanParameter(request, "trace");
-        }
-
-        protected boolean isIncludeMessage(ServerRequest request, MediaType produces) {
-            switch (errorProperties.getIncludeMessage()) {
-                case ALWAYS:
-                    return true;
-                case ON_PARAM:
-                    return isMessageEnabled(request);
-                default:
-                    return false;
-            }
-        }
-
-        protected boolean isMessageEnabled(ServerRequest request) {
-            return getBooleanParameter(request, "message");
-        }
-
-        private boolean getBooleanParameter(ServerRequest request, String parameterName) {
-            String parameter = request.queryParam(parameterName).orElse("false");
-            return !"false".equalsIgnoreCase(parameter);
-        }
     }
 }
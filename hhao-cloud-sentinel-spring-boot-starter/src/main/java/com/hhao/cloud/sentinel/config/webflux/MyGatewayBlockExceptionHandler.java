@@ -16,6 +16,7 @@
 package com.hhao.cloud.sentinel.config.webflux;
 
 import com.alibaba.csp.sentinel.adapter.gateway.sc.callback.GatewayCallbackManager;
+import com.hhao.cloud.sentinel.config.SentinelConfigProperties;
 import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.http.codec.ServerCodecConfigurer;
 import org.springframework.web.reactive.function.server.ServerResponse;
@@ -44,6 +45,10 @@ public class MyGatewayBlockExceptionHandler extends AbstractReactiveBlockExcepti
         super(serverProperties, serverCodecConfigurer);
     }
 
+    public MyGatewayBlockExceptionHandler(ServerProperties serverProperties, ServerCodecConfigurer serverCodecConfigurer, SentinelConfigProperties sentinelConfigProperties) {
+        super(serverProperties, serverCodecConfigurer, sentinelConfigProperties);
+    }
+
     @Override
     protected Mono<ServerResponse> handleBlockedRequest(ServerWebExchange exchange, Throwable throwable) {
         return GatewayCallbackManager.getBlockHandler().handleRequest(exchange, throwable);
@@ -16,6 +16,7 @@
 package com.hhao.cloud.sentinel.config.webflux;
 
 import com.alibaba.csp.sentinel.adapter.spring.webflux.callback.WebFluxCallbackManager;
+import com.hhao.cloud.sentinel.config.SentinelConfigProperties;
 import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.http.codec.ServerCodecConfigurer;
 import org.springframework.web.reactive.function.server.ServerResponse;
@@ -35,6 +36,10 @@ public class MyWebfluxBlockExceptionHandler extends AbstractReactiveBlockExcepti
         super(serverProperties, serverCodecConfigurer);
     }
 
+    public MyWebfluxBlockExceptionHandler(ServerProperties serverProperties, ServerCodecConfigurer serverCodecConfigurer, SentinelConfigProperties sentinelConfigProperties) {
+        super(serverProperties, serverCodecConfigurer, sentinelConfigProperties);
+    }
+
     @Override
     protected Mono<ServerResponse> handleBlockedRequest(ServerWebExchange exchange, Throwable throwable) {
         return WebFluxCallbackManager.getBlockHandler().handleRequest(exchange, throwable);
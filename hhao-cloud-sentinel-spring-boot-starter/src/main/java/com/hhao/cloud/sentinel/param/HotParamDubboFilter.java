@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.param;
+
+import com.alibaba.csp.sentinel.ResourceTypeConstants;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import org.apache.dubbo.common.constants.CommonConstants;
+import org.apache.dubbo.common.extension.Activate;
+import org.apache.dubbo.rpc.Filter;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcException;
+
+import java.util.List;
+
+/**
+ * dubbo热点参数过滤
+ * 按接口名、接口名:方法名匹配HotParamRule的services，从方法参数(ARGUMENT)或attachment(HEADER)中提取参数进入规则的资源，
+ * 被拒绝时抛出LIMIT_EXCEEDED_EXCEPTION类型的RpcException；
+ * 与Sentinel的dubbo适配一样在Listener的onResponse/onError中退出，异步provider在结果完成时才释放；
+ * 排在SentinelDubboProviderFilter(order为0)之后，先经过接口级的流控；
+ * 通过META-INF/dubbo/org.apache.dubbo.rpc.Filter注册，没有规则时只有一次Map查找
+ *
+ * @author Wang
+ * @since 2026/10/19 16:05
+ */
+@Activate(group = CommonConstants.PROVIDER, order = HotParamDubboFilter.ORDER)
+public class HotParamDubboFilter implements Filter, Filter.Listener {
+    /**
+     * 过滤器顺序，在SentinelDubboProviderFilter之后
+     */
+    public static final int ORDER = 100;
+    private static final String ENTRIES_KEY = HotParamDubboFilter.class.getName() + ".entries";
+
+    @Override
+    public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
+        List<HotParamResolver> resolvers = HotParamRuleManager.getServiceResolvers(invoker.getInterface().getName(), invocation.getMethodName());
+        if (resolvers.isEmpty()) {
+            return invoker.invoke(invocation);
+        }
+        HotParamEntries entries = new HotParamEntries(true);
+        try {
+            for (HotParamResolver resolver : resolvers) {
+                entries.enter(resolver.getResource(), ResourceTypeConstants.COMMON_RPC, resolver.resolve(param -> extract(invocation, param)));
+            }
+        } catch (BlockException e) {
+            entries.exit(null);
+            throw new RpcException(RpcException.LIMIT_EXCEEDED_EXCEPTION, "Blocked by hot param rule, service: " + invoker.getInterface().getName()
+                    + ", method: " + invocation.getMethodName(), e);
+        }
+        invocation.put(ENTRIES_KEY, entries);
+        return invoker.invoke(invocation);
+    }
+
+    @Override
+    public void onResponse(Result appResponse, Invoker<?> invoker, Invocation invocation) {
+        exit(invocation, appResponse.hasException() ? appResponse.getException() : null);
+    }
+
+    @Override
+    public void onError(Throwable t, Invoker<?> invoker, Invocation invocation) {
+        exit(invocation, t);
+    }
+
+    private void exit(Invocation invocation, Throwable error) {
+        Object entries = invocation.get(ENTRIES_KEY);
+        if (entries != null) {
+            invocation.put(ENTRIES_KEY, null);
+            ((HotParamEntries) entries).exit(error);
+        }
+    }
+
+    private Object extract(Invocation invocation, HotParamRule.Param param) {
+        switch (param.getSource()) {
+            case ARGUMENT:
+                Object[] arguments = invocation.getArguments();
+                return arguments != null && param.getIndex() < arguments.length ? arguments[param.getIndex()] : null;
+            case HEADER:
+                return invocation.getAttachment(param.getName());
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.param;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.Tracer;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一次请求进入的热点参数资源，退出时需带上进入时的参数，否则ParamFlowSlot的线程数无法释放；
+ * 可能在其它线程退出时使用异步entry，不占用当前线程的调用链
+ *
+ * @author Wang
+ * @since 2026/10/19 15:20
+ */
+final class HotParamEntries {
+    private final List<Entry> entries = new ArrayList<>(2);
+    private final List<Object[]> args = new ArrayList<>(2);
+    private final boolean async;
+
+    /**
+     * 在进入的线程中退出
+     */
+    HotParamEntries() {
+        this(false);
+    }
+
+    /**
+     * Instantiates a new Hot param entries.
+     *
+     * @param async 是否可能在其它线程退出
+     */
+    HotParamEntries(boolean async) {
+        this.async = async;
+    }
+
+    /**
+     * 进入资源，被拒绝时抛出BlockException，调用方需exit已进入的资源
+     *
+     * @param resource     the resource
+     * @param resourceType the resource type
+     * @param args         the args
+     * @throws BlockException the block exception
+     */
+    void enter(String resource, int resourceType, Object[] args) throws BlockException {
+        Entry entry = async ? SphU.asyncEntry(resource, resourceType, EntryType.IN, args) : SphU.entry(resource, resourceType, EntryType.IN, args);
+        this.entries.add(entry);
+        this.args.add(args);
+    }
+
+    /**
+     * 按进入的相反顺序退出
+     *
+     * @param error 业务异常，可为null
+     */
+    void exit(Throwable error) {
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            Entry entry = entries.get(i);
+            if (error != null) {
+                Tracer.traceEntry(error, entry);
+            }
+            entry.exit(1, args.get(i));
+        }
+        entries.clear();
+        args.clear();
+    }
+
+    /**
+     * 是否没有进入任何资源
+     *
+     * @return the boolean
+     */
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.param;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.ResourceTypeConstants;
+import com.alibaba.csp.sentinel.adapter.reactor.ContextConfig;
+import com.alibaba.csp.sentinel.adapter.reactor.EntryConfig;
+import com.alibaba.csp.sentinel.adapter.reactor.SentinelReactorTransformer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * gateway热点参数过滤
+ * 按路由id匹配HotParamRule的routes，路径变量取自路由Path断言中的变量，
+ * 被拒绝时以ParamFlowException结束，由MyGatewayBlockExceptionHandler输出响应
+ *
+ * @author Wang
+ * @since 2026/10/19 15:55
+ */
+public class HotParamGatewayFilter implements GlobalFilter, Ordered {
+    /**
+     * 顺序
+     */
+    public static final int ORDER = 0;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !HotParamRuleManager.hasRouteResolvers()) {
+            return chain.filter(exchange);
+        }
+        List<HotParamResolver> resolvers = HotParamRuleManager.getRouteResolvers(route.getId());
+        if (resolvers.isEmpty()) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        Map<String, String> variables = ServerWebExchangeUtils.getUriTemplateVariables(exchange);
+        Mono<Void> result = chain.filter(exchange);
+        for (HotParamResolver resolver : resolvers) {
+            Object[] args = resolver.resolve(param -> extract(request, variables, param));
+            result = result.transform(new SentinelReactorTransformer<>(new EntryConfig(resolver.getResource(), ResourceTypeConstants.COMMON_API_GATEWAY,
+                    EntryType.IN, 1, args, new ContextConfig(HotParamWebFilter.CONTEXT_NAME))));
+        }
+        return result;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private Object extract(ServerHttpRequest request, Map<String, String> variables, HotParamRule.Param param) {
+        switch (param.getSource()) {
+            case HEADER:
+                return request.getHeaders().getFirst(param.getName());
+            case QUERY:
+                return request.getQueryParams().getFirst(param.getName());
+            case PATH_VARIABLE:
+                return variables.get(param.getName());
+            default:
+                return null;
+        }
+    }
+}
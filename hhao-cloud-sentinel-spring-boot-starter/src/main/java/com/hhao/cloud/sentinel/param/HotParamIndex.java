@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.param;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 有界热点参数索引
+ * sentinel的ParameterMetric对每个值都建立计数，容量满后按LRU淘汰；大量只出现一两次的值(用户id、商品id)
+ * 会把真正高频的值挤出去，计数随之清零，热点限流失效。
+ * 这里先用固定大小的count-min sketch统计频率，估计值达到admitThreshold的值才算热点，其余返回null不参与统计；
+ * sketch每记录4*width次后计数减半，旧的频率逐渐衰减；
+ * 热点值保存在两代ConcurrentHashMap中，当前代满maxKeys/2时整体降为上一代，上一代中再次访问的值提升到当前代，
+ * 两代都没有访问的值被丢弃，近似LRU且读不加锁。
+ * 内存上限为4*width个int加maxKeys个热点值
+ *
+ * @author Wang
+ * @since 2026/10/19 14:35
+ */
+public class HotParamIndex {
+    private static final int DEPTH = 4;
+    private final AtomicIntegerArray counters;
+    private final int mask;
+    private final int sampleSize;
+    private final int admitThreshold;
+    private final int generationSize;
+    private final AtomicInteger samples = new AtomicInteger();
+    private volatile ConcurrentMap<Object, Boolean> current;
+    private volatile ConcurrentMap<Object, Boolean> previous;
+
+    /**
+     * Instantiates a new Hot param index.
+     *
+     * @param width          sketch每行的计数器数，取不小于该值的2的幂
+     * @param admitThreshold 成为热点所需的估计次数
+     * @param maxKeys        热点值的最大数量
+     */
+    public HotParamIndex(int width, int admitThreshold, int maxKeys) {
+        int size = Integer.highestOneBit(Math.max(16, Math.min(width, 1 << 24)) - 1) << 1;
+        this.counters = new AtomicIntegerArray(size * DEPTH);
+        this.mask = size - 1;
+        this.sampleSize = size * DEPTH;
+        this.admitThreshold = Math.max(1, admitThreshold);
+        this.generationSize = Math.max(1, maxKeys / 2);
+        this.current = new ConcurrentHashMap<>(16);
+        this.previous = new ConcurrentHashMap<>(16);
+    }
+
+    /**
+     * 记录一次访问
+     *
+     * @param value the value
+     * @return 热点值返回value本身，否则返回null
+     */
+    public Object admit(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (current.containsKey(value)) {
+            return value;
+        }
+        if (previous.remove(value) != null) {
+            promote(value);
+            return value;
+        }
+        if (increment(value) >= admitThreshold) {
+            promote(value);
+            return value;
+        }
+        return null;
+    }
+
+    /**
+     * 当前热点值的数量
+     *
+     * @return the int
+     */
+    public int size() {
+        return current.size() + previous.size();
+    }
+
+    /**
+     * 频率估计值
+     *
+     * @param value the value
+     * @return the int
+     */
+    public int frequency(Object value) {
+        int hash = spread(value.hashCode());
+        int step = rehash(hash);
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            min = Math.min(min, counters.get(indexOf(hash, step, i)));
+        }
+        return min;
+    }
+
+    /**
+     * 保守更新：只增加等于最小值的计数器，冲突造成的高估比全部增加小得多；
+     * 并发下CAS失败时放弃本次增加，只会略微低估
+     */
+    private int increment(Object value) {
+        int hash = spread(value.hashCode());
+        int step = rehash(hash);
+        int[] indexes = new int[DEPTH];
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            indexes[i] = indexOf(hash, step, i);
+            min = Math.min(min, counters.get(indexes[i]));
+        }
+        for (int index : indexes) {
+            if (counters.get(index) == min) {
+                counters.compareAndSet(index, min, min + 1);
+            }
+        }
+        if (samples.incrementAndGet() >= sampleSize && samples.getAndSet(0) >= sampleSize) {
+            age();
+        }
+        return min + 1;
+    }
+
+    private void age() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, counters.get(i) >>> 1);
+        }
+    }
+
+    private void promote(Object value) {
+        ConcurrentMap<Object, Boolean> generation = current;
+        generation.put(value, Boolean.TRUE);
+        if (generation.size() >= generationSize) {
+            synchronized (this) {
+                if (current == generation) {
+                    previous = generation;
+                    current = new ConcurrentHashMap<>(16);
+                }
+            }
+        }
+    }
+
+    private int indexOf(int hash, int step, int row) {
+        return row * (mask + 1) + ((hash + row * step) & mask);
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int rehash(int hash) {
+        //奇数步长保证各行落在不同位置
+        return (hash * 0x9E3779B9 >>> 7) | 1;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.param;
+
+import com.alibaba.csp.sentinel.ResourceTypeConstants;
+import com.alibaba.csp.sentinel.adapter.spring.webmvc.callback.BlockExceptionHandler;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * mvc热点参数拦截
+ * 请求路径匹配HotParamRule的patterns时，从请求头、查询参数、路径变量中提取参数进入规则的资源，
+ * 被拒绝时交给BlockExceptionHandler输出响应；
+ * 只处理REQUEST类型的分发，异步请求在开始异步处理时退出，避免跨线程退出entry
+ *
+ * @author Wang
+ * @since 2026/10/19 15:30
+ */
+public class HotParamInterceptor implements AsyncHandlerInterceptor {
+    private static final String ENTRIES_ATTRIBUTE = HotParamInterceptor.class.getName() + ".ENTRIES";
+    private final BlockExceptionHandler blockExceptionHandler;
+
+    /**
+     * Instantiates a new Hot param interceptor.
+     *
+     * @param blockExceptionHandler the block exception handler
+     */
+    public HotParamInterceptor(BlockExceptionHandler blockExceptionHandler) {
+        this.blockExceptionHandler = blockExceptionHandler;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        List<HotParamResolver> resolvers = HotParamRuleManager.getWebResolvers();
+        if (resolvers.isEmpty() || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        PathContainer path = RequestPath.parse(request.getRequestURI(), request.getContextPath()).pathWithinApplication();
+        HotParamEntries entries = new HotParamEntries();
+        try {
+            for (HotParamResolver resolver : resolvers) {
+                Map<String, String> variables = resolver.match(path);
+                if (variables != null) {
+                    entries.enter(resolver.getResource(), ResourceTypeConstants.COMMON_WEB, resolver.resolve(param -> extract(request, variables, param)));
+                }
+            }
+        } catch (BlockException e) {
+            entries.exit(null);
+            blockExceptionHandler.handle(request, response, e);
+            return false;
+        }
+        if (!entries.isEmpty()) {
+            request.setAttribute(ENTRIES_ATTRIBUTE, entries);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        exit(request, null);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        exit(request, ex);
+    }
+
+    private void exit(HttpServletRequest request, Exception ex) {
+        Object entries = request.getAttribute(ENTRIES_ATTRIBUTE);
+        if (entries != null) {
+            request.removeAttribute(ENTRIES_ATTRIBUTE);
+            ((HotParamEntries) entries).exit(ex);
+        }
+    }
+
+    private Object extract(HttpServletRequest request, Map<String, String> variables, HotParamRule.Param param) {
+        switch (param.getSource()) {
+            case HEADER:
+                return request.getHeader(param.getName());
+            case QUERY:
+                return request.getParameter(param.getName());
+            case PATH_VARIABLE:
+                return variables.get(param.getName());
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.param;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PatternParseException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 编译后的热点参数规则
+ * 持有解析后的路径模式及每个参数各自的HotParamIndex，规则不变时重新加载沿用，已统计的频率不丢失
+ *
+ * @author Wang
+ * @since 2026/10/19 14:50
+ */
+public class HotParamResolver {
+    private static final Logger logger = LoggerFactory.getLogger(HotParamResolver.class);
+    private final HotParamRule rule;
+    private final List<PathPattern> patterns;
+    private final HotParamIndex[] indexes;
+
+    /**
+     * Instantiates a new Hot param resolver.
+     *
+     * @param rule           the rule
+     * @param width          the width
+     * @param admitThreshold the admit threshold
+     * @param maxKeys        the max keys
+     */
+    public HotParamResolver(HotParamRule rule, int width, int admitThreshold, int maxKeys) {
+        this.rule = rule;
+        List<PathPattern> parsed = new ArrayList<>();
+        if (rule.getPatterns() != null) {
+            for (String pattern : rule.getPatterns()) {
+                try {
+                    parsed.add(PathPatternParser.defaultInstance.parse(pattern));
+                } catch (PatternParseException e) {
+                    logger.warn("Ignoring invalid hot param pattern {} of resource {}: {}", pattern, rule.getResource(), e.getMessage());
+                }
+            }
+        }
+        this.patterns = Collections.unmodifiableList(parsed);
+        this.indexes = new HotParamIndex[rule.getParams().size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = new HotParamIndex(width, admitThreshold, maxKeys);
+        }
+    }
+
+    /**
+     * 匹配web路径
+     *
+     * @param path 应用内路径
+     * @return 匹配时返回路径变量，不匹配返回null
+     */
+    public Map<String, String> match(PathContainer path) {
+        for (PathPattern pattern : patterns) {
+            PathPattern.PathMatchInfo info = pattern.matchAndExtract(path);
+            if (info != null) {
+                return info.getUriVariables();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按params顺序提取参数并经过索引过滤
+     *
+     * @param extractor 从请求中取出参数原始值，取不到返回null
+     * @return sentinel参数
+     */
+    public Object[] resolve(Function<HotParamRule.Param, Object> extractor) {
+        List<HotParamRule.Param> params = rule.getParams();
+        Object[] args = new Object[indexes.length];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = indexes[i].admit(extractor.apply(params.get(i)));
+        }
+        return args;
+    }
+
+    /**
+     * 资源名
+     *
+     * @return the resource
+     */
+    public String getResource() {
+        return rule.getResource();
+    }
+
+    /**
+     * Gets rule.
+     *
+     * @return the rule
+     */
+    public HotParamRule getRule() {
+        return rule;
+    }
+
+    /**
+     * 各参数的索引，顺序与params一致
+     *
+     * @return the hot param index [ ]
+     */
+    public HotParamIndex[] getIndexes() {
+        return indexes.clone();
+    }
+}
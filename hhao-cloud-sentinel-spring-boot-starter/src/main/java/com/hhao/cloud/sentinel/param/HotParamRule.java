@@ -0,0 +1,316 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.param;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 热点参数提取规则
+ * 请求匹配patterns(web路径)、routes(gateway路由id)或services(dubbo接口)时，按params依次提取参数，
+ * 以params的顺序作为参数下标进入resource，ParamFlowRule的paramIdx即对应params中的位置；
+ * 参数值先经过HotParamIndex，只有高频的值才作为参数传给sentinel，其余传null不参与热点统计
+ *
+ * @author Wang
+ * @since 2026/10/19 14:20
+ */
+public class HotParamRule {
+    /**
+     * sentinel资源名，ParamFlowRule配置在该资源上
+     */
+    private String resource;
+    /**
+     * web路径，PathPattern格式，如/orders/{id}，适用于mvc、webflux及gateway
+     */
+    private List<String> patterns = new ArrayList<>();
+    /**
+     * gateway路由id
+     */
+    private List<String> routes = new ArrayList<>();
+    /**
+     * dubbo服务，接口名或接口名:方法名
+     */
+    private List<String> services = new ArrayList<>();
+    /**
+     * 提取的参数
+     */
+    private List<Param> params = new ArrayList<>();
+
+    /**
+     * 参数来源
+     */
+    public enum Source {
+        /**
+         * 请求头，dubbo为attachment
+         */
+        HEADER,
+        /**
+         * 查询参数
+         */
+        QUERY,
+        /**
+         * 路径变量，web为patterns中的变量，gateway为Path断言中的变量
+         */
+        PATH_VARIABLE,
+        /**
+         * dubbo方法参数下标
+         */
+        ARGUMENT
+    }
+
+    /**
+     * 规则是否有效
+     *
+     * @return the boolean
+     */
+    public boolean isValid() {
+        if (resource == null || resource.isEmpty() || params == null || params.isEmpty()) {
+            return false;
+        }
+        for (Param param : params) {
+            if (param == null || !param.isValid()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets resource.
+     *
+     * @return the resource
+     */
+    public String getResource() {
+        return resource;
+    }
+
+    /**
+     * Sets resource.
+     *
+     * @param resource the resource
+     */
+    public void setResource(String resource) {
+        this.resource = resource;
+    }
+
+    /**
+     * Gets patterns.
+     *
+     * @return the patterns
+     */
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Sets patterns.
+     *
+     * @param patterns the patterns
+     */
+    public void setPatterns(List<String> patterns) {
+        this.patterns = patterns;
+    }
+
+    /**
+     * Gets routes.
+     *
+     * @return the routes
+     */
+    public List<String> getRoutes() {
+        return routes;
+    }
+
+    /**
+     * Sets routes.
+     *
+     * @param routes the routes
+     */
+    public void setRoutes(List<String> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * Gets services.
+     *
+     * @return the services
+     */
+    public List<String> getServices() {
+        return services;
+    }
+
+    /**
+     * Sets services.
+     *
+     * @param services the services
+     */
+    public void setServices(List<String> services) {
+        this.services = services;
+    }
+
+    /**
+     * Gets params.
+     *
+     * @return the params
+     */
+    public List<Param> getParams() {
+        return params;
+    }
+
+    /**
+     * Sets params.
+     *
+     * @param params the params
+     */
+    public void setParams(List<Param> params) {
+        this.params = params;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HotParamRule that = (HotParamRule) o;
+        return Objects.equals(resource, that.resource) && Objects.equals(patterns, that.patterns) && Objects.equals(routes, that.routes)
+                && Objects.equals(services, that.services) && Objects.equals(params, that.params);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(resource, patterns, routes, services, params);
+    }
+
+    @Override
+    public String toString() {
+        return "HotParamRule{" +
+                "resource=" + resource +
+                ", patterns=" + patterns +
+                ", routes=" + routes +
+                ", services=" + services +
+                ", params=" + params +
+                '}';
+    }
+
+    /**
+     * 参数
+     */
+    public static class Param {
+        /**
+         * 来源
+         */
+        private Source source;
+        /**
+         * HEADER、QUERY、PATH_VARIABLE:参数名
+         */
+        private String name;
+        /**
+         * ARGUMENT:参数下标
+         */
+        private Integer index;
+
+        /**
+         * 参数是否有效
+         *
+         * @return the boolean
+         */
+        public boolean isValid() {
+            if (source == Source.ARGUMENT) {
+                return index != null && index >= 0;
+            }
+            return source != null && name != null && !name.isEmpty();
+        }
+
+        /**
+         * Gets source.
+         *
+         * @return the source
+         */
+        public Source getSource() {
+            return source;
+        }
+
+        /**
+         * Sets source.
+         *
+         * @param source the source
+         */
+        public void setSource(Source source) {
+            this.source = source;
+        }
+
+        /**
+         * Gets name.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Sets name.
+         *
+         * @param name the name
+         */
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Gets index.
+         *
+         * @return the index
+         */
+        public Integer getIndex() {
+            return index;
+        }
+
+        /**
+         * Sets index.
+         *
+         * @param index the index
+         */
+        public void setIndex(Integer index) {
+            this.index = index;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Param param = (Param) o;
+            return source == param.source && Objects.equals(name, param.name) && Objects.equals(index, param.index);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, name, index);
+        }
+
+        @Override
+        public String toString() {
+            return source == Source.ARGUMENT ? source + "[" + index + "]" : source + ":" + name;
+        }
+    }
+}
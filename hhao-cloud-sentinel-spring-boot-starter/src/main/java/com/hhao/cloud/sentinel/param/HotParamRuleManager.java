@@ -0,0 +1,239 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.param;
+
+import com.alibaba.csp.sentinel.property.DynamicSentinelProperty;
+import com.alibaba.csp.sentinel.property.PropertyListener;
+import com.alibaba.csp.sentinel.property.SentinelProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 热点参数规则管理
+ * 与FlowRuleManager一样，可直接loadRules，也可通过register2Property接入nacos等动态数据源；
+ * 这里只管理参数提取规则，限流阈值仍由ParamFlowRuleManager中的ParamFlowRule决定
+ *
+ * @author Wang
+ * @since 2026/10/19 15:05
+ */
+public final class HotParamRuleManager {
+    private static final Logger logger = LoggerFactory.getLogger(HotParamRuleManager.class);
+    private static final RulePropertyListener LISTENER = new RulePropertyListener();
+    private static volatile int sketchWidth = 16384;
+    private static volatile int admitThreshold = 8;
+    private static volatile int maxKeys = 4000;
+    private static volatile Rules rules = new Rules(Collections.emptyList());
+    private static SentinelProperty<List<HotParamRule>> currentProperty = new DynamicSentinelProperty<>();
+
+    static {
+        currentProperty.addListener(LISTENER);
+    }
+
+    private HotParamRuleManager() {
+    }
+
+    /**
+     * 设置索引大小，对之后新建的规则生效
+     *
+     * @param sketchWidth    sketch每行的计数器数
+     * @param admitThreshold 成为热点所需的估计次数
+     * @param maxKeys        每个参数保留的热点值数量
+     */
+    public static void configure(int sketchWidth, int admitThreshold, int maxKeys) {
+        HotParamRuleManager.sketchWidth = sketchWidth;
+        HotParamRuleManager.admitThreshold = admitThreshold;
+        HotParamRuleManager.maxKeys = maxKeys;
+    }
+
+    /**
+     * 接入动态数据源
+     *
+     * @param property the property
+     */
+    public static void register2Property(SentinelProperty<List<HotParamRule>> property) {
+        synchronized (LISTENER) {
+            currentProperty.removeListener(LISTENER);
+            property.addListener(LISTENER);
+            currentProperty = property;
+        }
+    }
+
+    /**
+     * 加载规则，替换全部已有规则
+     *
+     * @param rules the rules
+     */
+    public static void loadRules(List<HotParamRule> rules) {
+        currentProperty.updateValue(rules);
+    }
+
+    /**
+     * Gets rules.
+     *
+     * @return the rules
+     */
+    public static List<HotParamRule> getRules() {
+        List<HotParamRule> result = new ArrayList<>();
+        for (HotParamResolver resolver : rules.all) {
+            result.add(resolver.getRule());
+        }
+        return result;
+    }
+
+    /**
+     * 全部规则
+     *
+     * @return the resolvers
+     */
+    public static List<HotParamResolver> getResolvers() {
+        return rules.all;
+    }
+
+    /**
+     * 配置了patterns的规则
+     *
+     * @return the web resolvers
+     */
+    public static List<HotParamResolver> getWebResolvers() {
+        return rules.web;
+    }
+
+    /**
+     * gateway路由的规则
+     *
+     * @param routeId the route id
+     * @return the route resolvers
+     */
+    public static List<HotParamResolver> getRouteResolvers(String routeId) {
+        return rules.routes.getOrDefault(routeId, Collections.emptyList());
+    }
+
+    /**
+     * 是否有gateway路由的规则
+     *
+     * @return the boolean
+     */
+    public static boolean hasRouteResolvers() {
+        return !rules.routes.isEmpty();
+    }
+
+    /**
+     * dubbo服务的规则，先按接口名:方法名，再按接口名查找
+     *
+     * @param interfaceName the interface name
+     * @param methodName    the method name
+     * @return the service resolvers
+     */
+    public static List<HotParamResolver> getServiceResolvers(String interfaceName, String methodName) {
+        Map<String, List<HotParamResolver>> services = rules.services;
+        if (services.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<HotParamResolver> byMethod = services.get(interfaceName + ":" + methodName);
+        List<HotParamResolver> byInterface = services.get(interfaceName);
+        if (byMethod == null) {
+            return byInterface == null ? Collections.emptyList() : byInterface;
+        }
+        if (byInterface == null) {
+            return byMethod;
+        }
+        List<HotParamResolver> merged = new ArrayList<>(byMethod);
+        merged.addAll(byInterface);
+        return merged;
+    }
+
+    private static synchronized void applyRules(List<HotParamRule> list) {
+        Map<HotParamRule, HotParamResolver> old = new HashMap<>();
+        for (HotParamResolver resolver : rules.all) {
+            old.put(resolver.getRule(), resolver);
+        }
+        List<HotParamResolver> updated = new ArrayList<>();
+        Set<String> resources = new LinkedHashSet<>();
+        if (list != null) {
+            for (HotParamRule rule : list) {
+                if (rule == null || !rule.isValid()) {
+                    logger.warn("Ignoring invalid hot param rule: {}", rule);
+                    continue;
+                }
+                if (!resources.add(rule.getResource())) {
+                    logger.warn("Duplicate hot param rule for resource {}, only the first one is used", rule.getResource());
+                    continue;
+                }
+                HotParamResolver resolver = old.get(rule);
+                updated.add(resolver != null ? resolver : new HotParamResolver(rule, sketchWidth, admitThreshold, maxKeys));
+            }
+        }
+        rules = new Rules(updated);
+        logger.info("Hot param rules loaded: {}", resources);
+    }
+
+    /**
+     * 按匹配方式分组的规则，整体替换
+     */
+    private static class Rules {
+        private final List<HotParamResolver> all;
+        private final List<HotParamResolver> web;
+        private final Map<String, List<HotParamResolver>> routes;
+        private final Map<String, List<HotParamResolver>> services;
+
+        Rules(List<HotParamResolver> resolvers) {
+            List<HotParamResolver> web = new ArrayList<>();
+            Map<String, List<HotParamResolver>> routes = new HashMap<>();
+            Map<String, List<HotParamResolver>> services = new HashMap<>();
+            for (HotParamResolver resolver : resolvers) {
+                HotParamRule rule = resolver.getRule();
+                if (rule.getPatterns() != null && !rule.getPatterns().isEmpty()) {
+                    web.add(resolver);
+                }
+                if (rule.getRoutes() != null) {
+                    for (String route : rule.getRoutes()) {
+                        routes.computeIfAbsent(route, key -> new ArrayList<>()).add(resolver);
+                    }
+                }
+                if (rule.getServices() != null) {
+                    for (String service : rule.getServices()) {
+                        services.computeIfAbsent(service, key -> new ArrayList<>()).add(resolver);
+                    }
+                }
+            }
+            this.all = Collections.unmodifiableList(new ArrayList<>(resolvers));
+            this.web = Collections.unmodifiableList(web);
+            this.routes = Collections.unmodifiableMap(routes);
+            this.services = Collections.unmodifiableMap(services);
+        }
+    }
+
+    private static class RulePropertyListener implements PropertyListener<List<HotParamRule>> {
+
+        @Override
+        public void configUpdate(List<HotParamRule> value) {
+            applyRules(value);
+        }
+
+        @Override
+        public void configLoad(List<HotParamRule> value) {
+            applyRules(value);
+        }
+    }
+}
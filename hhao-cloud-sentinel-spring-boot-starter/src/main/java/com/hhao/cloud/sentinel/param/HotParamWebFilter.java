@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020-2021 WangSheng.
+ *
+ * Licensed under the GNU GENERAL PUBLIC LICENSE, Version 3 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.gnu.org/licenses/gpl-3.0.html
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hhao.cloud.sentinel.param;
+
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.ResourceTypeConstants;
+import com.alibaba.csp.sentinel.adapter.reactor.ContextConfig;
+import com.alibaba.csp.sentinel.adapter.reactor.EntryConfig;
+import com.alibaba.csp.sentinel.adapter.reactor.SentinelReactorTransformer;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * webflux热点参数过滤
+ * 请求路径匹配HotParamRule的patterns时，从请求头、查询参数、路径变量中提取参数进入规则的资源，
+ * 被拒绝时以ParamFlowException结束，由MyWebfluxBlockExceptionHandler输出响应；
+ * gateway应用同样生效，按路由匹配见HotParamGatewayFilter
+ *
+ * @author Wang
+ * @since 2026/10/19 15:45
+ */
+public class HotParamWebFilter implements WebFilter, Ordered {
+    /**
+     * context名称
+     */
+    public static final String CONTEXT_NAME = "sentinel_hot_param_context";
+    /**
+     * 顺序
+     */
+    public static final int ORDER = 0;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        List<HotParamResolver> resolvers = HotParamRuleManager.getWebResolvers();
+        if (resolvers.isEmpty()) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        PathContainer path = request.getPath().pathWithinApplication();
+        Mono<Void> result = chain.filter(exchange);
+        for (HotParamResolver resolver : resolvers) {
+            Map<String, String> variables = resolver.match(path);
+            if (variables != null) {
+                Object[] args = resolver.resolve(param -> extract(request, variables, param));
+                result = result.transform(new SentinelReactorTransformer<>(new EntryConfig(resolver.getResource(), ResourceTypeConstants.COMMON_WEB,
+                        EntryType.IN, 1, args, new ContextConfig(CONTEXT_NAME))));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private Object extract(ServerHttpRequest request, Map<String, String> variables, HotParamRule.Param param) {
+        switch (param.getSource()) {
+            case HEADER:
+                return request.getHeaders().getFirst(param.getName());
+            case QUERY:
+                return request.getQueryParams().getFirst(param.getName());
+            case PATH_VARIABLE:
+                return variables.get(param.getName());
+            default:
+                return null;
+        }
+    }
+}